@@ -0,0 +1,166 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ *
+ * Performance benchmarks for the emulator core (tnvt, Screen5250, ScreenPlanes)
+ * Critical path: host record -> screen planes -> field table -> text
+ * Run with allocation profiling: ./gradlew jmh (profilers = ['gc'])
+ */
+
+package org.hti5250j.benchmark;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.Session5250;
+import org.hti5250j.SessionConfig;
+import org.hti5250j.encoding.CCSIDFactory;
+import org.hti5250j.encoding.builtin.CodepageConverterAdapter;
+import org.hti5250j.framework.tn5250.BenchmarkAccess;
+import org.hti5250j.framework.tn5250.GdsRecordEncoder;
+import org.hti5250j.framework.tn5250.Screen5250;
+import org.hti5250j.framework.tn5250.ScreenField;
+import org.hti5250j.framework.tn5250.ScreenPlanes;
+import org.hti5250j.framework.tn5250.tnvt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emulator core micro-benchmarks driven by recorded 5250 records.
+ * Every benchmark calls the production classes; nothing is simulated.
+ *
+ * Each thread owns one tnvt/Screen5250 pair. The records from
+ * {@link RecordedStreams} are replayed once during setup so the screen,
+ * planes and field table hold a realistic screen before measuring.
+ *
+ * Operations measured per screen geometry (24x80, 27x132):
+ * - replayDataStream: all records of the session through tnvt
+ *   (parseIncoming, writeToDisplay, field table build)
+ * - setChar: one full screen of characters into ScreenPlanes
+ * - readFormatTable: MDT read of every input field, encoded as the AID key record
+ * - getScreenAsChars: screen text as handed to workflow assertions
+ * - ebcdic2uni: decoding every byte of the session's records
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmulatorCoreBenchmark {
+
+    @Param({"24x80", "27x132"})
+    public String geometry;
+
+    private List<byte[]> records;
+    private tnvt vt;
+    private Screen5250 screen;
+    private ScreenPlanes planes;
+    private CodepageConverterAdapter converter;
+    private GdsRecordEncoder formatTable;
+    private char[][] frames;
+    private int frame;
+    private byte[] ebcdic;
+    private char[] unicode;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Properties props = new Properties();
+        props.setProperty("host", "localhost");
+        SessionConfig config = new SessionConfig("benchmark.properties", "benchmark");
+        Session5250 session = new Session5250(props, "benchmark.properties", "benchmark", config);
+
+        screen = new Screen5250();
+        vt = new tnvt(session, screen, true, true);
+        records = RecordedStreams.load(geometry);
+        replayDataStream();
+
+        planes = BenchmarkAccess.planes(screen);
+        converter = CCSIDFactory.getConverter("37");
+        converter.init();
+        formatTable = new GdsRecordEncoder(screen.getScreenLength());
+
+        int n = 0;
+        for (ScreenField field : screen.getScreenFields().getFields()) {
+            field.setString("VALUE" + n++);
+        }
+
+        frames = new char[2][screen.getScreenLength()];
+        char[] text = screen.getScreenAsChars();
+        for (int i = 0; i < text.length; i++) {
+            frames[0][i] = text[i];
+            frames[1][i] = (char) ('A' + i % 26);
+        }
+
+        int size = 0;
+        for (byte[] record : records) {
+            size += record.length;
+        }
+        ebcdic = new byte[size];
+        int off = 0;
+        for (byte[] record : records) {
+            System.arraycopy(record, 0, ebcdic, off, record.length);
+            off += record.length;
+        }
+        unicode = new char[size];
+    }
+
+    /**
+     * Benchmark: host records through the data stream parser
+     * Measures tnvt.parseIncoming/writeToDisplay into Screen5250
+     */
+    @Benchmark
+    @Threads(1)
+    public int replayDataStream() {
+        for (byte[] record : records) {
+            BenchmarkAccess.processDataStream(vt, record);
+        }
+        return screen.getScreenFields().getSize();
+    }
+
+    /**
+     * Benchmark: full screen of characters into the planes
+     * Alternates two frames so every cell changes
+     */
+    @Benchmark
+    @Threads(1)
+    public ScreenPlanes setChar() {
+        char[] chars = frames[frame ^= 1];
+        for (int pos = 0; pos < chars.length; pos++) {
+            BenchmarkAccess.setChar(planes, pos, chars[pos]);
+        }
+        return planes;
+    }
+
+    /**
+     * Benchmark: modified-field read for the AID response
+     */
+    @Benchmark
+    @Threads(1)
+    public int readFormatTable() {
+        return BenchmarkAccess.readFormatTable(screen, formatTable,
+                HTI5250jConstants.CMD_READ_MDT_FIELDS, converter);
+    }
+
+    /**
+     * Benchmark: screen text snapshot
+     */
+    @Benchmark
+    @Threads(1)
+    public char[] getScreenAsChars() {
+        return screen.getScreenAsChars();
+    }
+
+    /**
+     * Benchmark: EBCDIC to Unicode through the single-byte converter
+     */
+    @Benchmark
+    @Threads(1)
+    public char[] ebcdic2uni() {
+        for (int i = 0; i < ebcdic.length; i++) {
+            unicode[i] = converter.ebcdic2uni(ebcdic[i]);
+        }
+        return unicode;
+    }
+}
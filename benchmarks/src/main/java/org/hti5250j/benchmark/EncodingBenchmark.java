@@ -3,112 +3,112 @@
  * SPDX-License-Identifier: GPL-2.0-or-later
  *
  * Performance benchmarks for encoding layer (codec operations)
- * Critical path: Character encoding/decoding
- * SLA Target: <100µs per operation (throughput: >10,000 ops/sec)
+ * Critical path: EBCDIC conversion of screen and field data
  */
 
 package org.hti5250j.benchmark;
 
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.ICodePage;
 import org.openjdk.jmh.annotations.*;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Encoding layer micro-benchmarks.
- * Measures codec performance under realistic workloads.
- *
- * Baseline (2026-02-13):
- * - ASCII encode: ~2µs per 1024-byte buffer
- * - ASCII decode: ~1µs per 1024-byte buffer
- * - EBCDIC encode: ~5µs per 1024-byte buffer
- * - EBCDIC decode: ~4µs per 1024-byte buffer
- *
- * SLA enforcement: Fails if >50% regression from baseline
+ * Encoding layer micro-benchmarks: converting a 27x132 screen's worth of
+ * EBCDIC through {@link ICodePage}, one call per character as the emulator
+ * used to, and with the bulk {@code decode}/{@code encode} methods.
+ * <p>
+ * {@code codePage} selects a built-in single byte table ("37", "273") or a
+ * code page that is not built in ("Cp1047"), whose bulk methods are the
+ * per-character defaults.
  */
 @State(Scope.Benchmark)
-@Fork(value = 1, warmupIterations = 5, iterations = 10)
+@Fork(1)
 @Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
 public class EncodingBenchmark {
 
-    private byte[] asciiBuffer;
-    private byte[] ebcdicBuffer;
-    private String testString;
+    private static final int LENGTH = 27 * 132;
+
+    @Param({"37", "273", "Cp1047"})
+    private String codePage;
+
+    private ICodePage cp;
+    private byte[] ebcdic;
+    private char[] unicode;
+    private ByteBuffer direct;
 
     @Setup(Level.Trial)
     public void setup() {
-        // Prepare test data: 1024-byte realistic encoding workload
-        testString = generateTestString(1024);
-        asciiBuffer = testString.getBytes(StandardCharsets.US_ASCII);
-        ebcdicBuffer = new byte[1024];
+        cp = CharMappings.getCodePage(codePage);
+        String pattern = "Work with Active Jobs   CPU %: 12.5   Elapsed time: 00:00:00   QPADEV0001 QUSER ";
+        unicode = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            unicode[i] = pattern.charAt(i % pattern.length());
+        }
+        ebcdic = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            ebcdic[i] = cp.uni2ebcdic(unicode[i]);
+        }
+        direct = ByteBuffer.allocateDirect(LENGTH);
+        direct.put(ebcdic).flip();
     }
 
     /**
-     * Benchmark: ASCII encoding throughput
-     * SLA: >100,000 ops/sec on 1KB buffers
+     * Benchmark: one ebcdic2uni call per byte
      */
     @Benchmark
-    @Threads(4)
-    public byte[] benchmarkAsciiEncode() {
-        return testString.getBytes(StandardCharsets.US_ASCII);
+    public char[] decodePerChar() {
+        char[] out = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            out[i] = cp.ebcdic2uni(ebcdic[i] & 0xff);
+        }
+        return out;
     }
 
     /**
-     * Benchmark: ASCII decoding throughput
-     * SLA: >200,000 ops/sec on 1KB buffers
+     * Benchmark: one bulk decode of the screen
      */
     @Benchmark
-    @Threads(4)
-    public String benchmarkAsciiDecode() {
-        return new String(asciiBuffer, StandardCharsets.US_ASCII);
+    public char[] decodeBulk() {
+        char[] out = new char[LENGTH];
+        cp.decode(ebcdic, 0, LENGTH, out, 0);
+        return out;
     }
 
     /**
-     * Benchmark: Codec switching (typical terminal sequence)
-     * SLA: <10µs per switch
-     * Measures context switch overhead in multi-codec scenarios
+     * Benchmark: bulk decode from a direct buffer, as read from a socket
      */
     @Benchmark
-    @Threads(4)
-    public int benchmarkCodecSwitch() {
-        int switchCount = 0;
-        for (int i = 0; i < 100; i++) {
-            // Simulate codec selection logic
-            if ((i & 1) == 0) {
-                testString.getBytes(StandardCharsets.US_ASCII);
-            } else {
-                new String(asciiBuffer, StandardCharsets.UTF_8);
-            }
-            switchCount++;
-        }
-        return switchCount;
+    public char[] decodeDirectBuffer() {
+        char[] out = new char[LENGTH];
+        cp.decode(direct.duplicate(), LENGTH, out, 0);
+        return out;
     }
 
     /**
-     * Benchmark: Bulk buffer encoding (batch operation)
-     * SLA: >1,000,000 ops/sec (accumulate)
-     * Measures throughput for batch encoding of multiple buffers
+     * Benchmark: one uni2ebcdic call per character
      */
     @Benchmark
-    @Threads(4)
-    public long benchmarkBulkEncoding() {
-        long totalBytes = 0;
-        for (int i = 0; i < 10; i++) {
-            totalBytes += testString.getBytes(StandardCharsets.US_ASCII).length;
+    public byte[] encodePerChar() {
+        byte[] out = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            out[i] = cp.uni2ebcdic(unicode[i]);
         }
-        return totalBytes;
+        return out;
     }
 
-    private String generateTestString(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        String pattern = "Hello, World! ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789 ";
-        while (sb.length() < length) {
-            sb.append(pattern);
-        }
-        return sb.substring(0, length);
+    /**
+     * Benchmark: one bulk encode of the screen
+     */
+    @Benchmark
+    public byte[] encodeBulk() {
+        byte[] out = new byte[LENGTH];
+        cp.encode(unicode, 0, LENGTH, out, 0);
+        return out;
     }
 }
@@ -0,0 +1,306 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ *
+ * 5250 host records replayed by the emulator core benchmarks
+ */
+
+package org.hti5250j.benchmark;
+
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.ICodePage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Host records for the emulator core benchmarks, exactly as
+ * {@code DataStreamProducer} queues them for tnvt: GDS header, 5250 commands
+ * and orders, trailing IAC EOR.
+ * <p>
+ * Two sessions are built in:
+ * <ul>
+ * <li>{@code 24x80} - sign-on screen, sign-on error, main menu</li>
+ * <li>{@code 27x132} - wide subfile list, then the next page of it</li>
+ * </ul>
+ * Records captured from a real host can be replayed instead by pointing the
+ * {@value #CAPTURE_DIR_PROPERTY} system property at a directory with one
+ * sub-directory per geometry. Each file holds one record, as written by
+ * {@code DataStreamDumper.dumpRaw}; files are replayed in name order.
+ */
+public final class RecordedStreams {
+
+    public static final String CAPTURE_DIR_PROPERTY = "hti5250j.benchmark.captures";
+
+    private static final int OPCODE_PUT_GET = 3;
+
+    private static final int ATTR_NORMAL = 0x20;
+    private static final int ATTR_REVERSE = 0x21;
+    private static final int ATTR_HIGH = 0x22;
+    private static final int ATTR_UNDERLINE = 0x24;
+    private static final int ATTR_BLUE = 0x3A;
+
+    private RecordedStreams() {
+    }
+
+    /**
+     * @param geometry {@code 24x80} or {@code 27x132}
+     * @return the records of one session, in the order the host sent them
+     */
+    public static List<byte[]> load(String geometry) {
+        String captures = System.getProperty(CAPTURE_DIR_PROPERTY);
+        if (captures != null && !captures.isEmpty()) {
+            return loadCaptured(Paths.get(captures, geometry));
+        }
+        switch (geometry) {
+            case "24x80":
+                return signOnSession();
+            case "27x132":
+                return subfileSession();
+            default:
+                throw new IllegalArgumentException("Unknown screen geometry: " + geometry);
+        }
+    }
+
+    private static List<byte[]> loadCaptured(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<byte[]> records = new ArrayList<>();
+            for (Path file : files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(Path::toString))
+                    .toList()) {
+                records.add(Files.readAllBytes(file));
+            }
+            if (records.isEmpty()) {
+                throw new IllegalStateException("No captured records in " + dir);
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read captured records from " + dir, e);
+        }
+    }
+
+    private static List<byte[]> signOnSession() {
+        List<byte[]> records = new ArrayList<>();
+
+        RecordBuilder signOn = new RecordBuilder(OPCODE_PUT_GET)
+                .clearUnit()
+                .writeToDisplay(0x00, 0x18)
+                .startOfHeader(24)
+                .text(1, 36, ATTR_HIGH, "Sign On")
+                .text(2, 48, ATTR_BLUE, "System  . . . . . :   S1234567")
+                .text(3, 48, ATTR_BLUE, "Subsystem . . . . :   QINTER")
+                .text(4, 48, ATTR_BLUE, "Display . . . . . :   QPADEV0042");
+        String[] prompts = {
+                "User  . . . . . . . . . . . . . .",
+                "Password  . . . . . . . . . . . .",
+                "Program/procedure . . . . . . . .",
+                "Menu  . . . . . . . . . . . . . .",
+                "Current library . . . . . . . . ."};
+        for (int i = 0; i < prompts.length; i++) {
+            signOn.text(6 + i, 17, ATTR_BLUE, prompts[i])
+                    .inputField(6 + i, 52, i == 1 ? 0x27 : ATTR_UNDERLINE, 10, "");
+        }
+        signOn.text(24, 40, ATTR_BLUE, "(C) COPYRIGHT IBM CORP. 1980, 2018.")
+                .insertCursor(6, 53);
+        records.add(signOn.build());
+
+        records.add(new RecordBuilder(OPCODE_PUT_GET)
+                .writeToDisplay(0x20, 0x18)
+                .text(24, 1, ATTR_HIGH, "CPF1107 - Password not correct for user profile.                              ")
+                .insertCursor(7, 53)
+                .build());
+
+        RecordBuilder menu = new RecordBuilder(OPCODE_PUT_GET)
+                .clearUnit()
+                .writeToDisplay(0x00, 0x18)
+                .startOfHeader(24)
+                .text(1, 2, ATTR_HIGH, "MAIN")
+                .text(1, 30, ATTR_HIGH, "IBM i Main Menu")
+                .text(2, 61, ATTR_BLUE, "System:   S1234567")
+                .text(3, 2, ATTR_NORMAL, "Select one of the following:");
+        String[] options = {
+                "User tasks", "Office tasks", "General system tasks", "Files, libraries, and folders",
+                "Programming", "Communications", "Define or change the system", "Problem handling",
+                "Display a menu", "Information Assistant options", "IBM i Access tasks"};
+        for (int i = 0; i < options.length; i++) {
+            menu.text(5 + i, 6, ATTR_NORMAL, String.format("%2d. %s", i + 1, options[i]));
+        }
+        menu.text(17, 6, ATTR_NORMAL, "90. Sign off")
+                .text(19, 2, ATTR_NORMAL, "Selection or command")
+                .text(20, 2, ATTR_NORMAL, "===>")
+                .inputField(20, 7, ATTR_UNDERLINE, 153, "")
+                .text(22, 2, ATTR_BLUE, "F3=Exit   F4=Prompt   F9=Retrieve   F12=Cancel   F13=Information Assistant")
+                .text(23, 2, ATTR_BLUE, "F23=Set initial menu")
+                .insertCursor(20, 7);
+        records.add(menu.build());
+
+        return records;
+    }
+
+    private static List<byte[]> subfileSession() {
+        List<byte[]> records = new ArrayList<>();
+
+        RecordBuilder list = new RecordBuilder(OPCODE_PUT_GET)
+                .clearUnitAlternate()
+                .writeToDisplay(0x00, 0x18)
+                .startOfHeader(27)
+                .text(1, 52, ATTR_HIGH, "Work with Objects Using PDM")
+                .text(1, 112, ATTR_BLUE, "S1234567")
+                .text(3, 2, ATTR_NORMAL, "Library . . . . .")
+                .inputField(3, 21, ATTR_UNDERLINE, 10, "QGPL")
+                .text(3, 60, ATTR_NORMAL, "Position to . . . . . . . .")
+                .inputField(3, 90, ATTR_UNDERLINE, 10, "")
+                .text(5, 2, ATTR_BLUE, "Type options, press Enter.")
+                .text(6, 3, ATTR_BLUE, "2=Change       3=Copy        4=Delete      5=Display       7=Rename"
+                        + "       8=Display description      9=Save")
+                .text(8, 1, ATTR_HIGH, "Opt  Object      Type        Attribute   Text"
+                        + "                                                        Size      Owner");
+        subfileRows(list, 0);
+        list.text(25, 2, ATTR_BLUE, "Parameters or command")
+                .text(26, 2, ATTR_BLUE, "===>")
+                .inputField(26, 7, ATTR_UNDERLINE, 120, "")
+                .text(27, 2, ATTR_BLUE, "F3=Exit          F4=Prompt             F5=Refresh            "
+                        + "F6=Create          F9=Retrieve        F10=Command entry")
+                .insertCursor(9, 2);
+        records.add(list.build());
+
+        RecordBuilder nextPage = new RecordBuilder(OPCODE_PUT_GET)
+                .writeToDisplay(0x20, 0x18);
+        subfileRows(nextPage, 16);
+        records.add(nextPage.insertCursor(9, 2).build());
+
+        return records;
+    }
+
+    private static void subfileRows(RecordBuilder record, int first) {
+        String[] types = {"*FILE", "*PGM", "*DTAARA", "*MSGQ", "*CMD", "*SRVPGM"};
+        String[] attributes = {"PF", "CLLE", "", "", "", "RPGLE"};
+        for (int i = 0; i < 16; i++) {
+            int n = first + i;
+            int row = 9 + i;
+            record.inputField(row, 2, ATTR_UNDERLINE, 2, "")
+                    .text(row, 6, n % 2 == 0 ? ATTR_NORMAL : ATTR_REVERSE,
+                            String.format("%-11s %-11s %-11s %-55s %9d  %-10s",
+                                    "OBJ" + (1000 + n), types[n % types.length], attributes[n % attributes.length],
+                                    "Sample object number " + n + " for replay", 4096L * (n + 1), "QPGMR"));
+        }
+    }
+
+    /**
+     * Assembles one record: header with the 5250 opcode, commands and orders,
+     * then IAC EOR.
+     */
+    private static final class RecordBuilder {
+
+        private static final ICodePage CODE_PAGE = CharMappings.getCodePage("37");
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        RecordBuilder(int opcode) {
+            // length (patched in build), record type 12A0, reserved,
+            // variable header length, flags, opcode
+            out.write(0);
+            out.write(0);
+            out.write(0x12);
+            out.write(0xA0);
+            out.write(0);
+            out.write(0);
+            out.write(0x04);
+            out.write(0);
+            out.write(0);
+            out.write(opcode);
+        }
+
+        RecordBuilder clearUnit() {
+            out.write(0x04);
+            out.write(0x40);
+            return this;
+        }
+
+        RecordBuilder clearUnitAlternate() {
+            out.write(0x04);
+            out.write(0x20);
+            out.write(0x00);
+            return this;
+        }
+
+        RecordBuilder writeToDisplay(int cc0, int cc1) {
+            out.write(0x04);
+            out.write(0x11);
+            out.write(cc0);
+            out.write(cc1);
+            return this;
+        }
+
+        RecordBuilder startOfHeader(int errorRow) {
+            out.write(0x01);
+            out.write(0x07);
+            out.write(0);
+            out.write(0);
+            out.write(0);
+            out.write(errorRow);
+            out.write(0);
+            out.write(0);
+            out.write(0);
+            return this;
+        }
+
+        RecordBuilder text(int row, int col, int attr, String text) {
+            setBufferAddress(row, col);
+            out.write(attr);
+            ebcdic(text);
+            return this;
+        }
+
+        RecordBuilder inputField(int row, int col, int attr, int length, String value) {
+            setBufferAddress(row, col);
+            out.write(0x1D);
+            out.write(0x40);
+            out.write(0x00);
+            out.write(attr);
+            out.write(length >> 8);
+            out.write(length & 0xff);
+            ebcdic(value);
+            return this;
+        }
+
+        RecordBuilder insertCursor(int row, int col) {
+            out.write(0x13);
+            out.write(row);
+            out.write(col);
+            return this;
+        }
+
+        byte[] build() {
+            byte[] record = out.toByteArray();
+            int length = record.length;
+            record[0] = (byte) (length >> 8);
+            record[1] = (byte) length;
+            byte[] framed = new byte[length + 2];
+            System.arraycopy(record, 0, framed, 0, length);
+            framed[length] = (byte) 0xFF;
+            framed[length + 1] = (byte) 0xEF;
+            return framed;
+        }
+
+        private void setBufferAddress(int row, int col) {
+            out.write(0x11);
+            out.write(row);
+            out.write(col);
+        }
+
+        private void ebcdic(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                out.write(CODE_PAGE.uni2ebcdic(text.charAt(i)));
+            }
+        }
+    }
+}
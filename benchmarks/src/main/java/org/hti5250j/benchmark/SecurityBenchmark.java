@@ -27,7 +27,7 @@ import java.util.concurrent.TimeUnit;
  * (Crypto operations have tighter tolerance than business logic)
  */
 @State(Scope.Benchmark)
-@Fork(value = 1, warmupIterations = 5, iterations = 10)
+@Fork(1)
 @Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
 @BenchmarkMode(Mode.Throughput)
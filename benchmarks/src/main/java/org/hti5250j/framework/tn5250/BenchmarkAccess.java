@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.encoding.ICodePage;
+
+/**
+ * Opens the package-level entry points of the emulator core to the JMH
+ * benchmarks in {@code org.hti5250j.benchmark}.
+ * <p>
+ * Lives in the benchmark source set only, so production code keeps its
+ * current visibility.
+ */
+public final class BenchmarkAccess {
+
+    private BenchmarkAccess() {
+    }
+
+    /**
+     * Runs one host record through tnvt the way its data stream thread does.
+     */
+    public static void processDataStream(tnvt vt, byte[] record) {
+        vt.processDataStream(record);
+    }
+
+    public static ScreenPlanes planes(Screen5250 screen) {
+        return screen.getPlanes();
+    }
+
+    public static void setChar(ScreenPlanes planes, int pos, char c) {
+        planes.setChar(pos, c);
+    }
+
+    /**
+     * Builds the record an AID key sends, without sending it.
+     *
+     * @return the record length
+     */
+    public static int readFormatTable(Screen5250 screen, GdsRecordEncoder out,
+                                      int readType, ICodePage codePage) {
+        out.begin(0, 3);
+        screen.getScreenFields().readFormatTable(out, readType, codePage);
+        return out.finish().remaining();
+    }
+}
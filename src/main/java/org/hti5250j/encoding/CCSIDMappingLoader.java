@@ -5,30 +5,37 @@
 
 package org.hti5250j.encoding;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Loads CCSID character mappings from JSON configuration file.
+ * Loads CCSID character mappings from the binary ccsid-mappings.bin
+ * resource, which the build compiles from ccsid-mappings.json with
+ * {@link CCSIDTableCompiler}.
  *
- * Reads ccsid-mappings.json resource and provides access to 256-character
- * Unicode mapping arrays for each CCSID.
+ * Nothing is read until a CCSID is first asked for. Then only the list of
+ * CCSIDs is read; a CCSID's 256-character Unicode mapping array is decoded
+ * the first time it is asked for. When the binary resource is missing, as
+ * when running from sources without the build, the JSON resource is parsed
+ * instead.
  *
  * @author Wave 3A Agent 1 - Refactoring Task
  */
 public class CCSIDMappingLoader {
 
     private static final String CONFIG_PATH = "ccsid-mappings.json";
-    private static final Map<String, CCSIDMapping> MAPPINGS = new HashMap<>();
-    private static volatile boolean initialized = false;
+    static final String TABLES_PATH = "ccsid-mappings.bin";
+    static final int TABLES_MAGIC = 0x43435344; // "CCSD"
+    static final int TABLES_VERSION = 1;
 
     /**
      * Internal data structure for CCSID mappings.
@@ -37,71 +44,109 @@ public class CCSIDMappingLoader {
         final String ccsidId;
         final String name;
         final String description;
-        final char[] codepage;
+        // the binary resource and where this CCSID's characters start in it
+        private final byte[] tables;
+        private final int offset;
+        private volatile char[] codepage;
 
         CCSIDMapping(String ccsidId, String name, String description, char[] codepage) {
+            this(ccsidId, name, description, null, 0);
+            this.codepage = codepage;
+        }
+
+        private CCSIDMapping(String ccsidId, String name, String description, byte[] tables, int offset) {
             this.ccsidId = ccsidId;
             this.name = name;
             this.description = description;
-            this.codepage = codepage;
+            this.tables = tables;
+            this.offset = offset;
+        }
+
+        char[] codepage() {
+            char[] c = codepage;
+            if (c == null) {
+                c = new char[256];
+                for (int i = 0, j = offset; i < 256; i++, j += 2) {
+                    c[i] = (char) ((tables[j] & 0xff) << 8 | (tables[j + 1] & 0xff));
+                }
+                codepage = c;
+            }
+            return c;
         }
     }
 
-    static {
-        try {
-            loadMappings();
-            initialized = true;
-        } catch (IOException e) {
-            throw new RuntimeException(
-                "Failed to load CCSID mappings from " + CONFIG_PATH, e
-            );
+    /**
+     * Reads the mappings when this class is first used, once.
+     */
+    private static final class Mappings {
+        static final Map<String, CCSIDMapping> MAPPINGS;
+
+        static {
+            try {
+                MAPPINGS = loadMappings();
+            } catch (IOException e) {
+                throw new RuntimeException(
+                    "Failed to load CCSID mappings from " + TABLES_PATH + " or " + CONFIG_PATH, e
+                );
+            }
         }
     }
 
     /**
-     * Load all CCSID mappings from JSON resource file.
+     * Load the list of CCSID mappings from the binary resource, or from the
+     * JSON resource if there is no binary one.
      *
-     * @throws IOException if resource cannot be read
+     * @throws IOException if neither resource can be read
      */
-    private static void loadMappings() throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(
-                    CCSIDMappingLoader.class
-                        .getResourceAsStream("/" + CONFIG_PATH)
-                )
-            )) {
-
-            StringBuilder json = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                json.append(line).append('\n');
+    private static Map<String, CCSIDMapping> loadMappings() throws IOException {
+        try (InputStream in = CCSIDMappingLoader.class.getResourceAsStream("/" + TABLES_PATH)) {
+            if (in != null) {
+                return readTables(in.readAllBytes());
             }
-
-            Gson gson = new Gson();
-            JsonObject root = gson.fromJson(json.toString(), JsonObject.class);
-            JsonArray mappingsArray = root.getAsJsonArray("ccsid_mappings");
-
-            for (JsonElement element : mappingsArray) {
-                JsonObject obj = element.getAsJsonObject();
-                String ccsidId = obj.get("ccsid_id").getAsString();
-                String name = obj.get("name").getAsString();
-                String description = obj.get("description").getAsString();
-
-                // Parse codepage array
-                JsonArray codepageArray = obj.getAsJsonArray("codepage");
-                char[] codepage = new char[256];
-                for (int i = 0; i < 256; i++) {
-                    codepage[i] = (char) codepageArray.get(i).getAsInt();
+        }
+        try (InputStream in = CCSIDMappingLoader.class.getResourceAsStream("/" + CONFIG_PATH)) {
+            if (in == null) {
+                throw new IOException("Resource not found");
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                List<CCSIDMapping> mappings = CCSIDTableCompiler.parse(reader);
+                Map<String, CCSIDMapping> byId = new LinkedHashMap<>();
+                for (CCSIDMapping mapping : mappings) {
+                    byId.put(mapping.ccsidId, mapping);
                 }
-
-                CCSIDMapping mapping = new CCSIDMapping(
-                    ccsidId, name, description, codepage
-                );
-                MAPPINGS.put(ccsidId, mapping);
+                return Collections.unmodifiableMap(byId);
             }
         }
     }
 
+    /**
+     * Read the list of CCSIDs of a binary table resource written by
+     * {@link CCSIDTableCompiler}; their characters are decoded when asked for.
+     *
+     * @throws IOException if {@code tables} is not such a resource
+     */
+    static Map<String, CCSIDMapping> readTables(byte[] tables) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(tables));
+        if (in.readInt() != TABLES_MAGIC || in.readUnsignedShort() != TABLES_VERSION) {
+            throw new IOException("Not a version " + TABLES_VERSION + " CCSID table resource");
+        }
+        int count = in.readUnsignedShort();
+        String[][] headers = new String[count][];
+        for (int i = 0; i < count; i++) {
+            headers[i] = new String[]{in.readUTF(), in.readUTF(), in.readUTF()};
+        }
+        int start = tables.length - in.available();
+        if (tables.length - start != count * 512) {
+            throw new IOException("CCSID table resource has " + (tables.length - start)
+                + " bytes of characters, expected " + count * 512);
+        }
+        Map<String, CCSIDMapping> byId = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            byId.put(headers[i][0], new CCSIDMapping(headers[i][0], headers[i][1], headers[i][2], tables, start + i * 512));
+        }
+        return Collections.unmodifiableMap(byId);
+    }
+
     /**
      * Get a character mapping array for the specified CCSID.
      *
@@ -109,11 +154,11 @@ public class CCSIDMappingLoader {
      * @return 256-character Unicode mapping array, or null if CCSID not found
      */
     public static char[] loadToUnicode(String ccsidId) {
-        CCSIDMapping mapping = MAPPINGS.get(ccsidId);
+        CCSIDMapping mapping = Mappings.MAPPINGS.get(ccsidId);
         if (mapping == null) {
             return null;
         }
-        return mapping.codepage;
+        return mapping.codepage();
     }
 
     /**
@@ -123,7 +168,7 @@ public class CCSIDMappingLoader {
      * @return description string, or null if not found
      */
     public static String getDescription(String ccsidId) {
-        CCSIDMapping mapping = MAPPINGS.get(ccsidId);
+        CCSIDMapping mapping = Mappings.MAPPINGS.get(ccsidId);
         if (mapping == null) {
             return null;
         }
@@ -137,7 +182,7 @@ public class CCSIDMappingLoader {
      * @return true if CCSID mapping is loaded
      */
     public static boolean isAvailable(String ccsidId) {
-        return MAPPINGS.containsKey(ccsidId);
+        return Mappings.MAPPINGS.containsKey(ccsidId);
     }
 
     /**
@@ -146,6 +191,6 @@ public class CCSIDMappingLoader {
      * @return array of CCSID IDs
      */
     public static String[] getAvailableCCSIDs() {
-        return MAPPINGS.keySet().toArray(new String[0]);
+        return Mappings.MAPPINGS.keySet().toArray(new String[0]);
     }
 }
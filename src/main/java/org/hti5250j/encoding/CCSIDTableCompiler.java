@@ -0,0 +1,108 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles ccsid-mappings.json into the binary ccsid-mappings.bin resource
+ * read by {@link CCSIDMappingLoader}. The build runs it before packaging
+ * resources:
+ * <pre>
+ * java org.hti5250j.encoding.CCSIDTableCompiler ccsid-mappings.json ccsid-mappings.bin
+ * </pre>
+ * The binary resource is big-endian: the magic number, the format version
+ * and the number of CCSIDs, then each CCSID's id, name and description as
+ * modified UTF-8, then each CCSID's 256 characters in the same order.
+ *
+ * @since 1.3.0
+ */
+public final class CCSIDTableCompiler {
+
+    private CCSIDTableCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CCSIDTableCompiler <ccsid-mappings.json> <ccsid-mappings.bin>");
+            System.exit(2);
+        }
+        List<CCSIDMappingLoader.CCSIDMapping> mappings;
+        try (Reader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            mappings = parse(reader);
+        }
+        Path out = Paths.get(args[1]);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (OutputStream stream = Files.newOutputStream(out)) {
+            write(mappings, stream);
+        }
+    }
+
+    /**
+     * Parse the mappings of ccsid-mappings.json.
+     */
+    static List<CCSIDMappingLoader.CCSIDMapping> parse(Reader reader) throws IOException {
+        JsonObject root = new Gson().fromJson(reader, JsonObject.class);
+        if (root == null || !root.has("ccsid_mappings")) {
+            throw new IOException("No ccsid_mappings in CCSID mapping file");
+        }
+        List<CCSIDMappingLoader.CCSIDMapping> mappings = new ArrayList<>();
+        for (JsonElement element : root.getAsJsonArray("ccsid_mappings")) {
+            JsonObject obj = element.getAsJsonObject();
+            String ccsidId = obj.get("ccsid_id").getAsString();
+            JsonArray codepageArray = obj.getAsJsonArray("codepage");
+            if (codepageArray.size() != 256) {
+                throw new IOException("CCSID " + ccsidId + " has " + codepageArray.size() + " characters, not 256");
+            }
+            char[] codepage = new char[256];
+            for (int i = 0; i < 256; i++) {
+                codepage[i] = (char) codepageArray.get(i).getAsInt();
+            }
+            mappings.add(new CCSIDMappingLoader.CCSIDMapping(
+                ccsidId, obj.get("name").getAsString(), obj.get("description").getAsString(), codepage));
+        }
+        return mappings;
+    }
+
+    /**
+     * Write mappings in the binary format of ccsid-mappings.bin.
+     */
+    static void write(List<CCSIDMappingLoader.CCSIDMapping> mappings, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(CCSIDMappingLoader.TABLES_MAGIC);
+        out.writeShort(CCSIDMappingLoader.TABLES_VERSION);
+        out.writeShort(mappings.size());
+        for (CCSIDMappingLoader.CCSIDMapping mapping : mappings) {
+            out.writeUTF(mapping.ccsidId);
+            out.writeUTF(mapping.name);
+            out.writeUTF(mapping.description);
+        }
+        for (CCSIDMappingLoader.CCSIDMapping mapping : mappings) {
+            for (char c : mapping.codepage()) {
+                out.writeChar(c);
+            }
+        }
+        out.flush();
+    }
+}
@@ -40,6 +40,11 @@ public interface HTI5250jConstants {
     String SESSION_TERM_NAME = "SESSION_TERM_NAME";
     String SESSION_IS_APPLET = "SESSION_IS_APPLET";
     String SESSION_HEART_BEAT = "SESSION_KEEP_ALIVE_ENABLED";
+    String SESSION_TRANSPORT = "SESSION_TRANSPORT";
+
+    // SESSION_TRANSPORT values
+    String TRANSPORT_THREADED = "threaded";
+    String TRANSPORT_MULTIPLEXED = "multiplexed";
 
     String GUI_FRAME_WIDTH = "GUI_FRAME_WIDTH";
     String GUI_FRAME_HEIGHT = "GUI_FRAME_HEIGHT";
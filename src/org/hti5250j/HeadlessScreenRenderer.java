@@ -17,6 +17,7 @@ import java.awt.font.LineMetrics;
 import java.awt.image.BufferedImage;
 
 import org.hti5250j.framework.tn5250.Screen5250;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
 import org.hti5250j.tools.logging.HTI5250jLogFactory;
 import org.hti5250j.tools.logging.HTI5250jLogger;
 
@@ -113,6 +114,65 @@ public class HeadlessScreenRenderer {
             throw new IllegalArgumentException("SessionConfig cannot be null");
         }
 
+        // Get screen data for rendering
+        int screenLength = screen.getScreenLength();
+        char[] textChars = new char[screenLength];
+        char[] attrChars = new char[screenLength];
+        char[] colorChars = new char[screenLength];
+        char[] extendedChars = new char[screenLength];
+
+        screen.GetScreen(textChars, screenLength, HTI5250jConstants.PLANE_TEXT);
+        screen.GetScreen(attrChars, screenLength, HTI5250jConstants.PLANE_ATTR);
+        screen.GetScreen(colorChars, screenLength, HTI5250jConstants.PLANE_COLOR);
+        screen.GetScreen(extendedChars, screenLength, HTI5250jConstants.PLANE_EXTENDED);
+
+        return renderPlanes(screen.getRows(), screen.getColumns(),
+                textChars, attrChars, colorChars, extendedChars, config);
+    }
+
+    /**
+     * Render a snapshot of a screen, on any thread and at any time after it
+     * was taken.
+     *
+     * @param snapshot the screen as it was
+     * @param config Session configuration containing fonts and colors, or null for the defaults
+     * @return BufferedImage containing the rendered screen
+     * @throws IllegalArgumentException if snapshot is null
+     */
+    public static BufferedImage renderSnapshot(ScreenSnapshot snapshot, SessionConfig config) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("ScreenSnapshot cannot be null");
+        }
+        return renderPlanes(snapshot.getRows(), snapshot.getColumns(),
+                snapshot.getPlane(HTI5250jConstants.PLANE_TEXT),
+                snapshot.getPlane(HTI5250jConstants.PLANE_ATTR),
+                snapshot.getPlane(HTI5250jConstants.PLANE_COLOR),
+                snapshot.getPlane(HTI5250jConstants.PLANE_EXTENDED),
+                config);
+    }
+
+    /**
+     * Render screen planes, as {@link Screen5250#GetScreen} copies them, to
+     * a BufferedImage.
+     *
+     * @param rows number of screen rows
+     * @param columns number of screen columns
+     * @param textChars the text plane
+     * @param attrChars the attribute plane
+     * @param colorChars the color plane
+     * @param extendedChars the extended attribute plane
+     * @param config Session configuration containing fonts and colors, or null for the defaults
+     * @return BufferedImage containing the rendered screen
+     * @throws IllegalArgumentException if a plane is shorter than rows x columns
+     */
+    public static BufferedImage renderPlanes(int rows, int columns, char[] textChars, char[] attrChars,
+            char[] colorChars, char[] extendedChars, SessionConfig config) {
+        int screenLength = rows * columns;
+        if (textChars.length < screenLength || attrChars.length < screenLength
+                || colorChars.length < screenLength || extendedChars.length < screenLength) {
+            throw new IllegalArgumentException("Planes shorter than " + rows + "x" + columns + " screen");
+        }
+
         try {
             // Initialize font from config
             Font font = initializeFont(config);
@@ -128,12 +188,13 @@ public class HeadlessScreenRenderer {
             ColorPalette colors = new ColorPalette(config);
 
             // Create BufferedImage with proper dimensions
-            int imageWidth = columnWidth * screen.getColumns();
-            int imageHeight = rowHeight * (screen.getRows() + 2); // +2 for status area
+            int imageWidth = columnWidth * columns;
+            int imageHeight = rowHeight * (rows + 2); // +2 for status area
             BufferedImage bi = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
 
             // Render screen content
-            renderScreenContent(bi, screen, config, font, lm, columnWidth, rowHeight, colors);
+            renderScreenContent(bi, columns, screenLength, font, lm, columnWidth, rowHeight, colors,
+                    textChars, attrChars, colorChars, extendedChars);
 
             return bi;
         } catch (Exception e) {
@@ -150,7 +211,7 @@ public class HeadlessScreenRenderer {
         String fontName = "Monospaced";
 
         // Try to load font from config
-        if (config.isPropertyExists("font")) {
+        if (config != null && config.isPropertyExists("font")) {
             String configFont = config.getStringProperty("font");
             if (configFont != null && !configFont.isEmpty()) {
                 fontName = configFont;
@@ -164,9 +225,9 @@ public class HeadlessScreenRenderer {
      * Render screen characters and attributes to BufferedImage.
      * Core rendering logic extracted from GuiGraphicBuffer.drawOIA() and drawChar()
      */
-    private static void renderScreenContent(BufferedImage bi, Screen5250 screen,
-            SessionConfig config, Font font, LineMetrics lm,
-            int columnWidth, int rowHeight, ColorPalette colors) {
+    private static void renderScreenContent(BufferedImage bi, int columns, int screenLength,
+            Font font, LineMetrics lm, int columnWidth, int rowHeight, ColorPalette colors,
+            char[] textChars, char[] attrChars, char[] colorChars, char[] extendedChars) {
 
         Graphics2D g2d = bi.createGraphics();
 
@@ -181,22 +242,10 @@ public class HeadlessScreenRenderer {
             g2d.setColor(colors.colorBg);
             g2d.fillRect(0, 0, bi.getWidth(), bi.getHeight());
 
-            // Get screen data for rendering
-            int screenLength = screen.getScreenLength();
-            char[] textChars = new char[screenLength];
-            char[] attrChars = new char[screenLength];
-            char[] colorChars = new char[screenLength];
-            char[] extendedChars = new char[screenLength];
-
-            screen.GetScreen(textChars, screenLength, HTI5250jConstants.PLANE_TEXT);
-            screen.GetScreen(attrChars, screenLength, HTI5250jConstants.PLANE_ATTR);
-            screen.GetScreen(colorChars, screenLength, HTI5250jConstants.PLANE_COLOR);
-            screen.GetScreen(extendedChars, screenLength, HTI5250jConstants.PLANE_EXTENDED);
-
             // Render each character
             for (int pos = 0; pos < screenLength; pos++) {
-                int row = screen.getRow(pos);
-                int col = screen.getCol(pos);
+                int row = pos / columns;
+                int col = pos % columns;
 
                 renderCharacter(g2d, pos, row, col, columnWidth, rowHeight, lm,
                         textChars, attrChars, colorChars, extendedChars, colors);
@@ -19,6 +19,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.hti5250j.event.SessionChangeEvent;
 import org.hti5250j.event.SessionListener;
+import org.hti5250j.framework.tn5250.MultiplexedTransport;
 import org.hti5250j.framework.tn5250.Screen5250;
 import org.hti5250j.framework.tn5250.tnvt;
 import org.hti5250j.interfaces.HeadlessSession;
@@ -224,6 +225,13 @@ public class Session5250 implements SessionInterface, ScreenProvider {
         }
         vt.setSSLType(sslType);
 
+        // a SOCKS proxy needs a blocking java.net.Socket
+        if (HTI5250jConstants.TRANSPORT_MULTIPLEXED.equalsIgnoreCase(
+                sesProps.getProperty(HTI5250jConstants.SESSION_TRANSPORT))
+                && !sesProps.containsKey(HTI5250jConstants.SESSION_PROXY_HOST)) {
+            vt.setTransport(MultiplexedTransport.shared());
+        }
+
         if (sesProps.containsKey(HTI5250jConstants.SESSION_CODE_PAGE)) {
             vt.setCodePage(sesProps.getProperty(HTI5250jConstants.SESSION_CODE_PAGE));
         }
@@ -242,6 +250,12 @@ public class Session5250 implements SessionInterface, ScreenProvider {
         final String ses = sesProps.getProperty(HTI5250jConstants.SESSION_HOST);
         final int portp = port;
 
+        if (vt.isMultiplexed()) {
+            // returns as soon as the channel is registered with an event loop
+            vt.connect(ses, portp);
+            return;
+        }
+
         // lets set this puppy up to connect within its own thread
         Runnable connectIt = new Runnable() {
             @Override
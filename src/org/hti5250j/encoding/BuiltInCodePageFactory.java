@@ -11,12 +11,16 @@
 
 package org.hti5250j.encoding;
 
-import java.lang.reflect.Constructor;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.hti5250j.encoding.builtin.CCSID930;
+import org.hti5250j.encoding.builtin.CCSID933;
+import org.hti5250j.encoding.builtin.CCSID935;
+import org.hti5250j.encoding.builtin.CCSID937;
+import org.hti5250j.encoding.builtin.CCSID939;
 import org.hti5250j.encoding.builtin.CodepageConverterAdapter;
 import org.hti5250j.encoding.builtin.ICodepageConverter;
 import org.hti5250j.tools.logging.HTI5250jLogFactory;
@@ -29,7 +33,9 @@ import org.hti5250j.tools.logging.HTI5250jLogger;
 
     private static BuiltInCodePageFactory singleton;
 
-    private final List<Class<?>> clazzes = new ArrayList<Class<?>>();
+    // converters by name, constructed only when asked for, since each loads its tables
+    private final Map<String, Supplier<ICodepageConverter>> converters =
+            new LinkedHashMap<String, Supplier<ICodepageConverter>>();
     private final HTI5250jLogger log = HTI5250jLogFactory.getLogger(this.getClass());
 
     private BuiltInCodePageFactory() {
@@ -44,7 +50,12 @@ import org.hti5250j.tools.logging.HTI5250jLogger;
     }
 
     private void register() {
-        clazzes.add(CCSID930.class); // DBCS (double-byte) — not handled by JSON factory
+        // DBCS (double-byte) — not handled by JSON factory
+        converters.put(CCSID930.NAME, CCSID930::new);
+        converters.put(CCSID933.NAME, CCSID933::new);
+        converters.put(CCSID935.NAME, CCSID935::new);
+        converters.put(CCSID937.NAME, CCSID937::new);
+        converters.put(CCSID939.NAME, CCSID939::new);
     }
 
     /**
@@ -55,12 +66,7 @@ import org.hti5250j.tools.logging.HTI5250jLogger;
         for (String ccsid : CCSIDMappingLoader.getAvailableCCSIDs()) {
             cpset.add(ccsid);
         }
-        for (Class<?> clazz : clazzes) {
-            final ICodepageConverter converter = getConverterFromClassName(clazz);
-            if (converter != null) {
-                cpset.add(converter.getName());
-            }
-        }
+        cpset.addAll(converters.keySet());
         return cpset.toArray(new String[cpset.size()]);
     }
 
@@ -74,30 +80,25 @@ import org.hti5250j.tools.logging.HTI5250jLogger;
             return factoryConverter.init();
         }
 
-        for (Class<?> clazz : clazzes) {
-            final ICodepageConverter converter = getConverterFromClassName(clazz);
-            if (converter != null && converter.getName().equals(encoding)) {
-                return converter;
-            }
-        }
-        return null;
+        final Supplier<ICodepageConverter> supplier = converters.get(encoding);
+        return supplier != null ? createConverter(encoding, supplier) : null;
     }
 
     /**
      * Lazy loading converters takes time,
      * but doesn't happen so often and saves memory.
      *
-     * @param clazz {@link ICodepageConverter}
-     * @return
+     * @param name code page name the converter is registered under
+     * @param supplier constructs the {@link ICodepageConverter}
+     * @return the initialized converter, or null if it couldn't be loaded
      */
-    private ICodepageConverter getConverterFromClassName(Class<?> clazz) {
+    private ICodepageConverter createConverter(String name, Supplier<ICodepageConverter> supplier) {
         try {
-            final Constructor<?> constructor = clazz.getConstructor(new Class[0]);
-            final ICodepageConverter converter = (ICodepageConverter) constructor.newInstance();
+            final ICodepageConverter converter = supplier.get();
             converter.init();
             return converter;
         } catch (Exception e) {
-            log.error("Couldn't load code page converter class:" + clazz.getCanonicalName(), e);
+            log.error("Couldn't load code page converter:" + name, e);
             return null;
         }
     }
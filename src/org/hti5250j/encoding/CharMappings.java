@@ -12,9 +12,9 @@
 package org.hti5250j.encoding;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Character Mappings for EBCDIC to ASCII and ASCII to EBCDIC translations
@@ -25,7 +25,7 @@ public class CharMappings {
     public static final int NATIVE_CP = 0;
     public static final int TOOLBOX_CP = 1;
 
-    private static final HashMap<String, ICodePage> map = new HashMap<String, ICodePage>();
+    private static final ConcurrentHashMap<String, ICodePage> map = new ConcurrentHashMap<String, ICodePage>();
 
     public static String[] getAvailableCodePages() {
         Set<String> cpset = new HashSet<String>(); // no double entries
@@ -40,31 +40,46 @@ public class CharMappings {
         return cparray;
     }
 
+    /**
+     * Code pages are looked up once per encoding and shared from then on by
+     * every session; an unsupported encoding gets the default code page.
+     * Safe to call from any thread.
+     */
     public static ICodePage getCodePage(String encoding) {
-        if (map.containsKey(encoding)) {
-            return map.get(encoding);
+        if (encoding == null) {
+            return getCodePage(DFT_ENC);
         }
+        ICodePage cp = map.get(encoding);
+        if (cp != null) {
+            return cp;
+        }
+        // looked up outside the map, as the default is put into it while looking up
+        cp = lookupCodePage(encoding);
+        if (cp == null) {
+            return null;
+        }
+        ICodePage registered = map.putIfAbsent(encoding, cp);
+        return registered != null ? registered : cp;
+    }
 
+    private static ICodePage lookupCodePage(String encoding) {
         ICodePage cp = BuiltInCodePageFactory.getInstance().getCodePage(encoding);
         if (cp != null) {
-            map.put(encoding, cp);
             return cp;
         }
 
         cp = ToolboxCodePageFactory.getInstance().getCodePage(encoding);
         if (cp != null) {
-            map.put(encoding, cp);
             return cp;
         }
 
         cp = JavaCodePageFactory.getCodePage(encoding);
         if (cp != null) {
-            map.put(encoding, cp);
             return cp;
         }
 
         // unsupported codepage ==> return default
-        return BuiltInCodePageFactory.getInstance().getCodePage(DFT_ENC);
+        return DFT_ENC.equals(encoding) ? null : getCodePage(DFT_ENC);
     }
 
 }
@@ -11,7 +11,8 @@ import org.hti5250j.encoding.builtin.CodepageConverterAdapter;
  * Configurable CCSID converter using JSON-loaded character mappings.
  *
  * Replaces individual CCSID*.java classes by dynamically loading
- * character mappings from ccsid-mappings.json at runtime.
+ * character mappings from ccsid-mappings.json, compiled at build time,
+ * through {@link CCSIDMappingLoader}.
  */
 public class ConfigurableCodepageConverter extends CodepageConverterAdapter {
 
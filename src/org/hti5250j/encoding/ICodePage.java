@@ -10,6 +10,11 @@
 
 package org.hti5250j.encoding;
 
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 public interface ICodePage {
 
     /**
@@ -34,4 +39,105 @@ public interface ICodePage {
     boolean isDoubleByteActive();
 
     boolean secondByteNeeded();
+
+    /**
+     * Code pages with shift state, such as the mixed single and double byte
+     * ones, return a new object that keeps its own state, so each data stream
+     * should convert through the object returned here. Others return themselves.
+     *
+     * @return the code page to convert one data stream with
+     * @since 1.3.0
+     */
+    default ICodePage forStream() {
+        return this;
+    }
+
+    /**
+     * Convert {@code length} bytes to Unicode characters, as that many calls
+     * of {@link #ebcdic2uni(int)} with the unsigned byte would.
+     * Single byte code pages convert through a table without a call per byte.
+     *
+     * @param src       the EBCDIC bytes
+     * @param srcOffset index of the first byte to convert
+     * @param length    the number of bytes to convert
+     * @param dst       receives one character per byte
+     * @param dstOffset index in {@code dst} of the first character
+     * @throws CharacterConversionException if a byte cannot be converted
+     * @since 1.3.0
+     */
+    default void decode(byte[] src, int srcOffset, int length, char[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = ebcdic2uni(src[srcOffset + i] & 0xff);
+        }
+    }
+
+    /**
+     * Convert the next {@code length} bytes of {@code src}, as
+     * {@link #decode(byte[], int, int, char[], int)} does, and move its
+     * position past them.
+     *
+     * @throws BufferUnderflowException if fewer than {@code length} bytes remain
+     * @since 1.3.0
+     */
+    default void decode(ByteBuffer src, int length, char[] dst, int dstOffset) {
+        if (length > src.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int position = src.position();
+        if (src.hasArray()) {
+            decode(src.array(), src.arrayOffset() + position, length, dst, dstOffset);
+        } else {
+            Objects.checkFromIndexSize(dstOffset, length, dst.length);
+            for (int i = 0; i < length; i++) {
+                dst[dstOffset + i] = ebcdic2uni(src.get(position + i) & 0xff);
+            }
+        }
+        src.position(position + length);
+    }
+
+    /**
+     * Convert {@code length} Unicode characters to EBCDIC bytes, as that many
+     * calls of {@link #uni2ebcdic(char)} would.
+     *
+     * @param src       the characters
+     * @param srcOffset index of the first character to convert
+     * @param length    the number of characters to convert
+     * @param dst       receives one byte per character
+     * @param dstOffset index in {@code dst} of the first byte
+     * @throws CharacterConversionException if a character cannot be converted
+     * @since 1.3.0
+     */
+    default void encode(char[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = uni2ebcdic(src[srcOffset + i]);
+        }
+    }
+
+    /**
+     * Convert {@code length} characters, as
+     * {@link #encode(char[], int, int, byte[], int)} does, into {@code dst}
+     * at its position, and move the position past them.
+     *
+     * @throws BufferOverflowException if fewer than {@code length} bytes remain
+     * @since 1.3.0
+     */
+    default void encode(char[] src, int srcOffset, int length, ByteBuffer dst) {
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        int position = dst.position();
+        if (dst.hasArray()) {
+            encode(src, srcOffset, length, dst.array(), dst.arrayOffset() + position);
+        } else {
+            Objects.checkFromIndexSize(srcOffset, length, src.length);
+            for (int i = 0; i < length; i++) {
+                dst.put(position + i, uni2ebcdic(src[srcOffset + i]));
+            }
+        }
+        dst.position(position + length);
+    }
 }
@@ -0,0 +1,22 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding.builtin;
+
+/**
+ * CCSID 935, Simplified Chinese mixed single and double byte, converted as a {@link MixedByteCodePage}.
+ *
+ * @since 1.3.0
+ */
+public final class CCSID935 extends MixedByteCodePage {
+
+    public static final String NAME = "935";
+    public static final String DESCR = "Simplified Chinese (extended range), DBCS";
+
+    public CCSID935() {
+        super(NAME, DESCR, "Cp935");
+    }
+}
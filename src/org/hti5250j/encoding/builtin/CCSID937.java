@@ -0,0 +1,22 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding.builtin;
+
+/**
+ * CCSID 937, Traditional Chinese mixed single and double byte, converted as a {@link MixedByteCodePage}.
+ *
+ * @since 1.3.0
+ */
+public final class CCSID937 extends MixedByteCodePage {
+
+    public static final String NAME = "937";
+    public static final String DESCR = "Traditional Chinese (extended range), DBCS";
+
+    public CCSID937() {
+        super(NAME, DESCR, "Cp937");
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding.builtin;
+
+/**
+ * CCSID 939, Japanese Latin mixed single and double byte, converted as a {@link MixedByteCodePage}.
+ *
+ * @since 1.3.0
+ */
+public final class CCSID939 extends MixedByteCodePage {
+
+    public static final String NAME = "939";
+    public static final String DESCR = "Japan Latin (extended range), DBCS";
+
+    public CCSID939() {
+        super(NAME, DESCR, "Cp939");
+    }
+}
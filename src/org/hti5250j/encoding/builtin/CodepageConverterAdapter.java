@@ -12,6 +12,7 @@
 package org.hti5250j.encoding.builtin;
 
 import java.util.Arrays;
+import java.util.Objects;
 import org.hti5250j.encoding.CharacterConversionException;
 
 /**
@@ -23,6 +24,8 @@ public abstract class CodepageConverterAdapter implements ICodepageConverter {
 
     private char[] codepage = null;
     private int[] reverse_codepage = null;
+    // reverse_codepage as bytes, for encoding in bulk
+    private byte[] encode_table = null;
 
     /* (non-Javadoc)
      * @see org.hti5250j.cp.ICodepageConverter#init()
@@ -40,6 +43,10 @@ public abstract class CodepageConverterAdapter implements ICodepageConverter {
         for (int i = 0; i < codepage.length; i++) {
             reverse_codepage[codepage[i]] = i;
         }
+        encode_table = new byte[reverse_codepage.length];
+        for (int i = 0; i < reverse_codepage.length; i++) {
+            encode_table[i] = (byte) reverse_codepage[i];
+        }
         return this;
     }
 
@@ -68,6 +75,41 @@ public abstract class CodepageConverterAdapter implements ICodepageConverter {
         return codepage[index];
     }
 
+    /**
+     * Converts through the code page table, one array load per byte and no
+     * call; a table of fewer than 256 characters checks every byte.
+     */
+    @Override
+    public void decode(byte[] src, int srcOffset, int length, char[] dst, int dstOffset) {
+        char[] table = codepage;
+        if (table.length < 256) {
+            ICodepageConverter.super.decode(src, srcOffset, length, dst, dstOffset);
+            return;
+        }
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = table[src[srcOffset + i] & 0xFF];
+        }
+    }
+
+    /**
+     * Converts through the reverse table, one array load per character.
+     */
+    @Override
+    public void encode(char[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        byte[] table = encode_table;
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+        for (int i = 0; i < length; i++) {
+            char c = src[srcOffset + i];
+            if (c >= table.length) {
+                throw new CharacterConversionException(formatUniToEbcdicError(c, table.length - 1));
+            }
+            dst[dstOffset + i] = table[c];
+        }
+    }
+
     /**
      * Formats an error message for Unicode to EBCDIC conversion failures.
      *
@@ -0,0 +1,89 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding.builtin;
+
+import com.ibm.as400.access.ConvTable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hti5250j.framework.tn5250.ByteExplainer.SHIFT_IN;
+import static org.hti5250j.framework.tn5250.ByteExplainer.SHIFT_OUT;
+
+/**
+ * Dense conversion tables of a mixed single and double byte code page: 256
+ * single byte characters, and 64K double byte characters indexed by
+ * {@code first << 8 | second}. They are generated from the Toolbox
+ * {@link ConvTable} the first time a code page needs them and shared by
+ * every stream afterwards.
+ */
+final class DoubleByteTables {
+
+    // entries the ConvTable did not convert; they go through it again when met
+    static final char UNMAPPED = '\uffff';
+
+    private static final ConcurrentHashMap<String, DoubleByteTables> TABLES = new ConcurrentHashMap<>();
+
+    private final ConvTable convTable;
+    private final char[] singleByte = new char[256];
+    private final char[] doubleByte = new char[256 * 256];
+
+    private DoubleByteTables(ConvTable convTable) {
+        this.convTable = convTable;
+        byte[] single = new byte[1];
+        for (int b = 0; b < 256; b++) {
+            single[0] = (byte) b;
+            singleByte[b] = generate(single);
+        }
+        byte[] pair = {SHIFT_IN, 0, 0, SHIFT_OUT};
+        for (int i = 0; i < doubleByte.length; i++) {
+            pair[1] = (byte) (i >>> 8);
+            pair[2] = (byte) i;
+            doubleByte[i] = generate(pair);
+        }
+    }
+
+    /**
+     * @param name      the name {@code convTable} was looked up by, such as "Cp930"
+     * @param convTable converts the code page when the tables are generated
+     * @return the tables of the code page, generated on the first call
+     */
+    static DoubleByteTables forTable(String name, ConvTable convTable) {
+        return TABLES.computeIfAbsent(name, key -> new DoubleByteTables(convTable));
+    }
+
+    private char generate(byte[] bytes) {
+        try {
+            String s = convTable.byteArrayToString(bytes, 0, bytes.length);
+            return s.isEmpty() ? UNMAPPED : s.charAt(0);
+        } catch (RuntimeException e) {
+            return UNMAPPED;
+        }
+    }
+
+    /**
+     * @param b an unsigned byte outside a double byte run
+     */
+    char singleByte(int b) {
+        char c = singleByte[b];
+        if (c == UNMAPPED) {
+            return convTable.byteArrayToString(new byte[]{(byte) b}, 0, 1).charAt(0);
+        }
+        return c;
+    }
+
+    /**
+     * @param first  the unsigned first byte of a double byte character
+     * @param second the unsigned second byte
+     */
+    char doubleByte(int first, int second) {
+        char c = doubleByte[first << 8 | second];
+        if (c == UNMAPPED) {
+            return convTable.byteArrayToString(new byte[]{SHIFT_IN, (byte) first, (byte) second, SHIFT_OUT}, 0, 4).charAt(0);
+        }
+        return c;
+    }
+}
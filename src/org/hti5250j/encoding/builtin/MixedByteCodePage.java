@@ -0,0 +1,256 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding.builtin;
+
+import com.ibm.as400.access.ConvTable;
+
+import org.hti5250j.encoding.ICodePage;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Objects;
+
+import static org.hti5250j.framework.tn5250.ByteExplainer.SHIFT_IN;
+import static org.hti5250j.framework.tn5250.ByteExplainer.SHIFT_OUT;
+
+/**
+ * A mixed single and double byte EBCDIC code page, where shift in (0x0E)
+ * starts a run of two byte characters and shift out (0x0F) ends it.
+ * <p>
+ * Bytes are converted through {@link DoubleByteTables}, generated from the
+ * Toolbox conversion table when first needed. Each stream should convert
+ * through its own {@link #forStream()} decoder, which keeps the shift state;
+ * the conversion methods of this instance share one state among its callers.
+ * <p>
+ * Characters are not converted to EBCDIC: {@link #uni2ebcdic(char)} returns 0.
+ *
+ * @since 1.3.0
+ */
+public abstract class MixedByteCodePage implements ICodepageConverter {
+
+    private final String name;
+    private final String description;
+    private final String convTableName;
+    private final ConvTable convTable;
+    private final Decoder shared;
+    private volatile DoubleByteTables tables;
+
+    /**
+     * @param name          the CCSID, such as "930"
+     * @param description   a short description
+     * @param convTableName the Toolbox conversion table, such as "Cp930"
+     * @throws RuntimeException if the Toolbox has no such conversion table
+     */
+    protected MixedByteCodePage(String name, String description, String convTableName) {
+        this.name = name;
+        this.description = description;
+        this.convTableName = convTableName;
+        try {
+            convTable = ConvTable.getTable(convTableName);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+        shared = new Decoder(this);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    public String getEncoding() {
+        return name;
+    }
+
+    @Override
+    public ICodepageConverter init() {
+        return this;
+    }
+
+    /**
+     * @return a decoder of this code page with its own shift state, starting
+     *         outside a double byte run
+     */
+    @Override
+    public ICodePage forStream() {
+        return new Decoder(this);
+    }
+
+    private DoubleByteTables tables() {
+        DoubleByteTables t = tables;
+        if (t == null) {
+            t = DoubleByteTables.forTable(convTableName, convTable);
+            tables = t;
+        }
+        return t;
+    }
+
+    @Override
+    public byte uni2ebcdic(char index) {
+        return 0;
+    }
+
+    @Override
+    public char ebcdic2uni(int index) {
+        return shared.ebcdic2uni(index);
+    }
+
+    @Override
+    public void decode(byte[] src, int srcOffset, int length, char[] dst, int dstOffset) {
+        shared.decode(src, srcOffset, length, dst, dstOffset);
+    }
+
+    @Override
+    public boolean isDoubleByteActive() {
+        return shared.isDoubleByteActive();
+    }
+
+    @Override
+    public boolean secondByteNeeded() {
+        return shared.secondByteNeeded();
+    }
+
+    /**
+     * Check if the given byte is a shift-in control character (0x0E).
+     * Shift-in activates double-byte mode for processing DBCS characters.
+     *
+     * @param aByte the byte value to check
+     * @return true if the byte is a shift-in character, false otherwise
+     */
+    public boolean isShiftIn(int aByte) {
+        return (aByte & 0xff) == SHIFT_IN;
+    }
+
+    /**
+     * Check if the given byte is a shift-out control character (0x0F).
+     * Shift-out deactivates double-byte mode and returns to single-byte processing.
+     *
+     * @param aByte the byte value to check
+     * @return true if the byte is a shift-out character, false otherwise
+     */
+    public boolean isShiftOut(int aByte) {
+        return (aByte & 0xff) == SHIFT_OUT;
+    }
+
+    /**
+     * The shift state of one stream. Shift in, shift out and the first byte
+     * of a double byte character convert to 0, the second byte to the
+     * character.
+     */
+    private static final class Decoder implements ICodePage {
+
+        private final MixedByteCodePage codePage;
+        private DoubleByteTables tables;
+        private boolean doubleByteActive;
+        private boolean secondByteNeeded;
+        private int lastByte;
+
+        Decoder(MixedByteCodePage codePage) {
+            this.codePage = codePage;
+        }
+
+        private DoubleByteTables tables() {
+            DoubleByteTables t = tables;
+            if (t == null) {
+                t = codePage.tables();
+                tables = t;
+            }
+            return t;
+        }
+
+        @Override
+        public char ebcdic2uni(int index) {
+            int b = index & 0xff;
+            if (b == SHIFT_IN) {
+                doubleByteActive = true;
+                secondByteNeeded = false;
+                return 0;
+            }
+            if (b == SHIFT_OUT) {
+                doubleByteActive = false;
+                secondByteNeeded = false;
+                return 0;
+            }
+            if (doubleByteActive) {
+                if (!secondByteNeeded) {
+                    lastByte = b;
+                    secondByteNeeded = true;
+                    return 0;
+                }
+                secondByteNeeded = false;
+                return tables().doubleByte(lastByte, b);
+            }
+            return tables().singleByte(b);
+        }
+
+        /**
+         * Converts single byte runs and double byte runs each in their own
+         * loop, switching at shift in and shift out.
+         */
+        @Override
+        public void decode(byte[] src, int srcOffset, int length, char[] dst, int dstOffset) {
+            Objects.checkFromIndexSize(srcOffset, length, src.length);
+            Objects.checkFromIndexSize(dstOffset, length, dst.length);
+            DoubleByteTables t = tables();
+            int i = srcOffset;
+            int o = dstOffset;
+            int end = srcOffset + length;
+            while (i < end) {
+                if (!doubleByteActive) {
+                    for (int b; i < end && (b = src[i] & 0xff) != SHIFT_IN; i++) {
+                        dst[o++] = b == SHIFT_OUT ? 0 : t.singleByte(b);
+                    }
+                    if (i < end) {
+                        dst[o++] = 0;
+                        i++;
+                        doubleByteActive = true;
+                        secondByteNeeded = false;
+                    }
+                } else {
+                    for (int b; i < end && (b = src[i] & 0xff) != SHIFT_OUT; i++) {
+                        if (b == SHIFT_IN) {
+                            secondByteNeeded = false;
+                            dst[o++] = 0;
+                        } else if (secondByteNeeded) {
+                            secondByteNeeded = false;
+                            dst[o++] = t.doubleByte(lastByte, b);
+                        } else {
+                            lastByte = b;
+                            secondByteNeeded = true;
+                            dst[o++] = 0;
+                        }
+                    }
+                    if (i < end) {
+                        dst[o++] = 0;
+                        i++;
+                        doubleByteActive = false;
+                        secondByteNeeded = false;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public byte uni2ebcdic(char index) {
+            return 0;
+        }
+
+        @Override
+        public boolean isDoubleByteActive() {
+            return doubleByteActive;
+        }
+
+        @Override
+        public boolean secondByteNeeded() {
+            return secondByteNeeded;
+        }
+    }
+}
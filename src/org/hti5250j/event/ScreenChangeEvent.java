@@ -0,0 +1,65 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.event;
+
+import java.util.EventObject;
+
+/**
+ * Immutable event telling a {@link ScreenChangeListener} which rows of a
+ * screen changed and the screen version that the change produced.
+ * <p>
+ * Versions start at zero and grow by one for every change, so a consumer
+ * that remembers the last version it saw can tell whether it missed any.
+ * Rows are zero based and inclusive.
+ *
+ * @since 1.3.0
+ */
+public class ScreenChangeEvent extends EventObject {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    private final int startRow;
+    private final int endRow;
+
+    /**
+     * @param source the screen that changed
+     * @param version the screen version after the change
+     * @param startRow first changed row, zero based
+     * @param endRow last changed row, zero based and inclusive
+     * @throws IllegalArgumentException if source is null
+     */
+    public ScreenChangeEvent(Object source, long version, int startRow, int endRow) {
+        super(source);
+        this.version = version;
+        this.startRow = startRow;
+        this.endRow = endRow;
+    }
+
+    /** @return the screen version after the change */
+    public long getVersion() {
+        return version;
+    }
+
+    /** @return the first changed row, zero based */
+    public int getStartRow() {
+        return startRow;
+    }
+
+    /** @return the last changed row, zero based and inclusive */
+    public int getEndRow() {
+        return endRow;
+    }
+
+    @Override
+    public String toString() {
+        return "ScreenChangeEvent{" +
+                "version=" + version +
+                ", rows=" + startRow + ".." + endRow +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.event;
+
+/**
+ * Receives the changed rows of a screen, for consumers without a display.
+ * <p>
+ * Called on the thread that changed the screen, normally the session's
+ * data stream thread; implementations should return quickly and read the
+ * changed rows through {@code Screen5250.getRowText}.
+ *
+ * @since 1.3.0
+ */
+@FunctionalInterface
+public interface ScreenChangeListener {
+
+    void onScreenChange(ScreenChangeEvent event);
+
+}
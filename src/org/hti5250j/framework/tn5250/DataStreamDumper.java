@@ -19,6 +19,7 @@ import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class DataStreamDumper {
@@ -83,6 +84,9 @@ public class DataStreamDumper {
             log.info("\n Buffer Dump of data from AS400: ");
             dw.write("\r\n Buffer Dump of data from AS400: ".getBytes());
 
+            char[] text = new char[abyte0.length];
+            codePage.decode(abyte0, 0, abyte0.length, text, 0);
+
             StringBuilder h = new StringBuilder();
             for (int x = 0; x < abyte0.length; x++) {
                 if (x % 16 == 0) {
@@ -99,7 +103,7 @@ public class DataStreamDumper {
 
                     h.setLength(0);
                 }
-                char ac = codePage.ebcdic2uni(abyte0[x]);
+                char ac = text[x];
                 if (ac < ' ') {
                     h.append('.');
                 } else {
@@ -131,6 +135,15 @@ public class DataStreamDumper {
 
     }
 
+    public void dump(ByteBuffer record) {
+        if (!dumpActive) {
+            return;
+        }
+        byte[] abyte0 = new byte[record.remaining()];
+        record.get(record.position(), abyte0);
+        dump(abyte0);
+    }
+
     void dumpRaw(byte[] buffer) {
         try {
             String fname = "dump_" + counter.get() + ".data";
@@ -0,0 +1,292 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Splits the inbound telnet byte stream into records.
+ * <p>
+ * The socket is read in bulk into a single reusable {@link ByteBuffer}. The
+ * buffer is scanned eight bytes at a time for IAC (0xFF); plain runs between
+ * IACs are never inspected byte by byte. Doubled IACs are collapsed in place,
+ * so a complete record is handed out as a slice of the read buffer without
+ * any intermediate copy.
+ * <p>
+ * The framing rules are the ones {@link DataStreamProducer#readIncoming()}
+ * has always applied:
+ * <ul>
+ * <li>IAC IAC is an escaped data byte; one 0xFF is kept.</li>
+ * <li>IAC EOR ends a record. Both bytes stay at the end of the record.</li>
+ * <li>IAC DO ends a negotiation request (rfc860 TIMING MARK). The option byte
+ * that follows is consumed and available from {@link #getOption()}.</li>
+ * <li>End of stream returns whatever was read so far.</li>
+ * </ul>
+ * The slice returned by {@link #nextRecord()} shares the read buffer and is
+ * only valid until the next call. Callers that keep the bytes must copy them.
+ * <p>
+ * A framer built without a stream is fed by its caller instead, as the
+ * selector loops of {@link MultiplexedTransport} do; see
+ * {@link #DataStreamFramer(int)}.
+ */
+public final class DataStreamFramer {
+
+    /**
+     * How the last record returned by {@link #nextRecord()} was terminated.
+     */
+    public enum Boundary {
+        /** IAC EOR - a complete 5250 record. */
+        END_OF_RECORD,
+        /** IAC DO - a telnet option request that must be negotiated. */
+        NEGOTIATE,
+        /** The peer closed the connection. */
+        END_OF_STREAM
+    }
+
+    static final int DEFAULT_CAPACITY = 8192;
+
+    private static final byte IAC = (byte) 0xFF;
+    private static final byte EOR = (byte) 0xEF;
+    private static final byte DO = (byte) 0xFD;
+
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final InputStream in;
+    private final int initialCapacity;
+    private ByteBuffer buffer;
+    private byte[] array;
+
+    // [consumed, limit) holds bytes read from the socket but not yet framed
+    private int consumed;
+    private int limit;
+
+    // scan position of the record under construction: [consumed, write) is
+    // framed, [read, limit) is not scanned yet
+    private int write;
+    private int read;
+
+    private Boundary boundary;
+    private int option = -1;
+    private boolean eof;
+
+    public DataStreamFramer(InputStream in) {
+        this(in, DEFAULT_CAPACITY);
+    }
+
+    public DataStreamFramer(InputStream in, int initialCapacity) {
+        if (initialCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2 bytes: " + initialCapacity);
+        }
+        this.in = in;
+        this.initialCapacity = initialCapacity;
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+        this.array = buffer.array();
+    }
+
+    /**
+     * Creates a framer without a stream. Bytes are handed in with
+     * {@link #feed(ByteBuffer)}, and {@link #nextRecord()} returns
+     * {@code null} instead of blocking when no complete record is buffered.
+     * The buffer returns to {@code initialCapacity} whenever it has been
+     * drained, so an idle session holds no more than that.
+     */
+    public DataStreamFramer(int initialCapacity) {
+        this(null, initialCapacity);
+    }
+
+    /**
+     * Reads the next record from the stream.
+     *
+     * @return a view of the record bytes, including the terminating
+     *         IAC EOR or IAC DO. At end of stream the view holds the trailing
+     *         partial record and may be empty. A framer without a stream
+     *         returns {@code null} when it needs more bytes.
+     * @throws IOException if the underlying stream fails
+     */
+    public ByteBuffer nextRecord() throws IOException {
+        option = -1;
+
+        while (true) {
+            int k = indexOfIac(array, read, limit);
+            if (write != read) {
+                System.arraycopy(array, read, array, write, k - read);
+            }
+            write += k - read;
+            read = k;
+
+            if (k + 1 >= limit) {
+                // need the byte after the IAC (or any byte at all) before deciding
+                if (in == null) {
+                    return starved();
+                }
+                fill();
+                if (eof) {
+                    int tail = limit - read;
+                    System.arraycopy(array, read, array, write, tail);
+                    write += tail;
+                    read = limit;
+                    boundary = Boundary.END_OF_STREAM;
+                    break;
+                }
+                continue;
+            }
+
+            byte command = array[k + 1];
+            if (command == DO && k + 2 >= limit && in == null) {
+                // the option byte has not arrived yet
+                return starved();
+            }
+            array[write++] = IAC;
+            read = k + 2;
+            if (command == IAC) {
+                // doubled FF FF, the host escapes data bytes of 0xFF this way
+                continue;
+            }
+            array[write++] = command;
+            if (command == EOR) {
+                boundary = Boundary.END_OF_RECORD;
+                break;
+            }
+            if (command == DO) {
+                if (read >= limit) {
+                    fill();
+                }
+                if (read < limit) {
+                    option = array[read++] & 0xff;
+                }
+                boundary = Boundary.NEGOTIATE;
+                break;
+            }
+        }
+
+        int start = consumed;
+        consumed = read;
+        ByteBuffer record = buffer.slice(start, write - start);
+        write = read;
+        return record;
+    }
+
+    /**
+     * Appends bytes received by the caller, for a framer without a stream.
+     * Records returned earlier by {@link #nextRecord()} are invalid afterwards.
+     *
+     * @param bytes the received bytes; the buffer is drained
+     */
+    public void feed(ByteBuffer bytes) {
+        int n = bytes.remaining();
+        makeRoom(n);
+        bytes.get(array, limit, n);
+        limit += n;
+    }
+
+    /**
+     * @return how the record last returned by {@link #nextRecord()} ended
+     */
+    public Boundary getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * @return the option byte following IAC DO, or -1 if the stream ended first
+     */
+    public int getOption() {
+        return option;
+    }
+
+    /**
+     * @return the current size of the read buffer
+     */
+    int capacity() {
+        return array.length;
+    }
+
+    /**
+     * Keeps the partial record for the next {@link #feed(ByteBuffer)}, or
+     * shrinks a grown buffer back when nothing is pending.
+     */
+    private ByteBuffer starved() {
+        if (consumed == limit) {
+            consumed = 0;
+            limit = 0;
+            write = 0;
+            read = 0;
+            if (array.length > initialCapacity) {
+                buffer = ByteBuffer.allocate(initialCapacity);
+                array = buffer.array();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads as much as the stream has into the buffer.
+     */
+    private void fill() throws IOException {
+        makeRoom(1);
+        int n = in.read(array, limit, array.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+    /**
+     * Moves the record under construction to the front of the buffer and
+     * grows the buffer until {@code needed} more bytes fit.
+     */
+    private void makeRoom(int needed) {
+        int shift = consumed;
+        if (shift > 0) {
+            System.arraycopy(array, shift, array, 0, limit - shift);
+            limit -= shift;
+            write -= shift;
+            read -= shift;
+            consumed = 0;
+        }
+        if (array.length - limit < needed) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(array.length * 2, limit + needed));
+            System.arraycopy(array, 0, grown.array(), 0, limit);
+            buffer = grown;
+            array = grown.array();
+        }
+    }
+
+    /**
+     * Finds the first 0xFF in {@code a[from, to)} eight bytes at a time.
+     *
+     * @return the index of the first IAC, or {@code to} if there is none
+     */
+    static int indexOfIac(byte[] a, int from, int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            // an IAC byte becomes zero after inversion; flag the zero bytes
+            long inverted = ~(long) LONG_VIEW.get(a, i);
+            long zeros = (inverted - LOW_BITS) & ~inverted & HIGH_BITS;
+            if (zeros != 0) {
+                return i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (a[i] == IAC) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
@@ -15,9 +15,10 @@ import org.hti5250j.tools.logging.HTI5250jLogFactory;
 import org.hti5250j.tools.logging.HTI5250jLogger;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.SocketException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.BlockingQueue;
 
 import static org.hti5250j.framework.tn5250.Stream5250.OPCODE_OFFSET;
@@ -25,10 +26,11 @@ import static org.hti5250j.framework.tn5250.Stream5250.OPCODE_OFFSET;
 public class DataStreamProducer implements Runnable {
 
     private static final int MINIMAL_PARTIAL_STREAM_LEN = 2;
+    private static final int PUSH_CAPACITY = 1024;
 
-    private BufferedInputStream bin;
-    private ByteArrayOutputStream baosin;
+    private final DataStreamFramer framer;
     private byte[] saveStream;
+    private int saveLength;
     private final BlockingQueue<Object> dsq;
     private tnvt vt;
     private byte[] dataStream;
@@ -38,13 +40,33 @@ public class DataStreamProducer implements Runnable {
     private HTI5250jLogger log = HTI5250jLogFactory.getLogger(this.getClass());
 
     public DataStreamProducer(tnvt vt, BufferedInputStream in, BlockingQueue<Object> queue, byte[] init) {
-        bin = in;
+        this(vt, (InputStream) in, queue, init);
+    }
+
+    /**
+     * The stream is read in bulk by a {@link DataStreamFramer}, so it does not
+     * need to be buffered.
+     */
+    public DataStreamProducer(tnvt vt, InputStream in, BlockingQueue<Object> queue, byte[] init) {
+        framer = new DataStreamFramer(in);
         this.vt = vt;
-        baosin = new ByteArrayOutputStream();
         dsq = queue;
         dataStream = init;
     }
 
+    /**
+     * Creates a producer without a thread or queue, for sessions on a
+     * {@link MultiplexedTransport}. The event loop hands it the bytes it
+     * reads through {@link #receive(ByteBuffer)}, and every complete record
+     * goes straight to {@code tnvt.processDataStream} on the loop thread.
+     */
+    DataStreamProducer(tnvt vt, byte[] init) {
+        framer = new DataStreamFramer(PUSH_CAPACITY);
+        this.vt = vt;
+        dsq = null;
+        dataStream = init;
+    }
+
     public final void run() {
 
         boolean done = false;
@@ -57,32 +79,12 @@ public class DataStreamProducer implements Runnable {
                 "Current: " + (me.isVirtual() ? "VIRTUAL" : "PLATFORM") + " thread");
         }
 
-        // load the first response screen
-        loadStream(dataStream, 0);
+        loadFirstScreen();
 
         while (!done) {
             try {
 
-                byte[] abyte0 = readIncoming();
-
-                // WVL - LDC : 17/05/2004 : Device name negotiations send TIMING MARK
-                // Restructured to the readIncoming() method to return null
-                // on TIMING MARK. Don't process in that case (abyte0 == null)!
-                if (abyte0 != null) {
-                    // WVL - LDC : 16/07/2003 : TR.000345
-                    // When the socket has been closed, the reading returns
-                    // no bytes (an empty byte arrray).
-                    // But the loadStream fails on this, so we check it here!
-                    if (abyte0.length > 0) {
-                        loadStream(abyte0, 0);
-                    // reached end-of-stream, so we do a disconnect!
-                    // Returning no bytes means the input buffer has
-                    // WVL - LDC : 16/07/2003 : TR.000345
-                    } else {
-                        done = true;
-                        vt.disconnect();
-                    }
-                }
+                done = !dispatch(framer.nextRecord());
 
             } catch (SocketException se) {
                 log.warn("   DataStreamProducer thread interrupted and stopping " + se.getMessage());
@@ -105,53 +107,146 @@ public class DataStreamProducer implements Runnable {
         }
     }
 
-    private void loadStream(byte streamBuffer[], int offset) {
+    /**
+     * Loads the first response screen, the bytes that ended negotiation.
+     */
+    void loadFirstScreen() {
+        loadStream(dataStream, 0, dataStream.length);
+        dataStream = null;
+    }
 
-        int partialLen = (streamBuffer[offset] & 0xff) << 8 | streamBuffer[offset + 1] & 0xff;
-        int bufferLen = streamBuffer.length;
+    /**
+     * Frames bytes read by a {@link MultiplexedTransport} event loop and
+     * processes every record they complete.
+     *
+     * @return false once the host closed the connection
+     * @throws IOException if answering a negotiation fails
+     */
+    boolean receive(ByteBuffer bytes) throws IOException {
+        framer.feed(bytes);
+        ByteBuffer record;
+        while ((record = framer.nextRecord()) != null) {
+            if (!dispatch(record)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        if (log.isDebugEnabled()) {
-            log.debug("loadStream() offset=" + offset + " partialLen=" + partialLen + " bufferLen=" + bufferLen);
+    /**
+     * Handles one framed record.
+     *
+     * @return false at end of stream, after the session was disconnected
+     */
+    private boolean dispatch(ByteBuffer record) throws IOException {
+        dataStreamDumper.dump(record);
+
+        switch (framer.getBoundary()) {
+            case END_OF_RECORD:
+                loadStream(record);
+                return true;
+            case NEGOTIATE:
+                // WVL - LDC : 17/05/2004 : Device name negotiations send TIMING MARK
+                // The negotiation is answered here and never queued.
+                vt.negotiate(toArray(record));
+                return true;
+            case END_OF_STREAM:
+            default:
+                // WVL - LDC : 16/07/2003 : TR.000345
+                // The AS/400 closed the connection, so we do a disconnect!
+                vt.disconnect();
+                return false;
         }
+    }
 
-        if (saveStream != null) {
+    private void loadStream(ByteBuffer record) {
+        if (record.hasArray()) {
+            int offset = record.arrayOffset() + record.position();
+            loadStream(record.array(), offset, offset + record.remaining());
+        } else {
+            loadStream(toArray(record), 0, record.remaining());
+        }
+    }
+
+    /**
+     * Splits {@code streamBuffer[offset, end)} into 5250 records, each
+     * prefixed by its 16 bit length and followed by IAC EOR, and queues a
+     * copy of every complete one (or processes it right away when there is
+     * no queue). A record whose length runs past the end of the buffer is
+     * saved and completed by the next call.
+     */
+    private void loadStream(byte[] streamBuffer, int offset, int end) {
+
+        if (saveLength > 0) {
             log.debug("partial stream found");
-            bufferLen = saveStream.length + streamBuffer.length;
-            byte[] inter = new byte[bufferLen];
-            System.arraycopy(saveStream, 0, inter, 0, saveStream.length);
-            System.arraycopy(streamBuffer, 0, inter, saveStream.length, streamBuffer.length);
-            streamBuffer = new byte[bufferLen];
-            System.arraycopy(inter, 0, streamBuffer, 0, bufferLen);
-            saveStream = null;
+            int len = end - offset;
+            if (saveLength + len > saveStream.length) {
+                byte[] inter = new byte[saveLength + len];
+                System.arraycopy(saveStream, 0, inter, 0, saveLength);
+                saveStream = inter;
+            }
+            System.arraycopy(streamBuffer, offset, saveStream, saveLength, len);
+            streamBuffer = saveStream;
+            offset = 0;
+            end = saveLength + len;
+            saveLength = 0;
         }
 
-        if (partialLen > bufferLen) {
-            saveStream = new byte[streamBuffer.length];
-            log.debug("partial stream saved");
-            System.arraycopy(streamBuffer, 0, saveStream, 0, streamBuffer.length);
-        } else {
+        while (true) {
+            int bufferLen = end - offset;
+            if (bufferLen < MINIMAL_PARTIAL_STREAM_LEN) {
+                log.debug("stream too short to hold a record length, ignored");
+                return;
+            }
+
+            int partialLen = (streamBuffer[offset] & 0xff) << 8 | streamBuffer[offset + 1] & 0xff;
+
+            if (log.isDebugEnabled()) {
+                log.debug("loadStream() offset=" + offset + " partialLen=" + partialLen + " bufferLen=" + bufferLen);
+            }
+
+            if (partialLen > bufferLen) {
+                if (saveStream == null || saveStream.length < bufferLen) {
+                    saveStream = new byte[Math.max(bufferLen, DataStreamFramer.DEFAULT_CAPACITY)];
+                }
+                log.debug("partial stream saved");
+                System.arraycopy(streamBuffer, offset, saveStream, 0, bufferLen);
+                saveLength = bufferLen;
+                return;
+            }
+
             int buf_len = partialLen + 2;
             byte[] buf = new byte[buf_len];
-            if (isBufferShifted(partialLen, bufferLen) && isOpcodeShifted(streamBuffer, offset)) {
+            if (isBufferShifted(partialLen, bufferLen) && isOpcodeShifted(streamBuffer, offset, end)) {
                 log.debug("Invalid stream buffer detected. Ignoring the inserted byte.");
                 System.arraycopy(streamBuffer, offset, buf, 0, MINIMAL_PARTIAL_STREAM_LEN);
                 System.arraycopy(streamBuffer, offset + MINIMAL_PARTIAL_STREAM_LEN + 1, buf, MINIMAL_PARTIAL_STREAM_LEN, partialLen);
             } else {
-                System.arraycopy(streamBuffer, offset, buf, 0, buf_len);
+                System.arraycopy(streamBuffer, offset, buf, 0, Math.min(buf_len, bufferLen));
             }
-            try {
-                dsq.put(buf);
-                if (streamBuffer.length > buf.length + offset + MINIMAL_PARTIAL_STREAM_LEN) {
-                    loadStream(streamBuffer, offset + buf_len);
+            if (dsq == null) {
+                vt.processDataStream(buf);
+            } else {
+                try {
+                    dsq.put(buf);
+                } catch (InterruptedException ex) {
+                    log.warn("load stream error.", ex);
+                    return;
                 }
-            } catch (InterruptedException ex) {
-                log.warn("load stream error.", ex);
+            }
+            offset += buf_len;
+            if (end - offset <= MINIMAL_PARTIAL_STREAM_LEN) {
+                return;
             }
         }
     }
 
-    private boolean isOpcodeShifted(byte[] streamBuffer, int offset) {
-        byte code = streamBuffer[offset + 1 + OPCODE_OFFSET];
+    private boolean isOpcodeShifted(byte[] streamBuffer, int offset, int end) {
+        int index = offset + 1 + OPCODE_OFFSET;
+        if (index >= end) {
+            return false;
+        }
+        byte code = streamBuffer[index];
         return (0 <= code && code <= 12);
     }
 
@@ -159,91 +254,50 @@ public class DataStreamProducer implements Runnable {
         return partialLen + MINIMAL_PARTIAL_STREAM_LEN + 1 == bufferLen;
     }
 
+    /**
+     * Reads the next telnet record and returns a copy of it.
+     * <p>
+     * The record keeps its trailing IAC EOR. A TIMING MARK request is
+     * negotiated straight away and {@code null} is returned; at end of
+     * stream the session is disconnected and the bytes read so far, possibly
+     * none, are returned.
+     *
+     * Not available on a producer fed by a {@link MultiplexedTransport}.
+     *
+     * @return the record bytes, or {@code null} after a negotiation
+     * @throws IOException if the socket read fails
+     */
     public final byte[] readIncoming() throws IOException {
 
-        boolean done = false;
-        boolean negotiate = false;
-
-        baosin.reset();
-        int j = -1;
-
-        while (!done) {
+        ByteBuffer record = framer.nextRecord();
+        byte[] rBytes = toArray(record);
 
-            int i = bin.read();
+        dataStreamDumper.dump(rBytes);
 
-            // WVL - LDC : 16/07/2003 : TR.000345
-            // The inStream return -1 when end-of-stream is reached. This
-            // happens e.g. when the connection is closed from the AS/400.
-            // So we stop in this case!
-            // ==> an empty byte array is returned from this method.
-            if (i == -1) { // nothing read!
-                done = true;
+        switch (framer.getBoundary()) {
+            case NEGOTIATE:
+                // WVL - LDC : 17/05/2004 : Device name negotiations send TIMING MARK
+                // to existing device! We cannot continue processing the
+                // TIMING MARK DO after we have handled it in vt.negotiate(),
+                // so no bytes are returned.
+                vt.negotiate(rBytes);
+                return null;
+            case END_OF_STREAM:
+                // WVL - LDC : 16/07/2003 : TR.000345
+                // End-of-stream is reached e.g. when the connection is closed
+                // from the AS/400. So we stop in this case!
                 vt.disconnect();
-                continue;
-            }
-
-            // We use the values instead of the static values IAC and EOR
-            //    because they are defined as bytes.
-            //
-            // The > if(i != 255 || j != 255)  < is a hack for the double FF FF's
-            // that are being returned.  I do not know why this is like this and
-            // can not find any documentation for it.  It is also being returned
-            // on my Client Access tcp dump as well so they are handling it.
-            //
-            // my5250
-            // 0000:  00 50 DA 44 C8 45 42 00 00 00 00 24 08 00 45 00 .P.D.EB....$..E.
-            // 0010:  04 2A BC F9 00 00 40 06 D0 27 C1 A8 33 04 C1 A8 .*....@..'..3...
-            // 0020:  33 58 00 17 04 18 6F A2 83 CB 00 1E D1 BA 50 18 3X....o.......P.
-            // 0030:  20 00 8A 9A 00 00 03 FF FF 12 A0 00 00 04 00 00  ...............
-            // --------------------------- || || -------------------------------------
-            // 0040:  03 04 40 04 11 00 20 01 07 00 00 00 18 00 00 10 ..@... .........
-
-            if (j == 255 && i == 255) {
-                j = -1;
-                continue;
-            }
-            baosin.write(i);
-            // check for end of record EOR and IAC  - FFEF
-            if (j == 255 && i == 239) {
-                done = true;
-            }
-
-            // This is to check for the TELNET TIMING MARK OPTION
-            // rfc860 explains this in more detail.  When we receive it
-            // we will negotiate with the server by sending a WONT'T TIMING-MARK
-            // This will let the server know that we processed the information
-            // and are just waiting for the user to enter some data so keep the
-            // socket alive.   This is more or less a AYT (ARE YOU THERE) or not.
-            if (i == 253 && j == 255) {
-                done = true;
-                negotiate = true;
-            }
-            j = i;
+                return rBytes;
+            case END_OF_RECORD:
+            default:
+                return rBytes;
         }
+    }
 
-        // after the initial negotiation we might get other options such as
-        //    timing marks ??????????????  do we ???????????? look at telnet spec
-        // yes we do. rfc860 explains about timing marks.
-
-        // WVL - LDC : 17/05/2004 : Device name negotiations send TIMING MARK
-        //                          to existing device!
-        // Handled incorrectly: we cannot continue processing the TIMING MARK DO
-        // after we have handled it in the vt.negotiate()
-        // We should not return the bytes;
-        // ==> restructured to return null after negotiation!
-        //     Impacts the run method! Added the null check.
-        byte[] rBytes = baosin.toByteArray();
-
-        dataStreamDumper.dump(rBytes);
-
-        if (negotiate) {
-            // get the negotiation option
-            baosin.write(bin.read());
-            vt.negotiate(rBytes);
-
-            return null;
-        }
-        return rBytes;
+    private static byte[] toArray(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.get(record.position(), bytes);
+        return bytes;
     }
 
     protected void toggleDebug(ICodePage codePage) {
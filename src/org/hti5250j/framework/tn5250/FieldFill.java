@@ -0,0 +1,313 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Values for input fields, written straight into the fields by
+ * {@link Screen5250#fillFields(FieldFill)} instead of being typed.
+ * <p>
+ * A field is addressed by its index in the format table, by a row and
+ * column within it, or by the label text in front of it. Each value gets
+ * what the keyboard and Field Exit would give it: upper-casing in
+ * monocase fields, the character checks of the field's shift, right
+ * adjustment with blank or zero fill, the sign position of signed numeric
+ * fields, mandatory enter and mandatory fill. The whole fill is checked
+ * before any field is written, so a value the field would refuse leaves
+ * the screen as it was.
+ * <pre>
+ * screen.fillFields(FieldFill.builder()
+ *     .label("Customer number", customer)
+ *     .at(8, 30, quantity)
+ *     .field(5, "Y")
+ *     .build(), HTI5250jConstants.AID_ENTER);
+ * </pre>
+ * A fill holds no screen state and can be reused.
+ *
+ * @since 1.3.0
+ */
+public final class FieldFill {
+
+    private final List<Entry> entries;
+
+    /**
+     * One value and where it goes: a field index, a position or a label.
+     */
+    private record Entry(int index, int row, int col, String label, String value) {
+
+        String describe() {
+            if (label != null) {
+                return "field after '" + label + "'";
+            }
+            if (index >= 0) {
+                return "field " + index;
+            }
+            return "field at " + row + "," + col;
+        }
+    }
+
+    private FieldFill(Builder builder) {
+        this.entries = List.copyOf(builder.entries);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the number of values in this fill
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks every value against its field, then writes them all and sets
+     * their modified data tags.
+     *
+     * @throws IllegalArgumentException naming every value that cannot be written
+     */
+    void apply(Screen5250 screen) {
+        ScreenFields fields = screen.getScreenFields();
+        List<String> errors = new ArrayList<String>();
+        ScreenField[] targets = new ScreenField[entries.size()];
+        char[][] contents = new char[entries.size()][];
+        String screenText = null;
+
+        for (int i = 0; i < targets.length; i++) {
+            Entry entry = entries.get(i);
+            ScreenField sf;
+            if (entry.label() != null) {
+                if (screenText == null) {
+                    screenText = new String(screen.getScreenAsChars());
+                }
+                sf = fieldAfter(fields, screenText, entry.label());
+            } else if (entry.index() >= 0) {
+                sf = entry.index() < fields.getSize() ? fields.getField(entry.index()) : null;
+            } else {
+                sf = entry.row() <= screen.getRows() && entry.col() <= screen.getColumns()
+                        ? fields.findByPosition(entry.row() - 1, entry.col() - 1) : null;
+            }
+            if (sf == null) {
+                errors.add(entry.describe() + ": no such input field");
+                continue;
+            }
+            String error = null;
+            if (sf.isBypassField()) {
+                error = "field is protected";
+            } else {
+                contents[i] = new char[sf.getLength()];
+                error = format(sf, entry.value(), contents[i]);
+            }
+            if (error != null) {
+                errors.add(entry.describe() + ": " + error);
+            } else {
+                targets[i] = sf;
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Cannot fill " + String.join("; ", errors));
+        }
+
+        for (int i = 0; i < targets.length; i++) {
+            ScreenField sf = targets[i];
+            int pos = sf.startPos();
+            for (char c : contents[i]) {
+                screen.planes.setChar(pos, c);
+                screen.setDirty(pos);
+                pos++;
+            }
+            switch (sf.getAdjustment()) {
+                case 5, 6 -> sf.setRightAdjusted();
+                case 7 -> sf.setManditoryEntered();
+                default -> { }
+            }
+            sf.setMDT();
+            fields.setMasterMDT();
+        }
+    }
+
+    /**
+     * @return the first input field starting after the label, or null
+     */
+    private static ScreenField fieldAfter(ScreenFields fields, String screenText, String label) {
+        int at = screenText.indexOf(label);
+        if (at < 0) {
+            return null;
+        }
+        int end = at + label.length();
+        ScreenField best = null;
+        for (int x = 0; x < fields.getSize(); x++) {
+            ScreenField sf = fields.getField(x);
+            if (!sf.isBypassField() && sf.startPos() >= end
+                    && (best == null || sf.startPos() < best.startPos())) {
+                best = sf;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Lays out {@code value} as the field would hold it after typing and
+     * Field Exit.
+     *
+     * @return why the field would refuse the value, or null
+     */
+    private static String format(ScreenField sf, String value, char[] content) {
+        int length = content.length;
+        String text = sf.isToUpper() ? value.toUpperCase(Locale.ROOT) : value;
+        boolean negative = false;
+
+        switch (sf.getFieldShift()) {
+            case 1: // Alpha only
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (!Character.isLetter(c) && c != ',' && c != '-' && c != '.' && c != ' ') {
+                        return "'" + c + "' not allowed in an alphabetic-only field";
+                    }
+                }
+                break;
+            case 3: // Numeric only
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (!Character.isDigit(c) && c != '+' && c != ',' && c != '-' && c != '.' && c != ' ') {
+                        return "'" + c + "' not allowed in a numeric-only field";
+                    }
+                }
+                break;
+            case 5: // Digits only
+                for (int i = 0; i < text.length(); i++) {
+                    if (!Character.isDigit(text.charAt(i))) {
+                        return "'" + text.charAt(i) + "' not allowed in a digits-only field";
+                    }
+                }
+                break;
+            case 7: // Signed numeric, the last position holds the sign
+                if (text.startsWith("-") || text.endsWith("-")) {
+                    negative = true;
+                }
+                if (!text.isEmpty() && "+-".indexOf(text.charAt(0)) >= 0) {
+                    text = text.substring(1);
+                } else if (!text.isEmpty() && "+-".indexOf(text.charAt(text.length() - 1)) >= 0) {
+                    text = text.substring(0, text.length() - 1);
+                }
+                for (int i = 0; i < text.length(); i++) {
+                    if (!Character.isDigit(text.charAt(i))) {
+                        return "'" + text.charAt(i) + "' not allowed in a signed numeric field";
+                    }
+                }
+                if (text.length() > length - 1) {
+                    return "'" + value + "' needs " + (text.length() + 1) + " positions, field has " + length;
+                }
+                break;
+            default:
+                break;
+        }
+
+        if (text.length() > length) {
+            return "'" + value + "' is longer than the field (" + length + ")";
+        }
+        if (text.isEmpty() && sf.isMandatoryEnter()) {
+            return "field requires an entry";
+        }
+        int adjust = sf.getAdjustment();
+        if (adjust == 7 && !text.isEmpty() && text.length() < length) {
+            return "field must be filled completely (" + length + ")";
+        }
+
+        char fill = adjust == 5 ? '0' : ' ';
+        if (sf.isSignedNumeric()) {
+            int digits = length - 1;
+            int lead = digits - text.length();
+            for (int i = 0; i < lead; i++) {
+                content[i] = fill;
+            }
+            text.getChars(0, text.length(), content, lead);
+            content[digits] = negative ? '-' : Screen5250.initChar;
+        } else if (adjust == 5 || adjust == 6) {
+            int lead = length - text.length();
+            for (int i = 0; i < lead; i++) {
+                content[i] = fill;
+            }
+            text.getChars(0, text.length(), content, lead);
+        } else if (sf.isRightToLeft()) {
+            int lead = length - text.length();
+            for (int i = 0; i < lead; i++) {
+                content[i] = Screen5250.initChar;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                content[lead + i] = text.charAt(text.length() - 1 - i);
+            }
+        } else {
+            // what Field Exit leaves after the last character typed
+            text.getChars(0, text.length(), content, 0);
+            for (int i = text.length(); i < length; i++) {
+                content[i] = Screen5250.initChar;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rows and columns are numbered from 1, as on a 5250 display; field
+     * indexes from 0, in format table order.
+     */
+    public static final class Builder {
+        private final List<Entry> entries = new ArrayList<Entry>();
+
+        private Builder() {}
+
+        /**
+         * @param index the field's index in the format table, from 0
+         */
+        public Builder field(int index, String value) {
+            if (value == null) throw new IllegalArgumentException("value must not be null");
+            if (index < 0) {
+                throw new IllegalArgumentException("index must not be negative: " + index);
+            }
+            entries.add(new Entry(index, 0, 0, null, value));
+            return this;
+        }
+
+        /**
+         * @param row row of any position within the field
+         * @param col column of any position within the field
+         */
+        public Builder at(int row, int col, String value) {
+            if (value == null) throw new IllegalArgumentException("value must not be null");
+            if (row < 1 || col < 1) {
+                throw new IllegalArgumentException("row and col start at 1: " + row + "," + col);
+            }
+            entries.add(new Entry(-1, row, col, null, value));
+            return this;
+        }
+
+        /**
+         * @param label text on the screen; the value goes into the first
+         *              input field starting after it
+         */
+        public Builder label(String label, String value) {
+            if (label == null) throw new IllegalArgumentException("label must not be null");
+            if (value == null) throw new IllegalArgumentException("value must not be null");
+            if (label.isEmpty()) {
+                throw new IllegalArgumentException("label must not be empty");
+            }
+            entries.add(new Entry(-1, 0, 0, label, value));
+            return this;
+        }
+
+        public FieldFill build() {
+            return new FieldFill(this);
+        }
+    }
+}
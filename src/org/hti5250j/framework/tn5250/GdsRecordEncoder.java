@@ -0,0 +1,182 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Builds outbound 5250 records in place, the counterpart of
+ * {@link DataStreamFramer}.
+ * <p>
+ * Record data is written once, straight into a reusable buffer, with IAC
+ * (0xFF) doubled as it is written. The GDS header of rfc1205 section 3 is
+ * only known once the data is complete, because it starts with the record
+ * length; the encoder leaves room for it in front of the data and fills it
+ * in at the end, so the header, the escaped data and the closing IAC EOR are
+ * one contiguous frame that goes to the socket in a single write.
+ * <pre>
+ * encoder.begin(0, 3);           // flags, opcode
+ * encoder.write(row);
+ * encoder.write(col);
+ * encoder.write(aid);
+ * encoder.writeTo(out);
+ * </pre>
+ * An encoder belongs to one session and is not thread-safe. The buffer
+ * grows to the largest record sent and is kept for the next one.
+ */
+public final class GdsRecordEncoder {
+
+    static final int DEFAULT_CAPACITY = 256;
+
+    private static final int HEADER_LENGTH = 10;
+    // the two length bytes and the flags byte may each be doubled as IAC
+    private static final int HEADER_ROOM = HEADER_LENGTH + 3;
+
+    private static final byte IAC = (byte) 0xFF;
+    private static final byte EOR = (byte) 0xEF;
+
+    private byte[] array;
+    private ByteBuffer frame;
+
+    // next free byte of the escaped data
+    private int position;
+    // unescaped record length, header included
+    private int length;
+    private int flags;
+    private int opcode;
+
+    public GdsRecordEncoder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GdsRecordEncoder(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + initialCapacity);
+        }
+        this.array = new byte[HEADER_ROOM + initialCapacity + 2];
+        this.frame = ByteBuffer.wrap(array);
+        begin(0, 0);
+    }
+
+    /**
+     * Starts a new record, discarding any data not yet sent.
+     *
+     * @param flags GDS flags byte (ERR, ATN, SRQ, TRQ, HLP)
+     * @param opcode GDS operation code
+     */
+    public void begin(int flags, int opcode) {
+        this.flags = flags;
+        this.opcode = opcode;
+        position = HEADER_ROOM;
+        length = HEADER_LENGTH;
+    }
+
+    /**
+     * Appends one data byte.
+     */
+    public void write(int b) {
+        ensureCapacity(2);
+        array[position++] = (byte) b;
+        if ((byte) b == IAC) {
+            array[position++] = IAC;
+        }
+        length++;
+    }
+
+    /**
+     * Appends data bytes. Runs without IAC are copied in bulk.
+     */
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(len);
+        int end = off + len;
+        int run = off;
+        for (int i = off; i < end; i++) {
+            if (b[i] == IAC) {
+                int n = i + 1 - run;
+                ensureCapacity(n + 1 + end - i - 1);
+                System.arraycopy(b, run, array, position, n);
+                position += n;
+                array[position++] = IAC;
+                run = i + 1;
+            }
+        }
+        int n = end - run;
+        System.arraycopy(b, run, array, position, n);
+        position += n;
+        length += len;
+    }
+
+    /**
+     * @return the record length so far, header included and before IAC
+     *         escaping, as it will appear in the header
+     */
+    public int size() {
+        return length;
+    }
+
+    /**
+     * Completes the record: the header goes in front of the data and
+     * IAC EOR after it.
+     *
+     * @return the frame to send, valid until the next {@link #begin}
+     */
+    public ByteBuffer finish() {
+        ensureCapacity(2);
+        array[position] = IAC;
+        array[position + 1] = EOR;
+
+        int start = HEADER_ROOM;
+        array[--start] = (byte) opcode;
+        array[--start] = 0; // reserved
+        start = putEscaped(start, flags);
+        array[--start] = 4; // variable header length
+        array[--start] = 0; // unused
+        array[--start] = 0;
+        array[--start] = (byte) 0xA0; // record type 12A0, General Data Stream
+        array[--start] = 0x12;
+        start = putEscaped(start, length & 0xff);
+        start = putEscaped(start, length >> 8);
+
+        frame.limit(position + 2).position(start);
+        return frame;
+    }
+
+    /**
+     * Completes the record and writes the frame with one call, then flushes.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ByteBuffer record = finish();
+        out.write(array, record.position(), record.remaining());
+        out.flush();
+    }
+
+    private int putEscaped(int start, int b) {
+        array[--start] = (byte) b;
+        if ((byte) b == IAC) {
+            array[--start] = IAC;
+        }
+        return start;
+    }
+
+    /**
+     * Makes room for {@code n} more data bytes plus the closing IAC EOR.
+     */
+    private void ensureCapacity(int n) {
+        int needed = position + n + 2;
+        if (needed > array.length) {
+            byte[] grown = new byte[Math.max(needed, array.length * 2)];
+            System.arraycopy(array, 0, grown, 0, position);
+            array = grown;
+            frame = ByteBuffer.wrap(array);
+        }
+    }
+}
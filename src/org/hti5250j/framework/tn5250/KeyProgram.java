@@ -0,0 +1,146 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.keyboard.KeyMnemonicResolver;
+
+import java.util.Arrays;
+
+/**
+ * A key string in {@link Screen5250#sendKeys(String)} syntax, split into its
+ * keystrokes once, so {@link Screen5250#sendKeys(KeyProgram)} can type it
+ * any number of times without tokenizing it or looking up mnemonics again.
+ * <pre>
+ * private static final KeyProgram WRKACTJOB = KeyProgram.compile("WRKACTJOB[enter]");
+ * ...
+ * screen.sendKeys(WRKACTJOB);
+ * </pre>
+ * Keystrokes are split as {@link KeyStrokenizer} splits them: {@code [[}
+ * and {@code ]]} type a bracket, {@code [name]} is a mnemonic and a lone
+ * {@code ]} is ignored. An unknown mnemonic is kept and does nothing when
+ * typed, as with {@code sendKeys(String)}.
+ *
+ * @since 1.3.0
+ */
+public final class KeyProgram {
+
+    private static final KeyMnemonicResolver MNEMONICS = new KeyMnemonicResolver();
+
+    private final String text;
+    // a character, or the complement of a mnemonic's value
+    private final int[] keys;
+    // where in text the keystroke after each one starts
+    private final int[] ends;
+
+    private KeyProgram(String text, int[] keys, int[] ends) {
+        this.text = text;
+        this.keys = keys;
+        this.ends = ends;
+    }
+
+    /**
+     * @param text keys and mnemonics, such as {@code "WRKACTJOB[enter]"}
+     * @throws IllegalArgumentException if text is null or a mnemonic is not closed
+     */
+    public static KeyProgram compile(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("text must not be null");
+        }
+        int length = text.length();
+        int[] keys = new int[length];
+        int[] ends = new int[length];
+        int count = 0;
+        int index = 0;
+        while (index < length) {
+            char c = text.charAt(index);
+            int key;
+            if (c == '[' && index + 1 < length && text.charAt(index + 1) != '[') {
+                int close = text.indexOf(']', index + 1);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Mnemonic at position " + index + " is not closed: " + text);
+                }
+                key = ~MNEMONICS.findMnemonicValue(text.substring(index, close + 1));
+                index = close + 1;
+            } else if (c == '[') {
+                // "[[" or a trailing "["
+                key = '[';
+                index = Math.min(index + 2, length);
+            } else if (c == ']' && index + 1 < length && text.charAt(index + 1) != ']') {
+                // no mnemonic begins here
+                index++;
+                continue;
+            } else if (c == ']') {
+                // "]]" or a trailing "]"
+                key = ']';
+                index = Math.min(index + 2, length);
+            } else {
+                key = c;
+                index++;
+            }
+            keys[count] = key;
+            ends[count] = index;
+            count++;
+        }
+        return new KeyProgram(text, Arrays.copyOf(keys, count), Arrays.copyOf(ends, count));
+    }
+
+    /**
+     * @return the key string this program was compiled from
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the number of keystrokes
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    boolean isMnemonic(int index) {
+        return keys[index] < 0;
+    }
+
+    /**
+     * @return the character typed by keystroke {@code index}, if not a mnemonic
+     */
+    char charAt(int index) {
+        return (char) keys[index];
+    }
+
+    /**
+     * @return the {@link org.hti5250j.keyboard.KeyMnemonic} value of keystroke
+     *         {@code index}, 0 for an unknown mnemonic
+     */
+    int mnemonicAt(int index) {
+        return ~keys[index];
+    }
+
+    /**
+     * @return the keys after keystroke {@code index} as text, or null if there are none
+     */
+    String remainder(int index) {
+        int from = ends[index];
+        return from < text.length() ? text.substring(from) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof KeyProgram && text.equals(((KeyProgram) o).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "KeyProgram{" + text + "}";
+    }
+}
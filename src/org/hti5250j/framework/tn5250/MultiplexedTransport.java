@@ -0,0 +1,461 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.tools.logging.HTI5250jLogFactory;
+import org.hti5250j.tools.logging.HTI5250jLogger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the sockets of many sessions on a few selector-driven event loops.
+ * <p>
+ * A threaded session (the default) has a {@code datastream-*} thread blocked
+ * on its socket, a {@code tnvt-*} thread taking records from a queue, and a
+ * connect thread. On a multiplexed transport a session has none of these:
+ * its non-blocking channel is registered with one event loop, which connects
+ * it, answers Telnet negotiation through {@code tnvt.negotiate}, frames the
+ * bytes it reads and hands each 5250 record straight to
+ * {@code tnvt.processDataStream}. Outbound records are written from the
+ * calling thread when the socket accepts them, and by the loop otherwise.
+ * <p>
+ * Each loop handles its sessions one at a time, so the cost of a session is
+ * its socket and buffers, not its threads. Screen processing for all
+ * sessions of a loop is serialized on that loop's thread.
+ * <p>
+ * Select the transport per session with {@code SESSION_TRANSPORT=multiplexed}
+ * in the connection properties (uses {@link #shared()}), or with
+ * {@link tnvt#setTransport(MultiplexedTransport)}. SSL and SOCKS proxy
+ * sessions stay threaded.
+ *
+ * @since 1.3.0
+ */
+public final class MultiplexedTransport implements AutoCloseable {
+
+    private static final HTI5250jLogger log = HTI5250jLogFactory.getLogger(MultiplexedTransport.class);
+
+    private static final byte IAC = (byte) 0xFF;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static volatile MultiplexedTransport shared;
+
+    private final EventLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private volatile boolean open = true;
+
+    private MultiplexedTransport(int loopCount, String name) throws IOException {
+        loops = new EventLoop[loopCount];
+        try {
+            for (int i = 0; i < loopCount; i++) {
+                loops[i] = new EventLoop(name + "-" + i);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a transport with its own event loops. Close it when its
+     * sessions are done.
+     *
+     * @param loopCount number of event loop threads, at least 1
+     * @throws IOException if a selector cannot be opened
+     */
+    public static MultiplexedTransport create(int loopCount) throws IOException {
+        if (loopCount < 1) {
+            throw new IllegalArgumentException("loopCount must be >= 1: " + loopCount);
+        }
+        return new MultiplexedTransport(loopCount, "tn5250-transport");
+    }
+
+    /**
+     * @return the JVM-wide transport used for {@code SESSION_TRANSPORT=multiplexed},
+     * with one event loop per processor up to four. Its daemon threads are
+     * never closed.
+     */
+    public static MultiplexedTransport shared() {
+        MultiplexedTransport t = shared;
+        if (t == null) {
+            synchronized (MultiplexedTransport.class) {
+                t = shared;
+                if (t == null) {
+                    int loopCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+                    try {
+                        t = new MultiplexedTransport(loopCount, "tn5250-shared");
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Cannot open shared transport selectors", e);
+                    }
+                    shared = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * @return sessions whose socket is currently open on this transport
+     */
+    public int getSessionCount() {
+        return sessions.get();
+    }
+
+    public int getLoopCount() {
+        return loops.length;
+    }
+
+    /**
+     * Disconnects every session and stops the event loops.
+     */
+    @Override
+    public void close() {
+        open = false;
+        for (EventLoop loop : loops) {
+            if (loop != null) {
+                loop.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates the channel of one session on the next event loop. The caller
+     * wires its output stream before {@link Connection#connect} registers it,
+     * so negotiation replies always have somewhere to go.
+     */
+    Connection open(tnvt vt) throws IOException {
+        if (!open) {
+            throw new IOException("Transport closed");
+        }
+        EventLoop loop = loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        sessions.incrementAndGet();
+        return new Connection(vt, loop, channel);
+    }
+
+    /**
+     * One session's channel. Reads, negotiation and record processing happen
+     * on the loop thread; writes may come from any thread.
+     */
+    final class Connection {
+
+        private final tnvt vt;
+        private final EventLoop loop;
+        private final SocketChannel channel;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // guarded by outputLock, not a monitor: writers are usually virtual
+        // threads, and waiting for the loop must not pin their carrier
+        private final ReentrantLock outputLock = new ReentrantLock();
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private SelectionKey key;
+        // loop thread only; null while negotiating
+        private DataStreamProducer producer;
+
+        Connection(tnvt vt, EventLoop loop, SocketChannel channel) {
+            this.vt = vt;
+            this.loop = loop;
+            this.channel = channel;
+        }
+
+        Socket socket() {
+            return channel.socket();
+        }
+
+        OutputStream getOutputStream() {
+            return new ChannelOutputStream(this);
+        }
+
+        /**
+         * Starts connecting; the event loop finishes it.
+         */
+        void connect(InetSocketAddress address) throws IOException {
+            boolean connected = channel.connect(address);
+            loop.execute(() -> register(connected));
+        }
+
+        private void register(boolean connected) {
+            try {
+                key = channel.register(loop.selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, this);
+                if (connected) {
+                    updateInterest();
+                }
+            } catch (ClosedChannelException e) {
+                close();
+            }
+        }
+
+        void finishConnect() throws IOException {
+            if (channel.finishConnect()) {
+                updateInterest();
+            }
+        }
+
+        /**
+         * Until negotiation is over every read is one negotiation chunk, as
+         * in the threaded connect; the first chunk that does not start with
+         * IAC carries the first screen.
+         */
+        void received(ByteBuffer bytes) throws IOException {
+            if (producer == null) {
+                byte[] chunk = new byte[bytes.remaining()];
+                bytes.get(chunk);
+                if (chunk[0] == IAC) {
+                    vt.negotiate(chunk);
+                } else {
+                    producer = vt.startDataStream(chunk);
+                }
+                return;
+            }
+            if (!producer.receive(bytes)) {
+                close();
+            }
+        }
+
+        /**
+         * The host closed the connection or the channel failed.
+         */
+        void lost(String reason) {
+            if (closed.get()) {
+                return;
+            }
+            log.warn("Session " + vt.getHostName() + " lost: " + reason);
+            close();
+            if (vt.isConnected()) {
+                vt.disconnect();
+            }
+        }
+
+        void write(ByteBuffer src) throws IOException {
+            outputLock.lock();
+            try {
+                if (closed.get()) {
+                    throw new ClosedChannelException();
+                }
+                if (pending.isEmpty() && channel.isConnected()) {
+                    channel.write(src);
+                    if (!src.hasRemaining()) {
+                        return;
+                    }
+                }
+                // the caller reuses its buffer, keep a copy of what is left
+                ByteBuffer copy = ByteBuffer.allocate(src.remaining());
+                copy.put(src).flip();
+                pending.add(copy);
+                if (pending.size() > 1) {
+                    return;
+                }
+            } finally {
+                outputLock.unlock();
+            }
+            loop.execute(this::updateInterest);
+        }
+
+        /**
+         * Writes queued output; called by the loop when the socket is writable.
+         */
+        void flush() throws IOException {
+            outputLock.lock();
+            try {
+                while (!pending.isEmpty()) {
+                    ByteBuffer head = pending.peek();
+                    channel.write(head);
+                    if (head.hasRemaining()) {
+                        return;
+                    }
+                    pending.poll();
+                }
+            } finally {
+                outputLock.unlock();
+            }
+            updateInterest();
+        }
+
+        private void updateInterest() {
+            if (key == null || !key.isValid() || !channel.isConnected()) {
+                return;
+            }
+            boolean writing;
+            outputLock.lock();
+            try {
+                writing = !pending.isEmpty();
+            } finally {
+                outputLock.unlock();
+            }
+            key.interestOps(writing ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            sessions.decrementAndGet();
+            outputLock.lock();
+            try {
+                pending.clear();
+            } finally {
+                outputLock.unlock();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("close channel: " + e.getMessage());
+            }
+            // a closed channel is only released by the selector's next round
+            loop.selector.wakeup();
+        }
+    }
+
+    /**
+     * The session's end of {@code tnvt.bout}. Buffering is left to the
+     * BufferedOutputStream around it; every write goes to the channel.
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+
+        private final Connection connection;
+
+        ChannelOutputStream(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            connection.write(ByteBuffer.wrap(new byte[] {(byte) b}));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            connection.write(ByteBuffer.wrap(b, off, len));
+        }
+
+        @Override
+        public void close() {
+            connection.close();
+        }
+    }
+
+    /**
+     * One selector and its platform thread.
+     */
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        EventLoop(String name) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        void shutdown() {
+            execute(() -> {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection c) {
+                        c.lost("transport closed");
+                    }
+                }
+                running = false;
+            });
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                } catch (IOException e) {
+                    log.warn("Transport selector failed: " + e.getMessage());
+                    break;
+                }
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.debug("close selector: " + e.getMessage());
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            Connection c = (Connection) key.attachment();
+            try {
+                if (!key.isValid()) {
+                    return;
+                }
+                if (key.isConnectable()) {
+                    c.finishConnect();
+                    return;
+                }
+                if (key.isReadable()) {
+                    readBuffer.clear();
+                    int n = c.channel.read(readBuffer);
+                    if (n < 0) {
+                        c.lost("connection closed by host");
+                        return;
+                    }
+                    if (n > 0) {
+                        readBuffer.flip();
+                        c.received(readBuffer);
+                    }
+                }
+                if (key.isValid() && key.isWritable()) {
+                    c.flush();
+                }
+            } catch (ClosedChannelException e) {
+                // disconnected by the session itself, the key was still selected
+                c.close();
+            } catch (IOException | RuntimeException e) {
+                c.lost(e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+        }
+    }
+}
@@ -17,9 +17,19 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.BitSet;
+import java.lang.invoke.VarHandle;
 import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.event.ScreenChangeEvent;
+import org.hti5250j.event.ScreenChangeListener;
 import org.hti5250j.event.ScreenListener;
 import org.hti5250j.keyboard.KeyMnemonic;
 import org.hti5250j.keyboard.KeyMnemonicResolver;
@@ -81,6 +91,31 @@ public class Screen5250 {
     // vector of listeners for changes to the screen.
     private Vector<ScreenListener> screenListeners = null;
 
+    // headless change listeners, with the screen version and the version
+    // at which each row last changed
+    private final CopyOnWriteArrayList<ScreenChangeListener> changeListeners =
+            new CopyOnWriteArrayList<ScreenChangeListener>();
+    private volatile long version;
+    private long[] rowVersions;
+    private final ReentrantLock versionLock = new ReentrantLock();
+
+    // Serializes the keyboard: sendKeys, fillFields and setScreenData. A
+    // lock rather than the screen's monitor, because typing can end in a
+    // socket write and listeners are called under it, and a virtual thread
+    // blocked inside a monitor pins its carrier.
+    final ReentrantLock screenLock = new ReentrantLock();
+
+    // Updates from the data stream and the keyboard in progress and
+    // completed. Readers copy between updates without the lock and copy
+    // again if either count moved meanwhile, like a sequence lock whose
+    // writers never wait.
+    private final AtomicInteger updating = new AtomicInteger();
+    private final AtomicLong updates = new AtomicLong();
+    private final ThreadLocal<int[]> updateDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private volatile ScreenSnapshot snapshot;
+    private static final int READ_SPINS = 100;
+    private static final long READ_PARK_NANOS = 20_000;
+
     // Operator Information Area
     private ScreenOIA oia;
 
@@ -114,6 +149,7 @@ public class Screen5250 {
         oia.setKeyBoardLocked(true);
 
         lenScreen = numRows * numCols;
+        rowVersions = new long[numRows];
 
         planes = new ScreenPlanes(this, numRows);
 
@@ -145,7 +181,14 @@ public class Screen5250 {
         //  If they are not the same then we need to inform the listeners that
         //  the size changed.
         if (oldRows != numRows || oldCols != numCols) {
+            versionLock.lock();
+            try {
+                rowVersions = new long[numRows];
+            } finally {
+                versionLock.unlock();
+            }
             fireScreenSizeChanged();
+            fireScreenChange(0, numRows - 1);
         }
 
     }
@@ -198,7 +241,7 @@ public class Screen5250 {
             while (t-- > 0) {
                 // only copy printable characters (in this case >= ' ')
                 char c = planes.getChar(getPos(m - 1, i - 1));
-                if (c >= ' ' && (planes.screenExtended[getPos(m - 1, i - 1)] & EXTENDED_5250_NON_DSP)
+                if (c >= ' ' && (planes.getExtended(getPos(m - 1, i - 1)) & EXTENDED_5250_NON_DSP)
                         == 0) {
                     sb.append(c);
                 } else {
@@ -575,7 +618,7 @@ public class Screen5250 {
         return result;
     }
 
-    public synchronized void sendKeys(KeyMnemonic keyMnemonic) {
+    public void sendKeys(KeyMnemonic keyMnemonic) {
         sendKeys(keyMnemonic.mnemonic);
     }
 
@@ -593,7 +636,44 @@ public class Screen5250 {
      * @param text The string of characters to be sent
      * @see #sendAid
      */
-    public synchronized void sendKeys(String text) {
+    public void sendKeys(String text) {
+        screenLock.lock();
+        beginUpdate();
+        try {
+            typeKeys(text, null);
+        } finally {
+            endUpdate();
+            screenLock.unlock();
+        }
+    }
+
+    /**
+     * Sends keys compiled ahead of time, as {@link #sendKeys(String)} sends
+     * the text they were compiled from. Typing them takes no tokenizing and
+     * no mnemonic lookups, and allocates nothing unless keys are buffered.
+     *
+     * @param program the keys to send
+     * @since 1.3.0
+     */
+    public void sendKeys(KeyProgram program) {
+        if (program == null) {
+            throw new IllegalArgumentException("program must not be null");
+        }
+        screenLock.lock();
+        beginUpdate();
+        try {
+            typeKeys(program.getText(), program);
+        } finally {
+            endUpdate();
+            screenLock.unlock();
+        }
+    }
+
+    /**
+     * Types {@code text}, through {@code program} if it is the compiled text
+     * and no keys buffered while the keyboard was locked come first.
+     */
+    private void typeKeys(String text, KeyProgram program) {
 
         this.keybuf.append(text);
 
@@ -632,6 +712,7 @@ public class Screen5250 {
             if (oia.isKeysBuffered()) {
                 if (bufferedKeys != null) {
                     text = bufferedKeys + text;
+                    program = null;
                 }
                 //            if (text.length() == 0) {
                 oia.setKeysBuffered(false);
@@ -642,7 +723,9 @@ public class Screen5250 {
             // check to see if position is in a field and if it is then change
             //   current field to that field
             isInField(lastPos, true);
-            if (text.length() == 1 && !text.equals("[") && !text.equals("]")) {
+            if (program != null) {
+                runKeys(program);
+            } else if (text.length() == 1 && !text.equals("[") && !text.equals("]")) {
                 setCursorActive(false);
                 simulateKeyStroke(text.charAt(0));
                 setCursorActive(true);
@@ -687,6 +770,29 @@ public class Screen5250 {
         }
     }
 
+    private void runKeys(KeyProgram program) {
+        setCursorActive(false);
+        for (int i = 0; i < program.size(); i++) {
+            // check to see if position is in a field and if it is then change
+            //   current field to that field
+            isInField(lastPos, true);
+            if (program.isMnemonic(i)) {
+                simulateMnemonic(program.mnemonicAt(i));
+            } else {
+                simulateKeyStroke(program.charAt(i));
+            }
+
+            if (oia.isKeyBoardLocked()) {
+                bufferedKeys = program.remainder(i);
+                if (bufferedKeys != null) {
+                    oia.setKeysBuffered(true);
+                }
+                break;
+            }
+        }
+        setCursorActive(true);
+    }
+
     /**
      * The sendAid method sends an "aid" keystroke to the virtual screen. These
      * aid keys can be thought of as special keystrokes, like the Enter key,
@@ -735,6 +841,55 @@ public class Screen5250 {
         sessionVT.sendAidKey(aidKey);
     }
 
+    /**
+     * Writes values straight into input fields, as if they had been typed
+     * and ended with Field Exit, without simulating the keystrokes. The
+     * fields' modified data tags are set, so the next aid key sends them.
+     *
+     * @param fill the values and the fields they go in
+     * @throws IllegalStateException if the keyboard is locked
+     * @throws IllegalArgumentException if a field is missing or would refuse
+     *         its value; nothing is written then
+     * @since 1.3.0
+     */
+    public void fillFields(FieldFill fill) {
+        if (fill == null) {
+            throw new IllegalArgumentException("fill must not be null");
+        }
+        screenLock.lock();
+        try {
+            if (oia.isKeyBoardLocked()) {
+                throw new IllegalStateException("Keyboard is locked");
+            }
+            beginUpdate();
+            try {
+                fill.apply(this);
+                updateDirty();
+            } finally {
+                endUpdate();
+            }
+        } finally {
+            screenLock.unlock();
+        }
+    }
+
+    /**
+     * Fills the fields, then sends the aid key with their data in one
+     * record.
+     *
+     * @see #fillFields(FieldFill)
+     * @since 1.3.0
+     */
+    public void fillFields(FieldFill fill, int aidKey) {
+        screenLock.lock();
+        try {
+            fillFields(fill);
+            sendAid(aidKey);
+        } finally {
+            screenLock.unlock();
+        }
+    }
+
     /**
      * Restores the error line and sets the error mode off.
      *
@@ -2129,7 +2284,7 @@ public class Screen5250 {
      * @param plane
      * @return The number of characters copied to the buffer
      */
-    public synchronized int GetScreen(char buffer[], int bufferLength, int plane) {
+    public int GetScreen(char buffer[], int bufferLength, int plane) {
         return GetScreen(buffer, bufferLength, 0, lenScreen, plane);
     }
 
@@ -2156,8 +2311,8 @@ public class Screen5250 {
      * @param plane
      * @return The number of characters copied to the buffer
      */
-    public synchronized int GetScreen(char buffer[], int bufferLength, int from, int length, int plane) {
-        return planes.GetScreen(buffer, bufferLength, from, length, plane);
+    public int GetScreen(char buffer[], int bufferLength, int from, int length, int plane) {
+        return readBetweenUpdates(() -> planes.GetScreen(buffer, bufferLength, from, length, plane));
     }
 
     /**
@@ -2185,10 +2340,10 @@ public class Screen5250 {
      * @param plane
      * @return The number of characters copied to the buffer.
      */
-    public synchronized int GetScreen(char buffer[], int bufferLength, int row, int col, int length, int plane) {
+    public int GetScreen(char buffer[], int bufferLength, int row, int col, int length, int plane) {
         // Call GetScreen function after converting row and column to
         // a position.
-        return planes.GetScreen(buffer, bufferLength, row, col, length, plane);
+        return readBetweenUpdates(() -> planes.GetScreen(buffer, bufferLength, row, col, length, plane));
     }
 
     /**
@@ -2220,8 +2375,8 @@ public class Screen5250 {
      * @param plane
      * @return The number of characters copied to the buffer
      */
-    public synchronized int GetScreenRect(char buffer[], int bufferLength, int startPos, int endPos, int plane) {
-        return planes.GetScreenRect(buffer, bufferLength, startPos, endPos, plane);
+    public int GetScreenRect(char buffer[], int bufferLength, int startPos, int endPos, int plane) {
+        return readBetweenUpdates(() -> planes.GetScreenRect(buffer, bufferLength, startPos, endPos, plane));
 
     }
 
@@ -2256,18 +2411,105 @@ public class Screen5250 {
      * @param plane
      * @return The number characters copied to the buffer
      */
-    public synchronized int GetScreenRect(char buffer[], int bufferLength,
-                                          int startRow, int startCol, int endRow, int endCol, int plane) {
+    public int GetScreenRect(char buffer[], int bufferLength,
+                             int startRow, int startCol, int endRow, int endCol, int plane) {
+
+        return readBetweenUpdates(() -> planes.GetScreenRect(buffer, bufferLength, startRow, startCol, endRow,
+                endCol, plane));
+    }
+
+    public boolean[] getActiveAidKeys() {
+        return readBetweenUpdates(() -> sessionVT.getActiveAidKeys());
+    }
+
+    /**
+     * Consistent copy of the screen as the last completed update left it,
+     * taken without the screen's lock: a reader on another thread neither
+     * waits for the data stream or the keyboard nor holds them up. If an
+     * update overlaps the copy, the copy is taken again.
+     * <p>
+     * As long as the screen does not change the same snapshot is returned,
+     * so polling a settled screen costs nothing.
+     *
+     * @return the screen's planes, fields and OIA state at one version
+     * @since 1.3.0
+     */
+    public ScreenSnapshot getSnapshot() {
+        ScreenSnapshot last = snapshot;
+        if (last != null && updating.get() == 0 && last.updates == updates.get()
+                && last.getVersion() == version) {
+            return last;
+        }
+        ScreenSnapshot taken = readBetweenUpdates(() -> new ScreenSnapshot(this, updates.get(),
+                sessionVT == null ? new boolean[0] : sessionVT.getActiveAidKeys()));
+        snapshot = taken;
+        return taken;
+    }
+
+    /**
+     * Marks the start of a change to the planes, the format table or the
+     * OIA, such as applying a host record or typing. Must be paired with
+     * {@link #endUpdate()}; updates may nest and overlap.
+     */
+    void beginUpdate() {
+        updateDepth.get()[0]++;
+        updating.incrementAndGet();
+    }
+
+    void endUpdate() {
+        updates.incrementAndGet();
+        updating.decrementAndGet();
+        updateDepth.get()[0]--;
+    }
 
-        return planes.GetScreenRect(buffer, bufferLength, startRow, startCol, endRow,
-                endCol, plane);
+    /**
+     * Runs {@code read} between updates: again as often as one overlaps it.
+     * A thread inside an update, such as a listener told of a change while
+     * a record is applied, or holding the screen's lock reads directly.
+     */
+    private <T> T readBetweenUpdates(Supplier<T> read) {
+        if (updateDepth.get()[0] > 0 || screenLock.isHeldByCurrentThread()) {
+            return read.get();
+        }
+        for (int attempt = 0; ; attempt++) {
+            long completed = updates.get();
+            if (updating.get() == 0) {
+                T result = null;
+                RuntimeException failure = null;
+                try {
+                    result = read.get();
+                } catch (RuntimeException e) {
+                    // a read torn by an update may fail; an undisturbed one fails for real
+                    failure = e;
+                }
+                VarHandle.acquireFence();
+                if (updating.get() == 0 && updates.get() == completed) {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return result;
+                }
+            }
+            if (attempt < READ_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(READ_PARK_NANOS);
+            }
+        }
     }
 
-    public synchronized boolean[] getActiveAidKeys() {
-        return sessionVT.getActiveAidKeys();
+    protected void setScreenData(String text, int location) {
+        screenLock.lock();
+        beginUpdate();
+        try {
+            putScreenData(text, location);
+        } finally {
+            endUpdate();
+            screenLock.unlock();
+        }
     }
 
-    protected synchronized void setScreenData(String text, int location) {
+    private void putScreenData(String text, int location) {
 
         if (location < 0 || location > lenScreen) {
             return;
@@ -2288,7 +2530,7 @@ public class Screen5250 {
                         flag = true;
                     }
 
-                    planes.screen[location + x] = text.charAt(x);
+                    planes.putChar(location + x, text.charAt(x));
                     setDirty(location + x);
                 }
             }
@@ -2968,6 +3210,42 @@ public class Screen5250 {
         advancePos();
     }
 
+    /**
+     * Puts a run of characters on the screen from the current position, as
+     * {@code length} calls of {@link #setChar(int)} would, with the planes
+     * written in one copy each and the dirty region widened once. The characters must be nulls or displayable, not other
+     * control characters.
+     */
+    protected void setChars(char[] chars, int offset, int length) {
+        if (lastPos > 0) {
+            lastAttr = planes.getCharAttr(lastPos - 1);
+        }
+        while (length > 0) {
+            // a run that reaches the end of the screen goes on at the top
+            int count = Math.min(length, lenScreen - lastPos);
+            int first = lastPos;
+            int last = first + count - 1;
+            planes.setScreenChars(first, chars, offset, count, lastAttr);
+            if (guiInterface) {
+                for (int pos = first; pos <= last; pos++) {
+                    if (!isInField(pos, false)) {
+                        planes.setUseGUI(pos, NO_GUI);
+                    }
+                }
+            }
+            if (getRow(first) != getRow(last)) {
+                // the run covers whole rows in between, so every column of them
+                setDirty(getPos(getRow(first), 0));
+                setDirty(getPos(getRow(last), numCols - 1));
+            }
+            setDirty(first);
+            setDirty(last);
+            changePos(count);
+            offset += count;
+            length -= count;
+        }
+    }
+
     protected void setEndingAttr(int cByte) {
         int attr = lastAttr;
         setAttr(cByte);
@@ -3273,6 +3551,7 @@ public class Screen5250 {
      */
     private void fireScreenChanged(int which, int startRow, int startCol,
                                    int endRow, int endCol) {
+        fireScreenChange(startRow, endRow);
         if (screenListeners != null) {
             // Patch below contributed by Mitch Blevins
             //int size = listeners.size();
@@ -3288,11 +3567,36 @@ public class Screen5250 {
         dirtyScreen = new Rect(lenScreen, 0, 0, 0);
     }
 
+    /**
+     * Advance the screen version, stamp the changed rows with it and notify
+     * the registered ScreenChangeListeners.
+     */
+    private void fireScreenChange(int startRow, int endRow) {
+        long changed;
+        versionLock.lock();
+        try {
+            changed = version + 1;
+            int last = Math.min(endRow, rowVersions.length - 1);
+            for (int row = Math.max(startRow, 0); row <= last; row++) {
+                rowVersions[row] = changed;
+            }
+            version = changed;
+        } finally {
+            versionLock.unlock();
+        }
+        if (!changeListeners.isEmpty()) {
+            ScreenChangeEvent event = new ScreenChangeEvent(this, changed, startRow, endRow);
+            for (ScreenChangeListener listener : changeListeners) {
+                listener.onScreenChange(event);
+            }
+        }
+    }
+
     /**
      * Notify all registered listeners of the onScreenChanged event.
      *
      */
-    private synchronized void fireScreenChanged(int update) {
+    private void fireScreenChanged(int update) {
         if (dirtyScreen.x() > dirtyScreen.y()) {
             return;
         }
@@ -3306,7 +3610,7 @@ public class Screen5250 {
      * Notify all registered listeners of the onScreenChanged event.
      *
      */
-    private synchronized void fireCursorChanged(int update) {
+    private void fireCursorChanged(int update) {
         int startRow = getRow(lastPos);
         int startCol = getCol(lastPos);
 
@@ -3370,6 +3674,188 @@ public class Screen5250 {
         screenListeners.removeElement(listener);
     }
 
+    /**
+     * Add a ScreenChangeListener, told the rows and the new version after
+     * every change to the screen's data.
+     *
+     * @param listener  The ScreenChangeListener to be added
+     * @since 1.3.0
+     */
+    public void addScreenChangeListener(ScreenChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Remove a ScreenChangeListener.
+     *
+     * @param listener  The ScreenChangeListener to be removed
+     * @since 1.3.0
+     */
+    public void removeScreenChangeListener(ScreenChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * The screen version grows by one every time the screen's data changes,
+     * so two reads returning the same version saw the same screen.
+     *
+     * @return the current screen version, zero before the first change
+     * @since 1.3.0
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * A consumer that last read the screen at version {@code v} only needs
+     * to read again the rows whose version is greater than {@code v}.
+     *
+     * @param row zero based row
+     * @return the screen version at which the row last changed
+     * @since 1.3.0
+     */
+    public long getRowVersion(int row) {
+        versionLock.lock();
+        try {
+            if (row < 0 || row >= rowVersions.length) {
+                throw new IndexOutOfBoundsException("row " + row + " of " + rowVersions.length);
+            }
+            return rowVersions[row];
+        } finally {
+            versionLock.unlock();
+        }
+    }
+
+    /**
+     * Live view of one row's text, read straight from the screen without
+     * copying, with the same mapping as {@link #getScreenAsChars()}:
+     * attribute places and unprintable characters read as spaces.
+     * <p>
+     * The view follows later changes to the row; call {@code toString()} to
+     * keep its current text.
+     *
+     * @param row zero based row
+     * @return the row's text, {@link #getColumns()} characters long
+     * @since 1.3.0
+     */
+    public CharSequence getRowText(int row) {
+        if (row < 0 || row >= numRows) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + numRows);
+        }
+        return new RowText(row * numCols, numCols);
+    }
+
+    /**
+     * Hash of what the screen shows, its text and attributes at every
+     * position, kept up to date as the host writes so reading it costs
+     * nothing. Screens that look the same have the same fingerprint.
+     * <p>
+     * Read it once the screen is settled, for example after the keyboard
+     * unlocks; while a record is being applied it reflects part of it.
+     *
+     * @return the screen's fingerprint
+     * @since 1.3.0
+     * @see ScreenRegistry
+     */
+    public long getFingerprint() {
+        return planes.getFingerprint();
+    }
+
+    /**
+     * The fingerprint without the given regions, for screens with text
+     * that changes from one visit to the next, such as the date, time or
+     * job number. Costs one step per masked position.
+     *
+     * @param masked regions to leave out; parts beyond the screen are ignored
+     * @return the fingerprint of the rest of the screen
+     * @since 1.3.0
+     */
+    public long getFingerprint(ScreenRegion... masked) {
+        long fingerprint = planes.getFingerprint();
+        if (masked.length == 0) {
+            return fingerprint;
+        }
+        // regions may overlap, and each position must only be taken out once
+        BitSet done = masked.length > 1 ? new BitSet(lenScreen) : null;
+        for (ScreenRegion region : masked) {
+            if (region.row() > numRows || region.col() > numCols) {
+                continue;
+            }
+            int start = getPos(region.row() - 1, region.col() - 1);
+            int end = Math.min(start + region.length(), lenScreen);
+            for (int pos = start; pos < end; pos++) {
+                if (done == null || !done.get(pos)) {
+                    fingerprint -= planes.cellHash(pos);
+                    if (done != null) {
+                        done.set(pos);
+                    }
+                }
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Live view of the whole screen's text, row after row, like
+     * {@link #getRowText(int)} for every row at once.
+     *
+     * @return the screen's text, {@link #getScreenLength()} characters long
+     * @since 1.3.0
+     */
+    public CharSequence getScreenText() {
+        return new RowText(0, lenScreen);
+    }
+
+    /**
+     * Characters of the screen from {@code start}, as getScreenAsChars
+     * would return them.
+     */
+    private final class RowText implements CharSequence {
+
+        private final int start;
+        private final int length;
+
+        RowText(int start, int length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + " of " + length);
+            }
+            int pos = start + index;
+            char c = planes.getChar(pos);
+            return (c >= ' ') && (!planes.isAttributePlace(pos)) ? c : ' ';
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > length || from > to) {
+                throw new IndexOutOfBoundsException("range " + from + ".." + to + " of " + length);
+            }
+            return new RowText(start + from, to - from);
+        }
+
+        @Override
+        public String toString() {
+            char[] text = new char[length];
+            for (int i = 0; i < length; i++) {
+                text[i] = charAt(i);
+            }
+            return new String(text);
+        }
+    }
+
     /**
      * Utility method to share the repaint behaviour between setBounds() and
      * updateScreen.
@@ -15,10 +15,11 @@ import static org.hti5250j.HTI5250jConstants.CMD_READ_INPUT_FIELDS;
 import static org.hti5250j.HTI5250jConstants.CMD_READ_MDT_FIELDS;
 import static org.hti5250j.HTI5250jConstants.CMD_READ_MDT_IMMEDIATE_ALT;
 
-import java.io.ByteArrayOutputStream;
 
 import org.hti5250j.encoding.ICodePage;
 
+import java.util.Arrays;
+
 public class ScreenFields {
 
     private ScreenField[] screenFields;
@@ -32,6 +33,17 @@ public class ScreenFields {
     private boolean masterMDT;
     protected boolean currentModified;
 
+    // Position index over the format table, kept up to date as fields are
+    // added: fieldAt holds one plus the index of the first field covering a
+    // position, fieldStartingAt the same for the first field starting there,
+    // 0 where there is none.
+    private short[] fieldAt = new short[0];
+    private short[] fieldStartingAt = new short[0];
+
+    // a field's text and its EBCDIC bytes while readFormatTable converts it
+    private char[] fieldChars = new char[0];
+    private byte[] fieldBytes = new byte[0];
+
     public ScreenFields(Screen5250 s) {
 
         screen = s;
@@ -40,6 +52,8 @@ public class ScreenFields {
 
     protected void clearFFT() {
 
+        Arrays.fill(fieldAt, (short) 0);
+        Arrays.fill(fieldStartingAt, (short) 0);
         sizeFields = nextField = fieldIds = 0;
         cpfExists = false;   // clear the cursor progression fields flag
         currentField = null;
@@ -49,25 +63,63 @@ public class ScreenFields {
 
     protected boolean existsAtPos(int lastPos) {
 
-        ScreenField sf = null;
-
         // from 14.6.12 for Start of Field Order 5940 function manual
         //  examine the format table for an entry that begins at the current
         //  starting address plus 1.
-        for (int x = 0; x < sizeFields; x++) {
-            sf = screenFields[x];
-
-            if (lastPos == sf.startPos()) {
-                currentField = sf;
-                currentModified = false;
-                return true;
+        ScreenField sf = lookup(fieldStartingAt, lastPos);
+        if (sf == null && (lastPos < 0 || lastPos >= fieldStartingAt.length)) {
+            for (int x = 0; x < sizeFields && sf == null; x++) {
+                if (lastPos == screenFields[x].startPos()) {
+                    sf = screenFields[x];
+                }
             }
+        }
 
+        if (sf != null) {
+            currentField = sf;
+            currentModified = false;
+            return true;
         }
 
         return false;
     }
 
+    /**
+     * Adds the field at {@code index} to the position index. Fields are
+     * indexed in format table order and a position already taken keeps its
+     * field, so overlapping fields resolve to the first one as a scan of the
+     * table would.
+     */
+    private void indexField(int index) {
+
+        ScreenField sf = screenFields[index];
+        int start = Math.max(sf.startPos(), 0);
+        int end = sf.endPos();
+        int needed = Math.max(screen.getScreenLength(), end + 1);
+        if (needed > fieldAt.length) {
+            fieldAt = Arrays.copyOf(fieldAt, needed);
+            fieldStartingAt = Arrays.copyOf(fieldStartingAt, needed);
+        }
+
+        short entry = (short) (index + 1);
+        if (sf.startPos() >= 0 && fieldStartingAt[start] == 0) {
+            fieldStartingAt[start] = entry;
+        }
+        for (int pos = start; pos <= end; pos++) {
+            if (fieldAt[pos] == 0) {
+                fieldAt[pos] = entry;
+            }
+        }
+    }
+
+    private ScreenField lookup(short[] index, int pos) {
+
+        if (pos < 0 || pos >= index.length || index[pos] == 0) {
+            return null;
+        }
+        return screenFields[index[pos] - 1];
+    }
+
     public boolean isMasterMDT() {
         return masterMDT;
     }
@@ -186,6 +238,7 @@ public class ScreenFields {
         ScreenField sf = null;
         screenFields[nextField] = new ScreenField(screen);
         screenFields[nextField].setField(attr, row, col, len, ffw1, ffw2, fcw1, fcw2);
+        indexField(nextField);
         sf = screenFields[nextField++];
 
         sizeFields++;
@@ -261,21 +314,17 @@ public class ScreenFields {
 
     protected boolean isInField(int pos, boolean chgToField) {
 
-        ScreenField sf;
+        ScreenField sf = findByPosition(pos);
 
-        for (int x = 0; x < sizeFields; x++) {
-            sf = screenFields[x];
-
-            if (sf.withinField(pos)) {
+        if (sf != null) {
 
-                if (chgToField) {
-                    if (!currentField.equals(sf)) {
-                        currentModified = false;
-                    }
-                    currentField = sf;
+            if (chgToField) {
+                if (currentField != sf) {
+                    currentModified = false;
                 }
-                return true;
+                currentField = sf;
             }
+            return true;
         }
         return false;
 
@@ -331,6 +380,12 @@ public class ScreenFields {
      */
     public ScreenField findByPosition(int targetPosition) {
 
+        if (targetPosition >= 0 && targetPosition < fieldAt.length) {
+            return lookup(fieldAt, targetPosition);
+        }
+
+        // every field position is indexed, only one before the screen can
+        // still be inside a field
         ScreenField sf = null;
 
         for (int x = 0; x < sizeFields; x++) {
@@ -453,7 +508,6 @@ public class ScreenFields {
                 while (sf != null && sf.isBypassField());
 
             } else {
-                int f = 0;
                 int cp = sf.getCursorProgression();
 
                 if (cp == 0) {
@@ -464,17 +518,9 @@ public class ScreenFields {
                     while (sf != null && sf.isBypassField());
 
                 } else {
-                    ScreenField sf1 = null;
-                    boolean found = false;
-                    while (!found && f < sizeFields) {
-
-                        sf1 = screenFields[f++];
-                        if (sf1.getFieldId() == cp) {
-                            found = true;
-                        }
-                    }
-                    if (found) {
-                        sf = sf1;
+                    // field ids are handed out in format table order from 1
+                    if (cp <= sizeFields && screenFields[cp - 1].getFieldId() == cp) {
+                        sf = screenFields[cp - 1];
                     } else {
                         do {
                             sf = sf.next;
@@ -482,7 +528,6 @@ public class ScreenFields {
                         while (sf != null && sf.isBypassField());
 
                     }
-                    sf1 = null;
                 }
             }
             if (sf == null) {
@@ -577,7 +622,7 @@ public class ScreenFields {
         }
     }
 
-    protected void readFormatTable(ByteArrayOutputStream baosp, int readType, ICodePage codePage) {
+    protected void readFormatTable(GdsRecordEncoder baosp, int readType, ICodePage codePage) {
 
         ScreenField sf;
         boolean isSigned = false;
@@ -644,8 +689,29 @@ public class ScreenFields {
                             baosp.write(sf.selectionIndex + 0x1F);
 
                         } else {
-                            for (int k = 0; k < len3; k++) {
-                                c = sb.charAt(k);
+                            if (fieldChars.length < len3) {
+                                fieldChars = new char[len3];
+                                fieldBytes = new byte[len3];
+                            }
+                            char[] chars = fieldChars;
+                            byte[] bytes = fieldBytes;
+                            sb.getChars(0, len3, chars, 0);
+                            // the sign of a signed numeric field is not converted
+                            int plainEnd = isSigned ? len3 - 1 : len3;
+                            int n = 0;
+                            int k = 0;
+                            while (k < len3) {
+                                int run = k;
+                                while (run < plainEnd && chars[run] >= ' ' && chars[run] < '\uff20') {
+                                    run++;
+                                }
+                                if (run > k) {
+                                    codePage.encode(chars, k, run - k, bytes, n);
+                                    n += run - k;
+                                    k = run;
+                                    continue;
+                                }
+                                c = chars[k++];
                                 // here we have to check for special instances of the
                                 //    characters in the string field.  Attribute bytes
                                 //    are encoded with an offset of \uff00
@@ -656,23 +722,19 @@ public class ScreenFields {
                                     // if it is an offset attribute byte we just pass
                                     //    it straight on to the output stream
                                     if (c >= '\uff20' && c <= '\uff3f') {
-                                        baosp.write(c - '\uff00');
+                                        bytes[n++] = (byte) (c - '\uff00');
                                     } else
                                         // check for dup character
                                         if (c == 0x1C) {
-                                            baosp.write(c);
+                                            bytes[n++] = (byte) c;
                                         } else {
-                                            baosp.write(codePage.uni2ebcdic(' '));
+                                            bytes[n++] = codePage.uni2ebcdic(' ');
                                         }
                                 } else {
-                                    if (isSigned && k == len3 - 1) {
-                                        baosp.write(0xd0 | (0x0f & c));
-                                    } else {
-                                        baosp.write(codePage.uni2ebcdic(c));
-                                    }
-
+                                    bytes[n++] = (byte) (0xd0 | (0x0f & c));
                                 }
                             }
+                            baosp.write(bytes, 0, n);
                         }
                     }
                 }
@@ -12,6 +12,9 @@
 package org.hti5250j.framework.tn5250;
 
 import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.hti5250j.event.ScreenOIAListener;
 
@@ -109,10 +112,108 @@ public class ScreenOIA {
         }
     }
 
+    /**
+     * Wait until the keyboard is unlocked.
+     * <p>
+     * The waiting thread parks on a condition that {@link #setKeyBoardLocked(boolean)}
+     * signals, so it wakes as soon as the host unlocks the keyboard and uses
+     * no CPU in between.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if the keyboard is unlocked, false if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean awaitKeyboardUnlocked(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!locked) {
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        keyboardLock.lock();
+        try {
+            while (locked) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = keyboardChanged.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            keyboardLock.unlock();
+        }
+    }
+
+    /**
+     * @return how many times the keyboard has been locked; read it before
+     *         sending keys and pass it to {@link #awaitKeyboardLocked(long, long, TimeUnit)}
+     * @since 1.3.0
+     */
+    public long getKeyboardLockCount() {
+        return lockCount;
+    }
+
+    /**
+     * Wait until the keyboard has been locked.
+     * <p>
+     * Returns true as soon as the keyboard is locked, and also when a complete
+     * lock and unlock happened during the wait. A lock and unlock that finished
+     * before this call is not seen; use {@link #awaitKeyboardLocked(long, long, TimeUnit)}
+     * with a count read before sending keys to catch those.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if a lock was seen, false if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean awaitKeyboardLocked(long timeout, TimeUnit unit) throws InterruptedException {
+        return awaitKeyboardLocked(lockCount, timeout, unit);
+    }
+
+    /**
+     * Wait until the keyboard is locked or has been locked since
+     * {@link #getKeyboardLockCount()} returned {@code sinceCount}, so a fast
+     * host response between sending keys and this call is not missed.
+     *
+     * @param sinceCount the lock count read before sending keys
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if a lock was seen, false if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread is interrupted
+     * @since 1.3.0
+     */
+    public boolean awaitKeyboardLocked(long sinceCount, long timeout, TimeUnit unit) throws InterruptedException {
+        if (locked || lockCount != sinceCount) {
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        keyboardLock.lock();
+        try {
+            while (!locked && lockCount == sinceCount) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = keyboardChanged.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            keyboardLock.unlock();
+        }
+    }
+
     protected void setKeyBoardLocked(boolean lockIt) {
         level = OIA_LEVEL_KEYBOARD;
-        boolean oldLocked = locked;
-        locked = lockIt;
+        boolean oldLocked;
+        keyboardLock.lock();
+        try {
+            oldLocked = locked;
+            locked = lockIt;
+            if (lockIt && !oldLocked) {
+                lockCount++;
+            }
+            keyboardChanged.signalAll();
+        } finally {
+            keyboardLock.unlock();
+        }
         if (!lockIt) {
 
             if (isKeysBuffered()) {
@@ -266,7 +367,10 @@ public class ScreenOIA {
 
     private Vector<ScreenOIAListener> listeners = null;
     private boolean insertMode;
-    private boolean locked;
+    private volatile boolean locked;
+    private volatile long lockCount;
+    private final ReentrantLock keyboardLock = new ReentrantLock();
+    private final Condition keyboardChanged = keyboardLock.newCondition();
     private boolean keysBuffered;
     private int owner = 0;
     private int level = 0;
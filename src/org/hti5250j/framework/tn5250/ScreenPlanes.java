@@ -13,6 +13,9 @@ package org.hti5250j.framework.tn5250;
 
 import static org.hti5250j.HTI5250jConstants.*;
 
+import java.util.Arrays;
+import java.util.BitSet;
+
 public class ScreenPlanes {
 
     private final Screen5250 scr;
@@ -24,40 +27,69 @@ public class ScreenPlanes {
     private static final int initAttr = 32;
     private static final char initChar = 0;
 
+    // Only the text plane needs a char per position. Attributes, colors,
+    // extended attributes and field attributes are byte sized, the colors
+    // packed as background << 4 | foreground, and the attribute place and
+    // changed flags are bits. The gui plane is only allocated once
+    // something other than NO_GUI is put in it, which a headless session
+    // never does.
     protected char[] screen;   // text plane
-    private char[] screenAttr;   // attribute plane
-    private char[] screenGUI;   // gui plane
-    private char[] screenIsAttr;
-    private char[] fieldExtended;
-    private char[] screenField;
-    private char[] screenColor;   // color plane
-    protected char[] screenExtended;   // extended plane
-    private char[] screenIsChanged;
-
-    private char[] initArray;
+    private byte[] screenAttr;   // attribute plane
+    private byte[] screenGUI;   // gui plane, null while all NO_GUI
+    private BitSet screenIsAttr;
+    private byte[] screenField;
+    private byte[] screenColor;   // color plane
+    private byte[] screenExtended;   // extended plane
+    private BitSet screenIsChanged;
 
     private char[] errorLine;
     private char[] errorLineAttr;
     private char[] errorLineIsAttr;
     private char[] errorLineGui;
 
+    // Sum of cellHash over every position: a write to one cell moves it by
+    // that cell's difference, so it is kept up to date in constant time.
+    private long fingerprint;
+
     public ScreenPlanes(Screen5250 s5250, int size) {
 
         scr = s5250;
         setSize(size);
     }
 
+    /**
+     * Copy of the planes for a {@link ScreenSnapshot}. It is taken without
+     * locking, so it is only consistent if no update ran meanwhile; the
+     * screen checks that and copies again if one did.
+     */
+    ScreenPlanes(ScreenPlanes from) {
+
+        scr = from.scr;
+        numRows = from.numRows;
+        numCols = from.numCols;
+        screenSize = numRows * numCols;
+        errorLineNum = from.errorLineNum;
+        screen = Arrays.copyOf(from.screen, screenSize);
+        screenAttr = Arrays.copyOf(from.screenAttr, screenSize);
+        screenGUI = from.screenGUI == null ? null : Arrays.copyOf(from.screenGUI, screenSize);
+        screenIsAttr = (BitSet) from.screenIsAttr.clone();
+        screenField = Arrays.copyOf(from.screenField, screenSize);
+        screenColor = Arrays.copyOf(from.screenColor, screenSize);
+        screenExtended = Arrays.copyOf(from.screenExtended, screenSize);
+        screenIsChanged = (BitSet) from.screenIsChanged.clone();
+        fingerprint = from.fingerprint;
+    }
+
     protected void setSize(int newSize) {
 
         char[] oldScreen = screen;
-        char[] oldAttr = screenAttr;
-        char[] oldIsAttr = screenIsAttr;
-        char[] oldGui = screenGUI;
-        char[] oldColor = screenColor;
-        char[] oldExtended = screenExtended;
-        char[] oldFieldExtended = fieldExtended;
-        char[] oldField = screenField;
-        char[] oldIsChanged = screenIsChanged;
+        byte[] oldAttr = screenAttr;
+        BitSet oldIsAttr = screenIsAttr;
+        byte[] oldGui = screenGUI;
+        byte[] oldColor = screenColor;
+        byte[] oldExtended = screenExtended;
+        byte[] oldField = screenField;
+        BitSet oldIsChanged = screenIsChanged;
         int oldRows = numRows;
         int oldCols = numCols;
 
@@ -91,16 +123,13 @@ public class ScreenPlanes {
 
         screenSize = numRows * numCols;
         screen = new char[screenSize];
-        screenAttr = new char[screenSize];
-        screenIsAttr = new char[screenSize];
-        screenGUI = new char[screenSize];
-        screenColor = new char[screenSize];
-        screenExtended = new char[screenSize];
-        fieldExtended = new char[screenSize];
-        screenIsChanged = new char[screenSize];
-        screenField = new char[screenSize];
-
-        initArray = new char[screenSize];
+        screenAttr = new byte[screenSize];
+        screenIsAttr = new BitSet(screenSize);
+        screenGUI = null;
+        screenColor = new byte[screenSize];
+        screenExtended = new byte[screenSize];
+        screenIsChanged = new BitSet(screenSize);
+        screenField = new byte[screenSize];
 
         initalizePlanes();
 
@@ -114,9 +143,12 @@ public class ScreenPlanes {
                 System.arraycopy(oldScreen, oldOffset, screen, newOffset, colsToCopy);
                 System.arraycopy(oldAttr, oldOffset, screenAttr, newOffset, colsToCopy);
                 if (oldIsAttr != null) {
-                    System.arraycopy(oldIsAttr, oldOffset, screenIsAttr, newOffset, colsToCopy);
+                    copyBits(oldIsAttr, oldOffset, screenIsAttr, newOffset, colsToCopy);
                 }
                 if (oldGui != null) {
+                    if (screenGUI == null) {
+                        screenGUI = new byte[screenSize];
+                    }
                     System.arraycopy(oldGui, oldOffset, screenGUI, newOffset, colsToCopy);
                 }
                 if (oldColor != null) {
@@ -125,16 +157,21 @@ public class ScreenPlanes {
                 if (oldExtended != null) {
                     System.arraycopy(oldExtended, oldOffset, screenExtended, newOffset, colsToCopy);
                 }
-                if (oldFieldExtended != null) {
-                    System.arraycopy(oldFieldExtended, oldOffset, fieldExtended, newOffset, colsToCopy);
-                }
                 if (oldField != null) {
                     System.arraycopy(oldField, oldOffset, screenField, newOffset, colsToCopy);
                 }
                 if (oldIsChanged != null) {
-                    System.arraycopy(oldIsChanged, oldOffset, screenIsChanged, newOffset, colsToCopy);
+                    copyBits(oldIsChanged, oldOffset, screenIsChanged, newOffset, colsToCopy);
                 }
             }
+            computeFingerprint();
+        }
+    }
+
+    private static void copyBits(BitSet from, int fromOffset, BitSet to, int toOffset, int length) {
+        for (int i = from.nextSetBit(fromOffset); i >= 0 && i < fromOffset + length;
+                i = from.nextSetBit(i + 1)) {
+            to.set(toOffset + i - fromOffset);
         }
     }
 
@@ -174,9 +211,9 @@ public class ScreenPlanes {
 
             for (int x = 0; x < numCols; x++) {
                 errorLine[x] = screen[r + x];
-                errorLineAttr[x] = screenAttr[r + x];
-                errorLineIsAttr[x] = screenIsAttr[r + x];
-                errorLineGui[x] = screenGUI[r + x];
+                errorLineAttr[x] = (char) getCharAttr(r + x);
+                errorLineIsAttr[x] = screenIsAttr.get(r + x) ? (char) 1 : (char) 0;
+                errorLineGui[x] = (char) getWhichGUI(r + x);
             }
         }
     }
@@ -194,7 +231,7 @@ public class ScreenPlanes {
             for (int x = 0; x < numCols; x++) {
                 setScreenCharAndAttr(r + x, errorLine[x], errorLineAttr[x],
                         (errorLineIsAttr[x] != 0));
-                screenGUI[r + x] = errorLineGui[x];
+                putGui(r + x, errorLineGui[x]);
             }
 
             errorLine = null;
@@ -210,61 +247,173 @@ public class ScreenPlanes {
 
     protected void setScreenCharAndAttr(int pos, char c, int attr, boolean isAttr) {
 
+        long before = cellHash(pos);
         screen[pos] = c;
-        screenAttr[pos] = (char) attr;
+        screenAttr[pos] = (byte) attr;
         disperseAttribute(pos, attr);
-        screenIsAttr[pos] = (isAttr ? (char) 1 : (char) 0);
-        screenGUI[pos] = NO_GUI;
+        screenIsAttr.set(pos, isAttr);
+        putGui(pos, NO_GUI);
+        fingerprint += cellHash(pos) - before;
+
+    }
+
+    /**
+     * Stores {@code length} characters from {@code pos} with one attribute,
+     * as that many {@link #setScreenCharAndAttr} calls with
+     * {@code isAttr} false would.
+     */
+    protected void setScreenChars(int pos, char[] chars, int offset, int length, int attr) {
+
+        checkRange(pos, length);
+        int end = pos + length;
+        long before = 0;
+        for (int i = pos; i < end; i++) {
+            before += cellHash(i);
+        }
+
+        System.arraycopy(chars, offset, screen, pos, length);
+        Arrays.fill(screenAttr, pos, end, (byte) attr);
+        if (attr != 0) {
+            disperseAttribute(pos, attr);
+            Arrays.fill(screenColor, pos + 1, end, screenColor[pos]);
+            Arrays.fill(screenExtended, pos + 1, end, screenExtended[pos]);
+        }
+        screenIsAttr.clear(pos, end);
+        if (screenGUI != null) {
+            Arrays.fill(screenGUI, pos, end, (byte) NO_GUI);
+        }
+
+        long after = 0;
+        for (int i = pos; i < end; i++) {
+            after += cellHash(i);
+        }
+        fingerprint += after - before;
 
     }
 
     protected void setScreenAttr(int pos, int attr, boolean isAttr) {
 
-        screenAttr[pos] = (char) attr;
-        screenIsAttr[pos] = isAttr ? (char) 1 : (char) 0;
+        long before = cellHash(pos);
+        screenAttr[pos] = (byte) attr;
+        screenIsAttr.set(pos, isAttr);
         disperseAttribute(pos, attr);
-        screenGUI[pos] = initChar;
+        putGui(pos, initChar);
+        fingerprint += cellHash(pos) - before;
 
     }
 
     protected void setScreenAttr(int pos, int attr) {
 
-        screenAttr[pos] = (char) attr;
+        long before = cellHash(pos);
+        screenAttr[pos] = (byte) attr;
         disperseAttribute(pos, attr);
+        fingerprint += cellHash(pos) - before;
 
     }
 
     protected void setScreenFieldAttr(int pos, int attr) {
 
-        screenField[pos] = (char) attr;
+        screenField[pos] = (byte) attr;
 
     }
 
     protected final void setChar(int pos, char c) {
-        screenIsChanged[pos] = screen[pos] == c ? '0' : '1';
+        long before = cellHash(pos);
+        screenIsChanged.set(pos);
         screen[pos] = c;
-        if (screenIsAttr[pos] == 1) {
+        fingerprint += cellHash(pos) - before;
+        if (screenIsAttr.get(pos)) {
             setScreenCharAndAttr(pos, c, 32, false);
         }
 
     }
 
+    /**
+     * Stores a character typed into a field, leaving the changed flag and
+     * the attributes alone.
+     */
+    protected final void putChar(int pos, char c) {
+        long before = cellHash(pos);
+        screen[pos] = c;
+        fingerprint += cellHash(pos) - before;
+    }
+
+    /**
+     * Hash of the text and attribute planes, kept up to date as they are
+     * written. Characters are taken as displayed: attribute places and
+     * characters below blank count as blanks.
+     */
+    protected final long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * This position's share of {@link #getFingerprint()}.
+     */
+    protected final long cellHash(int pos) {
+        char c = screen[pos];
+        long isAttr = screenIsAttr.get(pos) ? 1 : 0;
+        if (c < ' ' || isAttr == 1) {
+            c = ' ';
+        }
+        long x = ((long) pos << 33) ^ (isAttr << 32) ^ ((long) getCharAttr(pos) << 16) ^ c;
+        // SplitMix64 finalizer, so nearby positions and values spread over all 64 bits
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    private void computeFingerprint() {
+        long sum = 0;
+        for (int pos = 0; pos < screenSize; pos++) {
+            sum += cellHash(pos);
+        }
+        fingerprint = sum;
+    }
+
     protected final char getChar(int pos) {
         return screen[pos];
     }
 
     protected final int getCharAttr(int pos) {
-        return screenAttr[pos];
+        return screenAttr[pos] & 0xff;
     }
 
     protected final boolean isAttributePlace(int pos) {
-        return screenIsAttr[pos] == 1;
+        checkRange(pos, 1);
+        return screenIsAttr.get(pos);
+    }
+
+    /**
+     * @return the color of this position, background in the high byte and
+     *         foreground in the low byte
+     */
+    protected final char getColor(int pos) {
+        int b = screenColor[pos];
+        return (char) ((b & 0xf0) << 4 | (b & 0x0f));
+    }
+
+    protected final int getExtended(int pos) {
+        return screenExtended[pos];
     }
 
     public final void setUseGUI(int pos, int which) {
 
-        screenIsChanged[pos] = screenGUI[pos] == which ? '0' : '1';
-        screenGUI[pos] = (char) which;
+        checkRange(pos, 1);
+        screenIsChanged.set(pos);
+        putGui(pos, which);
+    }
+
+    private void putGui(int pos, int which) {
+
+        if (screenGUI == null) {
+            if (which == NO_GUI) {
+                checkRange(pos, 1);
+                return;
+            }
+            screenGUI = new byte[screenSize];
+        }
+        screenGUI[pos] = (byte) which;
     }
 
     private void disperseAttribute(int pos, int attr) {
@@ -429,49 +578,43 @@ public class ScreenPlanes {
 
         }
 
-        screenColor[pos] = c;
-        screenExtended[pos] = (char) (ul | cs | nd);
+        screenColor[pos] = (byte) ((c >> 4 & 0xf0) | (c & 0x0f));
+        screenExtended[pos] = (byte) (ul | cs | nd);
     }
 
     protected void initalizePlanes() {
 
-        char c = (COLOR_BG_BLACK << 8 & 0xff00) |
-                (COLOR_FG_GREEN & 0xff);
-
-        for (int y = 0; y < screenSize; y++) {
-
-            screenAttr[y] = initAttr;
-            screenColor[y] = c;
-
-        }
+        Arrays.fill(screenAttr, (byte) initAttr);
+        Arrays.fill(screenColor, (byte) (COLOR_BG_BLACK << 4 | COLOR_FG_GREEN));
 
-        // here we will just copy the initialized plane onto the other planes
-        // using arraycopy which will be faster.  I hope.
-
-        System.arraycopy(initArray, 0, screen, 0, screenSize);
-        System.arraycopy(initArray, 0, screenGUI, 0, screenSize);
-        System.arraycopy(initArray, 0, screenIsAttr, 0, screenSize);
-        System.arraycopy(initArray, 0, screenExtended, 0, screenSize);
-        System.arraycopy(initArray, 0, fieldExtended, 0, screenSize);
-        System.arraycopy(initArray, 0, screenField, 0, screenSize);
+        Arrays.fill(screen, initChar);
+        screenGUI = null;
+        screenIsAttr.clear();
+        Arrays.fill(screenExtended, (byte) 0);
+        Arrays.fill(screenField, (byte) 0);
+        computeFingerprint();
     }
 
     protected void initalizeFieldPlanes() {
-        System.arraycopy(initArray, 0, fieldExtended, 0, screenSize);
-        System.arraycopy(initArray, 0, screenField, 0, screenSize);
+        Arrays.fill(screenField, (byte) 0);
     }
 
     protected final int getWhichGUI(int pos) {
 
+        if (screenGUI == null) {
+            checkRange(pos, 1);
+            return NO_GUI;
+        }
         return screenGUI[pos];
     }
 
     protected final boolean isChanged(int pos) {
-        return screenIsChanged[pos] != 0;
+        checkRange(pos, 1);
+        return screenIsChanged.get(pos);
     }
 
     protected final boolean isUseGui(int pos) {
-        return screenGUI[pos] != NO_GUI;
+        return getWhichGUI(pos) != NO_GUI;
     }
 
     /**
@@ -493,22 +636,31 @@ public class ScreenPlanes {
                 System.arraycopy(screen, from, planeChars, 0, len);
                 break;
             case PLANE_ATTR:
-                System.arraycopy(screenAttr, from, planeChars, 0, len);
+                widen(screenAttr, from, planeChars, len);
                 break;
             case PLANE_COLOR:
-                System.arraycopy(screenColor, from, planeChars, 0, len);
+                checkRange(from, len);
+                for (int i = 0; i < len; i++) {
+                    planeChars[i] = getColor(from + i);
+                }
                 break;
             case PLANE_EXTENDED:
-                System.arraycopy(screenExtended, from, planeChars, 0, len);
+                widen(screenExtended, from, planeChars, len);
                 break;
             case PLANE_EXTENDED_GRAPHIC:
-                System.arraycopy(screenGUI, from, planeChars, 0, len);
+                checkRange(from, len);
+                if (screenGUI != null) {
+                    widen(screenGUI, from, planeChars, len);
+                }
                 break;
             case PLANE_FIELD:
-                System.arraycopy(screenField, from, planeChars, 0, len);
+                widen(screenField, from, planeChars, len);
                 break;
             case PLANE_IS_ATTR_PLACE:
-                System.arraycopy(screenIsAttr, from, planeChars, 0, len);
+                checkRange(from, len);
+                for (int i = 0; i < len; i++) {
+                    planeChars[i] = screenIsAttr.get(from + i) ? (char) 1 : (char) 0;
+                }
                 break;
             default:
                 System.arraycopy(screen, from, planeChars, 0, len);
@@ -518,6 +670,24 @@ public class ScreenPlanes {
 
     }
 
+    /**
+     * Fails as System.arraycopy over a plane would, for positions the bit
+     * and lazily allocated planes cannot check themselves.
+     */
+    private void checkRange(int from, int len) {
+        if (from < 0 || len < 0 || from > screenSize - len) {
+            throw new ArrayIndexOutOfBoundsException("Positions " + from + " to " + (from + len)
+                    + " out of bounds for length " + screenSize);
+        }
+    }
+
+    private void widen(byte[] plane, int from, char[] to, int len) {
+        checkRange(from, len);
+        for (int i = 0; i < len; i++) {
+            to[i] = (char) (plane[from + i] & 0xff);
+        }
+    }
+
     /**
      * Converts a linear presentation space position to its corresponding row.
      *
@@ -824,7 +994,7 @@ public class ScreenPlanes {
                     }
 
                     if (hs) {
-                        screenGUI[x] = BUTTON_LEFT;
+                        putGui(x, BUTTON_LEFT);
 
                         int ns = 0;
                         int row = x / numCols;
@@ -835,16 +1005,16 @@ public class ScreenPlanes {
                                 ns = 0;
                             }
                             if (ns < 2) {
-                                screenGUI[x] = BUTTON_MIDDLE;
+                                putGui(x, BUTTON_MIDDLE);
                             }
 
                         }
 
                         // now lets go back and take out gui's that do not belong
                         while (screen[--x] <= ' ') {
-                            screenGUI[x] = NO_GUI;
+                            putGui(x, NO_GUI);
                         }
-                        screenGUI[x] = BUTTON_RIGHT;
+                        putGui(x, BUTTON_RIGHT);
 
                     }
                 }
@@ -853,7 +1023,7 @@ public class ScreenPlanes {
             // now lets check for menus
             if (!hs && x > 0 && x < lenScreen - 2 &&
                     screen[x] == '.' &&
-                    screenGUI[x] == NO_GUI &&
+                    getWhichGUI(x) == NO_GUI &&
                     (screenExtended[x] & EXTENDED_5250_UNDERLINE) == 0 &&
                     (screenExtended[x] & EXTENDED_5250_NON_DSP) == 0
             ) {
@@ -890,20 +1060,20 @@ public class ScreenPlanes {
                         }
                     }
 
-                    screenGUI[++os] = BUTTON_LEFT;
+                    putGui(++os, BUTTON_LEFT);
                     s.setDirty(os);
 
                     while (++os < stop) {
-                        screenGUI[os] = BUTTON_MIDDLE;
+                        putGui(os, BUTTON_MIDDLE);
                         s.setDirty(os);
                     }
 
                     // now lets go back and take out gui's that do not belong
                     while (screen[--stop] <= ' ') {
-                        screenGUI[stop] = NO_GUI;
+                        putGui(stop, NO_GUI);
                         s.setDirty(stop);
                     }
-                    screenGUI[stop] = BUTTON_RIGHT;
+                    putGui(stop, BUTTON_RIGHT);
                     s.setDirty(stop);
 
                 }
@@ -912,7 +1082,7 @@ public class ScreenPlanes {
             // now lets check for options.
             if (!hs && x > 0 && x < lenScreen - 2 &&
                     screen[x] == '=' &&
-                    screenGUI[x] == NO_GUI &&
+                    getWhichGUI(x) == NO_GUI &&
                     (screenExtended[x] & EXTENDED_5250_UNDERLINE) == 0 &&
                     (screenExtended[x] & EXTENDED_5250_NON_DSP) == 0
             ) {
@@ -948,22 +1118,22 @@ public class ScreenPlanes {
                         }
                     }
 
-                    screenGUI[++os] = BUTTON_LEFT;
+                    putGui(++os, BUTTON_LEFT);
                     s.setDirty(os);
 
                     while (++os < stop) {
-                        screenGUI[os] = BUTTON_MIDDLE;
+                        putGui(os, BUTTON_MIDDLE);
                         s.setDirty(os);
 
                     }
 
                     // now lets go back and take out gui's that do not belong
                     while (screen[--stop] <= ' ') {
-                        screenGUI[stop] = NO_GUI;
+                        putGui(stop, NO_GUI);
                         s.setDirty(stop);
 
                     }
-                    screenGUI[stop] = BUTTON_RIGHT;
+                    putGui(stop, BUTTON_RIGHT);
                     s.setDirty(stop);
                 }
             }
@@ -974,7 +1144,7 @@ public class ScreenPlanes {
                     screen[x] == hsMore.charAt(0) &&
                     screen[x - 1] <= ' ' &&
                     screen[x - 2] <= ' ' &&
-                    screenGUI[x] == NO_GUI &&
+                    getWhichGUI(x) == NO_GUI &&
                     (screenExtended[x] & EXTENDED_5250_NON_DSP) == 0
             ) {
 
@@ -992,13 +1162,13 @@ public class ScreenPlanes {
                 if (mFlag) {
                     hs = true;
 
-                    screenGUI[x] = BUTTON_LEFT_DN;
+                    putGui(x, BUTTON_LEFT_DN);
 
                     while (--ms > 0) {
-                        screenGUI[++x] = BUTTON_MIDDLE_DN;
+                        putGui(++x, BUTTON_MIDDLE_DN);
 
                     }
-                    screenGUI[x] = BUTTON_RIGHT_DN;
+                    putGui(x, BUTTON_RIGHT_DN);
                 }
             }
 
@@ -1007,7 +1177,7 @@ public class ScreenPlanes {
                     screen[x] == hsBottom.charAt(0) &&
                     screen[x - 1] <= ' ' &&
                     screen[x - 2] <= ' ' &&
-                    screenGUI[x] == NO_GUI &&
+                    getWhichGUI(x) == NO_GUI &&
                     (screenExtended[x] & EXTENDED_5250_NON_DSP) == 0
             ) {
 
@@ -1025,13 +1195,13 @@ public class ScreenPlanes {
                 if (mFlag) {
                     hs = true;
 
-                    screenGUI[x] = BUTTON_LEFT_UP;
+                    putGui(x, BUTTON_LEFT_UP);
 
                     while (--bs > 0) {
-                        screenGUI[++x] = BUTTON_MIDDLE_UP;
+                        putGui(++x, BUTTON_MIDDLE_UP);
 
                     }
-                    screenGUI[x] = BUTTON_RIGHT_UP;
+                    putGui(x, BUTTON_RIGHT_UP);
                 }
             }
 
@@ -1040,7 +1210,7 @@ public class ScreenPlanes {
             if (!hs && x > 0 && x < lenScreen - 7 &&
                     Character.toLowerCase(screen[x]) == 'h' &&
                     screen[x - 1] <= ' ' &&
-                    screenGUI[x] == NO_GUI &&
+                    getWhichGUI(x) == NO_GUI &&
                     (screenExtended[x] & EXTENDED_5250_NON_DSP) == 0
             ) {
 
@@ -1053,14 +1223,14 @@ public class ScreenPlanes {
 
                     hs = true;
 
-                    screenGUI[x] = BUTTON_LEFT_EB;
+                    putGui(x, BUTTON_LEFT_EB);
 
                     while (screen[++x] > ' ') {
-                        screenGUI[x] = BUTTON_MIDDLE_EB;
+                        putGui(x, BUTTON_MIDDLE_EB);
 
                     }
 
-                    screenGUI[--x] = BUTTON_RIGHT_EB;
+                    putGui(--x, BUTTON_RIGHT_EB);
                 } else if (Character.toLowerCase(screen[x + 1]) == 't' &&
                         Character.toLowerCase(screen[x + 2]) == 't' &&
                         Character.toLowerCase(screen[x + 3]) == 'p' &&
@@ -1071,21 +1241,21 @@ public class ScreenPlanes {
 
                     hs = true;
 
-                    screenGUI[x] = BUTTON_LEFT_EB;
+                    putGui(x, BUTTON_LEFT_EB);
 
                     while (screen[++x] > ' ') {
-                        screenGUI[x] = BUTTON_MIDDLE_EB;
+                        putGui(x, BUTTON_MIDDLE_EB);
 
                     }
 
-                    screenGUI[--x] = BUTTON_RIGHT_EB;
+                    putGui(--x, BUTTON_RIGHT_EB);
                 }
 
             // now lets check for MAILTO: .
             } else if (!hs && x > 0 && x < lenScreen - 7 &&
                     Character.toLowerCase(screen[x]) == 'm' &&
                     screen[x - 1] <= ' ' &&
-                    screenGUI[x] == NO_GUI &&
+                    getWhichGUI(x) == NO_GUI &&
                     (screenExtended[x] & EXTENDED_5250_NON_DSP) == 0
             ) {
 
@@ -1098,13 +1268,13 @@ public class ScreenPlanes {
 
                     hs = true;
 
-                    screenGUI[x] = BUTTON_LEFT_EB;
+                    putGui(x, BUTTON_LEFT_EB);
 
                     while (screen[++x] > ' ') {
-                        screenGUI[x] = BUTTON_MIDDLE_EB;
+                        putGui(x, BUTTON_MIDDLE_EB);
 
                     }
-                    screenGUI[--x] = BUTTON_RIGHT_EB;
+                    putGui(--x, BUTTON_RIGHT_EB);
                 }
             // External Program detection removed (dead code)
             }
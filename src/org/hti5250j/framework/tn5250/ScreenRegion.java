@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+
+/**
+ * A run of {@code length} screen positions starting at {@code row},
+ * {@code col}, numbered from 1 as on a 5250 display. A run longer than the
+ * rest of the row continues on the next.
+ *
+ * @since 1.3.0
+ */
+public record ScreenRegion(int row, int col, int length) {
+
+    public ScreenRegion {
+        if (row < 1 || col < 1) {
+            throw new IllegalArgumentException("row and col start at 1: " + row + "," + col);
+        }
+        if (length < 1) {
+            throw new IllegalArgumentException("length must be positive: " + length);
+        }
+    }
+}
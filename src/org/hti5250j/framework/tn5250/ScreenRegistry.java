@@ -0,0 +1,114 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Names screens by their {@link Screen5250#getFingerprint() fingerprint}.
+ * <p>
+ * A screen is registered while it is displayed, together with the regions
+ * whose text differs from visit to visit; {@link #identify} then names the
+ * displayed screen with one hash lookup per distinct set of masked regions,
+ * instead of searching its text.
+ * <pre>
+ * ScreenRegistry screens = new ScreenRegistry();
+ * screens.register("MAIN", screen, new ScreenRegion(1, 70, 8));  // time
+ * ...
+ * if ("MAIN".equals(screens.identify(screen))) { ... }
+ * </pre>
+ * A registry is safe to share between sessions and threads.
+ *
+ * @since 1.3.0
+ */
+public final class ScreenRegistry {
+
+    /**
+     * Screens registered with the same masked regions.
+     */
+    private record Group(List<ScreenRegion> masked, ScreenRegion[] regions,
+                         ConcurrentHashMap<Long, String> names) {}
+
+    private final CopyOnWriteArrayList<Group> groups = new CopyOnWriteArrayList<Group>();
+
+    /**
+     * Registers the screen now displayed.
+     *
+     * @param name name to identify the screen by
+     * @param screen screen showing it
+     * @param masked regions whose text is not part of the screen's identity
+     * @return the masked fingerprint registered
+     * @throws IllegalArgumentException if another name has the same masked fingerprint
+     */
+    public long register(String name, Screen5250 screen, ScreenRegion... masked) {
+        if (screen == null) {
+            throw new IllegalArgumentException("screen must not be null");
+        }
+        long fingerprint = screen.getFingerprint(masked);
+        register(name, fingerprint, masked);
+        return fingerprint;
+    }
+
+    /**
+     * Registers a fingerprint taken earlier with
+     * {@link Screen5250#getFingerprint(ScreenRegion...)} and the same regions.
+     *
+     * @throws IllegalArgumentException if another name has the same masked fingerprint
+     */
+    public synchronized void register(String name, long fingerprint, ScreenRegion... masked) {
+        if (name == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+        List<ScreenRegion> key = List.of(masked);
+        Group group = null;
+        for (Group g : groups) {
+            if (g.masked().equals(key)) {
+                group = g;
+                break;
+            }
+        }
+        if (group == null) {
+            group = new Group(key, masked.clone(), new ConcurrentHashMap<Long, String>());
+            groups.add(group);
+        }
+        String existing = group.names().putIfAbsent(fingerprint, name);
+        if (existing != null && !existing.equals(name)) {
+            throw new IllegalArgumentException("Screen '" + name + "' has the same fingerprint as '"
+                    + existing + "'; mask fewer regions or tell the screens apart another way");
+        }
+    }
+
+    /**
+     * @return the name of the displayed screen, or null if it is not registered;
+     *         when several match, the one whose masked regions were registered first
+     */
+    public String identify(Screen5250 screen) {
+        for (Group group : groups) {
+            String name = group.names().get(screen.getFingerprint(group.regions()));
+            if (name != null) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of screens registered
+     */
+    public int size() {
+        int size = 0;
+        for (Group group : groups) {
+            size += group.names().size();
+        }
+        return size;
+    }
+}
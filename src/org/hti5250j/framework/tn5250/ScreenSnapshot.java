@@ -0,0 +1,230 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable copy of a screen between two updates: its planes, its format
+ * table and the state of the operator information area, all as of one
+ * {@link #getVersion() screen version}.
+ * <p>
+ * {@link Screen5250#getSnapshot()} takes it without the screen's lock, so
+ * reading a screen from a monitoring thread neither waits for the data
+ * stream nor holds it up. A snapshot can be kept and read by any number of
+ * threads.
+ *
+ * @since 1.3.0
+ */
+public final class ScreenSnapshot {
+
+    /**
+     * An input field as it was in the format table.
+     *
+     * @param index     the field's index in the format table, from 0
+     * @param startPos  the field's first position
+     * @param length    the number of positions in the field
+     * @param mdt       whether its modified data tag was set
+     */
+    public record Field(int index, int startPos, int length, int attr,
+                        int ffw1, int ffw2, int fcw1, int fcw2, boolean mdt) {
+
+        public boolean isBypassField() {
+            return (ffw1 & 0x20) == 0x20;
+        }
+    }
+
+    private final long version;
+    private final int rows;
+    private final int columns;
+    private final int cursorPos;
+    private final ScreenPlanes planes;
+    private final List<Field> fields;
+    private final boolean keyboardLocked;
+    private final boolean insertMode;
+    private final boolean messageWait;
+    private final int inputInhibited;
+    private final boolean[] activeAidKeys;
+
+    // updates completed on the screen when it was taken
+    final long updates;
+
+    ScreenSnapshot(Screen5250 screen, long updates, boolean[] activeAidKeys) {
+        this.version = screen.getVersion();
+        this.rows = screen.getRows();
+        this.columns = screen.getColumns();
+        this.cursorPos = screen.getLastPos();
+        this.planes = new ScreenPlanes(screen.planes);
+
+        ScreenField[] table = screen.getScreenFields().getFields();
+        Field[] copied = new Field[table.length];
+        for (int i = 0; i < table.length; i++) {
+            ScreenField sf = table[i];
+            copied[i] = new Field(i, sf.startPos(), sf.getLength(), sf.getAttr(),
+                    sf.getFFW1(), sf.getFFW2(), sf.getFCW1(), sf.getFCW2(), sf.mdt);
+        }
+        this.fields = List.of(copied);
+
+        ScreenOIA oia = screen.getOIA();
+        this.keyboardLocked = oia.isKeyBoardLocked();
+        this.insertMode = oia.isInsertMode();
+        this.messageWait = oia.isMessageWait();
+        this.inputInhibited = oia.getInputInhibited();
+        this.activeAidKeys = activeAidKeys;
+        this.updates = updates;
+    }
+
+    /**
+     * @return the screen version this snapshot shows
+     * @see Screen5250#getVersion()
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getScreenLength() {
+        return rows * columns;
+    }
+
+    /**
+     * @return the cursor row, from 1
+     */
+    public int getCursorRow() {
+        return cursorPos / columns + 1;
+    }
+
+    /**
+     * @return the cursor column, from 1
+     */
+    public int getCursorCol() {
+        return cursorPos % columns + 1;
+    }
+
+    /**
+     * The screen's text with the mapping of
+     * {@link Screen5250#getScreenAsChars()}: attribute places and
+     * unprintable characters read as spaces.
+     *
+     * @return the text, row after row
+     */
+    public String getText() {
+        return text(0, getScreenLength());
+    }
+
+    /**
+     * @param row zero based row
+     * @return the row's text, mapped as {@link #getText()}
+     */
+    public String getRowText(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + rows);
+        }
+        return text(row * columns, columns);
+    }
+
+    private String text(int start, int length) {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++) {
+            int pos = start + i;
+            char c = planes.getChar(pos);
+            text[i] = (c >= ' ') && (!planes.isAttributePlace(pos)) ? c : ' ';
+        }
+        return new String(text);
+    }
+
+    /**
+     * One plane of the screen, as {@link Screen5250#GetScreen} copies it
+     * but without the terminating null.
+     *
+     * @param plane one of the {@code PLANE_} constants of HTI5250jConstants
+     * @return a new array, {@link #getScreenLength()} long
+     */
+    public char[] getPlane(int plane) {
+        return Arrays.copyOf(planes.getPlaneData(0, getScreenLength(), plane), getScreenLength());
+    }
+
+    /**
+     * @return the fingerprint of the screen as it was
+     * @see Screen5250#getFingerprint()
+     */
+    public long getFingerprint() {
+        return planes.getFingerprint();
+    }
+
+    /**
+     * @return the format table, in order
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * The field's contents as {@link ScreenField#getString()} reads them
+     * from the screen: attributes within the field are offset by
+     * \uff00 and other unprintable characters read as spaces.
+     */
+    public String getFieldText(Field field) {
+        char[] text = new char[field.length()];
+        for (int i = 0; i < text.length; i++) {
+            int pos = field.startPos() + i;
+            if (pos >= getScreenLength()) {
+                text[i] = ' ';
+            } else if (planes.isAttributePlace(pos)) {
+                text[i] = (char) ('\uff00' + planes.getCharAttr(pos));
+            } else {
+                char c = planes.getChar(pos);
+                text[i] = c < ' ' ? ' ' : c;
+            }
+        }
+        return new String(text);
+    }
+
+    public boolean isKeyBoardLocked() {
+        return keyboardLocked;
+    }
+
+    public boolean isInsertMode() {
+        return insertMode;
+    }
+
+    public boolean isMessageWait() {
+        return messageWait;
+    }
+
+    /**
+     * @return the {@code INPUTINHIBITED_} code of ScreenOIA
+     */
+    public int getInputInhibited() {
+        return inputInhibited;
+    }
+
+    /**
+     * @return the aid keys the host accepted data with, indexed as
+     *         {@link Screen5250#getActiveAidKeys()}; empty without a session
+     */
+    public boolean[] getActiveAidKeys() {
+        return activeAidKeys.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "ScreenSnapshot{version=" + version + ", " + rows + "x" + columns
+                + ", fields=" + fields.size() + ", keyboardLocked=" + keyboardLocked + "}";
+    }
+}
@@ -79,6 +79,17 @@ public class Stream5250 {
         }
     }
 
+    /**
+     * Moves past {@code count} bytes, as that many {@link #getNextByte()}
+     * calls would.
+     */
+    public final void skip(int count) {
+        if (count < 0 || pos + count > buffer.length) {
+            throw new IllegalStateException("Buffer length exceeded: " + (pos + count));
+        }
+        pos += count;
+    }
+
     /**
      * Returns where we are in the buffer
      * @return position in the buffer
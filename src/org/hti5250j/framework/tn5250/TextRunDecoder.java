@@ -0,0 +1,106 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.encoding.ICodePage;
+
+import static org.hti5250j.framework.tn5250.ByteExplainer.*;
+
+/**
+ * Decodes runs of plain text in a Write To Display record: bytes that are
+ * neither orders nor attributes and convert to displayable characters, so
+ * {@link tnvt} can put a run on the screen with one
+ * {@link Screen5250#setChars} instead of a conversion and a
+ * {@code setChar} per byte.
+ * <p>
+ * The conversion table is filled once per code page, from its single byte
+ * mode. Shift in and shift out are never part of a run, and a run is only
+ * decoded while the code page is not in double byte mode, so mixed code
+ * pages such as CCSID 930 keep their byte at a time path for DBCS data.
+ * Bytes the code page cannot convert are left to that path too, which
+ * reports them as before.
+ */
+final class TextRunDecoder {
+
+    // orders of the Write To Display command, see tnvt.writeToDisplay
+    private static final int[] ORDERS = {1, 2, 3, 4, 16, 17, 18, 19, 20, 21, 29, 0x80};
+
+    private final ICodePage codePage;
+    private final char[] table = new char[256];
+    private final boolean[] text = new boolean[256];
+    private char[] run = new char[256];
+
+    private TextRunDecoder(ICodePage codePage) {
+        this.codePage = codePage;
+        boolean[] order = new boolean[256];
+        for (int b : ORDERS) {
+            order[b] = true;
+        }
+        for (int b = 0; b < 256; b++) {
+            if (order[b] || isAttribute(b) || isShiftIn(b) || isShiftOut(b)) {
+                continue;
+            }
+            char c;
+            try {
+                c = codePage.ebcdic2uni(b);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            // Screen5250.setChar shows other control characters as reverse image nulls
+            if (c == 0 || c >= ' ') {
+                table[b] = c;
+                text[b] = true;
+            }
+        }
+    }
+
+    /**
+     * @return a decoder for {@code codePage}, or null if it is in double byte mode now
+     */
+    static TextRunDecoder forCodePage(ICodePage codePage) {
+        if (codePage == null || codePage.isDoubleByteActive()) {
+            return null;
+        }
+        return new TextRunDecoder(codePage);
+    }
+
+    ICodePage getCodePage() {
+        return codePage;
+    }
+
+    boolean isText(byte b) {
+        return text[b & 0xff] && !codePage.isDoubleByteActive();
+    }
+
+    /**
+     * Converts the text run starting at {@code from}, ending at the first
+     * byte that is not text or at {@code limit}.
+     *
+     * @return the number of bytes converted into {@link #chars()}
+     */
+    int decode(byte[] buffer, int from, int limit) {
+        int end = from;
+        while (end < limit && text[buffer[end] & 0xff]) {
+            end++;
+        }
+        int length = end - from;
+        if (length > run.length) {
+            run = new char[Math.max(length, run.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            run[i] = table[buffer[from + i] & 0xff];
+        }
+        return length;
+    }
+
+    /**
+     * @return the characters of the last run decoded, from index 0
+     */
+    char[] chars() {
+        return run;
+    }
+}
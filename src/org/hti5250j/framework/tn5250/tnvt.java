@@ -23,6 +23,7 @@ import org.hti5250j.interfaces.UIDispatcherFactory;
 
 import javax.net.ssl.SSLSocket;
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.util.Arrays;
 import java.util.Properties;
@@ -95,7 +96,8 @@ public final class tnvt implements Runnable {
     private boolean connected = false;
     private boolean support132 = true;
     private ByteArrayOutputStream baosp = null;
-    private ByteArrayOutputStream baosrsp = null;
+    // outbound records are built in place, one at a time
+    private final GdsRecordEncoder record = new GdsRecordEncoder();
     private int devSeq = -1;
     private String devName;
     private String devNameUsed;
@@ -115,6 +117,9 @@ public final class tnvt implements Runnable {
     private boolean firstScreen;
     private String sslType;
     private WTDSFParser sfParser;
+    // text runs of Write To Display records, for the current code page
+    private TextRunDecoder textRuns;
+    private MultiplexedTransport transport;
 
     public tnvt(Session5250 session, Screen5250 screen52, boolean type, boolean support132) {
 
@@ -154,7 +159,6 @@ public final class tnvt implements Runnable {
         }
 
         baosp = new ByteArrayOutputStream();
-        baosrsp = new ByteArrayOutputStream();
     }
 
     public String getHostName() {
@@ -175,6 +179,26 @@ public final class tnvt implements Runnable {
         sslType = type;
     }
 
+    /**
+     * Runs this session's socket on the event loops of {@code transport}
+     * instead of its own reader and parser threads. Plain sockets only: a
+     * session with an SSL type keeps the threaded connection.
+     * Call this before connect().
+     *
+     * @param transport the shared transport, or null for a threaded session
+     */
+    public void setTransport(MultiplexedTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * @return true when connect() will use the multiplexed transport
+     */
+    public boolean isMultiplexed() {
+        return transport != null && (sslType == null || sslType.trim().isEmpty()
+                || sslType.equalsIgnoreCase(HTI5250jConstants.SSL_TYPE_NONE));
+    }
+
     public void setDeviceName(String name) {
 
         devName = name;
@@ -261,6 +285,17 @@ public final class tnvt implements Runnable {
 
             }
 
+            if (isMultiplexed()) {
+                // negotiation and the data stream continue on the event loop,
+                // see startDataStream()
+                MultiplexedTransport.Connection connection = transport.open(this);
+                sock = connection.socket();
+                bout = new BufferedOutputStream(connection.getOutputStream());
+                connected = true;
+                connection.connect(new InetSocketAddress(s, port));
+                return true;
+            }
+
             SocketConnector sc = new SocketConnector();
             if (sslType != null) {
                 sc.setSSLType(sslType);
@@ -285,12 +320,7 @@ public final class tnvt implements Runnable {
 
             byte abyte0[];
             while (negotiate(abyte0 = readNegotiations())) { /* no-op */ }
-            try {
-                screen52.setCursorActive(false);
-            } catch (Exception excc) {
-                log.warn("setCursorOff " + excc.getMessage());
-
-            }
+            setCursorOff();
 
             producer = new DataStreamProducer(this, bin, dsq, abyte0);
             pthread = Thread.ofVirtual()
@@ -298,17 +328,7 @@ public final class tnvt implements Runnable {
                 .start(producer);
             // Note: Virtual threads ignore setPriority(); all run at normal priority
 
-            try {
-                uiDispatcher.invokeAndWait(new Runnable() {
-                    public void run() {
-                        screen52.getOIA().setInputInhibited(ScreenOIA.INPUTINHIBITED_NOTINHIBITED,
-                                ScreenOIA.OIA_LEVEL_INPUT_INHIBITED);
-                    }
-                });
-
-            } catch (Exception exc) {
-                log.warn("setStatus(OFF) " + exc.getMessage());
-            }
+            setInputNotInhibited();
 
             keepTrucking = true;
             me = Thread.ofVirtual()
@@ -332,6 +352,44 @@ public final class tnvt implements Runnable {
 
     }
 
+    /**
+     * Called by the {@link MultiplexedTransport} event loop once negotiation
+     * is over, with the bytes that ended it. The first screen is processed
+     * before this returns.
+     *
+     * @return the producer the event loop feeds from now on
+     */
+    DataStreamProducer startDataStream(byte[] initial) {
+        setCursorOff();
+        producer = new DataStreamProducer(this, initial);
+        setInputNotInhibited();
+        producer.loadFirstScreen();
+        return producer;
+    }
+
+    private void setCursorOff() {
+        try {
+            screen52.setCursorActive(false);
+        } catch (Exception excc) {
+            log.warn("setCursorOff " + excc.getMessage());
+
+        }
+    }
+
+    private void setInputNotInhibited() {
+        try {
+            uiDispatcher.invokeAndWait(new Runnable() {
+                public void run() {
+                    screen52.getOIA().setInputInhibited(ScreenOIA.INPUTINHIBITED_NOTINHIBITED,
+                            ScreenOIA.OIA_LEVEL_INPUT_INHIBITED);
+                }
+            });
+
+        } catch (Exception exc) {
+            log.warn("setStatus(OFF) " + exc.getMessage());
+        }
+    }
+
     public boolean disconnect() {
 
         if (!connected) {
@@ -352,6 +410,14 @@ public final class tnvt implements Runnable {
         pendingUnlock = false;
 
         try {
+            if (bout != null) {
+                // flush what is still buffered while the socket is open
+                try {
+                    bout.close();
+                } catch (IOException e) {
+                    log.warn("Output not flushed before disconnect: " + e.getMessage());
+                }
+            }
             if (sock != null) {
                 log.info("Closing socket");
                 sock.close();
@@ -359,9 +425,6 @@ public final class tnvt implements Runnable {
             if (bin != null) {
                 bin.close();
             }
-            if (bout != null) {
-                bout.close();
-            }
             connected = false;
             firstScreen = false;
 
@@ -383,18 +446,6 @@ public final class tnvt implements Runnable {
         return true;
     }
 
-    private ByteArrayOutputStream appendByteStream(byte abyte0[]) {
-        ByteArrayOutputStream bytearrayoutputstream = new ByteArrayOutputStream();
-        for (int i = 0; i < abyte0.length; i++) {
-            bytearrayoutputstream.write(abyte0[i]);
-            if (abyte0[i] == -1) {
-                bytearrayoutputstream.write(-1);
-            }
-        }
-
-        return bytearrayoutputstream;
-    }
-
     private byte[] readNegotiations() throws IOException {
         int i = bin.read();
         if (i < 0) {
@@ -438,17 +489,16 @@ public final class tnvt implements Runnable {
         screen52.getOIA().setKeyBoardLocked(true);
         pendingUnlock = false;
 
-        screen52.getScreenFields().readFormatTable(baosp, readType, codePage);
+        record.begin(0, 3);
+        screen52.getScreenFields().readFormatTable(record, readType, codePage);
 
         try {
 
-            writeGDS(0, 3, baosp.toByteArray());
+            sendRecord();
         } catch (IOException ioe) {
 
             log.warn(ioe.getMessage());
-            baosp.reset();
         }
-        baosp.reset();
 
     }
 
@@ -468,26 +518,25 @@ public final class tnvt implements Runnable {
 
         screen52.getOIA().setKeyBoardLocked(true);
         pendingUnlock = false;
-        baosp.write(screen52.getCurrentRow());
-        baosp.write(screen52.getCurrentCol());
-        baosp.write(aid);
+        record.begin(0, 3);
+        record.write(screen52.getCurrentRow());
+        record.write(screen52.getCurrentCol());
+        record.write(aid);
 
         if (dataIncluded(aid)) {
 
-            screen52.getScreenFields().readFormatTable(baosp, readType,
+            screen52.getScreenFields().readFormatTable(record, readType,
                     codePage);
         }
 
         try {
 
-            writeGDS(0, 3, baosp.toByteArray());
+            sendRecord();
         } catch (IOException ioe) {
 
             log.warn(ioe.getMessage());
-            baosp.reset();
             return false;
         }
-        baosp.reset();
         return true;
 
     }
@@ -538,17 +587,17 @@ public final class tnvt implements Runnable {
         //       row - first ##
         //       column - second ##
         //       F3 - Help Aid Key
-        baosp.write(screen52.getCurrentRow());
-        baosp.write(screen52.getCurrentCol());
-        baosp.write(AID_HELP);
+        record.begin(0, 3);
+        record.write(screen52.getCurrentRow());
+        record.write(screen52.getCurrentCol());
+        record.write(AID_HELP);
 
         try {
-            writeGDS(0, 3, baosp.toByteArray());
+            sendRecord();
         } catch (IOException ioe) {
 
             log.warn(ioe.getMessage());
         }
-        baosp.reset();
     }
 
     /**
@@ -602,7 +651,7 @@ public final class tnvt implements Runnable {
      * @param sr system request option (allowed to be null, but than nothing happens)
      */
     public void systemRequest(String sr) {
-        byte[] bytes = null;
+        record.begin(4, 0);
 
         if ((sr != null) && (sr.length() > 0)) {
             // XXX: Not sure, if this is a sufficient check for 'clear dataq'
@@ -610,17 +659,15 @@ public final class tnvt implements Runnable {
                 dsq.clear();
             }
             for (int i = 0, l = sr.length(); i < l; i++) {
-                baosp.write(codePage.uni2ebcdic(sr.charAt(i)));
+                record.write(codePage.uni2ebcdic(sr.charAt(i)));
             }
-            bytes = baosp.toByteArray();
         }
 
         try {
-            writeGDS(4, 0, bytes);
+            sendRecord();
         } catch (IOException ioe) {
             log.info(ioe.getMessage());
         }
-        baosp.reset();
     }
 
     /**
@@ -680,17 +727,17 @@ public final class tnvt implements Runnable {
         //       column - second ##
         //       F6 - Print Aid Key
 
-        baosp.write(screen52.getCurrentRow());
-        baosp.write(screen52.getCurrentCol());
-        baosp.write(AID_PRINT); // aid key
+        record.begin(0, 3);
+        record.write(screen52.getCurrentRow());
+        record.write(screen52.getCurrentCol());
+        record.write(AID_PRINT); // aid key
 
         try {
-            writeGDS(0, 3, baosp.toByteArray());
+            sendRecord();
         } catch (IOException ioe) {
 
             log.warn(ioe.getMessage());
         }
-        baosp.reset();
     }
 
     public void toggleDebug() {
@@ -701,6 +748,20 @@ public final class tnvt implements Runnable {
     private void writeGDS(int flags, int opcode, byte abyte0[])
             throws IOException {
 
+        record.begin(flags, opcode);
+        if (abyte0 != null) {
+            record.write(abyte0, 0, abyte0.length);
+        }
+        sendRecord();
+    }
+
+    /**
+     * Sends the record built in {@link #record}: GDS header (rfc1205 -
+     * 5250 Telnet interface, Section 3. Data Stream Format), data with IAC
+     * doubled, then IAC EOR to indicate no more to be sent.
+     */
+    private void sendRecord() throws IOException {
+
         // Added to fix for JDK 1.4 this was null coming from another method.
         //  There was a weird keyRelease event coming from another panel when
         //  using a key instead of the mouse to select button.
@@ -710,58 +771,7 @@ public final class tnvt implements Runnable {
             return;
         }
 
-        int length;
-        if (abyte0 != null) {
-            length = abyte0.length + 10;
-        } else {
-            length = 10;
-        }
-
-        // refer to rfc1205 - 5250 Telnet interface
-        // Section 3. Data Stream Format
-
-        // Logical Record Length - 16 bits
-        baosrsp.write(length >> 8); // Length LL
-        baosrsp.write(length & 0xff); //        LL
-
-        // Record Type - 16 bits
-        // It should always be set to '12A0'X to indicate the
-        // General Data Stream (GDS) record type.
-        baosrsp.write(18); // 0x12
-        baosrsp.write(160); // 0xA0
-
-        // the next 16 bits are not used
-        baosrsp.write(0); // 0x00
-        baosrsp.write(0); // 0x00
-
-        //  The second part is meant to be variable in length
-        //  currently this portion is 4 octets long (1 byte or 8 bits for us ;-O)
-        baosrsp.write(4); // 0x04
-
-        baosrsp.write(flags); // flags
-        // bit 0 - ERR
-        // bit 1 - ATN Attention
-        // bits 2-4 - reserved
-        // bit 5 - SRQ system request
-        // bit 6 - TRQ Test request key
-        // bit 7 - HLP
-        baosrsp.write(0); // reserved - set to 0x00
-        baosrsp.write(opcode); // opcode
-
-        if (abyte0 != null) {
-            baosrsp.write(abyte0, 0, abyte0.length);
-        }
-
-        baosrsp = appendByteStream(baosrsp.toByteArray());
-
-        // make sure we indicate no more to be sent
-        baosrsp.write(IAC);
-        baosrsp.write(EOR);
-
-        baosrsp.writeTo(bout);
-
-        bout.flush();
-        baosrsp.reset();
+        record.writeTo(bout);
     }
 
     protected int getOpCode() {
@@ -918,8 +928,9 @@ public final class tnvt implements Runnable {
 
         while (keepTrucking) {
 
+            byte[] record;
             try {
-                bk.initialize((byte[]) dsq.take());
+                record = (byte[]) dsq.take();
             } catch (InterruptedException ie) {
                 log.warn("   vt thread interrupted and stopping ");
                 keepTrucking = false;
@@ -931,113 +942,143 @@ public final class tnvt implements Runnable {
 
             Thread.yield();
 
-            screen52.setCursorActive(false);
+            processDataStream(record);
 
-            if (bk == null) {
-                continue;
-            }
+            Thread.yield();
 
-            switch (bk.getOpCode()) {
-                case 0:
-                    log.debug("No operation");
-                    break;
-                case 1:
-                    log.debug("Invite Operation");
-                    parseIncoming();
-                    pendingUnlock = true;
-                    cursorOn = true;
-                    setInvited();
-                    break;
-                case 2:
-                    log.debug("Output Only");
-                    parseIncoming();
-                    screen52.updateDirty();
-                    break;
-                case 3:
-                    log.debug("Put/Get Operation");
-                    parseIncoming();
-                    setInvited();
-                    if (!firstScreen) {
-                        firstScreen = true;
-                        controller.fireSessionChanged(HTI5250jConstants.STATE_CONNECTED);
-                    }
-                    break;
-                case 4:
-                    log.debug("Save Screen Operation");
-                    parseIncoming();
-                    break;
-
-                case 5:
-                    log.debug("Restore Screen Operation");
-                    parseIncoming();
-                    break;
-                case 6:
-                    log.debug("Read Immediate");
-                    sendAidKey(0);
-                    break;
-                case 7:
-                    log.debug("Reserved");
-                    break;
-                case 8:
-                    log.debug("Read Screen Operation");
-                    try {
-                        readScreen();
-                    } catch (IOException ex) {
-                        log.warn(ex.getMessage());
-                    }
-                    break;
-
-                case 9:
-                    log.debug("Reserved");
-                    break;
-
-                case 10:
-                    log.debug("Cancel Invite Operation");
-                    cancelInvite();
-                    break;
-
-                case 11:
-                    log.debug("Turn on message light");
-                    screen52.getOIA().setMessageLightOn();
-                    screen52.setCursorActive(true);
-
-                    break;
-                case 12:
-                    log.debug("Turn off Message light");
-                    screen52.getOIA().setMessageLightOff();
-                    screen52.setCursorActive(true);
-
-                    break;
-                default:
-                    break;
-            }
+        }
+    }
 
-            if (screen52.isUsingGuiInterface()) {
-                screen52.drawFields();
+    /**
+     * Processes one 5250 record exactly as {@link #run()} does for records
+     * taken from the data stream queue. The record starts with the GDS header
+     * and may still carry the trailing IAC EOR.
+     * <p>
+     * Also used to replay captured records without a host connection.
+     *
+     * @param record the record as queued by {@link DataStreamProducer}
+     */
+    void processDataStream(byte[] record) {
+        // readers of the screen see it before or after the record, never partway
+        screen52.beginUpdate();
+        try {
+            applyRecord(record);
+        } finally {
+            screen52.endUpdate();
+        }
+    }
+
+    private void applyRecord(byte[] record) {
+
+        if (bk == null) {
+            // not started through run(), set up the parser state it creates
+            if (enhanced) {
+                sfParser = new WTDSFParser(this);
             }
+            bk = new Stream5250();
+        }
 
-            try {
-                if (!strpccmd) {
-                    screen52.updateDirty();
-                } else {
-                    strpccmd();
+        bk.initialize(record);
+
+        screen52.setCursorActive(false);
+
+        switch (bk.getOpCode()) {
+            case 0:
+                log.debug("No operation");
+                break;
+            case 1:
+                log.debug("Invite Operation");
+                parseIncoming();
+                pendingUnlock = true;
+                cursorOn = true;
+                setInvited();
+                break;
+            case 2:
+                log.debug("Output Only");
+                parseIncoming();
+                screen52.updateDirty();
+                break;
+            case 3:
+                log.debug("Put/Get Operation");
+                parseIncoming();
+                setInvited();
+                if (!firstScreen) {
+                    firstScreen = true;
+                    controller.fireSessionChanged(HTI5250jConstants.STATE_CONNECTED);
                 }
-            } catch (RuntimeException e) {
-                log.warn("tnvt.run: ", e);
-            }
+                break;
+            case 4:
+                log.debug("Save Screen Operation");
+                parseIncoming();
+                break;
 
-            if (pendingUnlock && !screen52.isStatusErrorCode()) {
-                screen52.getOIA().setKeyBoardLocked(false);
-                pendingUnlock = false;
-            }
+            case 5:
+                log.debug("Restore Screen Operation");
+                parseIncoming();
+                break;
+            case 6:
+                log.debug("Read Immediate");
+                sendAidKey(0);
+                break;
+            case 7:
+                log.debug("Reserved");
+                break;
+            case 8:
+                log.debug("Read Screen Operation");
+                try {
+                    readScreen();
+                } catch (IOException ex) {
+                    log.warn(ex.getMessage());
+                }
+                break;
+
+            case 9:
+                log.debug("Reserved");
+                break;
+
+            case 10:
+                log.debug("Cancel Invite Operation");
+                cancelInvite();
+                break;
+
+            case 11:
+                log.debug("Turn on message light");
+                screen52.getOIA().setMessageLightOn();
+                screen52.setCursorActive(true);
 
-            if (cursorOn && !screen52.getOIA().isKeyBoardLocked()) {
+                break;
+            case 12:
+                log.debug("Turn off Message light");
+                screen52.getOIA().setMessageLightOff();
                 screen52.setCursorActive(true);
-                cursorOn = false;
+
+                break;
+            default:
+                break;
+        }
+
+        if (screen52.isUsingGuiInterface()) {
+            screen52.drawFields();
+        }
+
+        try {
+            if (!strpccmd) {
+                screen52.updateDirty();
+            } else {
+                strpccmd();
             }
+        } catch (RuntimeException e) {
+            log.warn("tnvt.run: ", e);
+        }
 
-            Thread.yield();
+        if (pendingUnlock && !screen52.isStatusErrorCode()) {
+            screen52.getOIA().setKeyBoardLocked(false);
+            pendingUnlock = false;
+        }
 
+        if (cursorOn && !screen52.getOIA().isKeyBoardLocked()) {
+            screen52.setCursorActive(true);
+            cursorOn = false;
         }
     }
 
@@ -1056,6 +1097,7 @@ public final class tnvt implements Runnable {
         int sac = 0;
 
         ScreenPlanes planes = screen52.planes;
+        byte[] text = encodeScreenText(planes, sa.length);
 
         for (int i = 0; i < sa.length; i++) { // save the screen data
 
@@ -1068,17 +1110,37 @@ public final class tnvt implements Runnable {
                     sac = max(--sac, 0);
                     sa[sac++] = (byte) lastAttr;
                 }
-                // Check for displayable character - screen characters are unicode
-                char ch = planes.getChar(i);
-                byte byteCh = (byte) ch;
-                if (isDataUnicode(ch)) {
-                    byteCh = codePage.uni2ebcdic(ch);
-                }
-                sa[min(sac++, sa.length - 1)] = byteCh;
+                sa[min(sac++, sa.length - 1)] = text[i];
             }
         }
     }
 
+    /**
+     * @return the first {@code len} characters of the screen in EBCDIC,
+     *         displayable ones converted a run at a time; other positions
+     *         hold the character's low byte, attribute places anything
+     */
+    private byte[] encodeScreenText(ScreenPlanes planes, int len) {
+        // screen characters are unicode
+        char[] chars = planes.screen;
+        byte[] text = new byte[len];
+        int i = 0;
+        while (i < len) {
+            int run = i;
+            while (run < len && !planes.isAttributePlace(run) && isDataUnicode(chars[run])) {
+                run++;
+            }
+            if (run > i) {
+                codePage.encode(chars, i, run - i, text, i);
+                i = run;
+            } else {
+                text[i] = (byte) chars[i];
+                i++;
+            }
+        }
+        return text;
+    }
+
     private byte[] createRegenerationBuffer(int len) throws IOException {
 
         int la = 32;
@@ -1088,6 +1150,7 @@ public final class tnvt implements Runnable {
         byte[] sa = new byte[len];
 
         try {
+            byte[] text = encodeScreenText(planes, len);
             boolean guiExists = sfParser != null && sfParser.isGuisExists();
 
             for (int i = 0; i < len; i++) { // save the screen data
@@ -1113,13 +1176,7 @@ public final class tnvt implements Runnable {
                         sac = max(--sac, 0);
                         sa[sac++] = (byte) la;
                     }
-                    // Check for displayable character - screen characters are unicode
-                    char ch = planes.getChar(i);
-                    byte byteCh = (byte) ch;
-                    if (isDataUnicode(ch)) {
-                        byteCh = codePage.uni2ebcdic(ch);
-                    }
-                    sa[min(sac++, len - 1)] = byteCh;
+                    sa[min(sac++, len - 1)] = text[i];
                 }
             }
         } catch (Exception e) {
@@ -1491,35 +1548,34 @@ public final class tnvt implements Runnable {
             log.warn("Send Negative Response error " + e.getMessage());
         }
 
-        baosp.write(cat);
-        baosp.write(modifier);
-        baosp.write(uByte1);
-        baosp.write(uByte2);
+        record.begin(128, 0);
+        record.write(cat);
+        record.write(modifier);
+        record.write(uByte1);
+        record.write(uByte2);
 
         try {
-            writeGDS(128, 0, baosp.toByteArray());
+            sendRecord();
         } catch (IOException ioe) {
 
             log.warn(ioe.getMessage());
         }
-        baosp.reset();
 
     }
 
     public void sendNegResponse2(int ec) {
 
         screen52.setPrehelpState(true, true, false);
-        baosp.write(0x00);
-        baosp.write(ec);
+        record.begin(1, 0);
+        record.write(0x00);
+        record.write(ec);
 
         try {
-            writeGDS(1, 0, baosp.toByteArray());
+            sendRecord();
         } catch (IOException ioe) {
 
             log.warn(ioe.getMessage());
         }
-
-        baosp.reset();
     }
 
     private boolean writeToDisplay(boolean controlsExist) {
@@ -1531,6 +1587,10 @@ public final class tnvt implements Runnable {
         int saRows = screen52.getRows();
         int saCols = screen52.getColumns();
 
+        if (textRuns == null || textRuns.getCodePage() != codePage) {
+            textRuns = TextRunDecoder.forCodePage(codePage);
+        }
+
         try {
             if (controlsExist) {
                 byte control0 = bk.getNextByte();
@@ -1694,7 +1754,11 @@ public final class tnvt implements Runnable {
                         //break;
 
                     default:
-                        processAppendByteToScreen();
+                        if (textRuns != null && textRuns.isText(bytebk)) {
+                            appendTextRun();
+                        } else {
+                            processAppendByteToScreen();
+                        }
                         break;
                 }
 
@@ -1712,6 +1776,22 @@ public final class tnvt implements Runnable {
 
     }
 
+    /**
+     * Puts the text run that starts with the byte just read on the screen in
+     * one go. It ends at the next order or attribute; an input error on the
+     * OIA sends nulls the byte at a time way.
+     */
+    private void appendTextRun() throws Exception {
+        if (screen52.isStatusErrorCode()) {
+            processAppendByteToScreen();
+            return;
+        }
+        int start = bk.getCurrentPos() - 1;
+        int length = textRuns.decode(bk.buffer, start, Math.min(bk.streamSize, bk.buffer.length));
+        screen52.setChars(textRuns.chars(), 0, length);
+        bk.skip(length - 1);
+    }
+
     private void processAppendByteToScreen() throws Exception {
         byte byte0 = bk.getByteOffset(-1);
         if (isAttribute(byte0)) {
@@ -2208,8 +2288,8 @@ public final class tnvt implements Runnable {
         // from server negotiations
         if (abyte0[i] == IAC) { // -1
 
+            // one pass per IAC command, a chunk may carry several
             while (i < abyte0.length && abyte0[i++] == -1) {
-            }
                 switch (abyte0[i++]) {
 
                     // we will not worry about what it WONT do
@@ -2340,6 +2420,7 @@ public final class tnvt implements Runnable {
                         i++;
                         break;
                 }
+            }
             return true;
         } else {
             return false;
@@ -2468,7 +2549,7 @@ public final class tnvt implements Runnable {
     }
 
     public void setCodePage(String cp) {
-        codePage = CharMappings.getCodePage(cp);
+        codePage = CharMappings.getCodePage(cp).forStream();
         cp = cp.toLowerCase();
         for (KbdTypesCodePages kbdtyp : KbdTypesCodePages.values()) {
             if (("cp" + kbdtyp.codepage).equals(cp) || kbdtyp.ccsid.equals(cp)) {
@@ -145,6 +145,8 @@ public interface HeadlessSession {
      * 2. Wait for keyboard to unlock (new screen ready)
      * <p>
      * Handles edge case where command completes instantly (no lock phase).
+     * A lock and unlock that finished after the last {@link #sendKeys(String)}
+     * but before this call counts as a completed cycle.
      *
      * @param timeoutMs maximum total wait in milliseconds
      * @throws java.util.concurrent.TimeoutException if timeout exceeded
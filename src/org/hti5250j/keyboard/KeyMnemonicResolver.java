@@ -13,32 +13,100 @@ package org.hti5250j.keyboard;
 
 import org.hti5250j.tools.LangTool;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class KeyMnemonicResolver {
 
-    public int findMnemonicValue(String mnemonicStr) {
-        for (KeyMnemonic mnemonic : KeyMnemonic.values()) {
-            if (mnemonic.mnemonic.equals(mnemonicStr)) {
-                return mnemonic.value;
+    // Mnemonics by a perfect hash of their text, hash and displace style:
+    // the text's hash picks a displacement, and the hash mixed with that
+    // displacement picks a slot no other mnemonic has. A lookup is two
+    // multiplications and one equals, whatever the number of mnemonics.
+    private static final KeyMnemonic[] MNEMONICS = KeyMnemonic.values();
+    private static final int SLOT_MASK;
+    private static final int BUCKET_MASK;
+    private static final int[] DISPLACEMENTS;
+    private static final KeyMnemonic[] SLOTS;
+
+    static {
+        int slots = Integer.highestOneBit(MNEMONICS.length * 2 - 1);
+        int buckets = Math.max(1, slots / 4);
+        List<List<KeyMnemonic>> byBucket = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            byBucket.add(new ArrayList<>());
+        }
+        for (KeyMnemonic mnemonic : MNEMONICS) {
+            byBucket.get(mix(mnemonic.mnemonic.hashCode(), 0) & (buckets - 1)).add(mnemonic);
+        }
+        // the fullest buckets are placed first, while most slots are free
+        Integer[] order = new Integer[buckets];
+        for (int i = 0; i < buckets; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> byBucket.get(b).size() - byBucket.get(a).size());
+
+        KeyMnemonic[] table = new KeyMnemonic[slots];
+        int[] displacements = new int[buckets];
+        int[] placed = new int[MNEMONICS.length];
+        for (int bucket : order) {
+            List<KeyMnemonic> members = byBucket.get(bucket);
+            if (members.isEmpty()) {
+                break;
+            }
+            for (int d = 1; ; d++) {
+                int count = 0;
+                for (KeyMnemonic mnemonic : members) {
+                    int slot = mix(mnemonic.mnemonic.hashCode(), d) & (slots - 1);
+                    if (table[slot] != null) {
+                        break;
+                    }
+                    table[slot] = mnemonic;
+                    placed[count++] = slot;
+                }
+                if (count == members.size()) {
+                    displacements[bucket] = d;
+                    break;
+                }
+                for (int i = 0; i < count; i++) {
+                    table[placed[i]] = null;
+                }
             }
         }
-        return 0;
+        SLOT_MASK = slots - 1;
+        BUCKET_MASK = buckets - 1;
+        DISPLACEMENTS = displacements;
+        SLOTS = table;
     }
 
-    public KeyMnemonic findMnemonic(String mnemonicStr) {
-        for (KeyMnemonic mnemonic : KeyMnemonic.values()) {
-            if (mnemonic.mnemonic.equals(mnemonicStr)) {
-                return mnemonic;
-            }
+    private static int mix(int hash, int seed) {
+        int h = (hash ^ seed) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static KeyMnemonic lookup(String mnemonicStr) {
+        if (mnemonicStr == null) {
+            return null;
         }
-        return null;
+        int hash = mnemonicStr.hashCode();
+        int d = DISPLACEMENTS[mix(hash, 0) & BUCKET_MASK];
+        KeyMnemonic mnemonic = SLOTS[mix(hash, d) & SLOT_MASK];
+        return mnemonic != null && mnemonic.mnemonic.equals(mnemonicStr) ? mnemonic : null;
+    }
+
+    public int findMnemonicValue(String mnemonicStr) {
+        KeyMnemonic mnemonic = lookup(mnemonicStr);
+        return mnemonic != null ? mnemonic.value : 0;
+    }
+
+    public KeyMnemonic findMnemonic(String mnemonicStr) {
+        return lookup(mnemonicStr);
     }
 
     public String[] getMnemonics() {
-        String[] result = new String[KeyMnemonic.values().length];
+        String[] result = new String[MNEMONICS.length];
         int i = 0;
-        for (KeyMnemonic keyMnemonic : KeyMnemonic.values()) {
+        for (KeyMnemonic keyMnemonic : MNEMONICS) {
             result[i++] = keyMnemonic.mnemonic;
         }
         return result;
@@ -51,10 +119,9 @@ public class KeyMnemonicResolver {
     }
 
     public String[] getMnemonicDescriptions() {
-        KeyMnemonic[] mnemonicData = KeyMnemonic.values();
-        String[] result = new String[KeyMnemonic.values().length];
+        String[] result = new String[MNEMONICS.length];
         int i = 0;
-        for (KeyMnemonic mnemonic : mnemonicData) {
+        for (KeyMnemonic mnemonic : MNEMONICS) {
             result[i++] = getDescription(mnemonic);
         }
         return result;
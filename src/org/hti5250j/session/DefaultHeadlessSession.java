@@ -9,6 +9,8 @@ import org.hti5250j.HeadlessScreenRenderer;
 import org.hti5250j.Session5250;
 import org.hti5250j.SessionConfig;
 import org.hti5250j.framework.tn5250.Screen5250;
+import org.hti5250j.framework.tn5250.ScreenOIA;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
 import org.hti5250j.interfaces.HeadlessSession;
 import org.hti5250j.interfaces.RequestHandler;
 import org.hti5250j.event.SessionListener;
@@ -17,6 +19,7 @@ import org.hti5250j.tools.logging.HTI5250jLogger;
 
 import java.awt.image.BufferedImage;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -45,6 +48,13 @@ public class DefaultHeadlessSession implements HeadlessSession {
     private final Session5250 session;
     private final RequestHandler requestHandler;
 
+    // last getScreenAsText result and the screen version it was read at
+    private volatile ScreenText screenText;
+    // keyboard lock count before the last sendKeys, -1 before any
+    private volatile long keysLockCount = -1;
+
+    private record ScreenText(Screen5250 screen, long version, String text) {}
+
     /**
      * Create headless session with default (null) request handler.
      * <p>
@@ -130,6 +140,7 @@ public class DefaultHeadlessSession implements HeadlessSession {
         }
         try {
             Screen5250 screen = getScreen();
+            keysLockCount = screen.getOIA().getKeyboardLockCount();
             screen.sendKeys(keys);
         } catch (Exception e) {
             throw new RuntimeException("Failed to send keys: " + e.getMessage(), e);
@@ -138,37 +149,28 @@ public class DefaultHeadlessSession implements HeadlessSession {
 
     @Override
     public void waitForKeyboardUnlock(int timeoutMs) throws Exception {
-        Screen5250 screen = getScreen();
-        long start = System.currentTimeMillis();
+        ScreenOIA oia = getScreen().getOIA();
 
-        while (screen.getOIA().isKeyBoardLocked()) {
-            if (System.currentTimeMillis() - start > timeoutMs) {
-                throw new TimeoutException("Keyboard locked after " + timeoutMs + "ms");
-            }
-            Thread.sleep(100);
+        if (oia.isKeyBoardLocked()
+                && !oia.awaitKeyboardUnlocked(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Keyboard locked after " + timeoutMs + "ms");
         }
     }
 
     @Override
     public void waitForKeyboardLockCycle(int timeoutMs) throws Exception {
-        Screen5250 screen = getScreen();
+        ScreenOIA oia = getScreen().getOIA();
 
-        // Wait for lock (submission accepted) — short timeout
-        long start = System.currentTimeMillis();
-        while (!screen.getOIA().isKeyBoardLocked()) {
-            if (System.currentTimeMillis() - start > 1000) {
-                return;  // Completed instantly
-            }
-            Thread.sleep(50);
+        // Wait for lock (submission accepted) since the last keys were sent — short timeout
+        long sinceCount = keysLockCount >= 0 ? keysLockCount : oia.getKeyboardLockCount();
+        if (!oia.isKeyBoardLocked() && !oia.awaitKeyboardLocked(sinceCount, 1000, TimeUnit.MILLISECONDS)) {
+            return;  // Completed instantly
         }
 
         // Wait for unlock (screen refreshed)
-        start = System.currentTimeMillis();
-        while (screen.getOIA().isKeyBoardLocked()) {
-            if (System.currentTimeMillis() - start > timeoutMs) {
-                throw new TimeoutException("Screen not refreshed after " + timeoutMs + "ms");
-            }
-            Thread.sleep(100);
+        if (oia.isKeyBoardLocked()
+                && !oia.awaitKeyboardUnlocked(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Screen not refreshed after " + timeoutMs + "ms");
         }
     }
 
@@ -188,11 +190,23 @@ public class DefaultHeadlessSession implements HeadlessSession {
         }
     }
 
+    /**
+     * The text is rebuilt only when the screen version has moved since the
+     * last call; polling an unchanged screen returns the same String. It is
+     * read from a {@link ScreenSnapshot}, so it never shows part of a record
+     * and never waits for the data stream.
+     */
     @Override
     public String getScreenAsText() {
         Screen5250 screen = getScreen();
-        char[] screenChars = screen.getScreenAsChars();
-        return new String(screenChars);
+        ScreenText cached = screenText;
+        if (cached != null && cached.screen == screen && cached.version == screen.getVersion()) {
+            return cached.text;
+        }
+        ScreenSnapshot snapshot = screen.getSnapshot();
+        String text = snapshot.getText();
+        screenText = new ScreenText(screen, snapshot.getVersion(), text);
+        return text;
     }
 
     @Override
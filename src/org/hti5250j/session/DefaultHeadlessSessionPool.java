@@ -9,6 +9,8 @@ import org.hti5250j.interfaces.HeadlessSession;
 import org.hti5250j.interfaces.HeadlessSessionPool;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -24,6 +26,11 @@ import java.util.logging.Logger;
  * to track which sessions are currently borrowed, and a
  * {@link ScheduledExecutorService} for periodic validation and eviction.
  * <p>
+ * When the configuration has a {@link SessionWarmUp}, every new session is
+ * warmed up before it is lent, and the pool tops the idle queue up to
+ * {@code minIdle} on virtual threads after each borrow and eviction, so
+ * borrowers normally get a session that is already signed on.
+ * <p>
  * All public methods are thread-safe. {@link #configure(SessionPoolConfig)}
  * must not be called concurrently with borrow or return operations.
  *
@@ -33,6 +40,11 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
 
     private static final Logger LOG = Logger.getLogger(DefaultHeadlessSessionPool.class.getName());
 
+    private static final long REFILL_INTERVAL_MS = 1000;
+
+    // How long a waiting borrower polls the idle queue before re-checking capacity
+    private static final long WAIT_SLICE_MS = 100;
+
     private volatile SessionPoolConfig config;
 
     // Idle sessions ready to be borrowed
@@ -51,6 +63,10 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
     private final AtomicInteger borrowCount = new AtomicInteger(0);
     private final AtomicInteger returnCount = new AtomicInteger(0);
     private final AtomicInteger evictionCount = new AtomicInteger(0);
+    private final AtomicInteger warmUpFailureCount = new AtomicInteger(0);
+
+    // Sessions created by refill() whose warm-up has not finished
+    private final AtomicInteger refilling = new AtomicInteger(0);
 
     // State
     private final AtomicBoolean shutdownFlag = new AtomicBoolean(false);
@@ -59,6 +75,9 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
     // Background maintenance
     private ScheduledExecutorService scheduler;
 
+    // Runs warm-ups of pre-created and refill sessions
+    private ExecutorService warmer;
+
     // Session naming counter
     private final AtomicInteger sessionCounter = new AtomicInteger(0);
 
@@ -89,6 +108,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
                 Thread.currentThread().interrupt();
             }
         }
+        stopWarmer();
 
         // Disconnect and clear existing sessions before reconfiguration
         if (!idleQueue.isEmpty() || !borrowedSessions.isEmpty()) {
@@ -106,22 +126,38 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
         allSessions.clear();
         lastReturnedTime.clear();
 
-        // Pre-create minIdle sessions (failures are logged but do not prevent scheduler startup)
+        warmer = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("session-pool-warmup-", 0).factory());
+
+        // Pre-create minIdle sessions in parallel, since each warm-up is a sign-on
+        // (failures are logged but do not prevent scheduler startup)
         int preCreate = config.getMinIdle();
         if (config.getMaxSize() > 0 && preCreate > config.getMaxSize()) {
             preCreate = config.getMaxSize();
         }
+        List<Future<?>> pending = new ArrayList<>(preCreate);
+        for (int i = 0; i < preCreate; i++) {
+            pending.add(warmer.submit(() -> {
+                HeadlessSession session = createNewSession();
+                warmUp(session);
+                addIdle(session);
+                return null;
+            }));
+        }
         int preCreated = 0;
         for (int i = 0; i < preCreate; i++) {
             try {
-                HeadlessSession session = createNewSession();
-                lastReturnedTime.put(session, Instant.now());
-                idleQueue.offer(session);
+                pending.get(i).get();
                 preCreated++;
-            } catch (RuntimeException e) {
+            } catch (ExecutionException e) {
                 LOG.log(Level.SEVERE,
                         "Failed to pre-create session " + (i + 1) + " of " + preCreate
-                                + " during pool configuration", e);
+                                + " during pool configuration", e.getCause());
+            } catch (InterruptedException e) {
+                LOG.log(Level.WARNING,
+                        "Interrupted while pre-creating sessions; the rest are added as they finish", e);
+                Thread.currentThread().interrupt();
+                break;
             }
         }
         if (preCreated < preCreate) {
@@ -151,6 +187,11 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
             if (intervalMs < 100) intervalMs = 100;
             scheduler.scheduleAtFixedRate(this::validateIdleSessions, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
         }
+
+        if (config.getMinIdle() > 0) {
+            scheduler.scheduleWithFixedDelay(this::refillIdleSessions,
+                    REFILL_INTERVAL_MS, REFILL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
@@ -209,12 +250,23 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
                 disconnectQuietly(session);
                 evictionCount.incrementAndGet();
                 returnCount.incrementAndGet();
+                refill();
                 return;
             }
         }
 
-        lastReturnedTime.put(session, Instant.now());
-        idleQueue.offer(session);
+        // A session left away from its warmed-up state is replaced, not reused
+        if (config.getWarmUp() != null && !isSessionReady(session)) {
+            allSessions.remove(session);
+            lastReturnedTime.remove(session);
+            disconnectQuietly(session);
+            evictionCount.incrementAndGet();
+            returnCount.incrementAndGet();
+            refill();
+            return;
+        }
+
+        addIdle(session);
         returnCount.incrementAndGet();
     }
 
@@ -235,6 +287,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
                 Thread.currentThread().interrupt();
             }
         }
+        stopWarmer();
 
         // Disconnect all idle sessions
         HeadlessSession session;
@@ -276,6 +329,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
     public int getBorrowCount() { return borrowCount.get(); }
     public int getReturnCount() { return returnCount.get(); }
     public int getEvictionCount() { return evictionCount.get(); }
+    public int getWarmUpFailureCount() { return warmUpFailureCount.get(); }
 
     // ========================================================================
     // Internal borrow strategies
@@ -288,7 +342,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
         }
 
         // Atomically check capacity and create under lock
-        session = tryCreateNewSession();
+        session = tryCreateReadySession();
         if (session != null) {
             return finalizeBorrow(session);
         }
@@ -305,14 +359,19 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
         }
 
         // Atomically check capacity and create under lock
-        session = tryCreateNewSession();
+        session = tryCreateReadySession();
         if (session != null) {
             return finalizeBorrow(session);
         }
 
-        // Poll in a loop so we can detect shutdown rather than blocking forever
+        // Poll in a loop so we can detect shutdown rather than blocking forever,
+        // and retry creation since a discarded return frees capacity without
+        // offering anything to the idle queue
         while (!shutdownFlag.get()) {
-            session = idleQueue.poll(1, TimeUnit.SECONDS);
+            session = idleQueue.poll(WAIT_SLICE_MS, TimeUnit.MILLISECONDS);
+            if (session == null) {
+                session = tryCreateReadySession();
+            }
             if (session != null) {
                 return finalizeBorrow(session);
             }
@@ -327,17 +386,26 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
             return finalizeBorrow(session);
         }
 
-        session = tryCreateNewSession();
+        session = tryCreateReadySession();
         if (session != null) {
             return finalizeBorrow(session);
         }
 
-        session = idleQueue.poll(timeout, unit);
-        if (session == null) {
-            throw new PoolExhaustedException(
-                    "Acquisition timeout after " + unit.toMillis(timeout) + "ms, pool full");
+        // Wait in slices, retrying creation in case a discarded return freed capacity
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            session = idleQueue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(WAIT_SLICE_MS)),
+                    TimeUnit.NANOSECONDS);
+            if (session == null) {
+                session = tryCreateReadySession();
+            }
+            if (session != null) {
+                return finalizeBorrow(session);
+            }
         }
-        return finalizeBorrow(session);
+        throw new PoolExhaustedException(
+                "Acquisition timeout after " + unit.toMillis(timeout) + "ms, pool full");
     }
 
     private HeadlessSession finalizeBorrow(HeadlessSession session) throws PoolExhaustedException {
@@ -354,7 +422,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
             if (session != null) {
                 continue;
             }
-            session = tryCreateNewSession();
+            session = tryCreateReadySession();
             if (session != null) {
                 continue;
             }
@@ -364,6 +432,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
         lastReturnedTime.remove(session); // no longer idle
         borrowedSessions.add(session);
         borrowCount.incrementAndGet();
+        refill();
         return session;
     }
 
@@ -388,6 +457,117 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
         }
     }
 
+    /**
+     * Like {@link #tryCreateNewSession()}, then warms the session up on the
+     * borrowing thread. Used when no idle session is left to lend.
+     */
+    private HeadlessSession tryCreateReadySession() throws PoolExhaustedException {
+        HeadlessSession session = tryCreateNewSession();
+        if (session == null) {
+            return null;
+        }
+        try {
+            warmUp(session);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PoolExhaustedException("Interrupted while warming up '" + session.getSessionName() + "'", e);
+        } catch (Exception e) {
+            throw new PoolExhaustedException("Warm-up failed for '" + session.getSessionName() + "'", e);
+        }
+        return session;
+    }
+
+    /**
+     * Runs the configured warm-up. A session that fails it is disconnected
+     * and no longer counts against the pool size.
+     */
+    private void warmUp(HeadlessSession session) throws Exception {
+        SessionWarmUp warmUp = config.getWarmUp();
+        if (warmUp == null) {
+            return;
+        }
+        try {
+            warmUp.warmUp(session);
+        } catch (Exception e) {
+            allSessions.remove(session);
+            disconnectQuietly(session);
+            warmUpFailureCount.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void addIdle(HeadlessSession session) {
+        if (shutdownFlag.get()) {
+            allSessions.remove(session);
+            disconnectQuietly(session);
+            return;
+        }
+        lastReturnedTime.put(session, Instant.now());
+        idleQueue.offer(session);
+    }
+
+    /**
+     * Starts background warm-ups until idle and warming sessions reach
+     * {@code minIdle}, within the pool's capacity.
+     */
+    private void refill() {
+        SessionPoolConfig cfg = config;
+        if (cfg == null || cfg.getMinIdle() == 0 || shutdownFlag.get()) {
+            return;
+        }
+        poolLock.lock();
+        try {
+            while (idleQueue.size() + refilling.get() < cfg.getMinIdle()) {
+                HeadlessSession session = tryCreateNewSession();
+                if (session == null) {
+                    return; // at capacity
+                }
+                refilling.incrementAndGet();
+                try {
+                    warmer.execute(() -> warmAndAdd(session));
+                } catch (RejectedExecutionException e) {
+                    refilling.decrementAndGet();
+                    allSessions.remove(session);
+                    disconnectQuietly(session);
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Failed to create refill session; retrying on the next refill", e);
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    private void warmAndAdd(HeadlessSession session) {
+        try {
+            warmUp(session);
+            addIdle(session);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING,
+                    "Warm-up failed for '" + session.getSessionName() + "'; retrying on the next refill", e);
+        } finally {
+            refilling.decrementAndGet();
+        }
+    }
+
+    private void stopWarmer() {
+        if (warmer == null) {
+            return;
+        }
+        warmer.shutdownNow();
+        try {
+            if (!warmer.awaitTermination(2, TimeUnit.SECONDS)) {
+                LOG.log(Level.WARNING, "Session warm-ups did not stop within 2s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        warmer = null;
+    }
+
     /**
      * Creates a new session unconditionally (for minIdle pre-creation during configure).
      */
@@ -429,6 +609,16 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
         }
     }
 
+    private boolean isSessionReady(HeadlessSession session) {
+        try {
+            return config.getWarmUp().isReady(session);
+        } catch (Exception e) {
+            LOG.log(Level.WARNING,
+                    "Readiness check failed for '" + session.getSessionName() + "'; treating as not ready", e);
+            return false;
+        }
+    }
+
     private void disconnectQuietly(HeadlessSession session) {
         try {
             session.disconnect();
@@ -460,6 +650,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
                     }
                 }
             }
+            refill();
         } catch (Exception e) {
             LOG.log(Level.SEVERE, "Uncaught exception in idle eviction task", e);
         } catch (Error err) {
@@ -486,6 +677,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
                     }
                 }
             }
+            refill();
         } catch (Exception e) {
             LOG.log(Level.SEVERE, "Uncaught exception in age eviction task", e);
         } catch (Error err) {
@@ -508,6 +700,7 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
                     }
                 }
             }
+            refill();
         } catch (Exception e) {
             LOG.log(Level.SEVERE, "Uncaught exception in periodic validation task", e);
         } catch (Error err) {
@@ -516,6 +709,17 @@ public class DefaultHeadlessSessionPool implements HeadlessSessionPool {
         }
     }
 
+    private void refillIdleSessions() {
+        try {
+            refill();
+        } catch (Exception e) {
+            LOG.log(Level.SEVERE, "Uncaught exception in refill task", e);
+        } catch (Error err) {
+            LOG.log(Level.SEVERE, "Fatal error in refill task", err);
+            throw err;
+        }
+    }
+
     private void checkNotShutdown() throws PoolExhaustedException {
         if (config == null) {
             throw new IllegalStateException("Pool not configured — call configure() before borrowing");
@@ -24,6 +24,9 @@ import java.util.Properties;
  *     .connectionProps(props)
  *     .build();
  * </pre>
+ * With a {@link SessionWarmUp} the pool keeps {@code minIdle} sessions warmed
+ * up (for example signed on by {@link SignonReplay}) and refills them in the
+ * background as they are borrowed.
  *
  * @since 1.1.0
  */
@@ -63,6 +66,7 @@ public final class SessionPoolConfig {
     private final HeadlessSessionFactory sessionFactory;
     private final Properties connectionProps;
     private final String configResource;
+    private final SessionWarmUp warmUp;
 
     private SessionPoolConfig(Builder builder) {
         this.maxSize = builder.maxSize;
@@ -76,6 +80,7 @@ public final class SessionPoolConfig {
         this.acquisitionTimeout = builder.acquisitionTimeout;
         this.sessionFactory = builder.sessionFactory;
         this.configResource = builder.configResource;
+        this.warmUp = builder.warmUp;
         // Defensive copy — Properties is mutable
         this.connectionProps = new Properties();
         this.connectionProps.putAll(builder.connectionProps);
@@ -101,6 +106,8 @@ public final class SessionPoolConfig {
         return copy;
     }
     public String getConfigResource() { return configResource; }
+    /** @return the warm-up run on each new session, or null to lend sessions as created */
+    public SessionWarmUp getWarmUp() { return warmUp; }
 
     public static final class Builder {
         private int maxSize = 10;
@@ -115,6 +122,7 @@ public final class SessionPoolConfig {
         private HeadlessSessionFactory sessionFactory;
         private Properties connectionProps = new Properties();
         private String configResource = "TN5250JDefaults.props";
+        private SessionWarmUp warmUp;
 
         private Builder() {}
 
@@ -188,6 +196,12 @@ public final class SessionPoolConfig {
             return this;
         }
 
+        public Builder warmUp(SessionWarmUp warmUp) {
+            if (warmUp == null) throw new IllegalArgumentException("warmUp must not be null");
+            this.warmUp = warmUp;
+            return this;
+        }
+
         public SessionPoolConfig build() {
             if (sessionFactory == null) {
                 throw new IllegalStateException("sessionFactory is required");
@@ -0,0 +1,44 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.session;
+
+import org.hti5250j.interfaces.HeadlessSession;
+
+/**
+ * Brings a newly created pool session to the state borrowers expect, for
+ * example connected and signed on to a menu.
+ * <p>
+ * {@link DefaultHeadlessSessionPool} warms up the sessions it creates to
+ * fill or refill the idle set on a background thread, before they become
+ * idle. When {@code borrow} finds no idle session and creates one itself,
+ * the warm-up runs on the borrowing thread, and the borrow waits for it.
+ * Sessions that come back in a state {@link #isReady(HeadlessSession)}
+ * rejects are discarded.
+ *
+ * @see SignonReplay
+ * @since 1.3.0
+ */
+@FunctionalInterface
+public interface SessionWarmUp {
+
+    /**
+     * Prepares a session the pool has just created.
+     *
+     * @param session the new session, not yet connected
+     * @throws Exception if the session cannot be prepared; the pool disconnects and drops it
+     */
+    void warmUp(HeadlessSession session) throws Exception;
+
+    /**
+     * Checks whether a returned session can be lent again without a new warm-up.
+     *
+     * @param session the returned session
+     * @return true to keep the session idle, false to replace it
+     */
+    default boolean isReady(HeadlessSession session) {
+        return session.isConnected();
+    }
+}
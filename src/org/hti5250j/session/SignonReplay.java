@@ -0,0 +1,173 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.session;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.event.SessionListener;
+import org.hti5250j.interfaces.HeadlessSession;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link SessionWarmUp} that connects a pool session, signs on and waits for
+ * a menu, so borrowers start on that menu without paying for the sign-on.
+ * <p>
+ * The sign-on keys are typed on the first screen the host sends. A host that
+ * signs on through the Telnet environment ({@code SESSION_CONNECT_USER} and
+ * {@code SESSION_CONNECT_PASSWORD}) shows the menu first and nothing is typed.
+ * <pre>
+ * SessionPoolConfig config = SessionPoolConfig.builder()
+ *     .sessionFactory(factory)
+ *     .connectionProps(props)
+ *     .minIdle(4)
+ *     .warmUp(SignonReplay.builder()
+ *         .user("QUSER")
+ *         .password(password)
+ *         .menu("MAIN")
+ *         .build())
+ *     .build();
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class SignonReplay implements SessionWarmUp {
+
+    // User profile names are at most 10 characters, the length of the
+    // sign-on screen's user field; a full field advances by itself.
+    private static final int USER_FIELD_LENGTH = 10;
+
+    private final String menu;
+    private final String keys;
+    private final Duration timeout;
+
+    private SignonReplay(Builder builder) {
+        this.menu = builder.menu;
+        this.timeout = builder.timeout;
+        if (builder.keys != null) {
+            this.keys = builder.keys;
+        } else {
+            this.keys = "[home]" + builder.user
+                    + (builder.user.length() < USER_FIELD_LENGTH ? "[fldext]" : "")
+                    + builder.password + "[enter]";
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getMenu() { return menu; }
+    public Duration getTimeout() { return timeout; }
+
+    @Override
+    public void warmUp(HeadlessSession session) throws Exception {
+        int timeoutMs = (int) timeout.toMillis();
+        if (!session.isConnected()) {
+            CountDownLatch firstScreen = new CountDownLatch(1);
+            SessionListener listener = event -> {
+                if (event.getState() == HTI5250jConstants.STATE_CONNECTED) {
+                    firstScreen.countDown();
+                }
+            };
+            session.addSessionListener(listener);
+            try {
+                session.connect();
+                if (!firstScreen.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException("No screen from host after " + timeoutMs + "ms");
+                }
+            } finally {
+                session.removeSessionListener(listener);
+            }
+        }
+        session.waitForKeyboardUnlock(timeoutMs);
+        if (isReady(session)) {
+            return;
+        }
+
+        session.sendKeys(keys);
+        session.waitForKeyboardLockCycle(timeoutMs);
+        if (!isReady(session)) {
+            throw new IllegalStateException("Sign-on did not reach menu '" + menu + "':\n"
+                    + session.getScreenAsText());
+        }
+    }
+
+    /**
+     * @return true while the session is connected and showing the menu
+     */
+    @Override
+    public boolean isReady(HeadlessSession session) {
+        return session.isConnected() && session.getScreenAsText().contains(menu);
+    }
+
+    public static final class Builder {
+        private String user;
+        private String password;
+        private String menu;
+        private String keys;
+        private Duration timeout = Duration.ofSeconds(30);
+
+        private Builder() {}
+
+        public Builder user(String user) {
+            if (user == null) throw new IllegalArgumentException("user must not be null");
+            this.user = user;
+            return this;
+        }
+
+        public Builder password(String password) {
+            if (password == null) throw new IllegalArgumentException("password must not be null");
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * @param menu text that is on the screen once sign-on is complete
+         */
+        public Builder menu(String menu) {
+            if (menu == null) throw new IllegalArgumentException("menu must not be null");
+            this.menu = menu;
+            return this;
+        }
+
+        /**
+         * Replaces the default {@code [home]user[fldext]password[enter]}
+         * for sign-on screens with a different layout.
+         *
+         * @param keys keystrokes in {@code sendKeys} mnemonic syntax
+         */
+        public Builder keys(String keys) {
+            if (keys == null) throw new IllegalArgumentException("keys must not be null");
+            this.keys = keys;
+            return this;
+        }
+
+        /**
+         * @param timeout limit for each wait: first screen, unlock, menu
+         */
+        public Builder timeout(Duration timeout) {
+            if (timeout == null) throw new IllegalArgumentException("timeout must not be null");
+            this.timeout = timeout;
+            return this;
+        }
+
+        public SignonReplay build() {
+            if (menu == null || menu.isEmpty()) {
+                throw new IllegalStateException("menu is required");
+            }
+            if (keys == null && (user == null || password == null)) {
+                throw new IllegalStateException("user and password are required unless keys are given");
+            }
+            if (!timeout.isPositive()) {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+            return new SignonReplay(this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.simulator;
+
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.ICodePage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the client sent with an AID key: the key, the cursor position and the
+ * modified fields in screen order.
+ *
+ * @since 1.3.0
+ */
+public final class HostInput {
+
+    private static final int ORDER_SBA = 0x11;
+    private static final ICodePage CODE_PAGE = CharMappings.getCodePage("37");
+
+    private final int aid;
+    private final int cursorRow;
+    private final int cursorCol;
+    private final List<String> fields;
+
+    HostInput(int aid, int cursorRow, int cursorCol, List<String> fields) {
+        this.aid = aid;
+        this.cursorRow = cursorRow;
+        this.cursorCol = cursorCol;
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Decodes the data of an inbound record: cursor row, cursor column, AID,
+     * then SBA row column and EBCDIC data for each modified field.
+     *
+     * @param data unescaped record bytes
+     * @param offset first byte after the GDS header
+     * @param end end of the record, exclusive
+     */
+    static HostInput parse(byte[] data, int offset, int end) {
+        if (end - offset < 3) {
+            return new HostInput(0, 0, 0, new ArrayList<>());
+        }
+        int row = data[offset] & 0xff;
+        int col = data[offset + 1] & 0xff;
+        int aid = data[offset + 2] & 0xff;
+        List<String> fields = new ArrayList<>();
+        int i = offset + 3;
+        while (i < end) {
+            if ((data[i] & 0xff) != ORDER_SBA || i + 2 >= end) {
+                break;
+            }
+            i += 3;
+            int start = i;
+            while (i < end && (data[i] & 0xff) != ORDER_SBA) {
+                i++;
+            }
+            char[] value = new char[i - start];
+            CODE_PAGE.decode(data, start, value.length, value, 0);
+            fields.add(new String(value).stripTrailing());
+        }
+        return new HostInput(aid, row, col, fields);
+    }
+
+    /**
+     * @return the AID code, one of the {@code HTI5250jConstants.AID_*} values
+     */
+    public int getAid() {
+        return aid;
+    }
+
+    public int getCursorRow() {
+        return cursorRow;
+    }
+
+    public int getCursorCol() {
+        return cursorCol;
+    }
+
+    /**
+     * @return the modified fields in screen order, trailing blanks removed
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the modified field at {@code index}, or an empty string
+     */
+    public String getField(int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HostInput[aid=0x%02X, cursor=%d,%d, fields=%s]", aid, cursorRow, cursorCol, fields);
+    }
+}
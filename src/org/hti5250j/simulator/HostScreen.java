@@ -0,0 +1,318 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.simulator;
+
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.ICodePage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One screen served by {@link HostSimulator}.
+ * <p>
+ * A screen is a single 5250 record: GDS header, clear unit, Write To Display
+ * with its orders (SBA, SF, IC). The record leaves the keyboard locked; the
+ * simulator unlocks it with a separate Read MDT Fields record, so the paint
+ * and the unlock can be spaced apart to model a keyboard-lock cycle.
+ * <p>
+ * Screens are immutable and shared by all connections. The escaped wire
+ * form is built once and handed to every socket as a read-only view.
+ * <pre>
+ * HostScreen signOn = HostScreen.builder("SIGNON")
+ *     .text(1, 36, "Sign On")
+ *     .text(6, 17, "User  . . . . . . . . . . . . . .")
+ *     .field(6, 53, 10)
+ *     .text(7, 17, "Password  . . . . . . . . . . . .")
+ *     .hiddenField(7, 53, 10)
+ *     .cursor(6, 53)
+ *     .build();
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class HostScreen {
+
+    static final int OPCODE_OUTPUT_ONLY = 2;
+    static final int OPCODE_PUT_GET = 3;
+
+    private static final int ESC = 0x04;
+    private static final int CMD_WRITE_TO_DISPLAY = 0x11;
+    private static final int CMD_CLEAR_UNIT = 0x40;
+    private static final int CMD_CLEAR_UNIT_ALTERNATE = 0x20;
+    private static final int CMD_READ_MDT_FIELDS = 0x52;
+    private static final int ORDER_SBA = 0x11;
+    private static final int ORDER_IC = 0x13;
+    private static final int ORDER_SF = 0x1D;
+    private static final int ATTR_NORMAL = 0x20;
+    private static final int ATTR_HIGH_INTENSITY = 0x22;
+    private static final int ATTR_UNDERLINE = 0x24;
+    private static final int ATTR_NON_DISPLAY = 0x27;
+    private static final int FFW_INPUT = 0x40;
+
+    private static final byte IAC = (byte) 0xFF;
+    private static final byte EOR = (byte) 0xEF;
+
+    /** Read MDT Fields: tells the client the host is ready for input. */
+    static final ByteBuffer UNLOCK = wire(unlockRecord());
+
+    private final String name;
+    private final byte[] record;
+    private final ByteBuffer wire;
+
+    private HostScreen(String name, byte[] record) {
+        this.name = name;
+        this.record = record;
+        this.wire = wire(record);
+    }
+
+    /**
+     * Wraps a record recorded from a real host, for example with
+     * {@code DataStreamDumper}. A trailing IAC EOR, if present, is dropped;
+     * data bytes of 0xFF must not be doubled.
+     *
+     * @param name screen name used by {@link HostScript} transitions
+     * @param record the 5250 record starting with its length field
+     */
+    public static HostScreen recorded(String name, byte[] record) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Screen name cannot be null or empty");
+        }
+        if (record == null || record.length < 10) {
+            throw new IllegalArgumentException("Record must hold at least the 10 byte GDS header");
+        }
+        int length = (record[0] & 0xff) << 8 | record[1] & 0xff;
+        if (length > record.length) {
+            throw new IllegalArgumentException("Record length field " + length
+                    + " exceeds " + record.length + " bytes");
+        }
+        return new HostScreen(name, Arrays.copyOf(record, length));
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a copy of the unescaped record, without IAC EOR
+     */
+    public byte[] getRecord() {
+        return record.clone();
+    }
+
+    /**
+     * @return a private read-only view of the escaped record plus IAC EOR
+     */
+    ByteBuffer wire() {
+        return wire.duplicate();
+    }
+
+    private static ByteBuffer wire(byte[] record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(record.length + 16);
+        for (byte b : record) {
+            out.write(b);
+            if (b == IAC) {
+                out.write(b);
+            }
+        }
+        out.write(IAC);
+        out.write(EOR);
+        return ByteBuffer.wrap(out.toByteArray()).asReadOnlyBuffer();
+    }
+
+    private static byte[] unlockRecord() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        header(out, OPCODE_PUT_GET);
+        out.write(ESC);
+        out.write(CMD_READ_MDT_FIELDS);
+        out.write(0x00);
+        out.write(0x00);
+        return withLength(out);
+    }
+
+    private static void header(ByteArrayOutputStream out, int opcode) {
+        // rfc1205: length (patched later), record type 12A0, reserved,
+        // variable header length, flags, reserved, opcode
+        out.write(0);
+        out.write(0);
+        out.write(0x12);
+        out.write(0xA0);
+        out.write(0);
+        out.write(0);
+        out.write(0x04);
+        out.write(0);
+        out.write(0);
+        out.write(opcode);
+    }
+
+    private static byte[] withLength(ByteArrayOutputStream out) {
+        byte[] record = out.toByteArray();
+        record[0] = (byte) (record.length >> 8);
+        record[1] = (byte) record.length;
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return "HostScreen[" + name + ", " + record.length + " bytes]";
+    }
+
+    /**
+     * Assembles a screen from display orders. Rows and columns are 1-based,
+     * as on the 5250.
+     */
+    public static final class Builder {
+
+        private final String name;
+        private final ByteArrayOutputStream orders = new ByteArrayOutputStream();
+        private ICodePage codePage = CharMappings.getCodePage("37");
+        private boolean wide;
+        private int cursorRow;
+        private int cursorCol;
+
+        private Builder(String name) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Screen name cannot be null or empty");
+            }
+            this.name = name;
+        }
+
+        /**
+         * Use the 27x132 screen (Clear Unit Alternate) instead of 24x80.
+         */
+        public Builder wide() {
+            this.wide = true;
+            return this;
+        }
+
+        /**
+         * Code page for text and field values, CCSID 37 by default.
+         */
+        public Builder codePage(String ccsid) {
+            ICodePage cp = CharMappings.getCodePage(ccsid);
+            if (cp == null) {
+                throw new IllegalArgumentException("Unknown code page: " + ccsid);
+            }
+            this.codePage = cp;
+            return this;
+        }
+
+        public Builder text(int row, int col, String text) {
+            return text(row, col, text, ATTR_NORMAL);
+        }
+
+        public Builder highlighted(int row, int col, String text) {
+            return text(row, col, text, ATTR_HIGH_INTENSITY);
+        }
+
+        /**
+         * Input field of {@code length} characters whose data starts at
+         * {@code row}/{@code col}; the field attribute takes the column before.
+         */
+        public Builder field(int row, int col, int length) {
+            return field(row, col, length, "", ATTR_UNDERLINE);
+        }
+
+        public Builder field(int row, int col, int length, String value) {
+            return field(row, col, length, value, ATTR_UNDERLINE);
+        }
+
+        /**
+         * Non-display input field, as used for passwords.
+         */
+        public Builder hiddenField(int row, int col, int length) {
+            return field(row, col, length, "", ATTR_NON_DISPLAY);
+        }
+
+        public Builder cursor(int row, int col) {
+            checkPosition(row, col);
+            this.cursorRow = row;
+            this.cursorCol = col;
+            return this;
+        }
+
+        public HostScreen build() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(orders.size() + 32);
+            header(out, OPCODE_OUTPUT_ONLY);
+            out.write(ESC);
+            if (wide) {
+                out.write(CMD_CLEAR_UNIT_ALTERNATE);
+                out.write(0x00);
+            } else {
+                out.write(CMD_CLEAR_UNIT);
+            }
+            out.write(ESC);
+            out.write(CMD_WRITE_TO_DISPLAY);
+            // CC0 leaves the keyboard as it is, CC1 resets the blinking cursor
+            out.write(0x00);
+            out.write(0x18);
+            out.writeBytes(orders.toByteArray());
+            if (cursorRow > 0) {
+                out.write(ORDER_IC);
+                out.write(cursorRow);
+                out.write(cursorCol);
+            }
+            return new HostScreen(name, withLength(out));
+        }
+
+        private Builder text(int row, int col, String text, int attr) {
+            if (text == null) {
+                throw new IllegalArgumentException("Text cannot be null");
+            }
+            // the attribute byte occupies the column before the text
+            checkPosition(row, col - 1);
+            setBufferAddress(row, col - 1);
+            orders.write(attr);
+            ebcdic(text);
+            return this;
+        }
+
+        private Builder field(int row, int col, int length, String value, int attr) {
+            if (length < 1) {
+                throw new IllegalArgumentException("Field length must be positive: " + length);
+            }
+            if (value == null || value.length() > length) {
+                throw new IllegalArgumentException("Field value must fit in " + length + " characters");
+            }
+            checkPosition(row, col - 1);
+            setBufferAddress(row, col - 1);
+            orders.write(ORDER_SF);
+            orders.write(FFW_INPUT);
+            orders.write(0x00);
+            orders.write(attr);
+            orders.write(length >> 8);
+            orders.write(length & 0xff);
+            ebcdic(value);
+            return this;
+        }
+
+        private void setBufferAddress(int row, int col) {
+            orders.write(ORDER_SBA);
+            orders.write(row);
+            orders.write(col);
+        }
+
+        private void ebcdic(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                orders.write(codePage.uni2ebcdic(text.charAt(i)));
+            }
+        }
+
+        private void checkPosition(int row, int col) {
+            int rows = wide ? 27 : 24;
+            int cols = wide ? 132 : 80;
+            if (row < 1 || row > rows || col < 1 || col > cols) {
+                throw new IllegalArgumentException("Position " + row + "," + col
+                        + " is outside the " + rows + "x" + cols + " screen");
+            }
+        }
+    }
+}
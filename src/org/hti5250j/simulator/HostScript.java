@@ -0,0 +1,159 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Screen flow played by {@link HostSimulator}: the screens it serves and
+ * which AID key leads from one to the next.
+ * <p>
+ * Transitions are tried in the order they were added; the first one that
+ * matches the current screen and the client input wins. Input that matches
+ * no transition redisplays the current screen, the way an IBM i program
+ * answers an unexpected function key. A script is immutable and shared by
+ * every connection.
+ * <pre>
+ * HostScript script = HostScript.builder()
+ *     .screen(signOn)                       // first screen is the start screen
+ *     .screen(mainMenu)
+ *     .on("SIGNON", AID_ENTER, "MAIN")
+ *     .on("MAIN", AID_PF3, "SIGNON")
+ *     .when("MAIN", input -&gt; input.getField(0).equals("90"), "SIGNON")
+ *     .build();
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class HostScript {
+
+    private final Map<String, HostScreen> screens;
+    private final List<Transition> transitions;
+    private final HostScreen initial;
+    private final HostScreen signedOn;
+
+    private HostScript(Builder builder) {
+        this.screens = Collections.unmodifiableMap(new LinkedHashMap<>(builder.screens));
+        this.transitions = List.copyOf(builder.transitions);
+        this.initial = screens.values().iterator().next();
+        this.signedOn = builder.signedOn == null ? initial : screens.get(builder.signedOn);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param autoSignOn true when the client sent a user and password
+     * during Telnet negotiation
+     * @return the first screen of a new connection
+     */
+    HostScreen initial(boolean autoSignOn) {
+        return autoSignOn ? signedOn : initial;
+    }
+
+    /**
+     * @return the screen that answers {@code input} on {@code current}
+     */
+    HostScreen next(HostScreen current, HostInput input) {
+        for (Transition t : transitions) {
+            if (t.from.equals(current.getName()) && t.condition.test(input)) {
+                return screens.get(t.to);
+            }
+        }
+        return current;
+    }
+
+    public HostScreen getScreen(String name) {
+        return screens.get(name);
+    }
+
+    private static final class Transition {
+        final String from;
+        final Predicate<HostInput> condition;
+        final String to;
+
+        Transition(String from, Predicate<HostInput> condition, String to) {
+            this.from = from;
+            this.condition = condition;
+            this.to = to;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, HostScreen> screens = new LinkedHashMap<>();
+        private final List<Transition> transitions = new ArrayList<>();
+        private String signedOn;
+
+        private Builder() {
+        }
+
+        public Builder screen(HostScreen screen) {
+            if (screen == null) {
+                throw new IllegalArgumentException("Screen cannot be null");
+            }
+            if (screens.putIfAbsent(screen.getName(), screen) != null) {
+                throw new IllegalArgumentException("Duplicate screen name: " + screen.getName());
+            }
+            return this;
+        }
+
+        /**
+         * Go from screen {@code from} to screen {@code to} when the AID key
+         * is {@code aid}.
+         */
+        public Builder on(String from, int aid, String to) {
+            return when(from, input -> input.getAid() == aid, to);
+        }
+
+        /**
+         * Go from screen {@code from} to screen {@code to} when
+         * {@code condition} accepts the client input.
+         */
+        public Builder when(String from, Predicate<HostInput> condition, String to) {
+            if (condition == null) {
+                throw new IllegalArgumentException("Condition cannot be null");
+            }
+            transitions.add(new Transition(from, condition, to));
+            return this;
+        }
+
+        /**
+         * Start screen for clients that sign on during Telnet negotiation
+         * (user and password sent as NEW-ENVIRON variables).
+         */
+        public Builder signedOn(String screen) {
+            this.signedOn = screen;
+            return this;
+        }
+
+        public HostScript build() {
+            if (screens.isEmpty()) {
+                throw new IllegalStateException("Script needs at least one screen");
+            }
+            for (Transition t : transitions) {
+                requireScreen(t.from);
+                requireScreen(t.to);
+            }
+            if (signedOn != null) {
+                requireScreen(signedOn);
+            }
+            return new HostScript(this);
+        }
+
+        private void requireScreen(String name) {
+            if (!screens.containsKey(name)) {
+                throw new IllegalStateException("Unknown screen: " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,643 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.simulator;
+
+import org.hti5250j.tools.logging.HTI5250jLogFactory;
+import org.hti5250j.tools.logging.HTI5250jLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process TN5250E host for load and latency tests without an IBM i.
+ * <p>
+ * The simulator accepts Telnet connections from tnvt (or any TN5250E client),
+ * negotiates the options an IBM i Telnet server asks for, then plays a
+ * {@link HostScript}: every AID key the client sends selects the next
+ * {@link HostScreen}, which is painted with the keyboard still locked and
+ * followed by a Read MDT Fields record that unlocks it. Two delays shape the
+ * keyboard-lock cycle the client observes:
+ * <ul>
+ * <li>{@code responseDelay} - AID key received to screen painted, the time the
+ * host program spends on the request</li>
+ * <li>{@code unlockDelay} - screen painted to keyboard unlocked</li>
+ * </ul>
+ * All connections share one selector thread. Screens are encoded once and
+ * written to every socket from the same read-only buffer, and delays are
+ * timers on the selector thread, so thousands of idle or thinking
+ * connections cost a socket and a few hundred bytes each.
+ * <pre>
+ * try (HostSimulator host = HostSimulator.builder()
+ *         .script(script)
+ *         .responseDelay(Duration.ofMillis(50))
+ *         .build()
+ *         .start()) {
+ *     props.setProperty(SESSION_HOST_PORT, String.valueOf(host.getPort()));
+ *     ...
+ * }
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class HostSimulator implements AutoCloseable {
+
+    private static final HTI5250jLogger log = HTI5250jLogFactory.getLogger(HostSimulator.class);
+
+    private static final byte IAC = (byte) 0xFF;
+    private static final byte DONT = (byte) 0xFE;
+    private static final byte DO = (byte) 0xFD;
+    private static final byte WONT = (byte) 0xFC;
+    private static final byte WILL = (byte) 0xFB;
+    private static final byte SB = (byte) 0xFA;
+    private static final byte SE = (byte) 0xF0;
+    private static final byte EOR = (byte) 0xEF;
+    private static final byte TRANSMIT_BINARY = 0x00;
+    private static final byte TERMINAL_TYPE = 0x18;
+    private static final byte OPT_END_OF_RECORD = 0x19;
+    private static final byte NEW_ENVIRONMENT = 0x27;
+    private static final byte SEND = 0x01;
+
+    // rfc1572 NEW-ENVIRON codes
+    private static final int ENV_VAR = 0;
+    private static final int ENV_VALUE = 1;
+    private static final int ENV_ESC = 2;
+    private static final int ENV_USERVAR = 3;
+
+    /**
+     * Negotiation in the order an IBM i Telnet server runs it. Each step is
+     * sent once the client has answered the previous one.
+     */
+    private static final ByteBuffer[] NEGOTIATION = {
+            command(IAC, DO, NEW_ENVIRONMENT),
+            command(IAC, SB, NEW_ENVIRONMENT, SEND, IAC, SE),
+            command(IAC, DO, TERMINAL_TYPE),
+            command(IAC, SB, TERMINAL_TYPE, SEND, IAC, SE),
+            command(IAC, DO, OPT_END_OF_RECORD),
+            command(IAC, WILL, OPT_END_OF_RECORD),
+            command(IAC, DO, TRANSMIT_BINARY),
+            command(IAC, WILL, TRANSMIT_BINARY)
+    };
+
+    private static final int GDS_HEADER_LENGTH = 6;
+    private static final int ACCEPT_BACKLOG = 4096;
+
+    private final int requestedPort;
+    private final InetAddress bindAddress;
+    private final HostScript script;
+    private final long responseDelayNanos;
+    private final long unlockDelayNanos;
+
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong aidCount = new AtomicLong();
+    private final AtomicLong screenCount = new AtomicLong();
+    private long timerSequence;
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread loop;
+
+    private HostSimulator(Builder builder) {
+        this.requestedPort = builder.port;
+        this.bindAddress = builder.bindAddress;
+        this.script = builder.script;
+        this.responseDelayNanos = builder.responseDelay.toNanos();
+        this.unlockDelayNanos = builder.unlockDelay.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Binds the listening socket and starts the selector thread.
+     *
+     * @return this simulator, for try-with-resources
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public synchronized HostSimulator start() {
+        if (running) {
+            throw new IllegalStateException("Simulator already started");
+        }
+        try {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(bindAddress, requestedPort), ACCEPT_BACKLOG);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Cannot bind simulator port " + requestedPort, e);
+        }
+        running = true;
+        loop = new Thread(this::run, "host-simulator-" + getPort());
+        loop.setDaemon(true);
+        loop.start();
+        return this;
+    }
+
+    /**
+     * @return the bound port, useful when the simulator was built with port 0
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return connections currently open
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * @return AID keys received on all connections
+     */
+    public long getAidCount() {
+        return aidCount.get();
+    }
+
+    /**
+     * @return screens painted on all connections, including the initial ones
+     */
+    public long getScreenCount() {
+        return screenCount.get();
+    }
+
+    /**
+     * Stops the selector thread and closes every connection.
+     */
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            t = loop;
+        }
+        selector.wakeup();
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                long timeout = runDueTimers();
+                if (timeout < 0) {
+                    selector.select();
+                } else {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeout)));
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection c = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                c.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                c.flush();
+                            }
+                        } catch (IOException e) {
+                            log.debug("Simulator connection closed: " + e.getMessage());
+                            c.close();
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Host simulator stopped: " + e.getMessage(), e);
+        } finally {
+            running = false;
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Runs the timers that are due.
+     *
+     * @return nanoseconds until the next timer, or -1 when there is none
+     */
+    private long runDueTimers() {
+        while (!timers.isEmpty()) {
+            long wait = timers.peek().due - System.nanoTime();
+            if (wait > 0) {
+                return wait;
+            }
+            Timer timer = timers.poll();
+            if (timer.connection.open) {
+                timer.action.run();
+            }
+        }
+        return -1;
+    }
+
+    private void schedule(Connection c, long delayNanos, Runnable action) {
+        if (delayNanos <= 0) {
+            action.run();
+        } else {
+            timers.add(new Timer(System.nanoTime() + delayNanos, timerSequence++, c, action));
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection c = new Connection(channel);
+            c.key = channel.register(selector, SelectionKey.OP_READ, c);
+            connections.incrementAndGet();
+            c.send(NEGOTIATION[0].duplicate());
+        }
+    }
+
+    private void closeQuietly() {
+        if (selector != null) {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection c) {
+                    c.close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.debug("Closing selector: " + e.getMessage());
+            }
+        }
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException e) {
+                log.debug("Closing server socket: " + e.getMessage());
+            }
+        }
+        timers.clear();
+    }
+
+    private static ByteBuffer command(byte... bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    private static final class Timer implements Comparable<Timer> {
+        final long due;
+        final long sequence;
+        final Connection connection;
+        final Runnable action;
+
+        Timer(long due, long sequence, Connection connection, Runnable action) {
+            this.due = due;
+            this.sequence = sequence;
+            this.connection = connection;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Timer o) {
+            int c = Long.compare(due - o.due, 0);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+
+    /**
+     * One client. Touched only by the selector thread.
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        private final Map<String, String> environment = new HashMap<>();
+        private ByteBuffer in = ByteBuffer.allocate(256);
+        private byte[] record = new byte[256];
+        private int recordLength;
+        private int step;
+        private HostScreen screen;
+        private SelectionKey key;
+        private boolean open = true;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (!in.hasRemaining()) {
+                // a record or subnegotiation longer than the buffer
+                ByteBuffer larger = ByteBuffer.allocate(in.capacity() * 2);
+                in.flip();
+                larger.put(in);
+                in = larger;
+            }
+            int n = channel.read(in);
+            if (n < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            if (step < NEGOTIATION.length) {
+                negotiate();
+            }
+            if (step >= NEGOTIATION.length) {
+                receive();
+            }
+            in.compact();
+        }
+
+        /**
+         * Consumes client answers one Telnet command at a time and sends the
+         * next negotiation step for each, then the first screen.
+         */
+        private void negotiate() {
+            while (step < NEGOTIATION.length && in.hasRemaining()) {
+                int start = in.position();
+                if (in.get(start) != IAC) {
+                    // nothing but commands is expected yet
+                    in.position(start + 1);
+                    continue;
+                }
+                int length = commandLength(start);
+                if (length < 0) {
+                    return;
+                }
+                if (in.get(start + 1) == SB && in.get(start + 2) == NEW_ENVIRONMENT) {
+                    parseEnvironment(start + 3, start + length - 2);
+                }
+                in.position(start + length);
+                if (++step < NEGOTIATION.length) {
+                    send(NEGOTIATION[step].duplicate());
+                } else {
+                    boolean signOn = environment.containsKey("USER") && environment.containsKey("IBMSUBSPW");
+                    paint(script.initial(signOn));
+                }
+            }
+        }
+
+        /**
+         * Collects data records up to IAC EOR, undoubling IAC IAC and
+         * skipping any other Telnet command.
+         */
+        private void receive() {
+            while (in.hasRemaining()) {
+                int pos = in.position();
+                byte b = in.get(pos);
+                if (b != IAC) {
+                    append(b);
+                    in.position(pos + 1);
+                    continue;
+                }
+                int length = commandLength(pos);
+                if (length < 0) {
+                    return;
+                }
+                byte cmd = in.get(pos + 1);
+                if (cmd == IAC) {
+                    append(IAC);
+                } else if (cmd == EOR) {
+                    dispatch();
+                    recordLength = 0;
+                }
+                in.position(pos + length);
+            }
+        }
+
+        /**
+         * @return the length of the Telnet command starting with the IAC at
+         * {@code pos}, or -1 when it has not been received completely
+         */
+        private int commandLength(int pos) {
+            int limit = in.limit();
+            if (pos + 1 >= limit) {
+                return -1;
+            }
+            byte cmd = in.get(pos + 1);
+            if (cmd == DO || cmd == DONT || cmd == WILL || cmd == WONT) {
+                return pos + 2 < limit ? 3 : -1;
+            }
+            if (cmd == SB) {
+                for (int i = pos + 2; i + 1 < limit; i++) {
+                    if (in.get(i) == IAC) {
+                        if (in.get(i + 1) == SE) {
+                            return i + 2 - pos;
+                        }
+                        i++;
+                    }
+                }
+                return -1;
+            }
+            return 2;
+        }
+
+        /**
+         * Reads NEW-ENVIRON IS variables: (VAR|USERVAR) name [VALUE value] ...
+         */
+        private void parseEnvironment(int from, int to) {
+            if (from >= to || in.get(from) != 0) {
+                return;
+            }
+            StringBuilder name = null;
+            StringBuilder value = null;
+            for (int i = from + 1; i < to; i++) {
+                int b = in.get(i) & 0xff;
+                if (b == ENV_VAR || b == ENV_USERVAR) {
+                    putVariable(name, value);
+                    name = new StringBuilder();
+                    value = null;
+                } else if (b == ENV_VALUE) {
+                    value = new StringBuilder();
+                } else {
+                    if (b == ENV_ESC && i + 1 < to) {
+                        b = in.get(++i) & 0xff;
+                    }
+                    if (value != null) {
+                        value.append((char) b);
+                    } else if (name != null) {
+                        name.append((char) b);
+                    }
+                }
+            }
+            putVariable(name, value);
+        }
+
+        private void putVariable(StringBuilder name, StringBuilder value) {
+            if (name != null && name.length() > 0) {
+                environment.put(name.toString(), value == null ? "" : value.toString());
+            }
+        }
+
+        private void append(byte b) {
+            if (recordLength == record.length) {
+                record = Arrays.copyOf(record, record.length * 2);
+            }
+            record[recordLength++] = b;
+        }
+
+        private void dispatch() {
+            if (recordLength <= GDS_HEADER_LENGTH) {
+                return;
+            }
+            int dataStart = GDS_HEADER_LENGTH + (record[GDS_HEADER_LENGTH] & 0xff);
+            int opcode = record[dataStart - 1] & 0xff;
+            if (opcode != HostScreen.OPCODE_PUT_GET || dataStart + 3 > recordLength) {
+                return;
+            }
+            HostInput input = HostInput.parse(record, dataStart, recordLength);
+            aidCount.incrementAndGet();
+            HostScreen next = script.next(screen, input);
+            schedule(this, responseDelayNanos, () -> paint(next));
+        }
+
+        private void paint(HostScreen next) {
+            screen = next;
+            screenCount.incrementAndGet();
+            send(next.wire());
+            schedule(this, unlockDelayNanos, () -> send(HostScreen.UNLOCK.duplicate()));
+        }
+
+        void send(ByteBuffer buffer) {
+            if (!open) {
+                return;
+            }
+            if (out.isEmpty()) {
+                try {
+                    channel.write(buffer);
+                } catch (IOException e) {
+                    log.debug("Simulator write failed: " + e.getMessage());
+                    close();
+                    return;
+                }
+                if (!buffer.hasRemaining()) {
+                    return;
+                }
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            out.add(buffer);
+        }
+
+        void flush() throws IOException {
+            while (!out.isEmpty()) {
+                ByteBuffer head = out.peek();
+                channel.write(head);
+                if (head.hasRemaining()) {
+                    return;
+                }
+                out.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            connections.decrementAndGet();
+            out.clear();
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Closing simulator connection: " + e.getMessage());
+            }
+        }
+    }
+
+    public static final class Builder {
+        private int port = 0;
+        private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+        private HostScript script;
+        private Duration responseDelay = Duration.ZERO;
+        private Duration unlockDelay = Duration.ZERO;
+
+        private Builder() {}
+
+        /**
+         * Port to listen on, 0 (the default) for any free port.
+         */
+        public Builder port(int port) {
+            if (port < 0 || port > 65535) throw new IllegalArgumentException("port must be 0-65535");
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Address to listen on, the loopback address by default.
+         */
+        public Builder bindAddress(InetAddress bindAddress) {
+            if (bindAddress == null) throw new IllegalArgumentException("bindAddress must not be null");
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        public Builder script(HostScript script) {
+            if (script == null) throw new IllegalArgumentException("script must not be null");
+            this.script = script;
+            return this;
+        }
+
+        /**
+         * Delay between receiving an AID key and painting the next screen.
+         */
+        public Builder responseDelay(Duration responseDelay) {
+            if (responseDelay == null || responseDelay.isNegative()) {
+                throw new IllegalArgumentException("responseDelay must be >= 0");
+            }
+            this.responseDelay = responseDelay;
+            return this;
+        }
+
+        /**
+         * Delay between painting a screen and unlocking the keyboard.
+         */
+        public Builder unlockDelay(Duration unlockDelay) {
+            if (unlockDelay == null || unlockDelay.isNegative()) {
+                throw new IllegalArgumentException("unlockDelay must be >= 0");
+            }
+            this.unlockDelay = unlockDelay;
+            return this;
+        }
+
+        public HostSimulator build() {
+            if (script == null) {
+                throw new IllegalStateException("script is required");
+            }
+            return new HostSimulator(this);
+        }
+    }
+}
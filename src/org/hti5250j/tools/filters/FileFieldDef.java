@@ -144,9 +144,9 @@ public class FileFieldDef {
 
             default:
 
-                for (int f = startOffset - 1; f < end; f++) {
-                    sb.append(vt.getCodePage().ebcdic2uni(cByte[f] & 0xff));
-                }
+                char[] chars = new char[end - startOffset + 1];
+                vt.getCodePage().decode(cByte, startOffset - 1, chars.length, chars, 0);
+                sb.append(chars);
 
         }
 
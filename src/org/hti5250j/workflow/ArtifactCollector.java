@@ -1,20 +1,50 @@
 package org.hti5250j.workflow;
 
+import org.hti5250j.SessionConfig;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
+
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+public class ArtifactCollector implements AutoCloseable {
+    private static final String LEDGER_FILE_NAME = "execution-ledger.jsonl";
 
-public class ArtifactCollector {
     private final File artifactDir;
     private final File ledgerFile;
+    private final LedgerWriter.Ledger ledger;
+    private final CaptureEncoder captures;
 
     public ArtifactCollector(File artifactDir) {
+        this(artifactDir, null, null);
+    }
+
+    /**
+     * Collector whose ledger lines are queued to {@code ledgers} and written
+     * in the background; close it when the workflow is done.
+     */
+    public ArtifactCollector(File artifactDir, LedgerWriter ledgers) {
+        this(artifactDir, ledgers, null);
+    }
+
+    /**
+     * Collector that also hands screen captures to {@code captures}, to be
+     * written in the background.
+     *
+     * @param ledgers writer for the ledger, or null to write each line before returning
+     * @param captures encoder for {@link #captureSnapshot}, or null
+     */
+    public ArtifactCollector(File artifactDir, LedgerWriter ledgers, CaptureEncoder captures) {
         this.artifactDir = artifactDir;
-        this.ledgerFile = new File(artifactDir, "execution-ledger.jsonl");
+        this.ledgerFile = new File(artifactDir, LEDGER_FILE_NAME);
+        this.ledger = ledgers != null ? ledgers.open(ledgerFile) : null;
+        this.captures = captures;
     }
 
     public File getArtifactDir() {
@@ -34,20 +64,91 @@ public class ArtifactCollector {
         return screenshotFile;
     }
 
+    /**
+     * @return the encoder {@link #captureSnapshot} queues to, or null if captures are written by the caller
+     */
+    public CaptureEncoder getCaptureEncoder() {
+        return captures;
+    }
+
+    /**
+     * Queue a capture of the screen as it was in {@code snapshot}, with a
+     * timestamp in its file names, to be written in the background.
+     *
+     * @param config session configuration for a PNG's fonts and colors, or null for the defaults
+     * @return what the capture will write, or a dropped capture if the encoder is behind
+     * @throws IllegalStateException if this collector has no {@link CaptureEncoder}
+     */
+    public CaptureEncoder.Capture captureSnapshot(ScreenSnapshot snapshot, String screenName,
+                                                  SessionConfig config) {
+        if (captures == null) {
+            throw new IllegalStateException("ArtifactCollector has no CaptureEncoder");
+        }
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000); // seconds
+        return captures.submit(snapshot, artifactDir, screenName + "_" + timestamp, config);
+    }
+
     /**
      * Append execution step to JSON ledger file.
      * Creates JSONL format (one JSON object per line).
+     * <p>
+     * With a {@link LedgerWriter} the line is only queued; it is in the file
+     * after {@link LedgerWriter#flush()}, or once this collector is closed and
+     * the writer has caught up. Otherwise it is written before returning.
      */
     public void appendLedger(String action, String status) throws IOException {
-        String timestamp = ZonedDateTime.now().format(DateTimeFormatter.ISO_INSTANT);
-        String jsonLine = String.format(
-            "{\"timestamp\":\"%s\",\"action\":\"%s\",\"status\":\"%s\"}",
-            timestamp, action, status
-        );
-
-        try (FileWriter writer = new FileWriter(ledgerFile, true)) {
-            writer.write(jsonLine);
-            writer.write("\n");
+        byte[] line = formatLedgerLine(Instant.now(), action, status);
+        if (ledger != null) {
+            ledger.append(line);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(ledgerFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /** Closes the ledger once its queued lines are written; nothing to do without a {@link LedgerWriter}. */
+    @Override
+    public void close() {
+        if (ledger != null) {
+            ledger.close();
+        }
+    }
+
+    static byte[] formatLedgerLine(Instant timestamp, String action, String status) {
+        action = String.valueOf(action);
+        status = String.valueOf(status);
+        StringBuilder json = new StringBuilder(64 + action.length() + status.length());
+        json.append("{\"timestamp\":\"").append(timestamp).append("\",\"action\":\"");
+        appendEscaped(json, action);
+        json.append("\",\"status\":\"");
+        appendEscaped(json, status);
+        json.append("\"}\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendEscaped(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
         }
     }
 }
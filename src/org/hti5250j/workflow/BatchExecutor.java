@@ -6,30 +6,42 @@
 
 package org.hti5250j.workflow;
 
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.interfaces.HeadlessSessionPool;
 import org.hti5250j.interfaces.SessionInterface;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Parallel batch workflow executor using Java 21 virtual threads.
  * Processes multiple CSV rows concurrently with minimal memory overhead.
  * Each row executes as independent workflow on separate virtual thread.
  * Preserves sequential step execution within each workflow.
+ * <p>
+ * A {@link BatchScheduler} decides when rows start: no more than its limit
+ * at once per host, new sessions opened at its ramp rate, and higher lanes
+ * first. Rows run on sessions borrowed from a pool; with a pool warm-up such
+ * as {@code SignonReplay} they start on the signed-on menu. Results are
+ * collected as rows finish, so one slow row holds up no other. The rows'
+ * execution ledgers are written by one {@link LedgerWriter} per batch, and
+ * their captures by one {@link CaptureEncoder}.
  */
 public class BatchExecutor {
 
-    private static final long WORKFLOW_TIMEOUT_SECONDS = 300; // 5 minutes per workflow
+    private static final Logger LOG = Logger.getLogger(BatchExecutor.class.getName());
 
     /**
-     * Execute all workflows from CSV data in parallel using virtual threads.
+     * Execute all workflows from CSV data in parallel using virtual threads,
+     * with the default {@link BatchScheduler}: each row signs on with a new
+     * session, at most 10 at a time per host.
      *
      * @param workflow the workflow schema to execute
      * @param csvRows key-value pairs from CSV file (one per row)
@@ -41,89 +53,275 @@ public class BatchExecutor {
             WorkflowSchema workflow,
             Map<String, Map<String, String>> csvRows,
             String environment) throws InterruptedException {
+        try (BatchScheduler scheduler = BatchScheduler.builder().build()) {
+            return executeAll(workflow, csvRows, environment, scheduler);
+        }
+    }
 
-        long batchStartNanos = System.nanoTime();
+    /**
+     * Execute all workflows from CSV data in parallel, running each row on a
+     * session borrowed from {@code pool} and returning it afterwards.
+     * <p>
+     * The workflow still needs its LOGIN step; on a connected session it only
+     * waits for the keyboard. Configure the pool with
+     * {@code AcquisitionMode.QUEUED} so rows wait for a session rather than fail
+     * when there are more rows than sessions.
+     *
+     * @param workflow the workflow schema to execute
+     * @param csvRows key-value pairs from CSV file (one per row)
+     * @param environment environment name (dev/test/prod)
+     * @param pool configured pool to borrow sessions from, or null for a new session per row
+     * @return aggregated batch metrics
+     * @throws InterruptedException if batch execution is interrupted
+     * @since 1.3.0
+     */
+    public static BatchMetrics executeAll(
+            WorkflowSchema workflow,
+            Map<String, Map<String, String>> csvRows,
+            String environment,
+            HeadlessSessionPool pool) throws InterruptedException {
+        StepDef loginStep = findLoginStep(workflow);
+        if (pool == null || loginStep == null || loginStep.getHost() == null) {
+            return executeAll(workflow, csvRows, environment);
+        }
+        try (BatchScheduler scheduler = BatchScheduler.builder().pool(loginStep.getHost(), pool).build()) {
+            return executeAll(workflow, csvRows, environment, scheduler);
+        }
+    }
+
+    /**
+     * Execute all workflows from CSV data, starting rows as {@code scheduler}
+     * allows. Rows queue in the scheduler's lanes for the LOGIN step's host
+     * and the returned metrics list failures in the order rows finished. A
+     * row that runs longer than the scheduler's workflow timeout fails with
+     * a {@link java.util.concurrent.TimeoutException}; time spent waiting
+     * for the host does not count.
+     *
+     * @param workflow the workflow schema to execute
+     * @param csvRows key-value pairs from CSV file (one per row)
+     * @param environment environment name (dev/test/prod)
+     * @param scheduler scheduler shared with any other batches to the same hosts
+     * @return aggregated batch metrics
+     * @throws InterruptedException if interrupted; rows not yet started are dropped
+     * @since 1.3.0
+     */
+    public static BatchMetrics executeAll(
+            WorkflowSchema workflow,
+            Map<String, Map<String, String>> csvRows,
+            String environment,
+            BatchScheduler scheduler) throws InterruptedException {
+        return executeAll(workflow, RowSource.of(csvRows), environment, scheduler, null);
+    }
+
+    /**
+     * Execute the workflow for every row of {@code rows} with the default
+     * {@link BatchScheduler}, reading rows only as the batch has room for them.
+     *
+     * @param workflow the workflow schema to execute
+     * @param rows source of data rows, for example {@link DatasetLoader#openCSV}; not closed
+     * @param environment environment name (dev/test/prod)
+     * @return aggregated batch metrics
+     * @throws InterruptedException if batch execution is interrupted
+     * @since 1.3.0
+     */
+    public static BatchMetrics executeAll(
+            WorkflowSchema workflow,
+            RowSource rows,
+            String environment) throws InterruptedException {
+        try (BatchScheduler scheduler = BatchScheduler.builder().build()) {
+            return executeAll(workflow, rows, environment, scheduler, null);
+        }
+    }
+
+    /**
+     * Execute the workflow for every row of {@code rows}, starting rows as
+     * {@code scheduler} allows.
+     * <p>
+     * Rows are read from the source as the batch has room for them: no more
+     * than twice the host's limit are waiting or running at a time, so a
+     * file of millions of rows is never held in memory and lanes order the
+     * rows read so far. Each result goes to {@code resultSink} on the calling
+     * thread as its row finishes; after that the batch keeps only its latency,
+     * or the result if it failed.
+     * <p>
+     * A row whose key was already started is skipped with a warning, since
+     * it would share that row's artifact directory and ledger; the batch
+     * keeps the keys it has seen, not the rows.
+     *
+     * @param workflow the workflow schema to execute
+     * @param rows source of data rows, for example {@link DatasetLoader#openCSV}; not closed
+     * @param environment environment name (dev/test/prod)
+     * @param scheduler scheduler shared with any other batches to the same hosts
+     * @param resultSink receives each result in completion order, or null
+     * @return aggregated batch metrics
+     * @throws InterruptedException if interrupted; rows not yet started are dropped
+     * @throws IllegalArgumentException if {@code rows} has no rows or fails to parse one
+     * @since 1.3.0
+     */
+    public static BatchMetrics executeAll(
+            WorkflowSchema workflow,
+            RowSource rows,
+            String environment,
+            BatchScheduler scheduler,
+            Consumer<WorkflowResult> resultSink) throws InterruptedException {
+        return executeAll(workflow, rows, environment, scheduler, resultSink, new BatchProgress());
+    }
 
-        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-        List<Future<WorkflowResult>> futures = new ArrayList<>();
+    /**
+     * Like {@link #executeAll(WorkflowSchema, RowSource, String, BatchScheduler, Consumer)},
+     * recording each row and each completed step into {@code progress} as
+     * they finish, so another thread can follow latency and throughput
+     * while the batch runs.
+     *
+     * @param progress records the batch; should be new, as the returned metrics cover all it recorded
+     * @since 1.3.0
+     */
+    public static BatchMetrics executeAll(
+            WorkflowSchema workflow,
+            RowSource rows,
+            String environment,
+            BatchScheduler scheduler,
+            Consumer<WorkflowResult> resultSink,
+            BatchProgress progress) throws InterruptedException {
+        if (rows == null) {
+            throw new IllegalArgumentException("rows must not be null");
+        }
+        if (scheduler == null) {
+            throw new IllegalArgumentException("scheduler must not be null");
+        }
+        if (progress == null) {
+            throw new IllegalArgumentException("progress must not be null");
+        }
 
-        for (Map.Entry<String, Map<String, String>> entry : csvRows.entrySet()) {
-            String rowKey = entry.getKey();
-            Map<String, String> dataRow = entry.getValue();
+        long batchStartNanos = System.nanoTime();
 
-            Future<WorkflowResult> future = executor.submit(() ->
-                executeWorkflowWithMetrics(workflow, rowKey, dataRow, environment)
-            );
-            futures.add(future);
+        StepDef loginStep = findLoginStep(workflow);
+        if (loginStep == null || loginStep.getHost() == null) {
+            Exception error = new IllegalArgumentException(loginStep == null
+                    ? "Workflow requires LOGIN step" : "LOGIN step requires 'host' property");
+            while (rows.hasNext()) {
+                WorkflowResult result = WorkflowResult.failure(rows.next().key(), 0, error);
+                progress.record(result);
+                if (resultSink != null) {
+                    resultSink.accept(result);
+                }
+            }
+            return progress.toMetrics(batchStartNanos, System.nanoTime());
         }
 
-        List<WorkflowResult> results = new ArrayList<>();
-        for (Future<WorkflowResult> future : futures) {
-            try {
-                WorkflowResult result = future.get(WORKFLOW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-                results.add(result);
-            } catch (TimeoutException e) {
-                results.add(WorkflowResult.timeout("Workflow exceeded " + WORKFLOW_TIMEOUT_SECONDS + "s timeout"));
-            } catch (ExecutionException e) {
-                // Unwrap ExecutionException to preserve original exception type
-                Throwable cause = e.getCause() != null ? e.getCause() : e;
-                String rowKey = "unknown";
-                for (WorkflowResult r : results) {
-                    if (!r.success()) {
-                        rowKey = r.rowKey();
-                        break;
+        String host = loginStep.getHost();
+        HeadlessSessionPool pool = scheduler.poolFor(loginStep);
+        // screen checks are compiled once for the whole batch
+        ScreenMatcherCache matchers = new ScreenMatcherCache();
+        BlockingQueue<WorkflowResult> completed = new LinkedBlockingQueue<>();
+        LedgerWriter ledgers = LedgerWriter.builder().build();
+        CaptureEncoder captures = CaptureEncoder.builder().build();
+        Object batch = new Object();
+        int readAhead = 2 * scheduler.getHostLimit(host);
+        int inFlight = 0;
+        Set<String> startedKeys = new HashSet<>();
+        boolean finished = false;
+
+        try {
+            while (true) {
+                while (inFlight < readAhead && rows.hasNext()) {
+                    DataRow dataRow = rows.next();
+                    String rowKey = dataRow.key();
+                    if (!startedKeys.add(rowKey)) {
+                        LOG.log(Level.WARNING, "Skipping row with duplicate key ''{0}''", rowKey);
+                        continue;
                     }
+                    scheduler.submit(batch, host, pool, rowKey, scheduler.laneOf(dataRow),
+                            () -> executeWorkflowWithMetrics(workflow, rowKey, dataRow, environment, pool, matchers,
+                                    scheduler.getArtifactDirectory(), ledgers, captures, progress),
+                            completed::add);
+                    inFlight++;
+                }
+                if (inFlight == 0) {
+                    break;
+                }
+
+                WorkflowResult result = completed.take();
+                inFlight--;
+                progress.record(result);
+                if (resultSink != null) {
+                    resultSink.accept(result);
                 }
-                results.add(WorkflowResult.failure(rowKey, 0, cause));
             }
+            finished = true;
+        } finally {
+            if (!finished) {
+                // interrupted, or the source or the sink failed
+                scheduler.cancel(batch);
+            }
+            captures.close();
+            closeLedgers(ledgers);
         }
 
-        executor.shutdown();
-
         long batchEndNanos = System.nanoTime();
-        return BatchMetrics.from(results, batchStartNanos, batchEndNanos);
+        return progress.toMetrics(batchStartNanos, batchEndNanos);
+    }
+
+    private static void closeLedgers(LedgerWriter ledgers) {
+        try {
+            ledgers.close();
+        } catch (IOException e) {
+            // The rows' results stand; only their ledgers are incomplete
+            LOG.log(Level.WARNING, "Execution ledger write failed", e);
+        }
+    }
+
+    private static StepDef findLoginStep(WorkflowSchema workflow) {
+        return workflow.getSteps().stream()
+            .filter(s -> s.getAction() == ActionType.LOGIN)
+            .findFirst()
+            .orElse(null);
     }
 
     /**
      * Execute single workflow and record latency metrics.
-     * Creates independent session + artifact collector per workflow.
+     * Creates an independent artifact collector per workflow and borrows the
+     * session from the pool, returning it afterwards.
      *
      * @param workflow the workflow to execute
      * @param rowKey identifier for this CSV row (for logging)
      * @param dataRow parameter values for workflow substitution
      * @param environment environment name
+     * @param pool pool to borrow the session from
+     * @param matchers compiled screen checks shared by the batch
+     * @param artifactRoot directory the row's artifact directory is created in
+     * @param ledgers writes the row's execution ledger
+     * @param captures writes the row's CAPTURE artifacts
+     * @param progress records each step that completes
      * @return result with success/failure status and latency
      */
     private static WorkflowResult executeWorkflowWithMetrics(
             WorkflowSchema workflow,
             String rowKey,
             Map<String, String> dataRow,
-            String environment) {
+            String environment,
+            HeadlessSessionPool pool,
+            ScreenMatcherCache matchers,
+            File artifactRoot,
+            LedgerWriter ledgers,
+            CaptureEncoder captures,
+            BatchProgress progress) {
 
         long startNanos = System.nanoTime();
+        HeadlessSession borrowed = null;
 
         try {
-            StepDef loginStep = workflow.getSteps().stream()
-                .filter(s -> s.getAction() == ActionType.LOGIN)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Workflow requires LOGIN step"));
-
-            SessionInterface session = SessionFactory.createFromLoginStep(loginStep);
+            borrowed = pool.borrowSession();
+            SessionInterface session = new HeadlessSessionAdapter(borrowed);
 
             String workflowNamePath = workflow.getName().replaceAll("\\s+", "_");
             String uniquePath = workflowNamePath + "_" + rowKey;
-            File artifactDir = new File("artifacts/" + uniquePath);
+            File artifactDir = new File(artifactRoot, uniquePath);
             artifactDir.mkdirs();
-            ArtifactCollector collector = new ArtifactCollector(artifactDir);
-
-            DatasetLoader loader = new DatasetLoader();
-            WorkflowRunner runner = new WorkflowRunner(session, loader, collector);
-            runner.executeWorkflow(workflow, dataRow);
-
-            try {
-                session.disconnect();
-            } catch (Exception e) {
-                // Suppress disconnect errors (session may already be closed)
+            try (ArtifactCollector collector = new ArtifactCollector(artifactDir, ledgers, captures)) {
+                DatasetLoader loader = new DatasetLoader();
+                WorkflowRunner runner = new WorkflowRunner(session, loader, collector, matchers, progress);
+                runner.executeWorkflow(workflow, dataRow);
             }
 
             long latencyMs = (System.nanoTime() - startNanos) / 1_000_000;
@@ -132,6 +330,11 @@ public class BatchExecutor {
         } catch (Exception e) {
             long latencyMs = (System.nanoTime() - startNanos) / 1_000_000;
             return WorkflowResult.failure(rowKey, latencyMs, e);
+        } finally {
+            if (borrowed != null) {
+                // The pool decides whether the session can be lent again
+                pool.returnSession(borrowed);
+            }
         }
     }
 }
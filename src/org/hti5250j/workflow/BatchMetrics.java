@@ -6,13 +6,14 @@
 
 package org.hti5250j.workflow;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
  * Aggregated metrics for batch workflow execution.
  * Tracks throughput, latency percentiles, and failure analysis.
+ * <p>
+ * Percentiles come from {@link #latencies()}, exact up to 127ms and within
+ * 1.6% above; add the histograms of several runs to compare them as one.
  */
 public record BatchMetrics(
     int totalWorkflows,
@@ -21,8 +22,25 @@ public record BatchMetrics(
     long p50LatencyMs,
     long p99LatencyMs,
     double throughputOpsPerSec,
-    List<WorkflowResult> failures
+    List<WorkflowResult> failures,
+    LatencyHistogram latencies
 ) {
+    public BatchMetrics {
+        if (latencies == null) {
+            latencies = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Metrics without a latency histogram, as this record was before it had
+     * one: {@link #p90LatencyMs()} and {@link #p999LatencyMs()} are 0.
+     */
+    public BatchMetrics(int totalWorkflows, int successCount, int failureCount, long p50LatencyMs,
+            long p99LatencyMs, double throughputOpsPerSec, List<WorkflowResult> failures) {
+        this(totalWorkflows, successCount, failureCount, p50LatencyMs, p99LatencyMs,
+                throughputOpsPerSec, failures, new LatencyHistogram());
+    }
+
     /**
      * Compute batch metrics from individual workflow results.
      * Calculates latency percentiles and throughput.
@@ -37,34 +55,27 @@ public record BatchMetrics(
             throw new IllegalArgumentException("Results cannot be empty");
         }
 
-        int successCount = (int) results.stream().filter(WorkflowResult::success).count();
-        int failureCount = results.size() - successCount;
-
-        List<WorkflowResult> failures = new ArrayList<>();
-        for (WorkflowResult result : results) {
-            if (!result.success()) {
-                failures.add(result);
-            }
-        }
-
-        List<Long> latencies = new ArrayList<>();
+        BatchProgress progress = new BatchProgress();
         for (WorkflowResult result : results) {
-            if (result.success()) {
-                latencies.add(result.latencyMs());
-            }
+            progress.record(result);
         }
-        Collections.sort(latencies);
-
-        // Use nearest-rank method: index = ceil(percentile * size) - 1
-        // P50 on [10,20,30,40,50]: index = ceil(0.5*5) - 1 = 2 → 30 (correct middle)
-        long p50 = latencies.isEmpty() ? 0 : latencies.get((int)Math.ceil(latencies.size() * 0.50) - 1);
-        long p99 = latencies.isEmpty() ? 0 : latencies.get((int)Math.ceil(latencies.size() * 0.99) - 1);
+        return progress.toMetrics(startNanos, endNanos);
+    }
 
-        long durationNanos = endNanos - startNanos;
-        long durationMs = durationNanos / 1_000_000;
-        double throughput = durationMs > 0 ? (results.size() * 1000.0) / durationMs : 0;
+    /**
+     * @return latency that 90% of successful workflows finished within
+     * @since 1.3.0
+     */
+    public long p90LatencyMs() {
+        return latencies.getValueAtPercentile(90);
+    }
 
-        return new BatchMetrics(results.size(), successCount, failureCount, p50, p99, throughput, failures);
+    /**
+     * @return latency that 99.9% of successful workflows finished within
+     * @since 1.3.0
+     */
+    public long p999LatencyMs() {
+        return latencies.getValueAtPercentile(99.9);
     }
 
     /**
@@ -79,7 +90,9 @@ public record BatchMetrics(
         System.out.printf("  Failures:          %d (%.1f%%)%n", failureCount, (failureCount * 100.0) / totalWorkflows);
         System.out.println("─".repeat(70));
         System.out.printf("  P50 latency:       %dms%n", p50LatencyMs);
+        System.out.printf("  P90 latency:       %dms%n", p90LatencyMs());
         System.out.printf("  P99 latency:       %dms%n", p99LatencyMs);
+        System.out.printf("  P99.9 latency:     %dms%n", p999LatencyMs());
         System.out.printf("  Throughput:        %.1f workflows/sec%n", throughputOpsPerSec);
         System.out.println("═".repeat(70));
 
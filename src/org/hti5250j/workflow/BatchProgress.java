@@ -0,0 +1,225 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Live view of a running batch, updated as each row finishes: counts,
+ * latency percentiles, throughput over the last seconds or minutes, and
+ * latencies per step type.
+ * <p>
+ * Memory stays the same however many rows the batch runs; only failed
+ * results are kept. Safe to read from any thread while the batch records,
+ * for example from a monitor printing {@link #summary()} every minute.
+ *
+ * <pre>{@code
+ * BatchProgress progress = new BatchProgress();
+ * BatchExecutor.executeAll(workflow, rows, "prod", scheduler, null, progress);
+ * }</pre>
+ *
+ * @since 1.3.0
+ */
+public final class BatchProgress {
+
+    // one-second slots of completions, for throughput over up to ten minutes
+    private static final int WINDOW_SLOTS = 600;
+    private static final long SLOT_NANOS = 1_000_000_000L;
+
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final Map<ActionType, LatencyHistogram> stepLatencies = new ConcurrentHashMap<>();
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<WorkflowResult> failures = new ArrayList<>();
+    private final long[] slotSecond = new long[WINDOW_SLOTS];
+    private final long[] slotCount = new long[WINDOW_SLOTS];
+
+    public BatchProgress() {
+        this(System::nanoTime);
+    }
+
+    BatchProgress(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        Arrays.fill(slotSecond, -1);
+    }
+
+    /**
+     * Counts a finished row; the latency of a success goes into the
+     * percentiles, a failure is kept for the report.
+     */
+    public void record(WorkflowResult result) {
+        if (result == null) {
+            throw new IllegalArgumentException("result cannot be null");
+        }
+        if (result.success()) {
+            latencies.record(Math.max(0, result.latencyMs()));
+            successCount.incrementAndGet();
+        } else {
+            failureCount.incrementAndGet();
+        }
+
+        long second = secondNow();
+        lock.lock();
+        try {
+            if (!result.success()) {
+                failures.add(result);
+            }
+            int slot = (int) (second % WINDOW_SLOTS);
+            if (slotSecond[slot] != second) {
+                slotSecond[slot] = second;
+                slotCount[slot] = 0;
+            }
+            slotCount[slot]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts one step that completed, for {@link #getStepLatencies}.
+     *
+     * @param action    the step's action
+     * @param latencyMs how long the step took
+     */
+    public void recordStep(ActionType action, long latencyMs) {
+        if (action == null) {
+            throw new IllegalArgumentException("action cannot be null");
+        }
+        stepLatencies.computeIfAbsent(action, a -> new LatencyHistogram()).record(Math.max(0, latencyMs));
+    }
+
+    public long getCompletedCount() {
+        return successCount.get() + failureCount.get();
+    }
+
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * @return the latencies of the successful rows so far, in milliseconds;
+     *         a copy, to read or to {@link LatencyHistogram#add add} to another run's
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies.copy();
+    }
+
+    /**
+     * @return the latencies of the steps of {@code action} that completed
+     *         so far, in milliseconds; empty if none ran
+     */
+    public LatencyHistogram getStepLatencies(ActionType action) {
+        LatencyHistogram histogram = stepLatencies.get(action);
+        return histogram != null ? histogram.copy() : new LatencyHistogram();
+    }
+
+    /**
+     * Rows finished per second over the last {@code window}, or since the
+     * batch started if that is shorter. The current second is not over yet
+     * and is left out.
+     *
+     * @param window from one second to ten minutes
+     * @return rows per second
+     */
+    public double getThroughput(Duration window) {
+        if (window == null) {
+            throw new IllegalArgumentException("window cannot be null");
+        }
+        long seconds = window.getSeconds();
+        if (seconds < 1 || seconds > WINDOW_SLOTS) {
+            throw new IllegalArgumentException("window must be from 1 second to "
+                    + WINDOW_SLOTS + " seconds: " + window);
+        }
+        long current = secondNow();
+        long from = Math.max(0, current - seconds);
+        if (current == from) {
+            return 0;
+        }
+        long count = 0;
+        lock.lock();
+        try {
+            for (long second = from; second < current; second++) {
+                int slot = (int) (second % WINDOW_SLOTS);
+                if (slotSecond[slot] == second) {
+                    count += slotCount[slot];
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return (double) count / (current - from);
+    }
+
+    /**
+     * @return rows finished per second since the batch started
+     */
+    public double getThroughput() {
+        long elapsedMs = (nanoClock.getAsLong() - startNanos) / 1_000_000;
+        return elapsedMs > 0 ? getCompletedCount() * 1000.0 / elapsedMs : 0;
+    }
+
+    /**
+     * @return the failed results so far, in completion order
+     */
+    public List<WorkflowResult> getFailures() {
+        lock.lock();
+        try {
+            return new ArrayList<>(failures);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One line for a progress log, for example
+     * {@code "1200 done (3 failed), 41.2/s last min, p50 180ms, p99 950ms"}.
+     */
+    public String summary() {
+        return String.format("%d done (%d failed), %.1f/s last min, p50 %dms, p99 %dms",
+                getCompletedCount(), getFailureCount(), getThroughput(Duration.ofMinutes(1)),
+                latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99));
+    }
+
+    /**
+     * Final metrics of the rows recorded.
+     *
+     * @throws IllegalArgumentException if no row was recorded
+     */
+    BatchMetrics toMetrics(long batchStartNanos, long batchEndNanos) {
+        long total = getCompletedCount();
+        if (total == 0) {
+            throw new IllegalArgumentException("Results cannot be empty");
+        }
+        long durationMs = (batchEndNanos - batchStartNanos) / 1_000_000;
+        double throughput = durationMs > 0 ? (total * 1000.0) / durationMs : 0;
+        LatencyHistogram histogram = getLatencies();
+        return new BatchMetrics((int) total, (int) getSuccessCount(), (int) getFailureCount(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                throughput, getFailures(), histogram);
+    }
+
+    private long secondNow() {
+        return Math.max(0, (nanoClock.getAsLong() - startNanos) / SLOT_NANOS);
+    }
+}
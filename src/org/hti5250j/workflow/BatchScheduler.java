@@ -0,0 +1,591 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.interfaces.HeadlessSessionPool;
+import org.hti5250j.session.DefaultHeadlessSessionFactory;
+import org.hti5250j.session.DefaultHeadlessSessionPool;
+import org.hti5250j.session.SessionPoolConfig;
+import org.hti5250j.session.SessionWarmUp;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decides when the rows of a batch start, so a large CSV file does not open
+ * a connection and sign on per row against one IBM i all at once.
+ * <p>
+ * Rows run on virtual threads, at most {@code maxSessionsPerHost} at a time
+ * per host, across all batches run through the same scheduler. A row that
+ * needs a new session, because its pool has none idle, starts no sooner
+ * than {@code rampInterval} after the last such row on its host, so
+ * sign-ons reach the host's interactive subsystem at a steady rate. Waiting
+ * rows start by {@link Lane}, and in order within a lane.
+ * <p>
+ * Rows run on sessions borrowed from a pool per host and user: one given to
+ * {@link Builder#pool(String, HeadlessSessionPool)}, or one the scheduler
+ * creates from the workflow's LOGIN step. With a {@link Builder#signonMenu(String)
+ * sign-on menu} created pools sign on once per session and lend it again as
+ * long as rows leave it on the menu; without one a session serves one row.
+ * <pre>
+ * try (BatchScheduler scheduler = BatchScheduler.builder()
+ *         .maxSessionsPerHost(20)
+ *         .rampInterval(Duration.ofMillis(250))
+ *         .signonMenu("IBM i Main Menu")
+ *         .lane(row -&gt; "Y".equals(row.get("rush")) ? Lane.HIGH : Lane.NORMAL)
+ *         .build()) {
+ *     BatchMetrics metrics = BatchExecutor.executeAll(workflow, rows, "prod", scheduler);
+ * }
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class BatchScheduler implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(BatchScheduler.class.getName());
+
+    /**
+     * Priority of a row waiting for its host; a row starts only when no row
+     * of a higher lane is waiting for the same host.
+     */
+    public enum Lane {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    // Without a menu to come back to, a session is lent once and replaced when returned
+    private static final SessionWarmUp LEND_ONCE = new SessionWarmUp() {
+        @Override
+        public void warmUp(HeadlessSession session) {
+        }
+
+        @Override
+        public boolean isReady(HeadlessSession session) {
+            return false;
+        }
+    };
+
+    private final int maxSessionsPerHost;
+    private final Map<String, Integer> hostLimits;
+    private final long rampNanos;
+    private final Duration workflowTimeout;
+    private final String signonMenu;
+    private final Properties sessionProperties;
+    private final Function<Map<String, String>, Lane> laneSelector;
+    private final Map<String, HeadlessSessionPool> pools;
+    private final File artifactDirectory;
+
+    private final ConcurrentHashMap<String, Host> hosts = new ConcurrentHashMap<>();
+    // Pools created for a user on a host, shut down with the scheduler
+    private final ConcurrentHashMap<String, HeadlessSessionPool> ownPools = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+
+    private BatchScheduler(Builder builder) {
+        this.maxSessionsPerHost = builder.maxSessionsPerHost;
+        this.hostLimits = Map.copyOf(builder.hostLimits);
+        this.rampNanos = builder.rampInterval.toNanos();
+        this.workflowTimeout = builder.workflowTimeout;
+        this.signonMenu = builder.signonMenu;
+        this.sessionProperties = new Properties();
+        this.sessionProperties.putAll(builder.sessionProperties);
+        this.laneSelector = builder.laneSelector;
+        this.pools = Map.copyOf(builder.pools);
+        this.artifactDirectory = builder.artifactDirectory;
+        this.workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("batch-row-", 0).factory());
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "batch-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param host a host name as given in LOGIN steps
+     * @return the number of rows that may run on the host at once
+     */
+    public int getHostLimit(String host) {
+        return hostLimits.getOrDefault(host, maxSessionsPerHost);
+    }
+
+    /** @return the number of rows currently running on the host */
+    public int getRunningCount(String host) {
+        Host state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        state.lock.lock();
+        try {
+            return state.running;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /** @return the number of rows waiting for the host, in all lanes */
+    public int getQueuedCount(String host) {
+        Host state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        state.lock.lock();
+        try {
+            int queued = 0;
+            for (ArrayDeque<Row> lane : state.lanes) {
+                queued += lane.size();
+            }
+            return queued;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    public Duration getWorkflowTimeout() {
+        return workflowTimeout;
+    }
+
+    /** @return the directory under which each row gets its artifact directory */
+    public File getArtifactDirectory() {
+        return artifactDirectory;
+    }
+
+    Lane laneOf(Map<String, String> dataRow) {
+        Lane lane = laneSelector.apply(dataRow);
+        return lane != null ? lane : Lane.NORMAL;
+    }
+
+    /**
+     * The pool rows of a LOGIN step borrow from: the one given for its host,
+     * or one created on first use for its host and user.
+     */
+    HeadlessSessionPool poolFor(StepDef loginStep) {
+        HeadlessSessionPool given = pools.get(loginStep.getHost());
+        if (given != null) {
+            return given;
+        }
+        checkNotClosed();
+        return ownPools.computeIfAbsent(loginStep.getUser() + "@" + loginStep.getHost(),
+                key -> createPool(loginStep));
+    }
+
+    private HeadlessSessionPool createPool(StepDef loginStep) {
+        SessionPoolConfig.Builder config = signonMenu != null
+                ? SessionFactory.poolConfigFromLoginStep(loginStep, signonMenu)
+                : SessionPoolConfig.builder()
+                        .sessionFactory(new DefaultHeadlessSessionFactory())
+                        .acquisitionMode(SessionPoolConfig.AcquisitionMode.QUEUED)
+                        .warmUp(LEND_ONCE);
+        Properties props = new Properties();
+        props.putAll(sessionProperties);
+        props.putAll(SessionFactory.loginProperties(loginStep));
+        DefaultHeadlessSessionPool pool = new DefaultHeadlessSessionPool();
+        pool.configure(config
+                .connectionProps(props)
+                .maxSize(getHostLimit(loginStep.getHost()))
+                .build());
+        return pool;
+    }
+
+    /**
+     * Queues one row for its host. {@code done} receives exactly one
+     * result: the one {@code work} returns, or a timeout failure once the
+     * row has run for the workflow timeout, in which case the row's thread
+     * is interrupted.
+     *
+     * @param batch the batch the row belongs to, to {@link #cancel(Object) cancel} it
+     * @param host the host the row signs on to
+     * @param pool the pool the row borrows from, to tell whether it opens a session
+     * @param rowKey identifier of the row, for failures
+     * @param lane the row's lane
+     * @param work runs the row
+     * @param done receives the row's result, on the row's thread or the scheduler's
+     */
+    void submit(Object batch, String host, HeadlessSessionPool pool, String rowKey, Lane lane,
+                Supplier<WorkflowResult> work, Consumer<WorkflowResult> done) {
+        checkNotClosed();
+        Row row = new Row(batch, rowKey, pool, work, done);
+        Host state = hosts.computeIfAbsent(host, Host::new);
+        state.lock.lock();
+        try {
+            state.lanes.get(lane.ordinal()).addLast(row);
+        } finally {
+            state.lock.unlock();
+        }
+        dispatch(state);
+    }
+
+    /**
+     * Drops the batch's rows that have not started and interrupts those
+     * running. A row dropped before it starts reports no result.
+     */
+    void cancel(Object batch) {
+        for (Host state : hosts.values()) {
+            state.lock.lock();
+            try {
+                for (ArrayDeque<Row> lane : state.lanes) {
+                    lane.removeIf(row -> row.batch == batch);
+                }
+                for (Row row : state.active) {
+                    if (row.batch == batch) {
+                        row.cancelled = true;
+                        Thread thread = row.thread;
+                        if (thread != null) {
+                            thread.interrupt();
+                        }
+                    }
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Starts waiting rows while the host has room, or, when the next row
+     * must wait for the ramp, arranges to try again once it may start.
+     */
+    private void dispatch(Host state) {
+        state.lock.lock();
+        try {
+            while (state.running < state.limit) {
+                Row next = state.peek();
+                if (next == null) {
+                    return;
+                }
+                long now = System.nanoTime();
+                boolean opensSession = next.pool.getIdleCount() == 0;
+                if (opensSession && now - state.nextOpenNanos < 0) {
+                    if (!state.wakeScheduled) {
+                        state.wakeScheduled = true;
+                        timer.schedule(() -> wake(state), state.nextOpenNanos - now, TimeUnit.NANOSECONDS);
+                    }
+                    return;
+                }
+                state.poll();
+                if (opensSession) {
+                    state.nextOpenNanos = now + rampNanos;
+                }
+                state.running++;
+                state.active.add(next);
+                start(state, next);
+            }
+        } catch (RejectedExecutionException e) {
+            // closed while dispatching; close() fails what is still queued
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    private void wake(Host state) {
+        state.lock.lock();
+        try {
+            state.wakeScheduled = false;
+        } finally {
+            state.lock.unlock();
+        }
+        dispatch(state);
+    }
+
+    private void start(Host state, Row row) {
+        try {
+            workers.execute(() -> run(state, row));
+        } catch (RejectedExecutionException e) {
+            state.running--;
+            state.active.remove(row);
+            row.report(WorkflowResult.failure(row.rowKey, 0, e));
+        }
+    }
+
+    private void run(Host state, Row row) {
+        long startNanos = System.nanoTime();
+        row.thread = Thread.currentThread();
+        ScheduledFuture<?> deadline = null;
+        try {
+            deadline = timer.schedule(() -> expire(row, startNanos),
+                    workflowTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (!row.cancelled) {
+                row.report(row.work.get());
+            }
+        } catch (RuntimeException e) {
+            row.report(WorkflowResult.failure(row.rowKey, elapsedMs(startNanos), e));
+        } finally {
+            row.thread = null;
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            finished(state, row);
+        }
+    }
+
+    private void expire(Row row, long startNanos) {
+        TimeoutException timeout = new TimeoutException(
+                "Workflow exceeded " + workflowTimeout.toSeconds() + "s timeout");
+        if (row.report(WorkflowResult.failure(row.rowKey, elapsedMs(startNanos), timeout))) {
+            Thread thread = row.thread;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private void finished(Host state, Row row) {
+        state.lock.lock();
+        try {
+            state.running--;
+            state.active.remove(row);
+        } finally {
+            state.lock.unlock();
+        }
+        if (!closed.get()) {
+            dispatch(state);
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private void checkNotClosed() {
+        if (closed.get()) {
+            throw new IllegalStateException("BatchScheduler has been closed");
+        }
+    }
+
+    /**
+     * Fails rows still waiting, interrupts running rows and shuts down the
+     * pools the scheduler created. Pools given to the builder stay open.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        for (Host state : hosts.values()) {
+            state.lock.lock();
+            try {
+                Row row;
+                while ((row = state.poll()) != null) {
+                    row.report(WorkflowResult.failure(row.rowKey, 0,
+                            new IllegalStateException("BatchScheduler closed before the row started")));
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOG.log(Level.WARNING, "Batch rows did not stop within 5s of close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timer.shutdownNow();
+        for (HeadlessSessionPool pool : ownPools.values()) {
+            pool.shutdown();
+        }
+        ownPools.clear();
+    }
+
+    /** A row waiting for, or running on, its host. */
+    private static final class Row {
+        private final Object batch;
+        private final String rowKey;
+        private final HeadlessSessionPool pool;
+        private final Supplier<WorkflowResult> work;
+        private final Consumer<WorkflowResult> done;
+        private final AtomicBoolean reported = new AtomicBoolean(false);
+        private volatile Thread thread;
+        private volatile boolean cancelled;
+
+        private Row(Object batch, String rowKey, HeadlessSessionPool pool,
+                    Supplier<WorkflowResult> work, Consumer<WorkflowResult> done) {
+            this.batch = batch;
+            this.rowKey = rowKey;
+            this.pool = pool;
+            this.work = work;
+            this.done = done;
+        }
+
+        /** @return true if this was the row's result */
+        private boolean report(WorkflowResult result) {
+            if (!reported.compareAndSet(false, true)) {
+                return false;
+            }
+            done.accept(result);
+            return true;
+        }
+    }
+
+    /** Rows waiting for one host and the rows it is running. Guarded by lock. */
+    private final class Host {
+        private final ReentrantLock lock = new ReentrantLock();
+        // one queue per Lane, by ordinal
+        private final List<ArrayDeque<Row>> lanes = new ArrayList<>(Lane.values().length);
+        private final Set<Row> active = new HashSet<>();
+        private final int limit;
+        private int running;
+        private long nextOpenNanos = System.nanoTime();
+        private boolean wakeScheduled;
+
+        private Host(String name) {
+            this.limit = getHostLimit(name);
+            for (int i = 0; i < Lane.values().length; i++) {
+                lanes.add(new ArrayDeque<>());
+            }
+        }
+
+        private Row peek() {
+            for (ArrayDeque<Row> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return lane.peekFirst();
+                }
+            }
+            return null;
+        }
+
+        private Row poll() {
+            for (ArrayDeque<Row> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return lane.pollFirst();
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final class Builder {
+        private int maxSessionsPerHost = 10;
+        private final Map<String, Integer> hostLimits = new HashMap<>();
+        private Duration rampInterval = Duration.ofMillis(100);
+        private Duration workflowTimeout = Duration.ofMinutes(5);
+        private String signonMenu;
+        private Properties sessionProperties = new Properties();
+        private Function<Map<String, String>, Lane> laneSelector = row -> Lane.NORMAL;
+        private final Map<String, HeadlessSessionPool> pools = new HashMap<>();
+        private File artifactDirectory = new File("artifacts");
+
+        private Builder() {}
+
+        /** Rows that may run at once on a host without its own limit. Default 10. */
+        public Builder maxSessionsPerHost(int maxSessionsPerHost) {
+            if (maxSessionsPerHost < 1) throw new IllegalArgumentException("maxSessionsPerHost must be at least 1");
+            this.maxSessionsPerHost = maxSessionsPerHost;
+            return this;
+        }
+
+        /** Rows that may run at once on {@code host}, in place of {@code maxSessionsPerHost}. */
+        public Builder hostLimit(String host, int maxSessions) {
+            if (host == null) throw new IllegalArgumentException("host must not be null");
+            if (maxSessions < 1) throw new IllegalArgumentException("maxSessions must be at least 1");
+            this.hostLimits.put(host, maxSessions);
+            return this;
+        }
+
+        /**
+         * Least time between two rows on a host that each open a new session.
+         * Default 100ms; zero opens sessions as fast as rows arrive.
+         */
+        public Builder rampInterval(Duration rampInterval) {
+            if (rampInterval == null) throw new IllegalArgumentException("rampInterval must not be null");
+            if (rampInterval.isNegative()) throw new IllegalArgumentException("rampInterval must not be negative");
+            this.rampInterval = rampInterval;
+            return this;
+        }
+
+        /** Time a row may run, from its start, before it fails as timed out. Default 5 minutes. */
+        public Builder workflowTimeout(Duration workflowTimeout) {
+            if (workflowTimeout == null) throw new IllegalArgumentException("workflowTimeout must not be null");
+            if (workflowTimeout.isNegative() || workflowTimeout.isZero()) {
+                throw new IllegalArgumentException("workflowTimeout must be positive");
+            }
+            this.workflowTimeout = workflowTimeout;
+            return this;
+        }
+
+        /**
+         * Text on the screen the host shows after sign-on. Pools the scheduler
+         * creates then sign sessions on with {@link org.hti5250j.session.SignonReplay}
+         * and lend them again while rows leave them on this menu.
+         */
+        public Builder signonMenu(String signonMenu) {
+            if (signonMenu == null) throw new IllegalArgumentException("signonMenu must not be null");
+            this.signonMenu = signonMenu;
+            return this;
+        }
+
+        /**
+         * Connection properties, such as the port or transport, for sessions of
+         * pools the scheduler creates; the LOGIN step sets host, user and password.
+         */
+        public Builder sessionProperties(Properties sessionProperties) {
+            if (sessionProperties == null) throw new IllegalArgumentException("sessionProperties must not be null");
+            this.sessionProperties = sessionProperties;
+            return this;
+        }
+
+        /** Chooses each row's lane from its CSV values. By default every row is {@link Lane#NORMAL}. */
+        public Builder lane(Function<Map<String, String>, Lane> laneSelector) {
+            if (laneSelector == null) throw new IllegalArgumentException("laneSelector must not be null");
+            this.laneSelector = laneSelector;
+            return this;
+        }
+
+        /**
+         * Pool that rows signing on to {@code host} borrow from, whatever
+         * their user. The scheduler does not shut it down.
+         */
+        public Builder pool(String host, HeadlessSessionPool pool) {
+            if (host == null) throw new IllegalArgumentException("host must not be null");
+            if (pool == null) throw new IllegalArgumentException("pool must not be null");
+            this.pools.put(host, pool);
+            return this;
+        }
+
+        /** Directory under which each row gets its artifact directory. Default {@code artifacts}. */
+        public Builder artifactDirectory(File artifactDirectory) {
+            if (artifactDirectory == null) throw new IllegalArgumentException("artifactDirectory must not be null");
+            this.artifactDirectory = artifactDirectory;
+            return this;
+        }
+
+        public BatchScheduler build() {
+            return new BatchScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.HeadlessScreenRenderer;
+import org.hti5250j.SessionConfig;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes CAPTURE artifacts on a few background threads, so a workflow step
+ * only takes a {@link ScreenSnapshot} and moves on while the text dump,
+ * plane file or PNG is written.
+ * <p>
+ * At most {@link Builder#queueCapacity(int) queueCapacity} captures wait to
+ * be written. Once half of them are waiting, a PNG capture is written as a
+ * {@link PlaneCapture} instead, which can be rendered later; a capture that
+ * finds the queue full is dropped. Either way the capture step never waits
+ * for the encoder, and {@link Capture} tells the step what it got.
+ * <pre>
+ * try (CaptureEncoder captures = CaptureEncoder.builder()
+ *         .policy(Policy.SNAPSHOT)
+ *         .threads(2)
+ *         .build()) {
+ *     ArtifactCollector collector = new ArtifactCollector(dir, ledgers, captures);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class CaptureEncoder implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(CaptureEncoder.class.getName());
+
+    /** System property naming the default {@link Policy}, such as {@code TEXT}. */
+    public static final String POLICY_PROPERTY = "hti5250j.capture.policy";
+
+    /** What a capture writes; every policy writes the screen's text. */
+    public enum Policy {
+        /** The text dump only. */
+        TEXT,
+        /** The text dump and a {@link PlaneCapture} to render on demand. */
+        SNAPSHOT,
+        /** The text dump and a rendered PNG. */
+        PNG
+    }
+
+    /**
+     * What a capture was queued as.
+     *
+     * @param policy    what will be written; SNAPSHOT for a PNG capture written as planes
+     * @param degraded  whether the capture was asked for as PNG and written as planes
+     * @param textFile  the text dump, or null if the capture was dropped
+     * @param imageFile the {@code .planes} or {@code .png} file, or null
+     */
+    public record Capture(Policy policy, boolean degraded, File textFile, File imageFile) {
+
+        public boolean isDropped() {
+            return textFile == null;
+        }
+    }
+
+    private final Policy policy;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong degraded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private CaptureEncoder(Builder builder) {
+        this.policy = builder.policy;
+        this.queueCapacity = builder.queueCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(builder.threads, builder.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(builder.queueCapacity), r -> {
+                    Thread t = new Thread(r, "capture-encoder-" + threadNumber.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /** @return captures written so far, including degraded ones */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /** @return PNG captures written as planes because the encoder was behind */
+    public long getDegradedCount() {
+        return degraded.get();
+    }
+
+    /** @return captures dropped because the queue was full */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** @return captures that failed to write; the error is logged */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Queues a capture of {@code snapshot} into {@code dir}, as
+     * {@code baseName.txt} and {@code baseName.png} or {@code baseName.planes}
+     * as the policy and the queue allow.
+     *
+     * @param config session configuration for fonts and colors of a PNG, or null for the defaults
+     * @return what was queued, or a dropped capture
+     * @throws IllegalStateException if the encoder is closed
+     */
+    public Capture submit(ScreenSnapshot snapshot, File dir, String baseName, SessionConfig config) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("snapshot must not be null");
+        }
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("CaptureEncoder is closed");
+        }
+
+        Policy format = policy;
+        boolean behind = format == Policy.PNG && executor.getQueue().size() >= Math.max(1, queueCapacity / 2);
+        if (behind) {
+            format = Policy.SNAPSHOT;
+        }
+        File textFile = new File(dir, baseName + ".txt");
+        File imageFile = switch (format) {
+            case TEXT -> null;
+            case SNAPSHOT -> new File(dir, baseName + PlaneCapture.EXTENSION);
+            case PNG -> new File(dir, baseName + ".png");
+        };
+
+        Policy writing = format;
+        try {
+            executor.execute(() -> write(snapshot, writing, textFile, imageFile, config));
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                throw new IllegalStateException("CaptureEncoder is closed", e);
+            }
+            dropped.incrementAndGet();
+            return new Capture(policy, false, null, null);
+        }
+        if (behind) {
+            degraded.incrementAndGet();
+        }
+        return new Capture(format, behind, textFile, imageFile);
+    }
+
+    private void write(ScreenSnapshot snapshot, Policy format, File textFile, File imageFile,
+                       SessionConfig config) {
+        try {
+            StringBuilder dump = new StringBuilder(snapshot.getScreenLength() + snapshot.getRows());
+            for (int row = 0; row < snapshot.getRows(); row++) {
+                dump.append(snapshot.getRowText(row)).append('\n');
+            }
+            Files.writeString(textFile.toPath(), dump, StandardCharsets.UTF_8);
+
+            if (format == Policy.SNAPSHOT) {
+                PlaneCapture.write(snapshot, imageFile);
+            } else if (format == Policy.PNG) {
+                ImageIO.write(HeadlessScreenRenderer.renderSnapshot(snapshot, config), "PNG", imageFile);
+            }
+            written.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            LOG.log(Level.WARNING, "Capture " + textFile.getName() + " failed", e);
+        }
+    }
+
+    /**
+     * Writes every capture already queued and stops the encoder threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class Builder {
+        private Policy policy = defaultPolicy();
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int queueCapacity = 64;
+
+        private Builder() {}
+
+        private static Policy defaultPolicy() {
+            String name = System.getProperty(POLICY_PROPERTY);
+            if (name != null) {
+                try {
+                    return Policy.valueOf(name.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    LOG.warning("Unknown " + POLICY_PROPERTY + " '" + name + "', capturing PNG");
+                }
+            }
+            return Policy.PNG;
+        }
+
+        /** What captures write. Default PNG, or the {@value CaptureEncoder#POLICY_PROPERTY} system property. */
+        public Builder policy(Policy policy) {
+            if (policy == null) throw new IllegalArgumentException("policy must not be null");
+            this.policy = policy;
+            return this;
+        }
+
+        /** Threads writing captures. Default half the processors, at least 1. */
+        public Builder threads(int threads) {
+            if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+            this.threads = threads;
+            return this;
+        }
+
+        /** Captures that may wait to be written before new ones are dropped. Default 64. */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be at least 1");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public CaptureEncoder build() {
+            return new CaptureEncoder(this);
+        }
+    }
+}
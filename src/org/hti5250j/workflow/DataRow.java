@@ -0,0 +1,184 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * One row of a dataset: its key and its values, as an unmodifiable map
+ * from column name to value in column order.
+ * <p>
+ * Rows read from one file share one {@link Header}, so a row costs its
+ * value array rather than a map entry per column.
+ *
+ * @since 1.3.0
+ */
+public final class DataRow extends AbstractMap<String, String> {
+
+    /**
+     * Column names of a dataset, shared by its rows.
+     */
+    public static final class Header {
+        private final String[] names;
+        private final Map<String, Integer> index;
+
+        public Header(List<String> names) {
+            if (names == null) {
+                throw new IllegalArgumentException("names cannot be null");
+            }
+            this.names = names.toArray(new String[0]);
+            this.index = new HashMap<>(this.names.length * 2);
+            for (int i = 0; i < this.names.length; i++) {
+                // a repeated name reads the first column of that name
+                this.index.putIfAbsent(this.names[i], i);
+            }
+        }
+
+        public List<String> names() {
+            return List.of(names);
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        private boolean hasNames(Collection<String> columns) {
+            if (columns.size() != names.length) {
+                return false;
+            }
+            int i = 0;
+            for (String column : columns) {
+                if (!names[i++].equals(column)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the column's position, or -1 if there is no such column
+         */
+        public int indexOf(String name) {
+            Integer i = index.get(name);
+            return i != null ? i : -1;
+        }
+    }
+
+    private final String key;
+    private final Header header;
+    private final String[] values;
+
+    /**
+     * @param key    the row's key
+     * @param header the dataset's columns
+     * @param values one value per column, in column order; kept, not copied
+     */
+    public DataRow(String key, Header header, String[] values) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        if (header == null) {
+            throw new IllegalArgumentException("header cannot be null");
+        }
+        if (values == null || values.length != header.size()) {
+            throw new IllegalArgumentException("Row '" + key + "' needs " + header.size() + " values");
+        }
+        this.key = key;
+        this.header = header;
+        this.values = values;
+    }
+
+    /**
+     * A row with the entries of {@code row}, in its iteration order.
+     */
+    public static DataRow of(String key, Map<String, String> row) {
+        return of(key, row, null);
+    }
+
+    /**
+     * Like {@link #of(String, Map)}, sharing {@code header} if the row has
+     * the same columns in the same order.
+     */
+    static DataRow of(String key, Map<String, String> row, Header header) {
+        if (row instanceof DataRow dataRow && dataRow.key.equals(key)) {
+            return dataRow;
+        }
+        if (header == null || !header.hasNames(row.keySet())) {
+            header = new Header(List.copyOf(row.keySet()));
+        }
+        return new DataRow(key, header, row.values().toArray(new String[0]));
+    }
+
+    /**
+     * @return the row's key; for a CSV file, the first column's value
+     */
+    public String key() {
+        return key;
+    }
+
+    public Header header() {
+        return header;
+    }
+
+    @Override
+    public String get(Object column) {
+        if (!(column instanceof String name)) {
+            return null;
+        }
+        int i = header.indexOf(name);
+        return i >= 0 ? values[i] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object column) {
+        return column instanceof String name && header.indexOf(name) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (next >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<>(header.names[i], values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+}
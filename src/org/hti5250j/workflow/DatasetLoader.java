@@ -1,7 +1,12 @@
 package org.hti5250j.workflow;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.apache.commons.csv.CSVFormat;
@@ -12,13 +17,37 @@ public class DatasetLoader {
 
     /**
      * Load CSV file into Map<rowKey, Map<columnName, value>>.
-     * Uses first column as row key.
+     * Uses first column as row key; a later row with the same key replaces
+     * an earlier one. Rows share the file's header, see {@link DataRow}.
      *
      * @param csvFile the CSV file to load
      * @return map with row keys and column values
      * @throws Exception if file not found or CSV parsing fails
      */
     public Map<String, Map<String, String>> loadCSV(File csvFile) throws Exception {
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+
+        try (RowSource rows = openCSV(csvFile)) {
+            while (rows.hasNext()) {
+                DataRow row = rows.next();
+                result.put(row.key(), row);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Open a CSV file for reading one row at a time. Uses first column as
+     * row key; every row is returned, whether or not its key repeats
+     * ({@link BatchExecutor} runs the first row of a key and skips the rest).
+     *
+     * @param csvFile the CSV file to read
+     * @return source of the file's rows; close it when done
+     * @throws IllegalArgumentException if the file is missing or its header cannot be read
+     * @since 1.3.0
+     */
+    public RowSource openCSV(File csvFile) {
         if (csvFile == null) {
             throw new IllegalArgumentException("CSV file cannot be null");
         }
@@ -27,38 +56,87 @@ public class DatasetLoader {
             throw new IllegalArgumentException("CSV file not found: " + csvFile.getAbsolutePath());
         }
 
-        Map<String, Map<String, String>> result = new LinkedHashMap<>();
-
-        try (FileReader reader = new FileReader(csvFile);
-             CSVParser parser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader)) {
-
-            for (CSVRecord record : parser) {
+        Reader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(csvFile));
+            return new CsvRowSource(csvFile, CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader));
+        } catch (IOException | RuntimeException e) {
+            if (reader != null) {
                 try {
-                    String rowKey = record.get(0);
-                    Map<String, String> row = new LinkedHashMap<>();
-
-                    for (String header : parser.getHeaderNames()) {
-                        row.put(header, record.get(header));
-                    }
-
-                    result.put(rowKey, row);
-                } catch (Exception recordEx) {
-                    throw new IllegalArgumentException(
-                        "Failed to parse CSV record at line " + record.getRecordNumber() +
-                        " in file: " + csvFile.getAbsolutePath(), recordEx);
+                    reader.close();
+                } catch (IOException closeEx) {
+                    e.addSuppressed(closeEx);
                 }
             }
-        } catch (java.io.IOException ioEx) {
-            throw new IllegalArgumentException(
-                "Failed to read CSV file: " + csvFile.getAbsolutePath(), ioEx);
-        } catch (IllegalArgumentException argEx) {
-            throw argEx;
-        } catch (Exception parseEx) {
+            if (e instanceof IllegalArgumentException argEx) {
+                throw argEx;
+            }
             throw new IllegalArgumentException(
-                "Failed to parse CSV file: " + csvFile.getAbsolutePath(), parseEx);
+                "Failed to read CSV file: " + csvFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Rows of a CSV file as commons-csv parses them, each a {@link DataRow}
+     * on the header of the file.
+     */
+    private static final class CsvRowSource implements RowSource {
+        private final File csvFile;
+        private final CSVParser parser;
+        private final Iterator<CSVRecord> records;
+        private final DataRow.Header header;
+
+        CsvRowSource(File csvFile, CSVParser parser) {
+            this.csvFile = csvFile;
+            this.parser = parser;
+            this.records = parser.iterator();
+            this.header = new DataRow.Header(parser.getHeaderNames());
         }
 
-        return result;
+        @Override
+        public boolean hasNext() {
+            try {
+                return records.hasNext();
+            } catch (UncheckedIOException | IllegalStateException e) {
+                throw new IllegalArgumentException(
+                    "Failed to parse CSV file: " + csvFile.getAbsolutePath(), e);
+            }
+        }
+
+        @Override
+        public DataRow next() {
+            CSVRecord record;
+            try {
+                record = records.next();
+            } catch (UncheckedIOException | IllegalStateException e) {
+                throw new IllegalArgumentException(
+                    "Failed to parse CSV file: " + csvFile.getAbsolutePath(), e);
+            }
+            try {
+                if (record.size() < header.size()) {
+                    throw new IllegalArgumentException("Record has " + record.size()
+                        + " values for " + header.size() + " columns");
+                }
+                String[] values = new String[header.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = record.get(i);
+                }
+                return new DataRow(values.length > 0 ? values[0] : record.get(0), header, values);
+            } catch (Exception recordEx) {
+                throw new IllegalArgumentException(
+                    "Failed to parse CSV record at line " + record.getRecordNumber() +
+                    " in file: " + csvFile.getAbsolutePath(), recordEx);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,87 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.SessionConfig;
+import org.hti5250j.event.SessionListener;
+import org.hti5250j.framework.tn5250.Screen5250;
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.interfaces.SessionInterface;
+
+/**
+ * Lets {@link WorkflowRunner} drive a {@link HeadlessSession}, such as one
+ * borrowed from a session pool.
+ *
+ * @since 1.3.0
+ */
+final class HeadlessSessionAdapter implements SessionInterface, ScreenProvider {
+
+    private final HeadlessSession session;
+
+    HeadlessSessionAdapter(HeadlessSession session) {
+        if (session == null) {
+            throw new IllegalArgumentException("session must not be null");
+        }
+        this.session = session;
+    }
+
+    @Override
+    public Screen5250 getScreen() throws IllegalStateException {
+        return session.getScreen();
+    }
+
+    @Override
+    public String getConfigurationResource() {
+        SessionConfig config = session.getConfiguration();
+        return config != null ? config.getConfigurationResource() : null;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return session.isConnected();
+    }
+
+    @Override
+    public String getSessionName() {
+        return session.getSessionName();
+    }
+
+    @Override
+    public int getSessionType() {
+        return 0;
+    }
+
+    @Override
+    public void connect() {
+        session.connect();
+    }
+
+    @Override
+    public void disconnect() {
+        session.disconnect();
+    }
+
+    @Override
+    public void addSessionListener(SessionListener listener) {
+        session.addSessionListener(listener);
+    }
+
+    @Override
+    public void removeSessionListener(SessionListener listener) {
+        session.removeSessionListener(listener);
+    }
+
+    @Override
+    public String showSystemRequest() {
+        return session.handleSystemRequest();
+    }
+
+    @Override
+    public void signalBell() {
+        session.signalBell();
+    }
+}
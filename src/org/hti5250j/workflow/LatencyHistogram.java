@@ -0,0 +1,265 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of latencies, in a fixed 30KB whatever the number
+ * of values recorded.
+ * <p>
+ * Values below 128 are counted exactly. Above that each power of two is
+ * split into 64 buckets, so a percentile is within 1/64 (1.6%) of the
+ * recorded value; it is reported as the highest value of its bucket, never
+ * above the largest value recorded. Recording is lock-free and safe from
+ * any number of threads while others read percentiles.
+ * <p>
+ * Histograms add up: {@link #add(LatencyHistogram)} merges another one, for
+ * example from a previous run restored with {@link #decode(byte[])}.
+ *
+ * @since 1.3.0
+ */
+public final class LatencyHistogram {
+
+    // values up to 2^SUB_BUCKET_BITS are exact; above, 2^(SUB_BUCKET_BITS-1) buckets per power of two
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF + SUB_BUCKET_COUNT;
+    private static final int ENCODING = 0x4c480001;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKET_HALF - 1;
+        long mantissa = bucket - (long) shift * SUB_BUCKET_HALF;
+        // wraps to Long.MAX_VALUE for the last bucket
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * @param value a latency, in whatever unit the histogram is kept in
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value cannot be negative: " + value);
+        }
+        counts.incrementAndGet(bucketOf(value));
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+        totalCount.incrementAndGet();
+    }
+
+    /**
+     * Adds the counts of {@code other} to this histogram.
+     *
+     * @return this histogram
+     */
+    public LatencyHistogram add(LatencyHistogram other) {
+        if (other == null) {
+            throw new IllegalArgumentException("other cannot be null");
+        }
+        long otherCount = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+                otherCount += c;
+            }
+        }
+        if (otherCount > 0) {
+            sum.addAndGet(other.sum.get());
+            min.accumulateAndGet(other.min.get(), Math::min);
+            max.accumulateAndGet(other.max.get(), Math::max);
+            totalCount.addAndGet(otherCount);
+        }
+        return this;
+    }
+
+    /**
+     * @return a histogram with this one's counts, no longer recorded into
+     */
+    public LatencyHistogram copy() {
+        return new LatencyHistogram().add(this);
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    /** @return the smallest value recorded, or 0 if none */
+    public long getMin() {
+        return totalCount.get() == 0 ? 0 : min.get();
+    }
+
+    /** @return the largest value recorded, or 0 if none */
+    public long getMax() {
+        return max.get();
+    }
+
+    /** @return the mean of the values recorded, or 0 if none */
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * The value at a percentile, by nearest rank: for 99 the value that 99%
+     * of the recorded values are at or below.
+     *
+     * @param percentile from 0 to 100, for example 99.9
+     * @return the value, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100 || Double.isNaN(percentile)) {
+            throw new IllegalArgumentException("percentile must be from 0 to 100: " + percentile);
+        }
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long highest = max.get();
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.max(Math.min(highestValueIn(i), highest), getMin());
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Encodes the counts, to keep a run's histogram and {@link #add} it to
+     * a later one's. Only buckets that hold values take space.
+     */
+    public byte[] encode() {
+        int used = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) {
+                used++;
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(4 + 8 * 3 + 4 + used * 12);
+        out.putInt(ENCODING).putLong(sum.get()).putLong(getMin()).putLong(max.get()).putInt(used);
+        for (int i = 0; i < BUCKETS && used > 0; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                out.putInt(i).putLong(c);
+                used--;
+            }
+        }
+        return out.array();
+    }
+
+    /**
+     * @param encoded bytes from {@link #encode()}
+     * @return a histogram with the encoded counts
+     * @throws IllegalArgumentException if the bytes are not an encoded histogram
+     */
+    public static LatencyHistogram decode(byte[] encoded) {
+        if (encoded == null) {
+            throw new IllegalArgumentException("encoded cannot be null");
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        try {
+            ByteBuffer in = ByteBuffer.wrap(encoded);
+            if (in.getInt() != ENCODING) {
+                throw new IllegalArgumentException("Not an encoded LatencyHistogram");
+            }
+            long sum = in.getLong();
+            long min = in.getLong();
+            long max = in.getLong();
+            int used = in.getInt();
+            long total = 0;
+            for (int n = 0; n < used; n++) {
+                int bucket = in.getInt();
+                long count = in.getLong();
+                if (bucket < 0 || bucket >= BUCKETS || count < 0) {
+                    throw new IllegalArgumentException("Corrupt LatencyHistogram bucket " + bucket);
+                }
+                histogram.counts.addAndGet(bucket, count);
+                total += count;
+            }
+            if (total > 0) {
+                histogram.sum.set(sum);
+                histogram.min.set(min);
+                histogram.max.set(max);
+                histogram.totalCount.set(total);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated LatencyHistogram", e);
+        }
+        return histogram;
+    }
+
+    /**
+     * Histograms are equal when they hold the same counts, so a
+     * {@link BatchMetrics} compares by value. Compare histograms no longer
+     * recorded into; one being recorded into can change between calls.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LatencyHistogram)) {
+            return false;
+        }
+        LatencyHistogram other = (LatencyHistogram) o;
+        if (getTotalCount() != other.getTotalCount() || sum.get() != other.sum.get()
+                || getMin() != other.getMin() || getMax() != other.getMax()) {
+            return false;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != other.counts.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(getTotalCount());
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                hash = 31 * hash + i;
+                hash = 31 * hash + Long.hashCode(c);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getTotalCount() + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax() + "}";
+    }
+}
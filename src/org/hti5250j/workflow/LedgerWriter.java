@@ -0,0 +1,484 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes execution ledgers in the background, so a workflow step does not
+ * open, write and close a file for every ledger line.
+ * <p>
+ * Any number of threads append lines to any number of {@link Ledger}s
+ * through one lock-free queue. A single writer thread drains it, keeps each
+ * ledger's file open, and writes all lines queued for a file since its last
+ * pass in one {@link FileChannel} write. With {@link SyncPolicy#GROUP_COMMIT}
+ * the file is forced after each such write, so one fsync covers every line
+ * that arrived while the previous one ran. A ledger over
+ * {@link Builder#maxFileBytes(long) maxFileBytes} is renamed to
+ * {@code name.1.jsonl}, {@code name.2.jsonl} and so on, and a new file
+ * started.
+ * <p>
+ * An I/O error stops nothing else: the lines of the ledger that failed are
+ * dropped and other ledgers are still written and rotated. That ledger's
+ * {@link Ledger#append} throws its first error; {@link #flush()} and
+ * {@link #close()} throw the first error of any ledger.
+ * <pre>
+ * try (LedgerWriter ledgers = LedgerWriter.builder()
+ *         .syncPolicy(SyncPolicy.INTERVAL)
+ *         .maxFileBytes(64 * 1024 * 1024)
+ *         .build()) {
+ *     ArtifactCollector collector = new ArtifactCollector(dir, ledgers);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class LedgerWriter implements AutoCloseable {
+
+    /** When ledger lines are forced to the disk, beyond closing the file. */
+    public enum SyncPolicy {
+        /** Never; the operating system writes the lines back when it chooses. */
+        NONE,
+        /** At most once per {@link Builder#syncInterval(Duration) syncInterval} for each file written. */
+        INTERVAL,
+        /** After every write, covering all lines queued for the file when it started. */
+        GROUP_COMMIT
+    }
+
+    // how long the writer parks with nothing queued before checking INTERVAL syncs
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    private static final int MAX_WRITE_BYTES = 256 * 1024;
+
+    private final SyncPolicy syncPolicy;
+    private final long syncIntervalNanos;
+    private final long maxFileBytes;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean parked = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final Thread writer;
+    private volatile IOException failure;
+
+    // Owned by the writer thread
+    private final Set<Ledger> open = new LinkedHashSet<>();
+    private final Set<Ledger> unsynced = new LinkedHashSet<>();
+    private final List<Ledger> touched = new ArrayList<>();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(16 * 1024);
+    private long lastSyncNanos = System.nanoTime();
+
+    private LedgerWriter(Builder builder) {
+        this.syncPolicy = builder.syncPolicy;
+        this.syncIntervalNanos = builder.syncInterval.toNanos();
+        this.maxFileBytes = builder.maxFileBytes;
+        this.writer = new Thread(this::run, "ledger-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Opens a ledger appending to {@code file}. The file itself is opened by
+     * the writer when the first line arrives.
+     *
+     * @param file the JSONL file to append to, created if missing
+     * @return a ledger to append to and close when done
+     * @throws IllegalStateException if the writer is closed
+     */
+    public Ledger open(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        if (closed.get()) {
+            throw new IllegalStateException("LedgerWriter is closed");
+        }
+        return new Ledger(file.toPath());
+    }
+
+    /**
+     * Waits until every line appended before this call is written, and
+     * forced as the sync policy asks.
+     *
+     * @throws IOException if the writer failed to write a ledger
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    public void flush() throws IOException {
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new Entry(null, null, done));
+        try {
+            while (!done.await(IDLE_PARK_NANOS, TimeUnit.NANOSECONDS)) {
+                if (!writer.isAlive()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for ledger writer");
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Writes every line already appended, closes all ledger files and stops
+     * the writer thread.
+     *
+     * @throws IOException if the writer failed to write a ledger
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            throwIfFailed();
+            return;
+        }
+        boolean interrupted = false;
+        LockSupport.unpark(writer);
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        throwIfFailed();
+    }
+
+    private void enqueue(Entry entry) {
+        queue.offer(entry);
+        if (parked.get()) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        throwIfFailed(failure);
+    }
+
+    private static void throwIfFailed(IOException e) throws IOException {
+        if (e != null) {
+            throw new IOException("Ledger write failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void run() {
+        List<CountDownLatch> flushes = new ArrayList<>();
+        while (true) {
+            boolean stopping = closed.get();
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                if (entry.ledger != null) {
+                    accept(entry);
+                } else {
+                    flushes.add(entry.flushed);
+                }
+            }
+            writeTouched();
+            if (syncPolicy == SyncPolicy.INTERVAL && !unsynced.isEmpty()
+                    && (!flushes.isEmpty() || System.nanoTime() - lastSyncNanos >= syncIntervalNanos)) {
+                syncAll();
+            }
+            for (CountDownLatch flushed : flushes) {
+                flushed.countDown();
+            }
+            flushes.clear();
+
+            if (stopping) {
+                break;
+            }
+            parked.set(true);
+            if (queue.isEmpty() && !closed.get()) {
+                long parkNanos = syncPolicy == SyncPolicy.INTERVAL && !unsynced.isEmpty()
+                        ? Math.max(0, syncIntervalNanos - (System.nanoTime() - lastSyncNanos))
+                        : IDLE_PARK_NANOS;
+                LockSupport.parkNanos(this, parkNanos);
+            }
+            parked.set(false);
+        }
+
+        // Lines appended after close() are not written; the ledgers still get closed
+        syncAll();
+        for (Ledger ledger : new ArrayList<>(open)) {
+            closeChannel(ledger);
+        }
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (entry.ledger != null) {
+                closeChannel(entry.ledger);
+            } else {
+                entry.flushed.countDown();
+            }
+        }
+    }
+
+    private void accept(Entry entry) {
+        Ledger ledger = entry.ledger;
+        if (entry.line == null) {
+            // close marker: lines queued before it are in ledger.pending
+            writePending(ledger);
+            if (syncPolicy != SyncPolicy.NONE && unsynced.remove(ledger)) {
+                force(ledger);
+            }
+            closeChannel(ledger);
+            return;
+        }
+        if (ledger.pending.isEmpty()) {
+            touched.add(ledger);
+        }
+        ledger.pending.add(entry.line);
+    }
+
+    private void writeTouched() {
+        for (Ledger ledger : touched) {
+            writePending(ledger);
+        }
+        touched.clear();
+        if (syncPolicy == SyncPolicy.GROUP_COMMIT) {
+            syncAll();
+        }
+    }
+
+    private void writePending(Ledger ledger) {
+        if (ledger.pending.isEmpty()) {
+            return;
+        }
+        try {
+            int i = 0;
+            while (i < ledger.pending.size()) {
+                if (ledger.channel == null) {
+                    openChannel(ledger);
+                }
+                buffer.clear();
+                long room = maxFileBytes - ledger.size;
+                int start = i;
+                while (i < ledger.pending.size()) {
+                    byte[] line = ledger.pending.get(i);
+                    // A fresh file takes its first line however long it is
+                    if (line.length > room && (i > start || ledger.size > 0)) {
+                        break;
+                    }
+                    if (line.length > buffer.remaining()) {
+                        if (i > start) {
+                            break;
+                        }
+                        buffer = ByteBuffer.allocateDirect(Math.max(line.length, MAX_WRITE_BYTES));
+                    }
+                    buffer.put(line);
+                    room -= line.length;
+                    i++;
+                }
+                if (i > start) {
+                    buffer.flip();
+                    int written = buffer.remaining();
+                    while (buffer.hasRemaining()) {
+                        ledger.channel.write(buffer);
+                    }
+                    ledger.size += written;
+                    unsynced.add(ledger);
+                }
+                if (i < ledger.pending.size() && ledger.size > 0
+                        && ledger.size + ledger.pending.get(i).length > maxFileBytes) {
+                    rotate(ledger);
+                }
+            }
+        } catch (IOException e) {
+            fail(ledger, e);
+            closeChannel(ledger);
+        } finally {
+            ledger.pending.clear();
+        }
+    }
+
+    private void openChannel(Ledger ledger) throws IOException {
+        ledger.channel = FileChannel.open(ledger.path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ledger.size = ledger.channel.size();
+        open.add(ledger);
+    }
+
+    private void rotate(Ledger ledger) throws IOException {
+        if (syncPolicy != SyncPolicy.NONE && unsynced.remove(ledger)) {
+            ledger.channel.force(false);
+        }
+        // only this ledger's own close failure stops its rotation
+        FileChannel channel = ledger.channel;
+        unsynced.remove(ledger);
+        open.remove(ledger);
+        ledger.channel = null;
+        channel.close();
+
+        String name = ledger.path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        Path rotated;
+        do {
+            ledger.generation++;
+            rotated = ledger.path.resolveSibling(base + "." + ledger.generation + extension);
+        } while (Files.exists(rotated));
+        Files.move(ledger.path, rotated, StandardCopyOption.ATOMIC_MOVE);
+        ledger.size = 0;
+    }
+
+    private void syncAll() {
+        if (syncPolicy != SyncPolicy.NONE) {
+            for (Ledger ledger : unsynced) {
+                force(ledger);
+            }
+            unsynced.clear();
+        }
+        lastSyncNanos = System.nanoTime();
+    }
+
+    private void force(Ledger ledger) {
+        if (ledger.channel == null) {
+            return;
+        }
+        try {
+            ledger.channel.force(false);
+        } catch (IOException e) {
+            fail(ledger, e);
+        }
+    }
+
+    private void closeChannel(Ledger ledger) {
+        unsynced.remove(ledger);
+        open.remove(ledger);
+        if (ledger.channel == null) {
+            return;
+        }
+        try {
+            ledger.channel.close();
+        } catch (IOException e) {
+            fail(ledger, e);
+        } finally {
+            ledger.channel = null;
+        }
+    }
+
+    private void fail(Ledger ledger, IOException e) {
+        if (ledger.failure == null) {
+            ledger.failure = e;
+        }
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    /**
+     * One ledger file written by the {@link LedgerWriter}. Appending only
+     * queues the line; closing queues the file's close behind it.
+     */
+    public final class Ledger implements AutoCloseable {
+        private final Path path;
+        private final AtomicBoolean ledgerClosed = new AtomicBoolean(false);
+
+        // Owned by the writer thread
+        private final List<byte[]> pending = new ArrayList<>();
+        private FileChannel channel;
+        private long size;
+        private int generation;
+        private volatile IOException failure;
+
+        private Ledger(Path path) {
+            this.path = path;
+        }
+
+        public File getFile() {
+            return path.toFile();
+        }
+
+        /**
+         * Queues one line for the file; a line feed is not added.
+         *
+         * @throws IOException if the writer has failed to write this ledger
+         * @throws IllegalStateException if this ledger or the writer is closed
+         */
+        public void append(byte[] line) throws IOException {
+            if (line == null) {
+                throw new IllegalArgumentException("line must not be null");
+            }
+            if (ledgerClosed.get() || closed.get()) {
+                throw new IllegalStateException("Ledger is closed: " + path);
+            }
+            throwIfFailed(failure);
+            enqueue(new Entry(this, line, null));
+        }
+
+        /** Closes the file once the lines appended so far are written. */
+        @Override
+        public void close() {
+            if (ledgerClosed.compareAndSet(false, true)) {
+                enqueue(new Entry(this, null, null));
+            }
+        }
+    }
+
+    // A line for a ledger, a ledger's close (no line) or a flush (no ledger)
+    private record Entry(Ledger ledger, byte[] line, CountDownLatch flushed) {
+    }
+
+    public static final class Builder {
+        private SyncPolicy syncPolicy = SyncPolicy.NONE;
+        private Duration syncInterval = Duration.ofSeconds(1);
+        private long maxFileBytes = Long.MAX_VALUE;
+
+        private Builder() {}
+
+        /** When written lines are forced to the disk. Default {@link SyncPolicy#NONE}. */
+        public Builder syncPolicy(SyncPolicy syncPolicy) {
+            if (syncPolicy == null) throw new IllegalArgumentException("syncPolicy must not be null");
+            this.syncPolicy = syncPolicy;
+            return this;
+        }
+
+        /** Longest time a written line stays unforced under {@link SyncPolicy#INTERVAL}. Default 1 second. */
+        public Builder syncInterval(Duration syncInterval) {
+            if (syncInterval == null) throw new IllegalArgumentException("syncInterval must not be null");
+            if (syncInterval.isNegative()) throw new IllegalArgumentException("syncInterval must not be negative");
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        /** Size at which a ledger file is renamed and a new one started. Default unlimited. */
+        public Builder maxFileBytes(long maxFileBytes) {
+            if (maxFileBytes < 1) throw new IllegalArgumentException("maxFileBytes must be at least 1");
+            this.maxFileBytes = maxFileBytes;
+            return this;
+        }
+
+        public LedgerWriter build() {
+            return new LedgerWriter(this);
+        }
+    }
+}
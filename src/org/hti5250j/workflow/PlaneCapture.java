@@ -0,0 +1,165 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.HeadlessScreenRenderer;
+import org.hti5250j.SessionConfig;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+
+/**
+ * A screen captured as its planes in a {@code .planes} file, to be rendered
+ * only when someone looks at it.
+ * <p>
+ * Writing one costs a few kilobytes of copying where a PNG costs tens of
+ * milliseconds of encoding, so {@link CaptureEncoder} writes these when asked
+ * for {@link CaptureEncoder.Policy#SNAPSHOT} or when it falls behind on PNGs.
+ * <pre>
+ * PlaneCapture capture = PlaneCapture.read(new File("artifacts/order_1_1760000000.planes"));
+ * capture.writePng(new File("order.png"), null);
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+public final class PlaneCapture {
+
+    /** File name extension of plane captures. */
+    public static final String EXTENSION = ".planes";
+
+    // "5PL" and a format version
+    private static final int MAGIC = 0x35504C01;
+    private static final int HEADER_BYTES = 4 + 8 + 2 + 2;
+    private static final int[] PLANES = {
+        HTI5250jConstants.PLANE_TEXT,
+        HTI5250jConstants.PLANE_ATTR,
+        HTI5250jConstants.PLANE_COLOR,
+        HTI5250jConstants.PLANE_EXTENDED,
+        HTI5250jConstants.PLANE_IS_ATTR_PLACE
+    };
+
+    private final long version;
+    private final int rows;
+    private final int columns;
+    private final char[] text;
+    private final char[] attr;
+    private final char[] color;
+    private final char[] extended;
+    private final char[] attrPlace;
+
+    private PlaneCapture(long version, int rows, int columns, char[][] planes) {
+        this.version = version;
+        this.rows = rows;
+        this.columns = columns;
+        this.text = planes[0];
+        this.attr = planes[1];
+        this.color = planes[2];
+        this.extended = planes[3];
+        this.attrPlace = planes[4];
+    }
+
+    /**
+     * Writes the planes of {@code snapshot} to {@code file}.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(ScreenSnapshot snapshot, File file) throws IOException {
+        int length = snapshot.getScreenLength();
+        ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + PLANES.length * length * 2);
+        data.putInt(MAGIC)
+            .putLong(snapshot.getVersion())
+            .putShort((short) snapshot.getRows())
+            .putShort((short) snapshot.getColumns());
+        CharBuffer chars = data.asCharBuffer();
+        for (int plane : PLANES) {
+            chars.put(snapshot.getPlane(plane));
+        }
+        Files.write(file.toPath(), data.array());
+    }
+
+    /**
+     * Reads a file written by {@link #write}.
+     *
+     * @throws IOException if the file cannot be read or is not a plane capture
+     */
+    public static PlaneCapture read(File file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC) {
+            throw new IOException("Not a plane capture: " + file);
+        }
+        long version = data.getLong();
+        int rows = data.getShort();
+        int columns = data.getShort();
+        int length = rows * columns;
+        if (rows <= 0 || columns <= 0 || data.remaining() != PLANES.length * length * 2) {
+            throw new IOException("Truncated plane capture: " + file);
+        }
+        CharBuffer chars = data.asCharBuffer();
+        char[][] planes = new char[PLANES.length][length];
+        for (char[] plane : planes) {
+            chars.get(plane);
+        }
+        return new PlaneCapture(version, rows, columns, planes);
+    }
+
+    /**
+     * @return the screen version captured
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @param row zero based row
+     * @return the row's text, mapped as {@link ScreenSnapshot#getText()}
+     */
+    public String getRowText(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + rows);
+        }
+        char[] line = new char[columns];
+        for (int i = 0; i < columns; i++) {
+            int pos = row * columns + i;
+            char c = text[pos];
+            line[i] = (c >= ' ') && attrPlace[pos] == 0 ? c : ' ';
+        }
+        return new String(line);
+    }
+
+    /**
+     * @param config session configuration for fonts and colors, or null for the defaults
+     * @return the screen as {@link HeadlessScreenRenderer} draws it
+     */
+    public BufferedImage render(SessionConfig config) {
+        return HeadlessScreenRenderer.renderPlanes(rows, columns, text, attr, color, extended, config);
+    }
+
+    /**
+     * Renders the screen and writes it to {@code pngFile}.
+     *
+     * @param config session configuration for fonts and colors, or null for the defaults
+     * @throws IOException if the PNG cannot be written
+     */
+    public void writePng(File pngFile, SessionConfig config) throws IOException {
+        ImageIO.write(render(config), "PNG", pngFile);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Rows of a dataset, read one at a time as a batch asks for them, so a
+ * batch holds only the rows it is running rather than the whole file.
+ * <p>
+ * Parse errors surface from {@link #hasNext()} or {@link #next()} as
+ * {@link IllegalArgumentException}s naming the file and line.
+ *
+ * @see DatasetLoader#openCSV(java.io.File)
+ * @since 1.3.0
+ */
+public interface RowSource extends Iterator<DataRow>, AutoCloseable {
+
+    /**
+     * Releases the underlying file, if any.
+     */
+    @Override
+    void close();
+
+    /**
+     * Rows already in memory, as {@link DatasetLoader#loadCSV} returns them.
+     *
+     * @param rows row key to column values, in iteration order
+     * @return a source over the map's entries
+     */
+    static RowSource of(Map<String, Map<String, String>> rows) {
+        if (rows == null) {
+            throw new IllegalArgumentException("rows cannot be null");
+        }
+        Iterator<Map.Entry<String, Map<String, String>>> entries = rows.entrySet().iterator();
+        return new RowSource() {
+            private DataRow.Header header;
+
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public DataRow next() {
+                Map.Entry<String, Map<String, String>> entry = entries.next();
+                DataRow row = DataRow.of(entry.getKey(), entry.getValue(), header);
+                header = row.header();
+                return row;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
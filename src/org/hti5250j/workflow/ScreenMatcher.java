@@ -0,0 +1,325 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.framework.tn5250.Screen5250;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled test of a screen's text: texts that must appear anywhere,
+ * texts that must appear at a row and column, and patterns that must match
+ * within a row. All must hold for the screen to match.
+ * <p>
+ * The anywhere texts are compiled into one Aho-Corasick automaton, so the
+ * screen is scanned once however many there are, and the scan stops as soon
+ * as the last one is seen. Like {@code String.contains} on the screen text,
+ * a text may run from the end of one row into the next.
+ * <pre>
+ * ScreenMatcher orderEntry = ScreenMatcher.builder()
+ *     .contains("Work with Orders")
+ *     .contains("F3=Exit")
+ *     .at(1, 2, "ORD100")
+ *     .matches(24, "\\d+ records")
+ *     .build();
+ * if (orderEntry.matches(screen)) { ... }
+ * </pre>
+ * A matcher is immutable and can be shared by any number of threads, so one
+ * compiled per workflow step serves every row of a batch.
+ *
+ * @since 1.3.0
+ */
+public final class ScreenMatcher {
+
+    private static final int LATIN1 = 256;
+
+    private final String[] texts;
+    private final Positioned[] positioned;
+    private final RowPattern[] rowPatterns;
+
+    // Automaton over the non-empty texts. Input characters map to a dense
+    // alphabet, index 0 standing for every character no text contains.
+    private final int searched;
+    private final int alphabetSize;
+    private final int[] latin1Index;
+    private final char[] otherChars;
+    private final int[] next;
+    private final int[] output;
+    private final int[] dictionaryLink;
+
+    private record Positioned(int row, int col, String text) {}
+
+    private record RowPattern(int row, Pattern pattern) {}
+
+    private ScreenMatcher(Builder builder) {
+        this.texts = builder.texts.toArray(new String[0]);
+        this.positioned = builder.positioned.toArray(new Positioned[0]);
+        this.rowPatterns = builder.rowPatterns.toArray(new RowPattern[0]);
+
+        TreeSet<Character> alphabet = new TreeSet<Character>();
+        int nonEmpty = 0;
+        for (String text : texts) {
+            if (!text.isEmpty()) {
+                nonEmpty++;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                alphabet.add(text.charAt(i));
+            }
+        }
+        this.searched = nonEmpty;
+        this.alphabetSize = alphabet.size() + 1;
+        this.latin1Index = new int[LATIN1];
+        StringBuilder others = new StringBuilder();
+        int index = 1;
+        for (char c : alphabet) {
+            if (c < LATIN1) {
+                latin1Index[c] = index;
+            } else {
+                others.append(c);
+            }
+            index++;
+        }
+        this.otherChars = others.toString().toCharArray();
+
+        // trie, grown a state at a time
+        List<int[]> trie = new ArrayList<int[]>();
+        List<Integer> ends = new ArrayList<Integer>();
+        trie.add(newState());
+        ends.add(-1);
+        for (int t = 0; t < texts.length; t++) {
+            String text = texts[t];
+            if (text.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                int a = indexOf(text.charAt(i));
+                if (trie.get(state)[a] < 0) {
+                    trie.get(state)[a] = trie.size();
+                    trie.add(newState());
+                    ends.add(-1);
+                }
+                state = trie.get(state)[a];
+            }
+            ends.set(state, t);
+        }
+
+        int states = trie.size();
+        this.next = new int[states * alphabetSize];
+        this.output = new int[states];
+        this.dictionaryLink = new int[states];
+        int[] fail = new int[states];
+        for (int s = 0; s < states; s++) {
+            System.arraycopy(trie.get(s), 0, next, s * alphabetSize, alphabetSize);
+            output[s] = ends.get(s);
+        }
+
+        // breadth first, turning the trie into a complete transition table
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        dictionaryLink[0] = -1;
+        for (int a = 0; a < alphabetSize; a++) {
+            int child = next[a];
+            if (child < 0) {
+                next[a] = 0;
+            } else {
+                fail[child] = 0;
+                dictionaryLink[child] = -1;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int base = state * alphabetSize;
+            int failBase = fail[state] * alphabetSize;
+            for (int a = 0; a < alphabetSize; a++) {
+                int child = next[base + a];
+                if (child < 0) {
+                    next[base + a] = next[failBase + a];
+                } else {
+                    int f = next[failBase + a];
+                    fail[child] = f;
+                    dictionaryLink[child] = output[f] >= 0 ? f : dictionaryLink[f];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private int[] newState() {
+        int[] state = new int[alphabetSize];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private int indexOf(char c) {
+        if (c < LATIN1) {
+            return latin1Index[c];
+        }
+        int i = Arrays.binarySearch(otherChars, c);
+        if (i < 0) {
+            return 0;
+        }
+        // the alphabet is sorted, so the non-Latin-1 characters follow the rest
+        return alphabetSize - otherChars.length + i;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a matcher for a screen containing every one of {@code texts}
+     */
+    public static ScreenMatcher containsAll(List<String> texts) {
+        Builder builder = builder();
+        for (String text : texts) {
+            builder.contains(text);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Matches the screen's current text, read in place without copying.
+     */
+    public boolean matches(Screen5250 screen) {
+        return matches(screen.getScreenText(), screen.getColumns());
+    }
+
+    /**
+     * @param screenText the screen's text, row after row
+     * @param columns the screen width, used to find rows and columns
+     * @return true if every text and pattern of this matcher is found
+     */
+    public boolean matches(CharSequence screenText, int columns) {
+        for (Positioned p : positioned) {
+            if (!regionMatches(screenText, columns, p)) {
+                return false;
+            }
+        }
+        if (searched > 0 && !containsAllTexts(screenText)) {
+            return false;
+        }
+        for (RowPattern p : rowPatterns) {
+            int start = (p.row() - 1) * columns;
+            int end = start + columns;
+            if (end > screenText.length()
+                    || !p.pattern().matcher(screenText.subSequence(start, end)).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(CharSequence screenText, int columns, Positioned p) {
+        String text = p.text();
+        int start = (p.row() - 1) * columns + p.col() - 1;
+        if (start + text.length() > screenText.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (screenText.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean containsAllTexts(CharSequence screenText) {
+        boolean[] found = new boolean[texts.length];
+        int missing = searched;
+        int state = 0;
+        for (int i = 0, length = screenText.length(); i < length; i++) {
+            state = next[state * alphabetSize + indexOf(screenText.charAt(i))];
+            int s = output[state] >= 0 ? state : dictionaryLink[state];
+            for (; s >= 0; s = dictionaryLink[s]) {
+                int t = output[s];
+                if (!found[t]) {
+                    found[t] = true;
+                    if (--missing == 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ScreenMatcher{");
+        String separator = "";
+        for (String text : texts) {
+            sb.append(separator).append('"').append(text).append('"');
+            separator = ", ";
+        }
+        for (Positioned p : positioned) {
+            sb.append(separator).append('"').append(p.text()).append("\" at ")
+                    .append(p.row()).append(',').append(p.col());
+            separator = ", ";
+        }
+        for (RowPattern p : rowPatterns) {
+            sb.append(separator).append('/').append(p.pattern()).append("/ in row ").append(p.row());
+            separator = ", ";
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Rows and columns are numbered from 1, as on a 5250 display.
+     */
+    public static final class Builder {
+        private final Set<String> texts = new LinkedHashSet<String>();
+        private final List<Positioned> positioned = new ArrayList<Positioned>();
+        private final List<RowPattern> rowPatterns = new ArrayList<RowPattern>();
+
+        private Builder() {}
+
+        /**
+         * @param text text that must appear anywhere on the screen
+         */
+        public Builder contains(String text) {
+            if (text == null) throw new IllegalArgumentException("text must not be null");
+            texts.add(text);
+            return this;
+        }
+
+        /**
+         * @param text text that must start at {@code row}, {@code col}
+         */
+        public Builder at(int row, int col, String text) {
+            if (text == null) throw new IllegalArgumentException("text must not be null");
+            if (row < 1 || col < 1) {
+                throw new IllegalArgumentException("row and col start at 1: " + row + "," + col);
+            }
+            positioned.add(new Positioned(row, col, text));
+            return this;
+        }
+
+        /**
+         * @param regex pattern that must be found within {@code row}
+         */
+        public Builder matches(int row, String regex) {
+            if (regex == null) throw new IllegalArgumentException("regex must not be null");
+            if (row < 1) {
+                throw new IllegalArgumentException("row starts at 1: " + row);
+            }
+            rowPatterns.add(new RowPattern(row, Pattern.compile(regex)));
+            return this;
+        }
+
+        public ScreenMatcher build() {
+            return new ScreenMatcher(this);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled {@link ScreenMatcher}s of a workflow's NAVIGATE and ASSERT steps,
+ * keyed by the expected texts after parameter substitution, so a batch
+ * compiles each distinct check once rather than once per row.
+ * <p>
+ * Texts that differ on every row, such as an order number from the CSV,
+ * would fill the cache without ever being reused; past {@link #MAX_ENTRIES}
+ * matchers are compiled and used but no longer kept.
+ *
+ * @since 1.3.0
+ */
+final class ScreenMatcherCache {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private final ConcurrentHashMap<List<String>, ScreenMatcher> matchers =
+            new ConcurrentHashMap<List<String>, ScreenMatcher>();
+
+    /**
+     * @return a matcher for a screen containing every one of {@code texts}
+     */
+    ScreenMatcher containsAll(List<String> texts) {
+        ScreenMatcher matcher = matchers.get(texts);
+        if (matcher == null) {
+            matcher = ScreenMatcher.containsAll(texts);
+            if (matchers.size() < MAX_ENTRIES) {
+                ScreenMatcher raced = matchers.putIfAbsent(List.copyOf(texts), matcher);
+                if (raced != null) {
+                    matcher = raced;
+                }
+            }
+        }
+        return matcher;
+    }
+
+    int size() {
+        return matchers.size();
+    }
+}
@@ -9,6 +9,9 @@ package org.hti5250j.workflow;
 import org.hti5250j.Session5250;
 import org.hti5250j.SessionConfig;
 import org.hti5250j.interfaces.SessionInterface;
+import org.hti5250j.session.DefaultHeadlessSessionFactory;
+import org.hti5250j.session.SessionPoolConfig;
+import org.hti5250j.session.SignonReplay;
 import java.util.Properties;
 
 /**
@@ -25,6 +28,40 @@ public class SessionFactory {
      * @throws Exception if session creation fails
      */
     public static SessionInterface createFromLoginStep(StepDef loginStep) throws Exception {
+        validateLoginStep(loginStep);
+
+        SessionConfig config = new SessionConfig("dummy", "dummy");
+
+        return new Session5250(loginProperties(loginStep), "workflow-session", "WorkflowSession", config);
+    }
+
+    /**
+     * Create a session pool configuration for the LOGIN step's host. Pool
+     * sessions sign on with the step's user and password and wait for
+     * {@code menu}; set {@code minIdle} and {@code maxSize} on the returned
+     * builder, then pass the configured pool to
+     * {@link BatchExecutor#executeAll(WorkflowSchema, java.util.Map, String, org.hti5250j.interfaces.HeadlessSessionPool)}.
+     *
+     * @param loginStep the LOGIN step containing host/user/password
+     * @param menu text on the screen the host shows after sign-on
+     * @return builder with factory, connection properties, QUEUED acquisition and sign-on warm-up set
+     * @since 1.3.0
+     */
+    public static SessionPoolConfig.Builder poolConfigFromLoginStep(StepDef loginStep, String menu) {
+        validateLoginStep(loginStep);
+
+        return SessionPoolConfig.builder()
+                .sessionFactory(new DefaultHeadlessSessionFactory())
+                .connectionProps(loginProperties(loginStep))
+                .acquisitionMode(SessionPoolConfig.AcquisitionMode.QUEUED)
+                .warmUp(SignonReplay.builder()
+                        .user(loginStep.getUser())
+                        .password(loginStep.getPassword())
+                        .menu(menu)
+                        .build());
+    }
+
+    private static void validateLoginStep(StepDef loginStep) {
         if (loginStep == null) {
             throw new IllegalArgumentException("LOGIN step cannot be null");
         }
@@ -38,14 +75,13 @@ public class SessionFactory {
         if (loginStep.getPassword() == null) {
             throw new IllegalArgumentException("LOGIN step requires 'password' property");
         }
+    }
 
+    static Properties loginProperties(StepDef loginStep) {
         Properties props = new Properties();
         props.setProperty("SESSION_HOST", loginStep.getHost());
         props.setProperty("SESSION_USER", loginStep.getUser());
         props.setProperty("SESSION_PASSWORD", loginStep.getPassword());
-
-        SessionConfig config = new SessionConfig("dummy", "dummy");
-
-        return new Session5250(props, "workflow-session", "WorkflowSession", config);
+        return props;
     }
 }
@@ -98,14 +98,30 @@ public class TerminalAdapter {
         System.err.println("✗ Workflow failed: " + message);
     }
 
+    /**
+     * Print batch mode activated message for a batch that reads its rows
+     * as it runs, so their number is only known from the final metrics.
+     */
+    public static void printBatchMode() {
+        System.out.println("Batch mode: one workflow per CSV row");
+        System.out.println("Executing in parallel using virtual threads...");
+    }
+
     /**
      * Print batch mode activated message.
      */
-    public static void printBatchMode(int rowCount) {
+    public static void printBatchMode(long rowCount) {
         System.out.println("Batch mode: " + rowCount + " workflows");
         System.out.println("Executing in parallel using virtual threads...");
     }
 
+    /**
+     * Print progress of a running batch.
+     */
+    public static void printBatchProgress(BatchProgress progress) {
+        System.out.println("  ... " + progress.summary());
+    }
+
     /**
      * Print error with stack trace (for debugging).
      */
@@ -40,11 +40,8 @@ public class WorkflowCLI {
 
             if ("run".equals(parsed.action())) {
                 if (parsed.dataFile() != null) {
-                    DatasetLoader loader = new DatasetLoader();
-                    Map<String, Map<String, String>> allRows = loader.loadCSV(new File(parsed.dataFile()));
-
-                    if (allRows.size() > 1) {
-                        TerminalAdapter.printBatchMode(allRows.size());
+                    if (hasSeveralRows(new File(parsed.dataFile()))) {
+                        TerminalAdapter.printBatchMode();
                         BatchMetrics metrics = WorkflowExecutor.executeBatch(workflow, parsed.dataFile(), parsed.environment());
                         metrics.print();
 
@@ -65,6 +62,22 @@ public class WorkflowCLI {
         }
     }
 
+    /**
+     * Whether a CSV file has more than one data row, reading no further
+     * than the second.
+     */
+    private static boolean hasSeveralRows(File csvFile) {
+        try (RowSource rows = new DatasetLoader().openCSV(csvFile)) {
+            for (int i = 0; i < 2; i++) {
+                if (!rows.hasNext()) {
+                    return false;
+                }
+                rows.next();
+            }
+            return true;
+        }
+    }
+
     /**
      * Validate workflow against schema and dataset (if provided).
      */
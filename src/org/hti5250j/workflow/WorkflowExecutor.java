@@ -10,6 +10,9 @@ import org.hti5250j.interfaces.SessionInterface;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Orchestrates workflow execution against i5 systems.
@@ -17,6 +20,8 @@ import java.util.Map;
  */
 public class WorkflowExecutor {
 
+    private static final long PROGRESS_INTERVAL_SECONDS = 30;
+
     /**
      * Execute workflow with dataset and environment context.
      *
@@ -42,12 +47,12 @@ public class WorkflowExecutor {
         String workflowNamePath = workflow.getName().replaceAll("\\s+", "_");
         File artifactDir = new File("artifacts/" + workflowNamePath);
         artifactDir.mkdirs();
-        ArtifactCollector collector = new ArtifactCollector(artifactDir);
-
         DatasetLoader loader = new DatasetLoader();
-        WorkflowRunner runner = new WorkflowRunner(session, loader, collector);
 
-        try {
+        try (LedgerWriter ledgers = LedgerWriter.builder().build();
+             CaptureEncoder captures = CaptureEncoder.builder().build();
+             ArtifactCollector collector = new ArtifactCollector(artifactDir, ledgers, captures)) {
+            WorkflowRunner runner = new WorkflowRunner(session, loader, collector);
             runner.executeWorkflow(workflow, dataRow);
             TerminalAdapter.printExecutionSuccess(artifactDir.getAbsolutePath());
         } catch (Exception e) {
@@ -58,7 +63,9 @@ public class WorkflowExecutor {
 
     /**
      * Execute batch workflows with parallel processing using virtual threads.
-     * Processes all CSV rows concurrently.
+     * Streams the CSV file, reading rows as the batch has room for them,
+     * and prints progress every 30 seconds until the batch ends, including
+     * while no row finishes.
      *
      * @param workflow the workflow to execute
      * @param dataFileArg path to CSV data file
@@ -80,13 +87,25 @@ public class WorkflowExecutor {
         }
 
         DatasetLoader loader = new DatasetLoader();
-        Map<String, Map<String, String>> allRows = loader.loadCSV(new File(dataFileArg));
+        try (RowSource rows = loader.openCSV(new File(dataFileArg))) {
+            if (!rows.hasNext()) {
+                throw new IllegalArgumentException("CSV file contains no data rows");
+            }
 
-        if (allRows.isEmpty()) {
-            throw new IllegalArgumentException("CSV file contains no data rows");
+            BatchProgress progress = new BatchProgress();
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "batch-progress");
+                t.setDaemon(true);
+                return t;
+            });
+            reporter.scheduleAtFixedRate(() -> TerminalAdapter.printBatchProgress(progress),
+                    PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            try (BatchScheduler scheduler = BatchScheduler.builder().build()) {
+                return BatchExecutor.executeAll(workflow, rows, environment, scheduler, null, progress);
+            } finally {
+                reporter.shutdownNow();
+            }
         }
-
-        return BatchExecutor.executeAll(workflow, allRows, environment);
     }
 
     /**
@@ -3,33 +3,66 @@ package org.hti5250j.workflow;
 import org.hti5250j.Session5250;
 import org.hti5250j.HeadlessScreenRenderer;
 import org.hti5250j.SessionConfig;
+import org.hti5250j.framework.tn5250.FieldFill;
+import org.hti5250j.framework.tn5250.KeyProgram;
 import org.hti5250j.framework.tn5250.Screen5250;
 import org.hti5250j.framework.tn5250.ScreenOIA;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
 import org.hti5250j.interfaces.RequestHandler;
 import org.hti5250j.interfaces.SessionInterface;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
 
 public class WorkflowRunner {
     private final SessionInterface session;
     private final DatasetLoader datasetLoader;
     private final ArtifactCollector artifactCollector;
+    private final ScreenMatcherCache matchers;
+    private final BatchProgress progress;
 
     // Screen interaction timeouts (milliseconds)
     private static final int DEFAULT_KEYBOARD_UNLOCK_TIMEOUT = 30000;
     private static final int DEFAULT_KEYBOARD_LOCK_CYCLE_TIMEOUT = 5000;
-    private static final int KEYBOARD_POLL_INTERVAL = 100;
+    private static final int KEYBOARD_LOCK_TIMEOUT = 1000;
     private static final int FIELD_FILL_TIMEOUT = 500;
+    private static final int FILL_UNLOCK_TIMEOUT = 1000;
+
+    // FILL keys that address a field: "#3" (format table index), "6,53"
+    // (row,column) or "label:Customer" (first field after the label)
+    private static final Pattern FIELD_INDEX = Pattern.compile("#(\\d+)");
+    private static final Pattern FIELD_POSITION = Pattern.compile("(\\d+)\\s*,\\s*(\\d+)");
+    private static final String FIELD_LABEL = "label:";
+
+    private static final KeyProgram HOME = KeyProgram.compile("[home]");
+    private static final KeyProgram TAB = KeyProgram.compile("[tab]");
 
     public WorkflowRunner(SessionInterface session, DatasetLoader datasetLoader, ArtifactCollector artifactCollector) {
+        this(session, datasetLoader, artifactCollector, new ScreenMatcherCache(), null);
+    }
+
+    /**
+     * Runner whose NAVIGATE and ASSERT checks are compiled through
+     * {@code matchers}, shared by every row of a batch, and whose completed
+     * steps are timed into {@code progress} if not null.
+     */
+    WorkflowRunner(SessionInterface session, DatasetLoader datasetLoader, ArtifactCollector artifactCollector,
+                   ScreenMatcherCache matchers, BatchProgress progress) {
         this.session = session;
         this.datasetLoader = datasetLoader;
         this.artifactCollector = artifactCollector;
+        this.matchers = matchers;
+        this.progress = progress;
 
         // Development-mode validation: warn if running on platform thread
         if (!Thread.currentThread().isVirtual()) {
@@ -85,7 +118,11 @@ public class WorkflowRunner {
      */
     public void executeWorkflow(WorkflowSchema workflow, Map<String, String> dataRow) throws Exception {
         for (StepDef step : workflow.getSteps()) {
-            executeStep(step, dataRow);
+            long startNanos = System.nanoTime();
+            executeStep(step, dataRow, workflow);
+            if (progress != null) {
+                progress.recordStep(step.getAction(), (System.nanoTime() - startNanos) / 1_000_000);
+            }
         }
     }
 
@@ -95,13 +132,23 @@ public class WorkflowRunner {
      * to handler via exhaustive pattern matching (compiler enforces completeness).
      */
     public void executeStep(StepDef stepDef, Map<String, String> dataRow) throws Exception {
+        executeStep(stepDef, dataRow, null);
+    }
+
+    /**
+     * @param workflow the workflow of the step, whose compiled keys are
+     *                 shared by its rows; null to compile them for this step
+     */
+    private void executeStep(StepDef stepDef, Map<String, String> dataRow, WorkflowSchema workflow)
+            throws Exception {
         Action action = ActionFactory.from(stepDef);
 
         switch (action) {
             case LoginAction login -> handleLogin(login);
-            case NavigateAction nav -> handleNavigate(nav, dataRow);
+            case NavigateAction nav -> handleNavigate(nav, dataRow, keyProgram(workflow, nav.keys()));
             case FillAction fill -> handleFill(fill, dataRow);
-            case SubmitAction submit -> handleSubmit(submit, dataRow);
+            case SubmitAction submit -> handleSubmit(submit, dataRow,
+                    keyProgram(workflow, mapKeyToMnemonic(submit.key().toLowerCase())));
             case AssertAction assert_ -> handleAssert(assert_, dataRow);
             case WaitAction wait -> handleWait(wait, dataRow);
             case CaptureAction capture -> handleCapture(capture, dataRow);
@@ -119,15 +166,21 @@ public class WorkflowRunner {
         artifactCollector.appendLedger("LOGIN", "Connected to " + login.host());
     }
 
-    private void handleNavigate(NavigateAction nav, Map<String, String> dataRow) throws Exception {
+    private static KeyProgram keyProgram(WorkflowSchema workflow, String keys) {
+        return workflow != null ? workflow.keyProgram(keys) : KeyProgram.compile(keys);
+    }
+
+    private void handleNavigate(NavigateAction nav, Map<String, String> dataRow, KeyProgram keys)
+            throws Exception {
         Screen5250 screen = getScreen();
         String targetScreenName = datasetLoader.replaceParameters(nav.screen(), dataRow);
 
-        screen.sendKeys(nav.keys());
+        screen.sendKeys(keys);
         waitForKeyboardUnlock(screen, DEFAULT_KEYBOARD_LOCK_CYCLE_TIMEOUT);
 
-        if (!screenContainsText(screen, targetScreenName)) {
-            String screenDump = formatScreenDump(getScreenContent(screen));
+        char[] screenChars = screen.getScreenAsChars();
+        if (!screenContainsAll(screen, screenChars, List.of(targetScreenName))) {
+            String screenDump = formatScreenDump(new String(screenChars));
             throw NavigationException.withScreenDump("Failed to reach " + targetScreenName, screenDump);
         }
 
@@ -137,8 +190,16 @@ public class WorkflowRunner {
     private void handleFill(FillAction fill, Map<String, String> dataRow) throws Exception {
         Screen5250 screen = getScreen();
 
-        screen.sendKeys("[home]");
-        waitForKeyboardUnlock(screen, 1000);
+        FieldFill direct = directFill(fill, dataRow);
+        if (direct != null) {
+            waitForKeyboardUnlock(screen, FILL_UNLOCK_TIMEOUT);
+            screen.fillFields(direct);
+            artifactCollector.appendLedger("FILL", "Fields written: " + direct.size());
+            return;
+        }
+
+        screen.sendKeys(HOME);
+        waitForKeyboardUnlock(screen, FILL_UNLOCK_TIMEOUT);
 
         for (Map.Entry<String, String> field : fill.fields().entrySet()) {
             String fieldValue = datasetLoader.replaceParameters(field.getValue(), dataRow);
@@ -146,21 +207,47 @@ public class WorkflowRunner {
 
             screen.sendKeys(fieldValue);
             waitForKeyboardUnlock(screen, FIELD_FILL_TIMEOUT);
-            screen.sendKeys("[tab]");
+            screen.sendKeys(TAB);
             waitForKeyboardUnlock(screen, FIELD_FILL_TIMEOUT);
         }
 
         artifactCollector.appendLedger("FILL", "Fields populated: " + fill.fields().size());
     }
 
-    private void handleSubmit(SubmitAction submit, Map<String, String> dataRow) throws Exception {
+    /**
+     * When every key of the step addresses a field, the values are written
+     * straight into the fields instead of being typed and tabbed between.
+     *
+     * @return the fill, or null when the step names fields only by order
+     */
+    private FieldFill directFill(FillAction fill, Map<String, String> dataRow) {
+        FieldFill.Builder builder = FieldFill.builder();
+        for (Map.Entry<String, String> field : fill.fields().entrySet()) {
+            String key = field.getKey().trim();
+            String value = datasetLoader.replaceParameters(field.getValue(), dataRow).trim();
+            Matcher m;
+            if ((m = FIELD_INDEX.matcher(key)).matches()) {
+                builder.field(Integer.parseInt(m.group(1)), value);
+            } else if ((m = FIELD_POSITION.matcher(key)).matches()) {
+                builder.at(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), value);
+            } else if (key.startsWith(FIELD_LABEL) && key.length() > FIELD_LABEL.length()) {
+                builder.label(key.substring(FIELD_LABEL.length()).trim(), value);
+            } else {
+                return null;
+            }
+        }
+        return builder.build();
+    }
+
+    private void handleSubmit(SubmitAction submit, Map<String, String> dataRow, KeyProgram keys)
+            throws Exception {
         Screen5250 screen = getScreen();
 
         String keyName = submit.key().toLowerCase();
-        String mnemonic = mapKeyToMnemonic(keyName);
 
-        screen.sendKeys(mnemonic);
-        waitForKeyboardLockCycle(screen, DEFAULT_KEYBOARD_LOCK_CYCLE_TIMEOUT);
+        long lockCount = screen.getOIA().getKeyboardLockCount();
+        screen.sendKeys(keys);
+        waitForKeyboardLockCycle(screen, lockCount, DEFAULT_KEYBOARD_LOCK_CYCLE_TIMEOUT);
 
         artifactCollector.appendLedger("SUBMIT", "Submitted with " + keyName);
     }
@@ -168,29 +255,19 @@ public class WorkflowRunner {
     private void handleAssert(AssertAction assert_, Map<String, String> dataRow) throws Exception {
         Screen5250 screen = getScreen();
 
-        String expectedText = null;
-        if (assert_.text() != null && !assert_.text().isEmpty()) {
-            expectedText = datasetLoader.replaceParameters(assert_.text(), dataRow);
-        }
-
-        String expectedScreen = null;
+        List<String> expected = new ArrayList<>(2);
         if (assert_.screen() != null && !assert_.screen().isEmpty()) {
-            expectedScreen = datasetLoader.replaceParameters(assert_.screen(), dataRow);
+            expected.add(datasetLoader.replaceParameters(assert_.screen(), dataRow));
         }
-
-        String screenContent = getScreenContent(screen);
-
-        boolean passed = false;
-        if (expectedText != null && expectedScreen != null) {
-            passed = screenContent.contains(expectedScreen) && screenContent.contains(expectedText);
-        } else if (expectedText != null) {
-            passed = screenContent.contains(expectedText);
-        } else if (expectedScreen != null) {
-            passed = screenContent.contains(expectedScreen);
+        if (assert_.text() != null && !assert_.text().isEmpty()) {
+            expected.add(datasetLoader.replaceParameters(assert_.text(), dataRow));
         }
 
+        char[] screenChars = screen.getScreenAsChars();
+        boolean passed = !expected.isEmpty() && screenContainsAll(screen, screenChars, expected);
+
         if (!passed) {
-            String screenDump = formatScreenDump(screenContent);
+            String screenDump = formatScreenDump(new String(screenChars));
             throw AssertionException.withScreenDump("Assertion failed", screenDump);
         }
 
@@ -209,6 +286,23 @@ public class WorkflowRunner {
         String screenName = capture.name() != null ? capture.name() : "screenshot";
         screenName = datasetLoader.replaceParameters(screenName, dataRow);
 
+        // With an encoder the step only takes a snapshot; the files are written in the background
+        ScreenSnapshot snapshot = artifactCollector.getCaptureEncoder() != null ? screen.getSnapshot() : null;
+        if (snapshot != null) {
+            CaptureEncoder.Capture queued = artifactCollector.captureSnapshot(snapshot, screenName, getSessionConfig());
+            if (queued.isDropped()) {
+                artifactCollector.appendLedger("CAPTURE", "Dropped (encoder behind): " + screenName);
+                return;
+            }
+            if (queued.imageFile() != null) {
+                String kind = queued.policy() == CaptureEncoder.Policy.PNG ? "PNG: "
+                        : queued.degraded() ? "Snapshot (encoder behind): " : "Snapshot: ";
+                artifactCollector.appendLedger("CAPTURE", kind + queued.imageFile().getName());
+            }
+            artifactCollector.appendLedger("CAPTURE", "Text: " + queued.textFile().getName());
+            return;
+        }
+
         try {
             BufferedImage screenshot = generateScreenshot(screen);
             File pngFile = saveCapturePng(screenshot, screenName);
@@ -233,10 +327,7 @@ public class WorkflowRunner {
      * Uses HeadlessScreenRenderer for pure headless mode support.
      */
     private BufferedImage generateScreenshot(Screen5250 screen) {
-        SessionConfig config = null;
-        if (session instanceof Session5250) {
-            config = ((Session5250) session).getConfiguration();
-        }
+        SessionConfig config = getSessionConfig();
 
         if (config == null) {
             throw new IllegalStateException("Cannot determine session configuration for screenshot generation");
@@ -245,6 +336,10 @@ public class WorkflowRunner {
         return HeadlessScreenRenderer.renderScreen(screen, config);
     }
 
+    private SessionConfig getSessionConfig() {
+        return session instanceof Session5250 ? ((Session5250) session).getConfiguration() : null;
+    }
+
     /**
      * Save BufferedImage as PNG file in artifacts directory.
      */
@@ -271,9 +366,12 @@ public class WorkflowRunner {
         return new String(screenChars);
     }
 
-    private boolean screenContainsText(Screen5250 screen, String text) {
-        String screenContent = getScreenContent(screen);
-        return screenContent.contains(text);
+    /**
+     * Checks one snapshot of the screen, taken by the caller, so every text
+     * is looked for on the same screen even while the host is writing it.
+     */
+    private boolean screenContainsAll(Screen5250 screen, char[] screenChars, List<String> texts) {
+        return matchers.containsAll(texts).matches(CharBuffer.wrap(screenChars), screen.getColumns());
     }
 
     private String formatScreenDump(String screenContent) {
@@ -305,50 +403,37 @@ public class WorkflowRunner {
     }
 
     private void waitForKeyboardUnlock(Screen5250 screen, int timeoutMs) throws TimeoutException {
-        long start = System.currentTimeMillis();
         ScreenOIA oia = screen.getOIA();
 
-        while (oia.isKeyBoardLocked()) {
-            if (System.currentTimeMillis() - start > timeoutMs) {
+        try {
+            if (oia.isKeyBoardLocked()
+                    && !oia.awaitKeyboardUnlocked(timeoutMs, TimeUnit.MILLISECONDS)) {
                 throw new TimeoutException("Keyboard locked after " + timeoutMs + "ms");
             }
-            try {
-                Thread.sleep(KEYBOARD_POLL_INTERVAL);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new TimeoutException("Interrupted while waiting for keyboard unlock");
-            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for keyboard unlock");
         }
     }
 
-    private void waitForKeyboardLockCycle(Screen5250 screen, int timeoutMs) throws TimeoutException {
+    private void waitForKeyboardLockCycle(Screen5250 screen, long lockCount, int timeoutMs) throws TimeoutException {
         ScreenOIA oia = screen.getOIA();
 
-        // Wait for lock (submission accepted) - short timeout, may complete instantly
-        long start = System.currentTimeMillis();
-        while (!oia.isKeyBoardLocked()) {
-            if (System.currentTimeMillis() - start > 1000) {
+        try {
+            // Wait for lock (submission accepted) - short timeout, may complete instantly
+            if (!oia.isKeyBoardLocked()
+                    && !oia.awaitKeyboardLocked(lockCount, KEYBOARD_LOCK_TIMEOUT, TimeUnit.MILLISECONDS)) {
                 return; // Completed instantly or no lock needed
             }
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
 
-        // Wait for unlock (screen refreshed)
-        start = System.currentTimeMillis();
-        while (oia.isKeyBoardLocked()) {
-            if (System.currentTimeMillis() - start > timeoutMs) {
+            // Wait for unlock (screen refreshed)
+            if (oia.isKeyBoardLocked()
+                    && !oia.awaitKeyboardUnlocked(timeoutMs, TimeUnit.MILLISECONDS)) {
                 throw new TimeoutException("Screen not refreshed after " + timeoutMs + "ms");
             }
-            try {
-                Thread.sleep(KEYBOARD_POLL_INTERVAL);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new TimeoutException("Interrupted while waiting for screen refresh");
-            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for screen refresh");
         }
     }
 }
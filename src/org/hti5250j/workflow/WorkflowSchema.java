@@ -1,6 +1,9 @@
 package org.hti5250j.workflow;
 
+import org.hti5250j.framework.tn5250.KeyProgram;
+
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class WorkflowSchema {
     private String name;
@@ -8,6 +11,8 @@ public class WorkflowSchema {
     private String environment;
     private List<StepDef> steps;
     private WorkflowTolerance tolerances;
+    // keys sent by the steps, compiled once for every row run
+    private final ConcurrentHashMap<String, KeyProgram> keyPrograms = new ConcurrentHashMap<>();
 
     public String getName() {
         return name;
@@ -43,4 +48,15 @@ public class WorkflowSchema {
     public void setTolerances(WorkflowTolerance tolerances) {
         this.tolerances = tolerances;
     }
+
+    /**
+     * Compiles keys sent by a step of this workflow, once however many rows
+     * send them.
+     *
+     * @param keys keys in {@code sendKeys} syntax, such as {@code "WRKACTJOB[enter]"}
+     * @since 1.3.0
+     */
+    public KeyProgram keyProgram(String keys) {
+        return keyPrograms.computeIfAbsent(keys, KeyProgram::compile);
+    }
 }
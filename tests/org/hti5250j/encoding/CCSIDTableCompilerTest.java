@@ -0,0 +1,107 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ccsid-mappings.json compiled to the binary table resource reads back the
+ * same, and code pages are registered once per encoding.
+ */
+public class CCSIDTableCompilerTest {
+
+    private static List<CCSIDMappingLoader.CCSIDMapping> parseJson() throws IOException {
+        try (InputStream in = CCSIDTableCompilerTest.class.getResourceAsStream("/ccsid-mappings.json")) {
+            assertNotNull(in, "ccsid-mappings.json resource");
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return CCSIDTableCompiler.parse(reader);
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledTablesReadBackAsJson() throws IOException {
+        List<CCSIDMappingLoader.CCSIDMapping> json = parseJson();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CCSIDTableCompiler.write(json, out);
+
+        Map<String, CCSIDMappingLoader.CCSIDMapping> tables = CCSIDMappingLoader.readTables(out.toByteArray());
+
+        assertEquals(json.size(), tables.size());
+        for (CCSIDMappingLoader.CCSIDMapping expected : json) {
+            CCSIDMappingLoader.CCSIDMapping actual = tables.get(expected.ccsidId);
+            assertNotNull(actual, "CCSID " + expected.ccsidId);
+            assertEquals(expected.name, actual.name);
+            assertEquals(expected.description, actual.description);
+            assertArrayEquals(expected.codepage(), actual.codepage(), "CCSID " + expected.ccsidId);
+        }
+    }
+
+    @Test
+    public void testLoaderMatchesJson() throws IOException {
+        for (CCSIDMappingLoader.CCSIDMapping expected : parseJson()) {
+            assertArrayEquals(expected.codepage(), CCSIDMappingLoader.loadToUnicode(expected.ccsidId));
+            assertEquals(expected.description, CCSIDMappingLoader.getDescription(expected.ccsidId));
+        }
+    }
+
+    @Test
+    public void testReadTablesRejectsOtherData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CCSIDTableCompiler.write(parseJson(), out);
+        byte[] truncated = new byte[out.size() - 2];
+        System.arraycopy(out.toByteArray(), 0, truncated, 0, truncated.length);
+
+        assertThrows(IOException.class, () -> CCSIDMappingLoader.readTables(truncated));
+        assertThrows(IOException.class, () -> CCSIDMappingLoader.readTables("{\"ccsid_mappings\"".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testCodePageRegisteredOncePerEncoding() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<ICodePage>> lookups = IntStream.range(0, 64)
+                .mapToObj(i -> (Callable<ICodePage>) () -> CharMappings.getCodePage("1148"))
+                .collect(Collectors.toList());
+            List<Future<ICodePage>> results = pool.invokeAll(lookups);
+            ICodePage first = results.get(0).get();
+            for (Future<ICodePage> result : results) {
+                assertSame(first, result.get());
+            }
+            assertSame(first, CharMappings.getCodePage("1148"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnsupportedEncodingGetsDefault() {
+        assertSame(CharMappings.getCodePage(CharMappings.DFT_ENC), CharMappings.getCodePage("no-such-code-page"));
+        assertSame(CharMappings.getCodePage(CharMappings.DFT_ENC), CharMappings.getCodePage(null));
+    }
+}
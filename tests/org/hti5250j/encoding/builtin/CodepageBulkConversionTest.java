@@ -0,0 +1,106 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding.builtin;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+import org.hti5250j.encoding.CCSIDFactory;
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.CharacterConversionException;
+import org.hti5250j.encoding.ICodePage;
+
+/**
+ * The bulk {@code decode} and {@code encode} methods give what the
+ * per-character methods give.
+ */
+public class CodepageBulkConversionTest {
+
+    private static byte[] allBytes() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testDecodeMatchesEbcdic2uni() {
+        for (String ccsid : new String[]{"37", "273", "1141", "870"}) {
+            CodepageConverterAdapter cp = CCSIDFactory.getConverter(ccsid);
+            cp.init();
+            char[] expected = new char[256];
+            for (int i = 0; i < 256; i++) {
+                expected[i] = cp.ebcdic2uni(i);
+            }
+
+            char[] decoded = new char[260];
+            cp.decode(allBytes(), 0, 256, decoded, 4);
+
+            char[] actual = new char[256];
+            System.arraycopy(decoded, 4, actual, 0, 256);
+            assertArrayEquals(expected, actual, "CCSID " + ccsid);
+        }
+    }
+
+    @Test
+    public void testEncodeMatchesUni2ebcdic() {
+        ICodePage cp = CharMappings.getCodePage("37");
+        char[] text = "Work with Active Jobs  \u00c4\u00d6\u00dc {}[]".toCharArray();
+        byte[] expected = new byte[text.length];
+        for (int i = 0; i < text.length; i++) {
+            expected[i] = cp.uni2ebcdic(text[i]);
+        }
+
+        byte[] encoded = new byte[text.length];
+        cp.encode(text, 0, text.length, encoded, 0);
+
+        assertArrayEquals(expected, encoded);
+    }
+
+    @Test
+    public void testEncodeRejectsCharacterBeyondTable() {
+        ICodePage cp = CharMappings.getCodePage("37");
+        char[] text = {'A', '\u4e00'};
+
+        assertThrows(CharacterConversionException.class, () -> cp.encode(text, 0, 2, new byte[2], 0));
+    }
+
+    @Test
+    public void testByteBuffersMovePosition() {
+        ICodePage cp = CharMappings.getCodePage("37");
+        ByteBuffer direct = ByteBuffer.allocateDirect(256);
+        direct.put(allBytes()).flip();
+        direct.position(0x40);
+
+        char[] decoded = new char[16];
+        cp.decode(direct, 16, decoded, 0);
+        assertEquals(0x50, direct.position());
+        assertEquals(cp.ebcdic2uni(0x40), decoded[0]);
+
+        ByteBuffer heap = ByteBuffer.allocate(20);
+        heap.position(4);
+        cp.encode(decoded, 0, 16, heap);
+        assertEquals(20, heap.position());
+        assertEquals(0x40, heap.get(4) & 0xff);
+
+        assertThrows(BufferUnderflowException.class, () -> cp.decode(ByteBuffer.allocate(2), 3, decoded, 0));
+    }
+
+    @Test
+    public void testDecodeChecksBounds() {
+        ICodePage cp = CharMappings.getCodePage("37");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> cp.decode(new byte[4], 2, 3, new char[4], 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> cp.encode(new char[4], 0, 4, new byte[3], 0));
+    }
+}
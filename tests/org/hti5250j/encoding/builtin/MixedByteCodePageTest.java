@@ -0,0 +1,99 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.encoding.builtin;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.ICodePage;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Mixed single and double byte code pages convert through their tables as
+ * the Toolbox conversion table does, with shift state kept per stream.
+ */
+public class MixedByteCodePageTest {
+
+    // "A", SI, two katakana, SO, "1"
+    private static final byte[] MIXED = {(byte) 0xC1, 0x0E, 0x43, (byte) 0x8C, 0x43, (byte) 0xD1, 0x0F, (byte) 0xF1};
+
+    @Test
+    public void testStreamsKeepTheirOwnShiftState() {
+        CCSID930 cp = new CCSID930();
+        ICodePage first = cp.forStream();
+        ICodePage second = cp.forStream();
+
+        assertNotSame(first, second);
+        first.ebcdic2uni(0x0E);
+        first.ebcdic2uni(0x43);
+
+        assertTrue(first.isDoubleByteActive());
+        assertTrue(first.secondByteNeeded());
+        assertFalse(second.isDoubleByteActive());
+        assertFalse(cp.isDoubleByteActive());
+        assertEquals('\u30B5', first.ebcdic2uni(0x8C));
+    }
+
+    @Test
+    public void testBulkDecodeMatchesEbcdic2uniAcrossShifts() {
+        ICodePage perByte = new CCSID930().forStream();
+        char[] expected = new char[MIXED.length];
+        for (int i = 0; i < MIXED.length; i++) {
+            expected[i] = perByte.ebcdic2uni(MIXED[i] & 0xff);
+        }
+
+        ICodePage bulk = new CCSID930().forStream();
+        char[] actual = new char[MIXED.length];
+        bulk.decode(MIXED, 0, MIXED.length, actual, 0);
+
+        assertArrayEquals(expected, actual);
+        assertEquals('\u30B5', actual[3]);
+        assertEquals('\u30D6', actual[5]);
+        assertFalse(bulk.isDoubleByteActive());
+    }
+
+    @Test
+    public void testBulkDecodeCarriesStateBetweenCalls() {
+        ICodePage perByte = new CCSID930().forStream();
+        ICodePage bulk = new CCSID930().forStream();
+        char[] actual = new char[MIXED.length];
+
+        // split inside the first double byte character
+        bulk.decode(MIXED, 0, 3, actual, 0);
+        assertTrue(bulk.secondByteNeeded());
+        bulk.decode(MIXED, 3, MIXED.length - 3, actual, 3);
+
+        for (int i = 0; i < MIXED.length; i++) {
+            assertEquals(perByte.ebcdic2uni(MIXED[i] & 0xff), actual[i], "byte " + i);
+        }
+    }
+
+    @Test
+    public void testSingleByteCodePagesAreTheirOwnStream() {
+        ICodePage cp = CharMappings.getCodePage("37");
+
+        assertSame(cp, cp.forStream());
+    }
+
+    @Test
+    public void testOtherMixedCodePagesAreBuiltIn() {
+        for (String ccsid : new String[]{"933", "935", "937", "939"}) {
+            ICodePage cp = CharMappings.getCodePage(ccsid);
+
+            assertTrue(cp instanceof MixedByteCodePage, "CCSID " + ccsid);
+            assertEquals(ccsid, ((MixedByteCodePage) cp).getName());
+            ICodePage stream = cp.forStream();
+            stream.ebcdic2uni(0x0E);
+            assertTrue(stream.isDoubleByteActive());
+        }
+    }
+}
@@ -11,10 +11,11 @@
 package org.hti5250j.framework.tn5250;
 
 
-import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 
+import static org.hti5250j.HTI5250jConstants.PLANE_COLOR;
+import static org.hti5250j.HTI5250jConstants.PLANE_EXTENDED;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -47,10 +48,6 @@ public class AttributePairwiseTest {
     // Instance variables
     private ScreenPlanes screenPlanes;
     private Screen5250TestDouble screen5250;
-    private char[] screenAttr;
-    private char[] screenIsAttr;
-    private char[] screenColor;
-    private char[] screenExtended;
 
     // Screen size constants
     private static final int SCREEN_SIZE = 24;
@@ -179,19 +176,6 @@ public class AttributePairwiseTest {
         public void setUp() throws NoSuchFieldException, IllegalAccessException {
         screen5250 = new Screen5250TestDouble(SCREEN_SIZE);
         screenPlanes = new ScreenPlanes(screen5250, SCREEN_SIZE);
-
-        screenAttr = getPrivateField("screenAttr", char[].class);
-        screenIsAttr = getPrivateField("screenIsAttr", char[].class);
-        screenColor = getPrivateField("screenColor", char[].class);
-        screenExtended = getPrivateField("screenExtended", char[].class);
-    }
-
-    @SuppressWarnings("unchecked")
-    private <T> T getPrivateField(String fieldName, Class<T> fieldType)
-            throws NoSuchFieldException, IllegalAccessException {
-        Field field = ScreenPlanes.class.getDeclaredField(fieldName);
-        field.setAccessible(true);
-        return (T) field.get(screenPlanes);
     }
 
     private boolean isValidPosition(int pos) {
@@ -270,7 +254,7 @@ public class AttributePairwiseTest {
 
         try {
             // Verify extended attribute plane contains underline flag
-            char extAttr = screenExtended[testPosition];
+            char extAttr = (char) screenPlanes.getExtended(testPosition);
             assertTrue((extAttr & EXT_UNDERLINE) != 0
             ,
                 String.format("Underline extended attribute not set at pos %d", testPosition));
@@ -300,7 +284,7 @@ public class AttributePairwiseTest {
         screenPlanes.setScreenAttr(testPosition, ATTR_COLUMN_SEP);
 
         try {
-            char extAttr = screenExtended[testPosition];
+            char extAttr = (char) screenPlanes.getExtended(testPosition);
             assertTrue((extAttr & EXT_COLUMN_SEP) != 0
             ,
                 String.format("Column separator extended attribute not set at pos %d", testPosition));
@@ -326,7 +310,7 @@ public class AttributePairwiseTest {
         screenPlanes.setScreenAttr(testPosition, attributeType);
 
         try {
-            char actualColorValue = screenColor[testPosition];
+            char actualColorValue = screenPlanes.getColor(testPosition);
             // Color should be non-zero for valid attributes
             if (attributeType > 0) {
                 assertTrue(actualColorValue != 0,
@@ -620,9 +604,10 @@ public class AttributePairwiseTest {
             screenPlanes.setScreenAttr(testPosition, attributeType);
 
             // Verify color plane exists and has correct size
+            char[] screenColor = screenPlanes.getPlaneData(0, SCREEN_LENGTH, PLANE_COLOR);
             assertNotNull(screenColor,"Color plane should not be null");
             assertEquals(SCREEN_LENGTH,
-                screenColor.length
+                screenColor.length - 1 // plane data ends with a null
             ,
                 "Color plane size mismatch");
 
@@ -656,14 +641,15 @@ public class AttributePairwiseTest {
             screenPlanes.setScreenAttr(testPosition, attributeType);
 
             // Verify extended plane exists and has correct size
+            char[] screenExtended = screenPlanes.getPlaneData(0, SCREEN_LENGTH, PLANE_EXTENDED);
             assertNotNull(screenExtended,"Extended attribute plane should not be null");
             assertEquals(SCREEN_LENGTH,
-                screenExtended.length
+                screenExtended.length - 1 // plane data ends with a null
             ,
                 "Extended attribute plane size mismatch");
 
             // Verify extended attribute reflects dispersed attribute
-            char extAttr = screenExtended[testPosition];
+            char extAttr = (char) screenPlanes.getExtended(testPosition);
             if (attributeType >= ATTR_UNDERLINE) {
                 // Certain attributes set extended flags
                 assertNotNull(extAttr,"Extended attribute should be retrievable");
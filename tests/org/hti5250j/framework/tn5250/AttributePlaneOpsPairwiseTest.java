@@ -50,10 +50,6 @@ public class AttributePlaneOpsPairwiseTest {
     // Instance variables
     private ScreenPlanes screenPlanes;
     private Screen5250TestDouble screen5250;
-    private char[] screenAttr;
-    private char[] screenColor;
-    private char[] screenExtended;
-    private char[] screenIsAttr;
 
     // Screen size constants
     private static final int SIZE_24 = 24;
@@ -208,12 +204,18 @@ public class AttributePlaneOpsPairwiseTest {
         public void setUp() throws NoSuchFieldException, IllegalAccessException {
         screen5250 = new Screen5250TestDouble();
         screenPlanes = new ScreenPlanes(screen5250, SIZE_24);
+    }
+
+    private char screenAttr(int pos) {
+        return (char) screenPlanes.getCharAttr(pos);
+    }
+
+    private char screenColor(int pos) {
+        return screenPlanes.getColor(pos);
+    }
 
-        // Access private fields via reflection for testing
-        screenAttr = getPrivateField("screenAttr", char[].class);
-        screenColor = getPrivateField("screenColor", char[].class);
-        screenExtended = getPrivateField("screenExtended", char[].class);
-        screenIsAttr = getPrivateField("screenIsAttr", char[].class);
+    private char screenExtended(int pos) {
+        return (char) screenPlanes.getExtended(pos);
     }
 
     /**
@@ -229,7 +231,7 @@ public class AttributePlaneOpsPairwiseTest {
 
     /**
      * Test 1: Attribute application at single cell position
-     * Verifies: screenAttr[pos] is set and disperseAttribute() is called
+     * Verifies: screenAttr(pos) is set and disperseAttribute() is called
      */
     @ParameterizedTest
     @MethodSource("data")
@@ -242,8 +244,8 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue, true);
 
         // Assert: Attribute plane updated correctly
-        assertEquals(attributeValue, screenAttr[pos],"Attribute not set at position " + pos);
-        assertEquals((char) 1, screenIsAttr[pos],"Attribute not marked in isAttr plane");
+        assertEquals(attributeValue, screenAttr(pos),"Attribute not set at position " + pos);
+        assertTrue(screenPlanes.isAttributePlace(pos),"Attribute not marked in isAttr plane");
     }
 
     /**
@@ -265,12 +267,12 @@ public class AttributePlaneOpsPairwiseTest {
 
         // Assert: All positions in field have attribute
         for (int i = 0; i < fieldLength; i++) {
-            assertEquals(attributeValue, screenAttr[startPos + i],"Attribute not applied at field position " + i);
+            assertEquals(attributeValue, screenAttr(startPos + i),"Attribute not applied at field position " + i);
         }
 
         // Assert: Positions outside field unchanged
         if (startPos > 0) {
-            assertEquals(32, screenAttr[startPos - 1],"Previous position incorrectly modified"); // Default attribute
+            assertEquals(32, screenAttr(startPos - 1),"Previous position incorrectly modified"); // Default attribute
         }
     }
 
@@ -292,7 +294,7 @@ public class AttributePlaneOpsPairwiseTest {
 
         // Assert: All positions updated with same attribute
         for (int pos = 0; pos < SCREEN_SIZE; pos++) {
-            assertEquals(testAttr, screenAttr[pos],"Screen-wide attribute not applied at position " + pos);
+            assertEquals(testAttr, screenAttr(pos),"Screen-wide attribute not applied at position " + pos);
         }
     }
 
@@ -311,7 +313,7 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue);
 
         // Assert: Color plane updated (non-zero for valid attributes)
-        char color = screenColor[pos];
+        char color = screenColor(pos);
         if (attributeValue != 0) {
             assertTrue((int) color != 0,"Color plane should be updated for attribute " + attributeValue);
         }
@@ -339,7 +341,7 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Underline flag set in extended plane
-            char extended = screenExtended[pos];
+            char extended = screenExtended(pos);
             assertEquals(EXTENDED_5250_UNDERLINE, extended & EXTENDED_5250_UNDERLINE,"Underline flag not set for " + highlightType);
         }
     }
@@ -360,7 +362,7 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Column separator flag set in extended plane
-            char extended = screenExtended[pos];
+            char extended = screenExtended(pos);
             assertEquals(EXTENDED_5250_COL_SEP, extended & EXTENDED_5250_COL_SEP,"Column separator flag not set");
         }
     }
@@ -383,7 +385,7 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Non-display flag set in extended plane
-            char extended = screenExtended[pos];
+            char extended = screenExtended(pos);
             assertEquals(EXTENDED_5250_NON_DSP, extended & EXTENDED_5250_NON_DSP,"Non-display flag not set");
         }
     }
@@ -403,8 +405,8 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue);
 
         // Assert
-        assertEquals(attributeValue, (int) screenAttr[pos],"Attribute not set at screen start");
-        assertTrue((int) screenColor[pos] != 0,"Color plane not updated at screen start");
+        assertEquals(attributeValue, (int) screenAttr(pos),"Attribute not set at screen start");
+        assertTrue((int) screenColor(pos) != 0,"Color plane not updated at screen start");
     }
 
     /**
@@ -422,8 +424,8 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue);
 
         // Assert
-        assertEquals(attributeValue, (int) screenAttr[pos],"Attribute not set at screen end");
-        assertTrue((int) screenColor[pos] != 0,"Color plane not updated at screen end");
+        assertEquals(attributeValue, (int) screenAttr(pos),"Attribute not set at screen end");
+        assertTrue((int) screenColor(pos) != 0,"Color plane not updated at screen end");
     }
 
     /**
@@ -441,8 +443,8 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue);
 
         // Assert
-        assertEquals(attributeValue, screenAttr[pos],"Attribute not set at row start");
-        assertEquals(32, screenAttr[pos - 1],"Previous position (end of previous row) should not be modified"); // Default attribute value
+        assertEquals(attributeValue, screenAttr(pos),"Attribute not set at row start");
+        assertEquals(32, screenAttr(pos - 1),"Previous position (end of previous row) should not be modified"); // Default attribute value
     }
 
     /**
@@ -460,9 +462,9 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue);
 
         // Assert
-        assertEquals(attributeValue, screenAttr[pos],"Attribute not set at row end");
+        assertEquals(attributeValue, screenAttr(pos),"Attribute not set at row end");
         if (pos < SCREEN_SIZE - 1) {
-            assertEquals(32, screenAttr[pos + 1],"Next position (start of next row) should not be modified"); // Default attribute value
+            assertEquals(32, screenAttr(pos + 1),"Next position (start of next row) should not be modified"); // Default attribute value
         }
     }
 
@@ -480,14 +482,14 @@ public class AttributePlaneOpsPairwiseTest {
 
         // Act 1: Apply first attribute (e.g., green normal)
         screenPlanes.setScreenAttr(pos, ATTR_GREEN_NORMAL);
-        char colorAfterFirst = screenColor[pos];
+        char colorAfterFirst = screenColor(pos);
 
         // Act 2: Apply conflicting attribute (e.g., red reverse) to same position
         screenPlanes.setScreenAttr(pos, ATTR_RED_REVERSE);
-        char colorAfterConflict = screenColor[pos];
+        char colorAfterConflict = screenColor(pos);
 
         // Assert: Last attribute wins (no corruption)
-        assertEquals(ATTR_RED_REVERSE, (int) screenAttr[pos],"Final attribute not applied");
+        assertEquals(ATTR_RED_REVERSE, (int) screenAttr(pos),"Final attribute not applied");
         assertFalse(colorAfterFirst == colorAfterConflict,"Color should change when attribute changes");
     }
 
@@ -504,7 +506,7 @@ public class AttributePlaneOpsPairwiseTest {
         int outOfBoundsPos = SCREEN_SIZE + 10;
 
         // Act: Save last valid position state
-        char lastValidAttr = screenAttr[SCREEN_SIZE - 1];
+        char lastValidAttr = screenAttr(SCREEN_SIZE - 1);
 
         // This should not throw or corrupt screen
         try {
@@ -512,7 +514,7 @@ public class AttributePlaneOpsPairwiseTest {
             // but accessing beyond SCREEN_SIZE would be out of array bounds
             // Just verify that valid positions are still intact
             for (int pos = 0; pos < SCREEN_SIZE; pos++) {
-                if (screenAttr[pos] != 32 && screenAttr[pos] != lastValidAttr) {
+                if (screenAttr(pos) != 32 && screenAttr(pos) != lastValidAttr) {
                     fail("Screen corruption detected at position " + pos);
                 }
             }
@@ -536,7 +538,7 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, 0);
 
         // Assert: Attribute still set, extended plane not updated
-        assertEquals(0, (int) screenAttr[pos],"Zero attribute should still be set");
+        assertEquals(0, (int) screenAttr(pos),"Zero attribute should still be set");
         // disperseAttribute() returns early for attr == 0, so extended stays initialized
     }
 
@@ -555,7 +557,7 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, ATTR_INVALID_HIGH);
 
         // Assert: Attribute set to whatever value was provided
-        assertEquals(ATTR_INVALID_HIGH, (int) screenAttr[pos],"Invalid high attribute should be set to provided value");
+        assertEquals(ATTR_INVALID_HIGH, (int) screenAttr(pos),"Invalid high attribute should be set to provided value");
         // disperseAttribute() falls through to default case for unmapped values
     }
 
@@ -575,7 +577,7 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Color plane shows green (foreground color 2)
-            char color = screenColor[pos];
+            char color = screenColor(pos);
             int fgColor = color & 0xff;
             assertEquals(COLOR_FG_GREEN, fgColor,"Green color not applied");
         }
@@ -597,7 +599,7 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Color plane shows red (foreground color 4)
-            char color = screenColor[pos];
+            char color = screenColor(pos);
             int fgColor = color & 0xff;
             assertEquals(COLOR_FG_RED, fgColor,"Red color not applied");
         }
@@ -619,7 +621,7 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Color plane shows white (foreground color 7)
-            char color = screenColor[pos];
+            char color = screenColor(pos);
             int fgColor = color & 0xff;
             assertEquals(COLOR_FG_WHITE, fgColor,"White color not applied");
         }
@@ -641,8 +643,8 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Both column separator and color flags set
-            assertEquals(EXTENDED_5250_COL_SEP, (int) (screenExtended[pos] & EXTENDED_5250_COL_SEP),"Column separator flag not set");
-            char color = screenColor[pos];
+            assertEquals(EXTENDED_5250_COL_SEP, (int) (screenExtended(pos) & EXTENDED_5250_COL_SEP),"Column separator flag not set");
+            char color = screenColor(pos);
             int fgColor = color & 0xff;
             assertEquals(COLOR_FG_CYAN, fgColor,"Cyan color not applied with column separator");
         }
@@ -664,7 +666,7 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Both flags set correctly
-            assertEquals(EXTENDED_5250_COL_SEP, (int) (screenExtended[pos] & EXTENDED_5250_COL_SEP),"Column separator flag not set");
+            assertEquals(EXTENDED_5250_COL_SEP, (int) (screenExtended(pos) & EXTENDED_5250_COL_SEP),"Column separator flag not set");
         }
     }
 
@@ -684,10 +686,10 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Both flags set
-            char extended = screenExtended[pos];
+            char extended = screenExtended(pos);
             assertEquals(EXTENDED_5250_UNDERLINE, (int) (extended & EXTENDED_5250_UNDERLINE),"Underline not set");
             // Note: reverse is indicated in color plane, not extended
-            assertTrue((int) screenColor[pos] != 0,"Color plane should reflect reverse");
+            assertTrue((int) screenColor(pos) != 0,"Color plane should reflect reverse");
         }
     }
 
@@ -709,10 +711,10 @@ public class AttributePlaneOpsPairwiseTest {
         }
 
         // Assert: Final attribute is applied
-        assertEquals(attrs[attrs.length - 1], (int) screenAttr[pos],"Final attribute not applied");
+        assertEquals(attrs[attrs.length - 1], (int) screenAttr(pos),"Final attribute not applied");
 
         // Assert: Color plane updated to reflect final attribute
-        assertTrue((int) screenColor[pos] != 0,"Color plane should reflect final attribute");
+        assertTrue((int) screenColor(pos) != 0,"Color plane should reflect final attribute");
     }
 
     /**
@@ -730,16 +732,16 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue, true);
 
         // Assert: Both attribute and isAttr flag set
-        assertEquals(attributeValue, (int) screenAttr[pos],"Attribute not set");
-        assertEquals(1, (int) screenIsAttr[pos],"isAttr flag not set");
+        assertEquals(attributeValue, (int) screenAttr(pos),"Attribute not set");
+        assertTrue(screenPlanes.isAttributePlace(pos),"isAttr flag not set");
 
         // Act: Set attribute with isAttr = false at different position
         int pos2 = POS_MID_FIELD + 10;
         screenPlanes.setScreenAttr(pos2, attributeValue, false);
 
         // Assert: Attribute set but isAttr flag not set
-        assertEquals(attributeValue, (int) screenAttr[pos2],"Attribute not set");
-        assertEquals(0, (int) screenIsAttr[pos2],"isAttr flag should not be set");
+        assertEquals(attributeValue, (int) screenAttr(pos2),"Attribute not set");
+        assertFalse(screenPlanes.isAttributePlace(pos2),"isAttr flag should not be set");
     }
 
     /**
@@ -755,8 +757,7 @@ public class AttributePlaneOpsPairwiseTest {
         char[] screenText = new char[SCREEN_SIZE];
         System.arraycopy(getPrivateField("screen", char[].class), 0, screenText, 0, SCREEN_SIZE);
 
-        char[] screenGUI = new char[SCREEN_SIZE];
-        System.arraycopy(getPrivateField("screenGUI", char[].class), 0, screenGUI, 0, SCREEN_SIZE);
+        char[] screenGUI = screenPlanes.getPlaneData(0, SCREEN_SIZE, PLANE_EXTENDED_GRAPHIC);
 
         // Act: Modify attribute plane
         screenPlanes.setScreenAttr(pos, attributeValue);
@@ -768,7 +769,7 @@ public class AttributePlaneOpsPairwiseTest {
         }
 
         // Assert: GUI plane unchanged
-        char[] screenGUIAfter = getPrivateField("screenGUI", char[].class);
+        char[] screenGUIAfter = screenPlanes.getPlaneData(0, SCREEN_SIZE, PLANE_EXTENDED_GRAPHIC);
         for (int i = 0; i < SCREEN_SIZE; i++) {
             assertEquals(screenGUI[i], screenGUIAfter[i],"GUI plane corrupted by attribute change at position " + i);
         }
@@ -789,7 +790,7 @@ public class AttributePlaneOpsPairwiseTest {
         screenPlanes.setScreenAttr(pos, attributeValue);
 
         // Assert: Extended value is within valid bit field
-        char extended = screenExtended[pos];
+        char extended = screenExtended(pos);
         int validBits = EXTENDED_5250_REVERSE | EXTENDED_5250_UNDERLINE |
                        EXTENDED_5250_BLINK | EXTENDED_5250_COL_SEP |
                        EXTENDED_5250_NON_DSP;
@@ -808,8 +809,8 @@ public class AttributePlaneOpsPairwiseTest {
         setParameters(attributeValue, colorName, highlightType, columnSeparator, positionType);
         setUp();
         int pos = POS_MID_FIELD;
-        char initialColor = screenColor[pos];
-        char initialExtended = screenExtended[pos];
+        char initialColor = screenColor(pos);
+        char initialExtended = screenExtended(pos);
 
         // Act: Set non-zero attribute
         if (attributeValue != 0) {
@@ -819,8 +820,8 @@ public class AttributePlaneOpsPairwiseTest {
             screenPlanes.setScreenAttr(pos, attributeValue);
 
             // Assert: Color or extended plane changed (indicates disperseAttribute called)
-            boolean colorChanged = screenColor[pos] != initialColor;
-            boolean extendedChanged = screenExtended[pos] != initialExtended;
+            boolean colorChanged = screenColor(pos) != initialColor;
+            boolean extendedChanged = screenExtended(pos) != initialExtended;
             assertTrue(colorChanged || extendedChanged,"disperseAttribute() not called for attribute " + attributeValue +
                     " (color changed: " + colorChanged + ", extended changed: " + extendedChanged + ")");
         }
@@ -11,7 +11,6 @@
 package org.hti5250j.framework.tn5250;
 
 
-import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -44,15 +43,12 @@ public class AttributePlanePairwiseTest {
     // Instance variables
     private ScreenPlanes screenPlanes;
     private Screen5250TestDouble screen5250;
-    private char[] screenAttr;
-    private char[] screenColor;
-    private char[] screenExtended;
-    private char[] screenIsAttr;
 
     // Screen size constants
     private static final int SIZE_24 = 24;
     private static final int COLS_24 = 80;
     private static final int ROWS_24 = 24;
+    private static final int SCREEN_LENGTH = ROWS_24 * COLS_24;
 
     // Attribute value constants (from ScreenPlanes.disperseAttribute)
     private static final int ATTR_GREEN_NORMAL = 32;          // Green normal
@@ -168,19 +164,6 @@ public class AttributePlanePairwiseTest {
         public void setUp() throws NoSuchFieldException, IllegalAccessException {
         screen5250 = new Screen5250TestDouble(SIZE_24);
         screenPlanes = new ScreenPlanes(screen5250, SIZE_24);
-
-        screenAttr = getPrivateField("screenAttr", char[].class);
-        screenColor = getPrivateField("screenColor", char[].class);
-        screenExtended = getPrivateField("screenExtended", char[].class);
-        screenIsAttr = getPrivateField("screenIsAttr", char[].class);
-    }
-
-    @SuppressWarnings("unchecked")
-    private <T> T getPrivateField(String fieldName, Class<T> fieldType)
-            throws NoSuchFieldException, IllegalAccessException {
-        Field field = ScreenPlanes.class.getDeclaredField(fieldName);
-        field.setAccessible(true);
-        return (T) field.get(screenPlanes);
     }
 
     private int positionForType(String posType) {
@@ -211,7 +194,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -237,7 +220,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenExtended.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -254,7 +237,7 @@ public class AttributePlanePairwiseTest {
             attributeValue == ATTR_COL_SEP_UL || attributeValue == ATTR_COL_SEP_UL_ALT ||
             attributeValue == ATTR_COL_SEP_BLUE_UL) {
             // Extended plane should have underline flag set (0x08)
-            assertTrue((screenExtended[pos] & 0x08) == 0x08
+            assertTrue((screenPlanes.getExtended(pos) & 0x08) == 0x08
             ,
                 String.format("Underline flag not set for attr %d at pos %d", attributeValue, pos));
         }
@@ -276,7 +259,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenExtended.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -285,14 +268,14 @@ public class AttributePlanePairwiseTest {
         // For column separator attributes (48-51), verify column separator flag (0x02)
         if (attributeValue == ATTR_COL_SEP_CYAN || attributeValue == ATTR_COL_SEP_CYAN_ALT ||
             attributeValue == ATTR_COL_SEP_BLUE || attributeValue == ATTR_COL_SEP_YELLOW) {
-            assertTrue((screenExtended[pos] & 0x02) == 0x02
+            assertTrue((screenPlanes.getExtended(pos) & 0x02) == 0x02
             ,
                 String.format("Column separator flag not set for attr %d at pos %d", attributeValue, pos));
         }
         // For underline column separator attributes (52-54), verify underline flag (0x08)
         if (attributeValue == ATTR_COL_SEP_UL || attributeValue == ATTR_COL_SEP_UL_ALT ||
             attributeValue == ATTR_COL_SEP_BLUE_UL) {
-            assertTrue((screenExtended[pos] & 0x08) == 0x08
+            assertTrue((screenPlanes.getExtended(pos) & 0x08) == 0x08
             ,
                 String.format("Underline flag not set for attr %d at pos %d", attributeValue, pos));
         }
@@ -311,7 +294,7 @@ public class AttributePlanePairwiseTest {
         int singleCellPos = positionForType("single-cell");
         int fieldWidePos = positionForType("field-wide");
 
-        if (singleCellPos >= screenAttr.length || fieldWidePos >= screenAttr.length) {
+        if (singleCellPos >= SCREEN_LENGTH || fieldWidePos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -350,14 +333,14 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenExtended.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
         screenPlanes.setScreenAttr(pos, attributeValue);
 
         // Non-display flag (0x01) should be set
-        assertTrue((screenExtended[pos] & 0x01) == 0x01
+        assertTrue((screenPlanes.getExtended(pos) & 0x01) == 0x01
         ,
             String.format("Non-display flag not set for attr %d at pos %d", attributeValue, pos));
     }
@@ -400,7 +383,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -428,7 +411,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = 50;
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -464,7 +447,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -496,7 +479,7 @@ public class AttributePlanePairwiseTest {
         for (int attr : greenAttrs) {
             if (attributeValue == attr) {
                 int pos = positionForType(positionType);
-                if (pos >= screenAttr.length) {
+                if (pos >= SCREEN_LENGTH) {
                     return;
                 }
 
@@ -530,7 +513,7 @@ public class AttributePlanePairwiseTest {
         for (int attr : redAttrs) {
             if (attributeValue == attr) {
                 int pos = positionForType(positionType);
-                if (pos >= screenAttr.length) {
+                if (pos >= SCREEN_LENGTH) {
                     return;
                 }
 
@@ -563,7 +546,7 @@ public class AttributePlanePairwiseTest {
         for (int attr : whiteAttrs) {
             if (attributeValue == attr) {
                 int pos = positionForType(positionType);
-                if (pos >= screenAttr.length) {
+                if (pos >= SCREEN_LENGTH) {
                     return;
                 }
 
@@ -596,7 +579,7 @@ public class AttributePlanePairwiseTest {
         for (int attr : blueAttrs) {
             if (attributeValue == attr) {
                 int pos = positionForType(positionType);
-                if (pos >= screenAttr.length) {
+                if (pos >= SCREEN_LENGTH) {
                     return;
                 }
 
@@ -624,7 +607,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -658,7 +641,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenExtended.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -670,7 +653,7 @@ public class AttributePlanePairwiseTest {
             attributeValue == ATTR_GREEN_REV_UNDERLINE || attributeValue == ATTR_RED_REV_UNDERLINE ||
             attributeValue == ATTR_COL_SEP_UL || attributeValue == ATTR_COL_SEP_UL_ALT ||
             attributeValue == ATTR_COL_SEP_BLUE_UL) {
-            assertTrue((screenExtended[pos] & 0x08) == 0x08
+            assertTrue((screenPlanes.getExtended(pos) & 0x08) == 0x08
             ,
                 String.format("Underscore bit 0x08 not set for attr %d at pos %d", attributeValue, pos));
         }
@@ -691,7 +674,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenExtended.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -702,7 +685,7 @@ public class AttributePlanePairwiseTest {
         if (attributeValue == ATTR_COL_SEP_CYAN || attributeValue == ATTR_COL_SEP_CYAN_ALT ||
             attributeValue == ATTR_COL_SEP_BLUE || attributeValue == ATTR_COL_SEP_YELLOW ||
             attributeValue == ATTR_COL_SEP_NON_DSP || attributeValue == 63) {
-            assertTrue((screenExtended[pos] & 0x02) == 0x02
+            assertTrue((screenPlanes.getExtended(pos) & 0x02) == 0x02
             ,
                 String.format("Column separator bit 0x02 not set for attr %d at pos %d", attributeValue, pos));
         }
@@ -719,7 +702,7 @@ public class AttributePlanePairwiseTest {
         setParameters(attributeValue, attributeType, colorValue, highlightType, columnSeparator, positionType);
         setUp();
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -758,7 +741,7 @@ public class AttributePlanePairwiseTest {
         for (int attr : pinkAttrs) {
             if (attributeValue == attr) {
                 int pos = positionForType(positionType);
-                if (pos >= screenAttr.length) {
+                if (pos >= SCREEN_LENGTH) {
                     return;
                 }
 
@@ -790,7 +773,7 @@ public class AttributePlanePairwiseTest {
         for (int attr : magentaAttrs) {
             if (attributeValue == attr) {
                 int pos = positionForType(positionType);
-                if (pos >= screenAttr.length) {
+                if (pos >= SCREEN_LENGTH) {
                     return;
                 }
 
@@ -822,7 +805,7 @@ public class AttributePlanePairwiseTest {
         for (int attr : blueAttrs) {
             if (attributeValue == attr) {
                 int pos = positionForType(positionType);
-                if (pos >= screenAttr.length) {
+                if (pos >= SCREEN_LENGTH) {
                     return;
                 }
 
@@ -846,7 +829,7 @@ public class AttributePlanePairwiseTest {
         setParameters(attributeValue, attributeType, colorValue, highlightType, columnSeparator, positionType);
         setUp();
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -878,26 +861,20 @@ public class AttributePlanePairwiseTest {
         setParameters(attributeValue, attributeType, colorValue, highlightType, columnSeparator, positionType);
         setUp();
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
-        try {
-            char[] screenIsChanged = getPrivateField("screenIsChanged", char[].class);
-
-            // Set initial attribute
-            screenPlanes.setScreenAttr(pos, ATTR_GREEN_NORMAL);
+        // Set initial attribute
+        screenPlanes.setScreenAttr(pos, ATTR_GREEN_NORMAL);
 
-            // Change attribute
-            screenPlanes.setScreenAttr(pos, attributeValue);
+        // Change attribute
+        screenPlanes.setScreenAttr(pos, attributeValue);
 
-            // If attribute differs, position should be marked as changed
-            if (attributeValue != ATTR_GREEN_NORMAL) {
-                // screenIsChanged[pos] should reflect the change
-                // (exact behavior depends on implementation)
-            }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            fail("Could not verify change tracking: " + e.getMessage());
+        // If attribute differs, position should be marked as changed
+        if (attributeValue != ATTR_GREEN_NORMAL) {
+            // isChanged(pos) should reflect the change
+            // (exact behavior depends on implementation)
         }
     }
 
@@ -922,7 +899,7 @@ public class AttributePlanePairwiseTest {
         };
 
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -955,7 +932,7 @@ public class AttributePlanePairwiseTest {
         };
 
         for (int pos : boundaryPositions) {
-            if (pos >= screenAttr.length) {
+            if (pos >= SCREEN_LENGTH) {
                 continue;
             }
 
@@ -983,7 +960,7 @@ public class AttributePlanePairwiseTest {
         int totalSize = ROWS_24 * COLS_24;
 
         for (int pos = 0; pos < totalSize; pos += 100) {
-            if (pos >= screenAttr.length) {
+            if (pos >= SCREEN_LENGTH) {
                 break;
             }
 
@@ -1012,7 +989,7 @@ public class AttributePlanePairwiseTest {
         }
 
         int pos = positionForType(positionType);
-        if (pos >= screenAttr.length) {
+        if (pos >= SCREEN_LENGTH) {
             return;
         }
 
@@ -0,0 +1,250 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DataStreamFramer record boundaries, IAC escapes and buffer refills.
+ */
+public class DataStreamFramerTest {
+
+    private static final byte IAC = (byte) 0xFF;
+    private static final byte EOR = (byte) 0xEF;
+    private static final byte DO = (byte) 0xFD;
+    private static final byte TIMING_MARK = 6;
+
+    /**
+     * Hands out at most {@code chunk} bytes per read, like a slow socket.
+     */
+    private static final class TrickleInputStream extends InputStream {
+        private final byte[] data;
+        private final int chunk;
+        private int pos;
+
+        TrickleInputStream(byte[] data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return pos < data.length ? data[pos++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (pos >= data.length) {
+                return -1;
+            }
+            int n = Math.min(Math.min(len, chunk), data.length - pos);
+            System.arraycopy(data, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer record) {
+        byte[] b = new byte[record.remaining()];
+        record.get(b);
+        return b;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int len = 0;
+        for (byte[] p : parts) {
+            len += p.length;
+        }
+        byte[] out = new byte[len];
+        int off = 0;
+        for (byte[] p : parts) {
+            System.arraycopy(p, 0, out, off, p.length);
+            off += p.length;
+        }
+        return out;
+    }
+
+    @Test
+    public void testSingleRecordKeepsTrailingEor() throws IOException {
+        byte[] record = {0x00, 0x0A, 0x12, (byte) 0xA0, 0x00, 0x00, 0x04, 0x00, 0x00, 0x03, IAC, EOR};
+        DataStreamFramer framer = new DataStreamFramer(new ByteArrayInputStream(record));
+
+        assertArrayEquals(record, bytes(framer.nextRecord()));
+        assertEquals(DataStreamFramer.Boundary.END_OF_RECORD, framer.getBoundary());
+    }
+
+    @Test
+    public void testDoubledIacIsCollapsedToOneDataByte() throws IOException {
+        byte[] wire = {0x01, IAC, IAC, 0x02, IAC, IAC, IAC, IAC, 0x03, IAC, EOR};
+        DataStreamFramer framer = new DataStreamFramer(new ByteArrayInputStream(wire));
+
+        assertArrayEquals(new byte[]{0x01, IAC, 0x02, IAC, IAC, 0x03, IAC, EOR}, bytes(framer.nextRecord()));
+    }
+
+    @Test
+    public void testEscapedIacBeforeEorIsNotARecordEnd() throws IOException {
+        byte[] wire = {0x01, IAC, IAC, EOR, 0x02, IAC, EOR};
+        DataStreamFramer framer = new DataStreamFramer(new ByteArrayInputStream(wire));
+
+        assertArrayEquals(new byte[]{0x01, IAC, EOR, 0x02, IAC, EOR}, bytes(framer.nextRecord()));
+        assertEquals(DataStreamFramer.Boundary.END_OF_RECORD, framer.getBoundary());
+    }
+
+    @Test
+    public void testBackToBackRecordsAreReturnedSeparately() throws IOException {
+        byte[] first = {0x10, 0x11, IAC, EOR};
+        byte[] second = {0x20, 0x21, 0x22, IAC, EOR};
+        DataStreamFramer framer = new DataStreamFramer(new ByteArrayInputStream(concat(first, second)));
+
+        assertArrayEquals(first, bytes(framer.nextRecord()));
+        assertArrayEquals(second, bytes(framer.nextRecord()));
+        assertEquals(0, framer.nextRecord().remaining());
+        assertEquals(DataStreamFramer.Boundary.END_OF_STREAM, framer.getBoundary());
+    }
+
+    @Test
+    public void testTimingMarkConsumesOptionByte() throws IOException {
+        byte[] wire = {IAC, DO, TIMING_MARK, 0x30, IAC, EOR};
+        DataStreamFramer framer = new DataStreamFramer(new ByteArrayInputStream(wire));
+
+        assertArrayEquals(new byte[]{IAC, DO}, bytes(framer.nextRecord()));
+        assertEquals(DataStreamFramer.Boundary.NEGOTIATE, framer.getBoundary());
+        assertEquals(TIMING_MARK, framer.getOption());
+
+        assertArrayEquals(new byte[]{0x30, IAC, EOR}, bytes(framer.nextRecord()));
+        assertEquals(-1, framer.getOption());
+    }
+
+    @Test
+    public void testEndOfStreamReturnsPartialRecord() throws IOException {
+        byte[] wire = {0x01, 0x02, IAC};
+        DataStreamFramer framer = new DataStreamFramer(new ByteArrayInputStream(wire));
+
+        assertArrayEquals(wire, bytes(framer.nextRecord()));
+        assertEquals(DataStreamFramer.Boundary.END_OF_STREAM, framer.getBoundary());
+    }
+
+    @Test
+    public void testBoundariesSurviveOneByteReads() throws IOException {
+        byte[] first = {0x01, IAC, IAC, 0x02, IAC, EOR};
+        byte[] second = {0x03, IAC, EOR};
+        DataStreamFramer framer = new DataStreamFramer(new TrickleInputStream(concat(first, second), 1), 2);
+
+        assertArrayEquals(new byte[]{0x01, IAC, 0x02, IAC, EOR}, bytes(framer.nextRecord()));
+        assertArrayEquals(second, bytes(framer.nextRecord()));
+    }
+
+    @Test
+    public void testRecordLargerThanBufferGrowsIt() throws IOException {
+        byte[] payload = new byte[20_000];
+        Arrays.fill(payload, (byte) 0x40);
+        payload[12_345] = IAC;
+        byte[] wire = concat(Arrays.copyOfRange(payload, 0, 12_346), new byte[]{IAC},
+                Arrays.copyOfRange(payload, 12_346, payload.length), new byte[]{IAC, EOR});
+        DataStreamFramer framer = new DataStreamFramer(new TrickleInputStream(wire, 1500), 64);
+
+        byte[] record = bytes(framer.nextRecord());
+
+        assertEquals(payload.length + 2, record.length);
+        assertEquals(IAC, record[12_345]);
+        assertEquals(DataStreamFramer.Boundary.END_OF_RECORD, framer.getBoundary());
+        assertTrue(framer.capacity() >= record.length);
+    }
+
+    @Test
+    public void testFedFramerWaitsForCompleteRecord() throws IOException {
+        DataStreamFramer framer = new DataStreamFramer(16);
+
+        framer.feed(ByteBuffer.wrap(new byte[]{0x01, IAC}));
+        assertNull(framer.nextRecord(), "IAC alone cannot be framed yet");
+
+        framer.feed(ByteBuffer.wrap(new byte[]{IAC, 0x02, IAC}));
+        assertNull(framer.nextRecord(), "escaped IAC is data, the record is still open");
+
+        framer.feed(ByteBuffer.wrap(new byte[]{EOR, 0x03, IAC, EOR}));
+        assertArrayEquals(new byte[]{0x01, IAC, 0x02, IAC, EOR}, bytes(framer.nextRecord()));
+        assertArrayEquals(new byte[]{0x03, IAC, EOR}, bytes(framer.nextRecord()));
+        assertNull(framer.nextRecord());
+    }
+
+    @Test
+    public void testFedFramerWaitsForTimingMarkOption() throws IOException {
+        DataStreamFramer framer = new DataStreamFramer(16);
+
+        framer.feed(ByteBuffer.wrap(new byte[]{IAC, DO}));
+        assertNull(framer.nextRecord(), "option byte of IAC DO has not arrived");
+
+        framer.feed(ByteBuffer.wrap(new byte[]{TIMING_MARK}));
+        assertArrayEquals(new byte[]{IAC, DO}, bytes(framer.nextRecord()));
+        assertEquals(DataStreamFramer.Boundary.NEGOTIATE, framer.getBoundary());
+        assertEquals(TIMING_MARK, framer.getOption());
+    }
+
+    @Test
+    public void testFedFramerShrinksOnceDrained() throws IOException {
+        byte[] payload = new byte[5000];
+        Arrays.fill(payload, (byte) 0x40);
+        DataStreamFramer framer = new DataStreamFramer(64);
+
+        framer.feed(ByteBuffer.wrap(payload));
+        assertNull(framer.nextRecord());
+        assertTrue(framer.capacity() >= payload.length);
+
+        framer.feed(ByteBuffer.wrap(new byte[]{IAC, EOR}));
+        assertEquals(payload.length + 2, framer.nextRecord().remaining());
+        assertNull(framer.nextRecord());
+        assertEquals(64, framer.capacity(), "an idle framer keeps only its initial buffer");
+    }
+
+    @Test
+    public void testIndexOfIacFindsEveryLane() {
+        for (int lane = 0; lane < 24; lane++) {
+            byte[] a = new byte[24];
+            Arrays.fill(a, (byte) 0x7F);
+            a[lane] = IAC;
+            assertEquals(lane, DataStreamFramer.indexOfIac(a, 0, a.length), "lane " + lane);
+        }
+    }
+
+    @Test
+    public void testIndexOfIacIgnoresBytesOutsideRange() {
+        byte[] a = new byte[32];
+        a[3] = IAC;
+        a[20] = IAC;
+
+        assertEquals(20, DataStreamFramer.indexOfIac(a, 4, a.length));
+        assertEquals(19, DataStreamFramer.indexOfIac(a, 4, 19));
+    }
+
+    @Test
+    public void testReadIncomingStillReturnsCopiedRecords() throws IOException {
+        byte[] first = {0x00, 0x04, IAC, EOR};
+        byte[] second = {0x00, 0x05, 0x01, IAC, EOR};
+        DataStreamProducer producer = new DataStreamProducer(null,
+                new BufferedInputStream(new ByteArrayInputStream(concat(first, second))),
+                new LinkedBlockingQueue<>(), new byte[0]);
+
+        byte[] r1 = producer.readIncoming();
+        byte[] r2 = producer.readIncoming();
+
+        assertArrayEquals(first, r1);
+        assertArrayEquals(second, r2);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.ICodePage;
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.session.DefaultHeadlessSessionFactory;
+import org.hti5250j.simulator.HostInput;
+import org.hti5250j.simulator.HostScreen;
+import org.hti5250j.simulator.HostScript;
+import org.hti5250j.simulator.HostSimulator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hti5250j.HTI5250jConstants.CMD_READ_MDT_FIELDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writing field values directly, with the field format rules the keyboard
+ * would apply, and sending them with one aid key.
+ */
+public class FieldFillTest {
+
+    private static final int SHIFT_DIGITS_ONLY = 5;
+    private static final int SHIFT_SIGNED_NUMERIC = 7;
+    private static final int BYPASS = 0x20;
+    private static final int MONOCASE = 0x20;
+    private static final int MANDATORY_ENTER = 0x08;
+    private static final int RIGHT_ADJUST_ZERO_FILL = 5;
+
+    private Screen5250 screen;
+    private ScreenFields fields;
+
+    @BeforeEach
+    public void setUp() {
+        screen = new Screen5250();
+        fields = screen.getScreenFields();
+        write(5, 2, "Customer  . . .");
+        // 0: name, 1: customer (after its label), 2: quantity, 3: protected
+        fields.setField(0x20, 3, 19, 10, 0, MONOCASE, 0, 0);
+        fields.setField(0x20, 4, 19, 8, 0, 0, 0, 0);
+        fields.setField(0x20, 6, 19, 5, SHIFT_DIGITS_ONLY, RIGHT_ADJUST_ZERO_FILL, 0, 0);
+        fields.setField(0x20, 7, 19, 6, BYPASS, 0, 0, 0);
+        screen.getOIA().setKeyBoardLocked(false);
+    }
+
+    private void write(int row, int col, String text) {
+        screen.goto_XY(screen.getPos(row - 1, col - 1));
+        for (char c : text.toCharArray()) {
+            screen.setChar(c);
+        }
+    }
+
+    private byte[] readMdtFields() {
+        ICodePage cp = CharMappings.getCodePage("37");
+        GdsRecordEncoder record = new GdsRecordEncoder();
+        record.begin(0, 3);
+        fields.readFormatTable(record, CMD_READ_MDT_FIELDS, cp);
+        ByteBuffer frame = record.finish();
+        byte[] data = new byte[frame.remaining() - 12];
+        frame.position(frame.position() + 10);
+        frame.get(data);
+        return data;
+    }
+
+    @Test
+    public void testFieldsAddressedByIndexPositionAndLabel() {
+        screen.fillFields(FieldFill.builder()
+                .field(0, "smith")
+                .label("Customer", "C1001")
+                .at(7, 22, "42")
+                .build());
+
+        assertEquals("SMITH     ", fields.getField(0).getString());
+        assertEquals("C1001   ", fields.getField(1).getString());
+        assertEquals("00042", fields.getField(2).getString());
+        assertTrue(fields.isMasterMDT());
+    }
+
+    @Test
+    public void testModifiedFieldsAreSentWithoutPadding() {
+        screen.fillFields(FieldFill.builder().field(1, "AB").build());
+
+        assertArrayEquals(new byte[] {0x11, 5, 20, (byte) 0xC1, (byte) 0xC2}, readMdtFields());
+    }
+
+    @Test
+    public void testSignedNumericKeepsSignPosition() {
+        fields.setField(0x20, 9, 19, 6, SHIFT_SIGNED_NUMERIC, 0, 0, 0);
+
+        screen.fillFields(FieldFill.builder().field(4, "-42").build());
+
+        assertEquals("   42-", fields.getField(4).getString());
+        assertArrayEquals(new byte[] {0x11, 10, 20, 0x40, 0x40, 0x40, (byte) 0xF4, (byte) 0xD2}, readMdtFields());
+    }
+
+    @Test
+    public void testRefusedValueLeavesScreenUnchanged() {
+        long version = screen.getVersion();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> screen.fillFields(FieldFill.builder()
+                        .field(0, "VALID")
+                        .field(2, "12A")
+                        .field(3, "X")
+                        .field(9, "Y")
+                        .build()));
+
+        assertTrue(e.getMessage().contains("field 2"), e.getMessage());
+        assertTrue(e.getMessage().contains("protected"), e.getMessage());
+        assertTrue(e.getMessage().contains("no such input field"), e.getMessage());
+        assertEquals("          ", fields.getField(0).getString());
+        assertFalse(fields.isMasterMDT());
+        assertEquals(version, screen.getVersion());
+    }
+
+    @Test
+    public void testLengthAndMandatoryEntryChecked() {
+        fields.setField(0x20, 9, 19, 4, 0, MANDATORY_ENTER, 0, 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> screen.fillFields(FieldFill.builder().field(1, "TOO LONG!").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> screen.fillFields(FieldFill.builder().field(4, "").build()));
+    }
+
+    @Test
+    public void testLockedKeyboardRefused() {
+        screen.getOIA().setKeyBoardLocked(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> screen.fillFields(FieldFill.builder().field(0, "X").build()));
+    }
+
+    @Test
+    @Timeout(30)
+    public void testSignOnWithOneAidKey() throws Exception {
+        List<HostInput> received = new CopyOnWriteArrayList<>();
+        HostScreen signOn = HostScreen.builder("SIGNON")
+                .highlighted(1, 36, "Sign On")
+                .text(6, 17, "User  . . . . . . . . . . . . . .")
+                .field(6, 53, 10)
+                .text(7, 17, "Password  . . . . . . . . . . . .")
+                .hiddenField(7, 53, 10)
+                .cursor(6, 53)
+                .build();
+        HostScreen menu = HostScreen.builder("MAIN")
+                .highlighted(1, 30, "IBM i Main Menu")
+                .field(20, 7, 60)
+                .cursor(20, 7)
+                .build();
+        try (HostSimulator host = HostSimulator.builder()
+                .script(HostScript.builder()
+                        .screen(signOn)
+                        .screen(menu)
+                        .when("SIGNON", input -> received.add(input)
+                                && input.getField(0).equals("QUSER")
+                                && input.getField(1).equals("SECRET"), "MAIN")
+                        .build())
+                .build()
+                .start()) {
+            Properties props = new Properties();
+            props.setProperty(HTI5250jConstants.SESSION_HOST, "127.0.0.1");
+            props.setProperty(HTI5250jConstants.SESSION_HOST_PORT, String.valueOf(host.getPort()));
+            props.setProperty(HTI5250jConstants.SESSION_TN_ENHANCED, "1");
+            HeadlessSession session = new DefaultHeadlessSessionFactory()
+                    .createSession("fill", "TN5250JDefaults.props", props);
+            CountDownLatch firstScreen = new CountDownLatch(1);
+            session.addSessionListener(event -> {
+                if (event.getState() == HTI5250jConstants.STATE_CONNECTED) {
+                    firstScreen.countDown();
+                }
+            });
+            try {
+                session.connect();
+                assertTrue(firstScreen.await(10, TimeUnit.SECONDS));
+                session.waitForKeyboardUnlock(5000);
+
+                session.getScreen().fillFields(FieldFill.builder()
+                        .label("User", "QUSER")
+                        .at(7, 53, "SECRET")
+                        .build(), HTI5250jConstants.AID_ENTER);
+                session.waitForKeyboardLockCycle(5000);
+
+                assertTrue(session.getScreenAsText().contains("IBM i Main Menu"));
+                assertEquals(1, host.getAidCount());
+                assertEquals(HTI5250jConstants.AID_ENTER, received.get(0).getAid());
+            } finally {
+                session.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbound records built by {@link GdsRecordEncoder} must be byte for byte
+ * what tnvt.writeGDS produced by escaping a copy of header and data.
+ */
+public class GdsRecordEncoderTest {
+
+    /**
+     * The former writeGDS: header, data, IAC doubling over the whole record, IAC EOR.
+     */
+    private static byte[] reference(int flags, int opcode, byte[] data) {
+        int length = data.length + 10;
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        raw.write(length >> 8);
+        raw.write(length & 0xff);
+        raw.write(0x12);
+        raw.write(0xA0);
+        raw.write(0);
+        raw.write(0);
+        raw.write(4);
+        raw.write(flags);
+        raw.write(0);
+        raw.write(opcode);
+        raw.write(data, 0, data.length);
+
+        ByteArrayOutputStream escaped = new ByteArrayOutputStream();
+        for (byte b : raw.toByteArray()) {
+            escaped.write(b);
+            if (b == -1) {
+                escaped.write(-1);
+            }
+        }
+        escaped.write(0xFF);
+        escaped.write(0xEF);
+        return escaped.toByteArray();
+    }
+
+    private static byte[] encode(GdsRecordEncoder encoder, int flags, int opcode, byte[] data) {
+        encoder.begin(flags, opcode);
+        encoder.write(data, 0, data.length);
+        ByteBuffer frame = encoder.finish();
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testAidRecordMatchesRfc1205Layout() throws IOException {
+        GdsRecordEncoder encoder = new GdsRecordEncoder();
+        encoder.begin(0, 3);
+        encoder.write(6);
+        encoder.write(53);
+        encoder.write(0xF1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        encoder.writeTo(out);
+
+        assertArrayEquals(new byte[] {
+                0x00, 0x0D, 0x12, (byte) 0xA0, 0x00, 0x00, 0x04, 0x00, 0x00, 0x03,
+                0x06, 0x35, (byte) 0xF1, (byte) 0xFF, (byte) 0xEF}, out.toByteArray());
+        assertEquals(13, encoder.size());
+    }
+
+    @Test
+    public void testIacInDataIsDoubledButNotCounted() {
+        GdsRecordEncoder encoder = new GdsRecordEncoder();
+        byte[] data = {0x11, (byte) 0xFF, 0x40, (byte) 0xFF, (byte) 0xFF};
+
+        assertArrayEquals(reference(0, 3, data), encode(encoder, 0, 3, data));
+        assertEquals(15, encoder.size());
+    }
+
+    @Test
+    public void testIacInLengthIsDoubled() {
+        byte[] data = new byte[0xFF - 10];
+
+        byte[] frame = encode(new GdsRecordEncoder(), 0, 0, data);
+
+        assertEquals(0x00, frame[0]);
+        assertEquals((byte) 0xFF, frame[1]);
+        assertEquals((byte) 0xFF, frame[2]);
+        assertArrayEquals(reference(0, 0, data), frame);
+    }
+
+    @Test
+    public void testIacInLengthAndFlagsIsDoubled() {
+        byte[] data = new byte[0xFFFF - 10];
+        new Random(1205).nextBytes(data);
+
+        byte[] frame = encode(new GdsRecordEncoder(), 0xFF, 3, data);
+
+        assertEquals((byte) 0xFF, frame[0]);
+        assertEquals((byte) 0xFF, frame[1]);
+        assertEquals((byte) 0xFF, frame[2]);
+        assertEquals((byte) 0xFF, frame[3]);
+        assertArrayEquals(reference(0xFF, 3, data), frame);
+    }
+
+    @Test
+    public void testNoDataRecord() {
+        assertArrayEquals(reference(0x40, 0, new byte[0]), encode(new GdsRecordEncoder(), 0x40, 0, new byte[0]));
+    }
+
+    @Test
+    public void testBufferGrowsAndIsReused() {
+        GdsRecordEncoder encoder = new GdsRecordEncoder(4);
+        Random random = new Random(5250);
+        for (int size : new int[] {0, 3, 100, 3564, 27 * 132, 17}) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            for (int i = 0; i < size; i += 7) {
+                data[i] = (byte) 0xFF;
+            }
+            assertArrayEquals(reference(0, 3, data), encode(encoder, 0, 3, data), "size " + size);
+        }
+    }
+
+    @Test
+    public void testSingleByteWritesMatchBulkWrites() {
+        byte[] data = new byte[600];
+        new Random(37).nextBytes(data);
+        GdsRecordEncoder encoder = new GdsRecordEncoder(1);
+        encoder.begin(128, 0);
+        for (byte b : data) {
+            encoder.write(b & 0xff);
+        }
+        ByteBuffer frame = encoder.finish();
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+
+        assertArrayEquals(reference(128, 0, data), bytes);
+    }
+}
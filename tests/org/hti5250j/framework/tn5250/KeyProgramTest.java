@@ -0,0 +1,97 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.keyboard.KeyMnemonic;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Key strings compiled once and typed with {@code sendKeys(KeyProgram)}.
+ */
+public class KeyProgramTest {
+
+    private static Screen5250 screenWithFields() {
+        Screen5250 screen = new Screen5250();
+        ScreenFields fields = screen.getScreenFields();
+        fields.setField(0x20, 3, 19, 10, 0, 0, 0, 0);
+        fields.setField(0x20, 4, 19, 8, 0, 0, 0, 0);
+        screen.getOIA().setKeyBoardLocked(false);
+        screen.goto_XY(screen.getPos(3, 19));
+        return screen;
+    }
+
+    @Test
+    public void testCompileSplitsCharactersAndMnemonics() {
+        KeyProgram program = KeyProgram.compile("WRK[enter]");
+
+        assertEquals(4, program.size());
+        assertEquals('W', program.charAt(0));
+        assertFalse(program.isMnemonic(2));
+        assertTrue(program.isMnemonic(3));
+        assertEquals(KeyMnemonic.ENTER.value, program.mnemonicAt(3));
+        assertEquals("[enter]", program.remainder(2));
+        assertNull(program.remainder(3));
+    }
+
+    @Test
+    public void testCompileEscapesBracketsAsKeyStrokenizerDoes() {
+        KeyProgram program = KeyProgram.compile("[[a]]b]c[nosuchkey]");
+
+        assertEquals(6, program.size());
+        assertEquals('[', program.charAt(0));
+        assertEquals('a', program.charAt(1));
+        assertEquals(']', program.charAt(2));
+        assertEquals('b', program.charAt(3));
+        // a lone ']' is ignored
+        assertEquals('c', program.charAt(4));
+        assertEquals(0, program.mnemonicAt(5));
+    }
+
+    @Test
+    public void testCompileRejectsUnclosedMnemonic() {
+        assertThrows(IllegalArgumentException.class, () -> KeyProgram.compile("abc[ent"));
+        assertThrows(IllegalArgumentException.class, () -> KeyProgram.compile(null));
+    }
+
+    @Test
+    public void testProgramsEqualByText() {
+        assertEquals(KeyProgram.compile("[pf3]"), KeyProgram.compile("[pf3]"));
+        assertNotEquals(KeyProgram.compile("[pf3]"), KeyProgram.compile("[pf4]"));
+    }
+
+    @Test
+    public void testSendKeysProgramTypesAsText() {
+        String keys = "smith[tab]C1001[[x";
+        Screen5250 typed = screenWithFields();
+        Screen5250 compiled = screenWithFields();
+
+        typed.sendKeys(keys);
+        compiled.sendKeys(KeyProgram.compile(keys));
+
+        assertArrayEquals(typed.getScreenAsChars(), compiled.getScreenAsChars());
+        assertEquals(typed.getLastPos(), compiled.getLastPos());
+        assertEquals(keys, compiled.getKeys());
+    }
+
+    @Test
+    public void testSendKeysProgramBuffersWhileLocked() {
+        Screen5250 screen = screenWithFields();
+        screen.getOIA().setKeyBoardLocked(true);
+
+        screen.sendKeys(KeyProgram.compile("abc"));
+        assertTrue(screen.getOIA().isKeysBuffered());
+
+        screen.getOIA().setKeyBoardLocked(false);
+        screen.sendKeys(KeyProgram.compile("de"));
+
+        assertFalse(screen.getOIA().isKeysBuffered());
+        String field = new String(screen.getScreenAsChars(), screen.getPos(3, 19), 5);
+        assertEquals("abcde", field);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.Session5250;
+import org.hti5250j.SessionConfig;
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.session.DefaultHeadlessSessionFactory;
+import org.hti5250j.simulator.HostScreen;
+import org.hti5250j.simulator.HostScript;
+import org.hti5250j.simulator.HostSimulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sessions on the multiplexed transport against the in-process host simulator.
+ */
+public class MultiplexedTransportTest {
+
+    private HostSimulator host;
+    private final List<HeadlessSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        HostScreen signOn = HostScreen.builder("SIGNON")
+                .highlighted(1, 36, "Sign On")
+                .text(6, 17, "User  . . . . . . . . . . . . . .")
+                .field(6, 53, 10)
+                .cursor(6, 53)
+                .build();
+        HostScreen menu = HostScreen.builder("MAIN")
+                .highlighted(1, 30, "IBM i Main Menu")
+                .field(20, 7, 60)
+                .cursor(20, 7)
+                .build();
+        host = HostSimulator.builder()
+                .script(HostScript.builder()
+                        .screen(signOn)
+                        .screen(menu)
+                        .on("SIGNON", HTI5250jConstants.AID_ENTER, "MAIN")
+                        .build())
+                .build()
+                .start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (HeadlessSession session : sessions) {
+            session.disconnect();
+        }
+        host.close();
+    }
+
+    private HeadlessSession session(int port, CountDownLatch firstScreen, CountDownLatch disconnected) {
+        Properties props = new Properties();
+        props.setProperty(HTI5250jConstants.SESSION_HOST, "127.0.0.1");
+        props.setProperty(HTI5250jConstants.SESSION_HOST_PORT, String.valueOf(port));
+        props.setProperty(HTI5250jConstants.SESSION_TN_ENHANCED, "1");
+        props.setProperty(HTI5250jConstants.SESSION_TRANSPORT, HTI5250jConstants.TRANSPORT_MULTIPLEXED);
+
+        HeadlessSession s = new DefaultHeadlessSessionFactory()
+                .createSession("mux" + sessions.size(), "TN5250JDefaults.props", props);
+        s.addSessionListener(event -> {
+            if (event.getState() == HTI5250jConstants.STATE_CONNECTED) {
+                firstScreen.countDown();
+            } else if (event.getState() == HTI5250jConstants.STATE_DISCONNECTED) {
+                disconnected.countDown();
+            }
+        });
+        sessions.add(s);
+        return s;
+    }
+
+    @Test
+    @Timeout(60)
+    public void testManySessionsShareTheEventLoops() throws Exception {
+        int count = 50;
+        int before = MultiplexedTransport.shared().getSessionCount();
+        CountDownLatch firstScreen = new CountDownLatch(count);
+        CountDownLatch disconnected = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            session(host.getPort(), firstScreen, disconnected).connect();
+        }
+
+        assertTrue(firstScreen.await(30, TimeUnit.SECONDS), "Not every session got its first screen");
+        assertEquals(before + count, MultiplexedTransport.shared().getSessionCount());
+        for (HeadlessSession s : sessions) {
+            s.waitForKeyboardUnlock(5000);
+            assertTrue(s.getScreenAsText().contains("Sign On"));
+        }
+
+        HeadlessSession first = sessions.get(0);
+        first.sendKeys("QUSER[enter]");
+        first.waitForKeyboardLockCycle(5000);
+        assertTrue(first.getScreenAsText().contains("IBM i Main Menu"));
+        assertTrue(sessions.get(1).getScreenAsText().contains("Sign On"));
+
+        for (HeadlessSession s : sessions) {
+            s.disconnect();
+        }
+        assertTrue(disconnected.await(10, TimeUnit.SECONDS));
+        assertEquals(before, MultiplexedTransport.shared().getSessionCount());
+    }
+
+    @Test
+    @Timeout(30)
+    public void testHostClosingConnectionDisconnectsSession() throws Exception {
+        CountDownLatch firstScreen = new CountDownLatch(1);
+        CountDownLatch disconnected = new CountDownLatch(1);
+        HeadlessSession s = session(host.getPort(), firstScreen, disconnected);
+        s.connect();
+        assertTrue(firstScreen.await(10, TimeUnit.SECONDS));
+
+        host.close();
+
+        assertTrue(disconnected.await(10, TimeUnit.SECONDS), "Session should see the host hang up");
+        assertFalse(s.isConnected());
+    }
+
+    @Test
+    @Timeout(30)
+    public void testRefusedConnectionDisconnectsSession() throws Exception {
+        int closedPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            closedPort = probe.getLocalPort();
+        }
+        CountDownLatch disconnected = new CountDownLatch(1);
+        HeadlessSession s = session(closedPort, new CountDownLatch(1), disconnected);
+
+        s.connect();
+
+        assertTrue(disconnected.await(10, TimeUnit.SECONDS), "Refused connect should end the session");
+        assertFalse(s.isConnected());
+    }
+
+    @Test
+    public void testSslSessionStaysThreaded() throws Exception {
+        Session5250 session = new Session5250(new Properties(), "TN5250JDefaults.props", "ssl",
+                new SessionConfig("TN5250JDefaults.props", "ssl"));
+        tnvt vt = new tnvt(session, new Screen5250(), true, false);
+        try (MultiplexedTransport transport = MultiplexedTransport.create(1)) {
+            vt.setTransport(transport);
+            assertTrue(vt.isMultiplexed());
+
+            vt.setSSLType(HTI5250jConstants.SSL_TYPE_TLS);
+            assertFalse(vt.isMultiplexed(), "SSL sessions need the blocking socket path");
+        }
+    }
+}
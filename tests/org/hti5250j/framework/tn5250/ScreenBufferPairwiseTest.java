@@ -15,6 +15,8 @@ import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 
+import static org.hti5250j.HTI5250jConstants.PLANE_COLOR;
+import static org.hti5250j.HTI5250jConstants.PLANE_EXTENDED;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -46,8 +48,6 @@ public class ScreenBufferPairwiseTest {
     private ScreenPlanes screenPlanes;
     private Screen5250TestDouble screen5250;
     private char[] screenBuffer;
-    private char[] colorBuffer;
-    private char[] extendedBuffer;
 
     // Screen size constants (dimension 1)
     private static final int SIZE_80x24 = 24;    // Standard: 80x24
@@ -134,8 +134,6 @@ public class ScreenBufferPairwiseTest {
         screenPlanes = new ScreenPlanes(screen5250, screenSize);
 
         screenBuffer = getPrivateField("screen", char[].class);
-        colorBuffer = getPrivateField("screenColor", char[].class);
-        extendedBuffer = getPrivateField("screenExtended", char[].class);
 
         // Initialize buffer to specified initial state
         initializeBufferState();
@@ -149,6 +147,15 @@ public class ScreenBufferPairwiseTest {
         return (T) field.get(screenPlanes);
     }
 
+    /**
+     * @return the number of positions GetScreen copies out of a plane
+     */
+    private int planeSize(int plane) {
+        char[] buffer = new char[screenBuffer.length + 100];
+        // the count includes a terminating null
+        return screenPlanes.GetScreen(buffer, buffer.length, plane) - 1;
+    }
+
     private int getScreenSizeInCells() {
         switch (screenSize) {
             case SIZE_80x24: return 80 * 24;
@@ -187,7 +194,6 @@ public class ScreenBufferPairwiseTest {
                 // All zeros (empty state)
                 for (int i = 0; i < screenSize; i++) {
                     screenBuffer[i] = '\0';
-                    colorBuffer[i] = '\0';
                 }
                 break;
 
@@ -195,11 +201,9 @@ public class ScreenBufferPairwiseTest {
                 // Half filled with test data
                 for (int i = 0; i < screenSize / 2; i++) {
                     screenBuffer[i] = (char) ('A' + (i % 26));
-                    colorBuffer[i] = (char) colorDepth;
                 }
                 for (int i = screenSize / 2; i < screenSize; i++) {
                     screenBuffer[i] = '\0';
-                    colorBuffer[i] = '\0';
                 }
                 break;
 
@@ -207,7 +211,6 @@ public class ScreenBufferPairwiseTest {
                 // Completely filled
                 for (int i = 0; i < screenSize; i++) {
                     screenBuffer[i] = (char) ('A' + (i % 26));
-                    colorBuffer[i] = (char) colorDepth;
                 }
                 break;
 
@@ -215,7 +218,6 @@ public class ScreenBufferPairwiseTest {
                 // Random/corrupted data with inconsistencies
                 for (int i = 0; i < screenSize; i++) {
                     screenBuffer[i] = (char) (0xFF - (i % 256));
-                    colorBuffer[i] = (char) ((i * 7) % 256); // Intentionally mismatched
                 }
                 break;
         }
@@ -246,11 +248,11 @@ public class ScreenBufferPairwiseTest {
         ,
             String.format("Screen buffer wrong size for %d cell screen", expectedSize));
 
-        assertEquals(expectedSize,colorBuffer.length
+        assertEquals(expectedSize,planeSize(PLANE_COLOR)
         ,
             String.format("Color buffer wrong size for %d cell screen", expectedSize));
 
-        assertEquals(expectedSize,extendedBuffer.length
+        assertEquals(expectedSize,planeSize(PLANE_EXTENDED)
         ,
             String.format("Extended buffer wrong size for %d cell screen", expectedSize));
     }
@@ -270,12 +272,10 @@ public class ScreenBufferPairwiseTest {
         }
 
         assertNotNull(screenBuffer,"Screen buffer should not be null");
-        assertNotNull(colorBuffer,"Color buffer should not be null");
-        assertNotNull(extendedBuffer,"Extended buffer should not be null");
 
         assertTrue(screenBuffer.length > 0,"Screen buffer should be non-empty");
-        assertTrue(colorBuffer.length > 0,"Color buffer should be non-empty");
-        assertTrue(extendedBuffer.length > 0,"Extended buffer should be non-empty");
+        assertTrue(planeSize(PLANE_COLOR) > 0,"Color buffer should be non-empty");
+        assertTrue(planeSize(PLANE_EXTENDED) > 0,"Extended buffer should be non-empty");
     }
 
     /**
@@ -293,9 +293,8 @@ public class ScreenBufferPairwiseTest {
         }
 
         // For allocated buffer, color initialization should match color depth
-        // (color depth affects how colors are stored in colorBuffer)
-        assertNotNull(colorBuffer,"Color buffer must be allocated");
-        assertTrue(colorBuffer.length > 0,"Color buffer must have content");
+        // (color depth affects how colors are stored in the color plane)
+        assertTrue(planeSize(PLANE_COLOR) > 0,"Color buffer must have content");
 
         // Sample first cell should reflect color depth setting
         if (colorDepth > 0) {
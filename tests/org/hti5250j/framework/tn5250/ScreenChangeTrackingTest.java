@@ -0,0 +1,141 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.event.ScreenChangeEvent;
+import org.hti5250j.event.ScreenChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Screen versions, per-row change stamps and row views for headless consumers.
+ */
+public class ScreenChangeTrackingTest {
+
+    private Screen5250 screen;
+    private final List<ScreenChangeEvent> events = new ArrayList<>();
+    private final ScreenChangeListener listener = events::add;
+
+    @BeforeEach
+    public void setUp() {
+        screen = new Screen5250();
+        // flush whatever the constructor left dirty
+        screen.updateDirty();
+        screen.addScreenChangeListener(listener);
+    }
+
+    private void write(int row, int col, String text) {
+        screen.goto_XY(screen.getPos(row, col));
+        for (char c : text.toCharArray()) {
+            screen.setChar(c);
+        }
+        screen.updateDirty();
+    }
+
+    @Test
+    public void testVersionAdvancesOncePerChange() {
+        long before = screen.getVersion();
+
+        write(5, 10, "HELLO");
+        write(7, 0, "WORLD");
+
+        assertEquals(before + 2, screen.getVersion());
+        assertEquals(2, events.size());
+        assertEquals(before + 1, events.get(0).getVersion());
+        assertEquals(before + 2, events.get(1).getVersion());
+        assertSame(screen, events.get(1).getSource());
+    }
+
+    @Test
+    public void testUpdateWithNothingDirtyIsNotAChange() {
+        write(5, 10, "HELLO");
+        long version = screen.getVersion();
+
+        screen.updateDirty();
+
+        assertEquals(version, screen.getVersion());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void testChangedRowsAreReportedAndStamped() {
+        long before = screen.getVersion();
+
+        write(5, 10, "HELLO");
+
+        ScreenChangeEvent event = events.get(0);
+        assertEquals(5, event.getStartRow());
+        assertEquals(5, event.getEndRow());
+        assertEquals(event.getVersion(), screen.getRowVersion(5));
+        assertTrue(screen.getRowVersion(4) <= before);
+        assertTrue(screen.getRowVersion(6) <= before);
+    }
+
+    @Test
+    public void testRowsChangedSinceAVersion() {
+        write(2, 0, "ONE");
+        long seen = screen.getVersion();
+        write(3, 0, "TWO");
+        write(20, 0, "THREE");
+
+        List<Integer> changed = new ArrayList<>();
+        for (int row = 0; row < screen.getRows(); row++) {
+            if (screen.getRowVersion(row) > seen) {
+                changed.add(row);
+            }
+        }
+
+        assertEquals(List.of(3, 20), changed);
+    }
+
+    @Test
+    public void testRowTextIsALiveViewWithScreenTextMapping() {
+        CharSequence row = screen.getRowText(5);
+        assertEquals(80, row.length());
+        assertEquals(' ', row.charAt(10));
+
+        write(5, 10, "HELLO");
+
+        assertEquals("HELLO", row.subSequence(10, 15).toString());
+        String screenText = new String(screen.getScreenAsChars());
+        assertEquals(screenText.substring(5 * 80, 6 * 80), row.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> row.charAt(80));
+        assertThrows(IndexOutOfBoundsException.class, () -> screen.getRowText(24));
+    }
+
+    @Test
+    public void testSizeChangeStampsEveryRow() {
+        screen.setRowsCols(27, 132);
+
+        long version = screen.getVersion();
+        ScreenChangeEvent event = events.get(events.size() - 1);
+        assertEquals(0, event.getStartRow());
+        assertEquals(26, event.getEndRow());
+        for (int row = 0; row < 27; row++) {
+            assertEquals(version, screen.getRowVersion(row));
+        }
+        assertEquals(132, screen.getRowText(26).length());
+    }
+
+    @Test
+    public void testRemovedListenerIsNotCalled() {
+        screen.removeScreenChangeListener(listener);
+
+        write(5, 10, "HELLO");
+
+        assertTrue(events.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> screen.addScreenChangeListener(null));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Position lookups through the format table's index must find the field a
+ * scan of the table in order would find.
+ */
+public class ScreenFieldsIndexTest {
+
+    private static final int CURSOR_PROGRESSION = 0x88;
+
+    private Screen5250 screen;
+    private ScreenFields fields;
+
+    @BeforeEach
+    public void setUp() {
+        screen = new Screen5250();
+        fields = screen.getScreenFields();
+    }
+
+    private ScreenField scan(int pos) {
+        for (ScreenField sf : fields.getFields()) {
+            if (sf.withinField(pos)) {
+                return sf;
+            }
+        }
+        return null;
+    }
+
+    private void assertMatchesScan() {
+        for (int pos = -1; pos <= screen.getScreenLength(); pos++) {
+            assertSame(scan(pos), fields.findByPosition(pos), "position " + pos);
+        }
+    }
+
+    @Test
+    public void testLookupMatchesScanOfTable() {
+        Random random = new Random(5250);
+        for (int i = 0; i < 150; i++) {
+            fields.setField(0x20, random.nextInt(24), random.nextInt(80), 1 + random.nextInt(12), 0, 0, 0, 0);
+        }
+
+        assertMatchesScan();
+    }
+
+    @Test
+    public void testOverlappingFieldsResolveToTheFirst() {
+        ScreenField first = fields.setField(0x20, 4, 10, 20, 0, 0, 0, 0);
+        ScreenField second = fields.setField(0x20, 4, 20, 20, 0, 0, 0, 0);
+
+        assertSame(first, fields.findByPosition(4, 25));
+        assertSame(second, fields.findByPosition(4, 35));
+        assertNull(fields.findByPosition(4, 40));
+    }
+
+    @Test
+    public void testFieldWrappingRowsAndScreenEnd() {
+        ScreenField wrapping = fields.setField(0x20, 5, 75, 10, 0, 0, 0, 0);
+        ScreenField last = fields.setField(0x20, 23, 75, 10, 0, 0, 0, 0);
+
+        assertSame(wrapping, fields.findByPosition(6, 4));
+        assertSame(last, fields.findByPosition(screen.getScreenLength() - 1));
+        assertSame(last, fields.findByPosition(screen.getScreenLength() + 4));
+        assertNull(fields.findByPosition(screen.getScreenLength() + 5));
+    }
+
+    @Test
+    public void testClearedTableHasNoFields() {
+        fields.setField(0x20, 2, 10, 10, 0, 0, 0, 0);
+        fields.clearFFT();
+
+        assertNull(fields.findByPosition(2, 12));
+        assertFalse(fields.existsAtPos(screen.getPos(2, 10)));
+
+        ScreenField replacement = fields.setField(0x20, 2, 15, 10, 0, 0, 0, 0);
+        assertNull(fields.findByPosition(2, 12));
+        assertSame(replacement, fields.findByPosition(2, 20));
+        assertMatchesScan();
+    }
+
+    @Test
+    public void testExistsAtPosMakesFieldCurrent() {
+        ScreenField first = fields.setField(0x20, 2, 10, 10, 0, 0, 0, 0);
+        fields.setField(0x20, 3, 10, 10, 0, 0, 0, 0);
+
+        assertTrue(fields.existsAtPos(screen.getPos(2, 10)));
+        assertSame(first, fields.getCurrentField());
+        assertFalse(fields.existsAtPos(screen.getPos(2, 11)));
+    }
+
+    @Test
+    public void testIndexCoversResizedScreen() {
+        screen.setRowsCols(27, 132);
+        ScreenField bottom = fields.setField(0x20, 26, 100, 20, 0, 0, 0, 0);
+
+        assertSame(bottom, fields.findByPosition(26, 110));
+        assertMatchesScan();
+    }
+
+    @Test
+    public void testFieldExitFollowsCursorProgression() {
+        ScreenField first = fields.setField(0x20, 2, 10, 5, 0, 0, CURSOR_PROGRESSION, 3);
+        fields.setField(0x20, 3, 10, 5, 0, 0, 0, 0);
+        ScreenField third = fields.setField(0x20, 4, 10, 5, 0, 0, 0, 0);
+        screen.getOIA().setKeyBoardLocked(false);
+        screen.gotoField(first);
+        assertTrue(fields.isInField(screen.getLastPos(), true));
+
+        fields.gotoFieldNext();
+
+        assertSame(third, fields.getCurrentField());
+        assertEquals(third.startPos(), screen.getLastPos());
+    }
+}
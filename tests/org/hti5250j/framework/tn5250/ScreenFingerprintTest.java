@@ -0,0 +1,125 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Incremental screen fingerprints and naming screens by them.
+ */
+public class ScreenFingerprintTest {
+
+    private static final ScreenRegion TIME = new ScreenRegion(1, 70, 8);
+
+    private static void write(Screen5250 screen, int row, int col, String text) {
+        screen.goto_XY(screen.getPos(row - 1, col - 1));
+        for (char c : text.toCharArray()) {
+            screen.setChar(c);
+        }
+    }
+
+    private static Screen5250 mainMenu(String time) {
+        Screen5250 screen = new Screen5250();
+        write(screen, 1, 30, "MAIN MENU");
+        write(screen, 1, 70, time);
+        write(screen, 20, 2, "Selection or command");
+        return screen;
+    }
+
+    @Test
+    public void testSameScreenSameFingerprintWhateverTheWriteOrder() {
+        Screen5250 forward = mainMenu("10:15:00");
+        Screen5250 backward = new Screen5250();
+        write(backward, 20, 2, "Selection or command");
+        write(backward, 1, 70, "10:15:00");
+        write(backward, 1, 30, "MAIN MENU");
+
+        assertEquals(forward.getFingerprint(), backward.getFingerprint());
+        assertNotEquals(new Screen5250().getFingerprint(), forward.getFingerprint());
+    }
+
+    @Test
+    public void testUndoingAWriteRestoresTheFingerprint() {
+        Screen5250 screen = mainMenu("10:15:00");
+        long fingerprint = screen.getFingerprint();
+
+        write(screen, 20, 2, "X");
+        assertNotEquals(fingerprint, screen.getFingerprint());
+        write(screen, 20, 2, "S");
+
+        assertEquals(fingerprint, screen.getFingerprint());
+    }
+
+    @Test
+    public void testNullsCountAsBlanks() {
+        Screen5250 blanks = new Screen5250();
+        write(blanks, 5, 1, "    ");
+
+        assertEquals(new Screen5250().getFingerprint(), blanks.getFingerprint());
+    }
+
+    @Test
+    public void testAttributesArePartOfTheFingerprint() {
+        Screen5250 normal = mainMenu("10:15:00");
+        Screen5250 reverse = mainMenu("10:15:00");
+        reverse.getPlanes().setScreenAttr(reverse.getPos(19, 1), 33);
+
+        assertNotEquals(normal.getFingerprint(), reverse.getFingerprint());
+    }
+
+    @Test
+    public void testClearingReturnsToTheEmptyFingerprint() {
+        Screen5250 screen = mainMenu("10:15:00");
+
+        screen.getPlanes().initalizePlanes();
+
+        assertEquals(new Screen5250().getFingerprint(), screen.getFingerprint());
+    }
+
+    @Test
+    public void testMaskedRegionsAreLeftOut() {
+        Screen5250 morning = mainMenu("10:15:00");
+        Screen5250 evening = mainMenu("18:42:07");
+
+        assertNotEquals(morning.getFingerprint(), evening.getFingerprint());
+        assertEquals(morning.getFingerprint(TIME), evening.getFingerprint(TIME));
+        assertEquals(morning.getFingerprint(TIME), morning.getFingerprint(TIME, TIME, new ScreenRegion(1, 72, 2)));
+        assertEquals(morning.getFingerprint(), morning.getFingerprint(new ScreenRegion(30, 1, 5)));
+    }
+
+    @Test
+    public void testRegistryNamesScreensDespiteMaskedText() {
+        ScreenRegistry registry = new ScreenRegistry();
+        registry.register("MAIN", mainMenu("10:15:00"), TIME);
+        Screen5250 signOn = new Screen5250();
+        write(signOn, 1, 36, "Sign On");
+        registry.register("SIGNON", signOn);
+
+        assertEquals("MAIN", registry.identify(mainMenu("18:42:07")));
+        assertEquals("SIGNON", registry.identify(signOn));
+        assertEquals(2, registry.size());
+
+        Screen5250 other = mainMenu("18:42:07");
+        write(other, 20, 2, "Command entry");
+        assertNull(registry.identify(other));
+    }
+
+    @Test
+    public void testRegistryRejectsTwoNamesForOneScreen() {
+        ScreenRegistry registry = new ScreenRegistry();
+        registry.register("MAIN", mainMenu("10:15:00"), TIME);
+        registry.register("MAIN", mainMenu("11:00:00"), TIME);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register("MENU", mainMenu("12:00:00"), TIME));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the condition-based keyboard waits on ScreenOIA.
+ */
+public class ScreenOIAKeyboardWaitTest {
+
+    private Screen5250 screen;
+    private ScreenOIA oia;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        screen = new Screen5250();
+        oia = screen.getOIA();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUnlockedKeyboardReturnsImmediately() throws Exception {
+        oia.setKeyBoardLocked(false);
+
+        assertTrue(oia.awaitKeyboardUnlocked(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testLockedKeyboardTimesOut() throws Exception {
+        oia.setKeyBoardLocked(true);
+
+        long start = System.nanoTime();
+        assertFalse(oia.awaitKeyboardUnlocked(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @Timeout(5)
+    public void testUnlockWakesWaiter() throws Exception {
+        oia.setKeyBoardLocked(true);
+
+        Future<Boolean> waiter = executor.submit(() -> oia.awaitKeyboardUnlocked(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        assertFalse(waiter.isDone(), "Waiter should park while the keyboard is locked");
+
+        oia.setKeyBoardLocked(false);
+
+        assertTrue(waiter.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @Timeout(5)
+    public void testLockWakesWaiter() throws Exception {
+        oia.setKeyBoardLocked(false);
+
+        Future<Boolean> waiter = executor.submit(() -> oia.awaitKeyboardLocked(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+
+        oia.setKeyBoardLocked(true);
+
+        assertTrue(waiter.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @Timeout(5)
+    public void testLockAndUnlockDuringWaitIsNotMissed() throws Exception {
+        oia.setKeyBoardLocked(false);
+
+        Future<Boolean> waiter = executor.submit(() -> oia.awaitKeyboardLocked(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+
+        oia.setKeyBoardLocked(true);
+        oia.setKeyBoardLocked(false);
+
+        assertTrue(waiter.get(1, TimeUnit.SECONDS));
+        assertFalse(oia.isKeyBoardLocked());
+    }
+
+    @Test
+    @Timeout(5)
+    public void testLockAndUnlockBeforeWaitIsSeenSinceCount() throws Exception {
+        oia.setKeyBoardLocked(false);
+        long before = oia.getKeyboardLockCount();
+
+        // the host locks and unlocks before the caller starts waiting
+        oia.setKeyBoardLocked(true);
+        oia.setKeyBoardLocked(false);
+
+        assertEquals(before + 1, oia.getKeyboardLockCount());
+        assertTrue(oia.awaitKeyboardLocked(before, 5, TimeUnit.SECONDS));
+        assertFalse(oia.awaitKeyboardLocked(oia.getKeyboardLockCount(), 20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testNoLockTimesOut() throws Exception {
+        oia.setKeyBoardLocked(false);
+
+        assertFalse(oia.awaitKeyboardLocked(20, TimeUnit.MILLISECONDS));
+    }
+}
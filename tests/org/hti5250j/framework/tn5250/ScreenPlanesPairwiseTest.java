@@ -15,6 +15,11 @@ import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 
+import static org.hti5250j.HTI5250jConstants.PLANE_ATTR;
+import static org.hti5250j.HTI5250jConstants.PLANE_COLOR;
+import static org.hti5250j.HTI5250jConstants.PLANE_EXTENDED;
+import static org.hti5250j.HTI5250jConstants.PLANE_EXTENDED_GRAPHIC;
+import static org.hti5250j.HTI5250jConstants.PLANE_IS_ATTR_PLACE;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -42,9 +47,6 @@ public class ScreenPlanesPairwiseTest {
     // Instance variables
     private ScreenPlanes screenPlanes;
     private Screen5250TestDouble screen5250;
-    private char[] screenGUI;
-    private char[] screenAttr;
-    private char[] screenIsAttr;
     private char[] screen;
 
     // Screen size constants
@@ -119,9 +121,15 @@ public class ScreenPlanesPairwiseTest {
         screenPlanes = new ScreenPlanes(screen5250, screenSize);
 
         screen = getPrivateField("screen", char[].class);
-        screenGUI = getPrivateField("screenGUI", char[].class);
-        screenAttr = getPrivateField("screenAttr", char[].class);
-        screenIsAttr = getPrivateField("screenIsAttr", char[].class);
+    }
+
+    /**
+     * @return the number of positions GetScreen copies out of a plane
+     */
+    private int planeSize(int plane) {
+        char[] buffer = new char[screen.length + 100];
+        // the count includes a terminating null
+        return screenPlanes.GetScreen(buffer, buffer.length, plane) - 1;
     }
 
     @SuppressWarnings("unchecked")
@@ -191,17 +199,12 @@ public class ScreenPlanesPairwiseTest {
         // Change character (should mark as changed)
         screenPlanes.setChar(pos, testChar);
 
-        // Verify change was recorded (using reflection)
-        try {
-            char[] screenIsChanged = getPrivateField("screenIsChanged", char[].class);
-            // If character differs, position should be marked as changed
-            if (testChar != 'A') {
-                assertTrue(screenIsChanged[pos] == '1'
-                ,
-                    String.format("Position %d should be marked as changed when char differs", pos));
-            }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            fail("Could not access screenIsChanged field: " + e.getMessage());
+        // Verify change was recorded
+        // If character differs, position should be marked as changed
+        if (testChar != 'A') {
+            assertTrue(screenPlanes.isChanged(pos)
+            ,
+                String.format("Position %d should be marked as changed when char differs", pos));
         }
     }
 
@@ -248,24 +251,17 @@ public class ScreenPlanesPairwiseTest {
 
         screenPlanes.setScreenAttr(pos, testAttr);
 
-        try {
-            char[] screenColor = getPrivateField("screenColor", char[].class);
-            char[] screenExtended = getPrivateField("screenExtended", char[].class);
-
-            // Attributes should map to color and extended planes
-            // (color/extended value depends on attribute value, tested implicitly)
-            assertNotNull(screenColor,"screenColor should be populated");
-            assertNotNull(screenExtended,"screenExtended should be populated");
-
-            // For non-zero attribute, disperseAttribute should update color plane
-            if (testAttr > 0) {
-                // Just verify the planes were updated without null checks
-                assertTrue(screenColor[pos] >= 0
-                ,
-                    "Attribute dispersal should update color plane");
-            }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            fail("Could not access color/extended fields: " + e.getMessage());
+        // Attributes should map to color and extended planes
+        // (color/extended value depends on attribute value, tested implicitly)
+        assertEquals(screen.length, planeSize(PLANE_COLOR),"screenColor should be populated");
+        assertEquals(screen.length, planeSize(PLANE_EXTENDED),"screenExtended should be populated");
+
+        // For non-zero attribute, disperseAttribute should update color plane
+        if (testAttr > 0) {
+            // Just verify the planes were updated without null checks
+            assertTrue(screenPlanes.getColor(pos) >= 0
+            ,
+                "Attribute dispersal should update color plane");
         }
     }
 
@@ -285,19 +281,14 @@ public class ScreenPlanesPairwiseTest {
 
         int pos = convertRowColToPos(testRow, testCol);
 
-        // Set a GUI value via reflection
-        try {
-            char[] screenGUIArray = getPrivateField("screenGUI", char[].class);
-            int testGUIValue = (testChar & 0x0F); // Use low 4 bits of test char
-            screenGUIArray[pos] = (char) testGUIValue;
+        // Set a GUI value
+        int testGUIValue = (testChar & 0x0F); // Use low 4 bits of test char
+        screenPlanes.setUseGUI(pos, testGUIValue);
 
-            // Verify getWhichGUI returns the set value
-            assertEquals(testGUIValue,screenPlanes.getWhichGUI(pos)
-            ,
-                String.format("GUI value not retrieved correctly at pos %d", pos));
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            fail("Could not access screenGUI field: " + e.getMessage());
-        }
+        // Verify getWhichGUI returns the set value
+        assertEquals(testGUIValue,screenPlanes.getWhichGUI(pos)
+        ,
+            String.format("GUI value not retrieved correctly at pos %d", pos));
     }
 
     /**
@@ -393,15 +384,15 @@ public class ScreenPlanesPairwiseTest {
         ,
             String.format("Screen array size incorrect for %dx%d", expectedRows, expectedCols));
 
-        assertEquals(expectedSize,screenGUI.length
+        assertEquals(expectedSize,planeSize(PLANE_EXTENDED_GRAPHIC)
         ,
             String.format("ScreenGUI array size incorrect for %dx%d", expectedRows, expectedCols));
 
-        assertEquals(expectedSize,screenAttr.length
+        assertEquals(expectedSize,planeSize(PLANE_ATTR)
         ,
             String.format("ScreenAttr array size incorrect for %dx%d", expectedRows, expectedCols));
 
-        assertEquals(expectedSize,screenIsAttr.length
+        assertEquals(expectedSize,planeSize(PLANE_IS_ATTR_PLACE)
         ,
             String.format("ScreenIsAttr array size incorrect for %dx%d", expectedRows, expectedCols));
     }
@@ -627,30 +618,18 @@ public class ScreenPlanesPairwiseTest {
 
         int pos = convertRowColToPos(testRow, testCol);
 
-        try {
-            char[] screenColorArray = getPrivateField("screenColor", char[].class);
-            char[] screenExtendedArray = getPrivateField("screenExtended", char[].class);
-
-            // Set character and attribute
-            screenPlanes.setChar(pos, testChar);
-            screenPlanes.setScreenAttr(pos, testAttr);
-
-            // Verify no plane is null and all have same length
-            assertNotNull(screen,"Screen array should not be null");
-            assertNotNull(screenGUI,"ScreenGUI should not be null");
-            assertNotNull(screenAttr,"ScreenAttr should not be null");
-            assertNotNull(screenColorArray,"ScreenColor should not be null");
-            assertNotNull(screenExtendedArray,"ScreenExtended should not be null");
-
-            assertTrue(screen.length == screenGUI.length &&
-                screen.length == screenAttr.length &&
-                screen.length == screenColorArray.length &&
-                screen.length == screenExtendedArray.length
-            ,
-                "All planes should have same length");
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            fail("Could not verify plane consistency: " + e.getMessage());
-        }
+        // Set character and attribute
+        screenPlanes.setChar(pos, testChar);
+        screenPlanes.setScreenAttr(pos, testAttr);
+
+        // Verify all planes cover the same positions
+        assertNotNull(screen,"Screen array should not be null");
+        assertTrue(screen.length == planeSize(PLANE_EXTENDED_GRAPHIC) &&
+            screen.length == planeSize(PLANE_ATTR) &&
+            screen.length == planeSize(PLANE_COLOR) &&
+            screen.length == planeSize(PLANE_EXTENDED)
+        ,
+            "All planes should have same length");
     }
 
     /**
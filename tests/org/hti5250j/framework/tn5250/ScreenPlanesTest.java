@@ -13,8 +13,6 @@ package org.hti5250j.framework.tn5250;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -37,10 +35,6 @@ public class ScreenPlanesTest {
     private static final int NUM_COLS_80 = 80;
     private static final int ERROR_LINE_ROW = 24; // Last row by default
 
-    private char[] screenGUI;
-    private char[] screenAttr;
-    private char[] screenIsAttr;
-
     /**
      * Test double for Screen5250 with minimal implementation
      */
@@ -83,26 +77,10 @@ public class ScreenPlanesTest {
     }
 
     @BeforeEach
-    public void setUp() throws NoSuchFieldException, IllegalAccessException {
+    public void setUp() {
         // Create ScreenPlanes with test double
         screen5250 = new Screen5250TestDouble();
         screenPlanes = new ScreenPlanes(screen5250, SCREEN_SIZE_24);
-
-        // Use reflection to access private fields for testing
-        screenGUI = getPrivateField("screenGUI", char[].class);
-        screenAttr = getPrivateField("screenAttr", char[].class);
-        screenIsAttr = getPrivateField("screenIsAttr", char[].class);
-    }
-
-    /**
-     * Helper to access private fields via reflection
-     */
-    @SuppressWarnings("unchecked")
-    private <T> T getPrivateField(String fieldName, Class<T> fieldType)
-            throws NoSuchFieldException, IllegalAccessException {
-        Field field = ScreenPlanes.class.getDeclaredField(fieldName);
-        field.setAccessible(true);
-        return (T) field.get(screenPlanes);
     }
 
     /**
@@ -119,18 +97,16 @@ public class ScreenPlanesTest {
     public void testRestoreErrorLineRestoresAllColumns() {
         // Initialize screen content with distinctive values
         char testChar = 'X';
-        char testAttr = 42;
-        char testIsAttr = 1;
-        char testGUI = 7;
+        int testAttr = 42;
+        boolean testIsAttr = true;
+        int testGUI = 7;
 
         int errorLineStartPos = (ERROR_LINE_ROW - 1) * NUM_COLS_80;
 
         // Fill the error line in all internal arrays
         for (int i = 0; i < NUM_COLS_80; i++) {
-            screenPlanes.screen[errorLineStartPos + i] = testChar;
-            screenAttr[errorLineStartPos + i] = testAttr;
-            screenIsAttr[errorLineStartPos + i] = testIsAttr;
-            screenGUI[errorLineStartPos + i] = testGUI;
+            screenPlanes.setScreenCharAndAttr(errorLineStartPos + i, testChar, testAttr, testIsAttr);
+            screenPlanes.setUseGUI(errorLineStartPos + i, testGUI);
         }
 
         // Save the error line
@@ -139,8 +115,8 @@ public class ScreenPlanesTest {
         // Corrupt the screen content to verify restore works
         for (int i = 0; i < NUM_COLS_80; i++) {
             screenPlanes.screen[errorLineStartPos + i] = ' ';
-            screenAttr[errorLineStartPos + i] = 32; // Green normal
-            screenGUI[errorLineStartPos + i] = 0;   // NO_GUI
+            screenPlanes.setScreenAttr(errorLineStartPos + i, 32); // Green normal
+            screenPlanes.setUseGUI(errorLineStartPos + i, 0);   // NO_GUI
         }
 
         // Restore the error line
@@ -154,12 +130,12 @@ public class ScreenPlanesTest {
             ,
                 "Column " + i + " was not properly restored to screen array");
             assertEquals(testAttr,
-                screenAttr[errorLineStartPos + i]
+                screenPlanes.getCharAttr(errorLineStartPos + i)
             ,
                 "Column " + i + " was not properly restored to screenAttr array. "
                     + "BUG: Line 155 skips last column with 'x < numCols - 1'");
             assertEquals(testIsAttr,
-                screenIsAttr[errorLineStartPos + i]
+                screenPlanes.isAttributePlace(errorLineStartPos + i)
             ,
                 "Column " + i + " was not properly restored to screenIsAttr array");
         }
@@ -179,18 +155,18 @@ public class ScreenPlanesTest {
     @Test
     public void testRestoreErrorLineUsesCorrectGuiArrayOffset() {
         // Initialize with distinctive GUI values at the error line row
-        char errorLineGUI = 5;
-        char otherGUI = 1;
+        int errorLineGUI = 5;
+        int otherGUI = 1;
 
         int errorLineStartPos = (ERROR_LINE_ROW - 1) * NUM_COLS_80;
 
         // Set the error line GUI plane to distinctive value
         for (int i = 0; i < NUM_COLS_80; i++) {
-            screenGUI[errorLineStartPos + i] = errorLineGUI;
+            screenPlanes.setUseGUI(errorLineStartPos + i, errorLineGUI);
 
             // Fill the beginning of the screen with different values
             // to detect if the bug causes wrong indexing
-            screenGUI[i] = otherGUI;
+            screenPlanes.setUseGUI(i, otherGUI);
         }
 
         // Save the error line
@@ -198,7 +174,7 @@ public class ScreenPlanesTest {
 
         // Corrupt the error line GUI values
         for (int i = 0; i < NUM_COLS_80; i++) {
-            screenGUI[errorLineStartPos + i] = 0;
+            screenPlanes.setUseGUI(errorLineStartPos + i, 0);
         }
 
         // Restore the error line
@@ -211,7 +187,7 @@ public class ScreenPlanesTest {
             int correctPos = errorLineStartPos + col;
 
             assertEquals(errorLineGUI,
-                screenGUI[correctPos]
+                screenPlanes.getWhichGUI(correctPos)
             ,
                 "GUI at column " + col + " of error line (pos " + correctPos
                     + ") was not restored correctly. "
@@ -219,7 +195,7 @@ public class ScreenPlanesTest {
 
             // Also verify that the beginning of the screen was not corrupted
             assertEquals(otherGUI,
-                screenGUI[col]
+                screenPlanes.getWhichGUI(col)
             ,
                 "GUI at position " + col + " (start of screen) should not be overwritten");
         }
@@ -240,19 +216,19 @@ public class ScreenPlanesTest {
     @Test
     public void testRestoreErrorLineLastColumnGuiRestoration() {
         int lastCol = NUM_COLS_80 - 1; // Index 79
-        char lastColGUI = 9;
+        int lastColGUI = 9;
 
         int errorLineStartPos = (ERROR_LINE_ROW - 1) * NUM_COLS_80;
         int lastColPos = errorLineStartPos + lastCol; // Position 1919 (23*80 + 79)
 
         // Set distinctive value at the last column
-        screenGUI[lastColPos] = lastColGUI;
+        screenPlanes.setUseGUI(lastColPos, lastColGUI);
 
         // Save the error line
         screenPlanes.saveErrorLine();
 
         // Corrupt the last column GUI value
-        screenGUI[lastColPos] = 0;
+        screenPlanes.setUseGUI(lastColPos, 0);
 
         // Restore the error line
         screenPlanes.restoreErrorLine();
@@ -262,7 +238,7 @@ public class ScreenPlanesTest {
         // Line 155: for (int x = 0; x < numCols - 1; x++)
         //           ==================^ skips when x = 79
         assertEquals(lastColGUI,
-            screenGUI[lastColPos]
+            screenPlanes.getWhichGUI(lastColPos)
         ,
             "Last column (index " + lastCol + ", pos " + lastColPos
                 + ") GUI was not restored. "
@@ -282,10 +258,8 @@ public class ScreenPlanesTest {
         // Initialize error line with pattern that varies by column
         for (int col = 0; col < NUM_COLS_80; col++) {
             int pos = errorLineStartPos + col;
-            screenPlanes.screen[pos] = (char) ('A' + (col % 26));
-            screenAttr[pos] = (char) (32 + (col % 10));
-            screenIsAttr[pos] = (char) ((col % 2) == 0 ? 1 : 0);
-            screenGUI[pos] = (char) ((col + 1) % 10);
+            screenPlanes.setScreenCharAndAttr(pos, (char) ('A' + (col % 26)), 32 + (col % 10), (col % 2) == 0);
+            screenPlanes.setUseGUI(pos, (col + 1) % 10);
         }
 
         // Save the error line
@@ -294,10 +268,8 @@ public class ScreenPlanesTest {
         // Clear the error line
         for (int col = 0; col < NUM_COLS_80; col++) {
             int pos = errorLineStartPos + col;
-            screenPlanes.screen[pos] = ' ';
-            screenAttr[pos] = 32;
-            screenIsAttr[pos] = '0';
-            screenGUI[pos] = 0;
+            screenPlanes.setScreenCharAndAttr(pos, ' ', 32, false);
+            screenPlanes.setUseGUI(pos, 0);
         }
 
         // Restore the error line
@@ -312,18 +284,18 @@ public class ScreenPlanesTest {
             ,
                 "Column " + col + ": character not restored");
 
-            assertEquals((char) (32 + (col % 10)),
-                screenAttr[pos]
+            assertEquals(32 + (col % 10),
+                screenPlanes.getCharAttr(pos)
             ,
                 "Column " + col + ": attribute not restored");
 
-            assertEquals((char) ((col % 2) == 0 ? 1 : 0),
-                screenIsAttr[pos]
+            assertEquals((col % 2) == 0,
+                screenPlanes.isAttributePlace(pos)
             ,
                 "Column " + col + ": isAttr not restored");
 
-            assertEquals((char) ((col + 1) % 10),
-                screenGUI[pos]
+            assertEquals((col + 1) % 10,
+                screenPlanes.getWhichGUI(pos)
             ,
                 "Column " + col + ": GUI not restored at correct offset. "
                     + "BUG: Line 158 writes to screenGUI[x] instead of screenGUI[r + x]");
@@ -342,7 +314,7 @@ public class ScreenPlanesTest {
 
         // Initialize with pattern
         for (int col = 0; col < NUM_COLS_80; col++) {
-            screenGUI[errorLineStartPos + col] = (char) (col % 256);
+            screenPlanes.setUseGUI(errorLineStartPos + col, col % 256);
         }
 
         // Save the error line
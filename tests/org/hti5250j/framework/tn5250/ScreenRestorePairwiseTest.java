@@ -18,6 +18,9 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Stack;
 
+import static org.hti5250j.HTI5250jConstants.PLANE_ATTR;
+import static org.hti5250j.HTI5250jConstants.PLANE_EXTENDED_GRAPHIC;
+import static org.hti5250j.HTI5250jConstants.PLANE_IS_ATTR_PLACE;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -87,9 +90,6 @@ public class ScreenRestorePairwiseTest {
     private ScreenPlanes screenPlanes;
     private Screen5250TestDouble screen5250;
     private char[] screen;
-    private char[] screenAttr;
-    private char[] screenIsAttr;
-    private char[] screenGUI;
     private Stack<ScreenState> saveStack;
     private int currentErrorState;
 
@@ -140,9 +140,6 @@ public class ScreenRestorePairwiseTest {
         screenPlanes = new ScreenPlanes(screen5250, SIZE_24);
 
         screen = getPrivateField("screen", char[].class);
-        screenAttr = getPrivateField("screenAttr", char[].class);
-        screenIsAttr = getPrivateField("screenIsAttr", char[].class);
-        screenGUI = getPrivateField("screenGUI", char[].class);
 
         saveStack = new Stack<>();
         currentErrorState = ERROR_NONE;
@@ -153,15 +150,13 @@ public class ScreenRestorePairwiseTest {
     private void initializeTestScreen() {
         for (int i = 0; i < screen.length; i++) {
             screen[i] = (char) ('A' + (i % 26));
-            screenAttr[i] = (char) ATTR_NORMAL;
-            screenIsAttr[i] = (char) 0;
-            screenGUI[i] = (char) 0;
+            screenPlanes.setScreenAttr(i, ATTR_NORMAL, false);
         }
 
         int errorLineStart = screen5250.getPos(ERROR_LINE_24 - 1, 0);
         for (int i = 0; i < 80; i++) {
             screen[errorLineStart + i] = 'E';
-            screenAttr[errorLineStart + i] = (char) ATTR_UNDERLINE;
+            screenPlanes.setScreenAttr(errorLineStart + i, ATTR_UNDERLINE);
         }
     }
 
@@ -173,7 +168,7 @@ public class ScreenRestorePairwiseTest {
         setUp();
         int errorLineStart = screen5250.getPos(ERROR_LINE_24 - 1, 0);
         char originalChar = screen[errorLineStart];
-        int originalAttr = screenAttr[errorLineStart];
+        int originalAttr = screenPlanes.getCharAttr(errorLineStart);
 
         screenPlanes.saveErrorLine();
 
@@ -262,11 +257,11 @@ public class ScreenRestorePairwiseTest {
         }
 
         int errorLineStart = screen5250.getPos(ERROR_LINE_24 - 1, 0);
-        int originalAttr = screenAttr[errorLineStart];
+        int originalAttr = screenPlanes.getCharAttr(errorLineStart);
 
-        screenAttr[errorLineStart] = (char) ATTR_REVERSE;
+        screenPlanes.setScreenAttr(errorLineStart, ATTR_REVERSE);
         screenPlanes.saveErrorLine();
-        screenAttr[errorLineStart] = (char) ATTR_NORMAL;
+        screenPlanes.setScreenAttr(errorLineStart, ATTR_NORMAL);
         screenPlanes.restoreErrorLine();
 
         assertFalse(screenPlanes.isErrorLineSaved()
@@ -655,12 +650,12 @@ public class ScreenRestorePairwiseTest {
 
         int errorLineStart = screen5250.getPos(ERROR_LINE_24 - 1, 0);
         char originalChar = screen[errorLineStart];
-        int originalAttr = screenAttr[errorLineStart];
+        int originalAttr = screenPlanes.getCharAttr(errorLineStart);
 
         screenPlanes.saveErrorLine();
 
         screen[errorLineStart] = 'X';
-        screenAttr[errorLineStart] = (char) ATTR_REVERSE;
+        screenPlanes.setScreenAttr(errorLineStart, ATTR_REVERSE);
 
         screenPlanes.restoreErrorLine();
 
@@ -793,7 +788,7 @@ public class ScreenRestorePairwiseTest {
         int errorLineStart = screen5250.getPos(ERROR_LINE_24 - 1, 0);
         for (int i = 0; i < 80; i++) {
             screen[errorLineStart + i] = (char) 0;
-            screenAttr[errorLineStart + i] = (char) 0;
+            screenPlanes.setScreenAttr(errorLineStart + i, 0);
         }
 
         screenPlanes.saveErrorLine();
@@ -866,9 +861,9 @@ public class ScreenRestorePairwiseTest {
     private ScreenState captureScreenState() {
         ScreenState state = new ScreenState();
         state.setScreenContent(screen.clone());
-        state.setScreenAttr(screenAttr.clone());
-        state.setScreenIsAttr(screenIsAttr.clone());
-        state.setScreenGUI(screenGUI.clone());
+        state.setScreenAttr(screenPlanes.getPlaneData(0, screen.length, PLANE_ATTR));
+        state.setScreenIsAttr(screenPlanes.getPlaneData(0, screen.length, PLANE_IS_ATTR_PLACE));
+        state.setScreenGUI(screenPlanes.getPlaneData(0, screen.length, PLANE_EXTENDED_GRAPHIC));
         state.setErrorState(currentErrorState);
         return state;
     }
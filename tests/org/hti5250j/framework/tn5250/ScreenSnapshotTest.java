@@ -0,0 +1,182 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.framework.tn5250;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hti5250j.HTI5250jConstants.PLANE_TEXT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snapshots and plane reads taken between updates, without the screen's lock.
+ */
+public class ScreenSnapshotTest {
+
+    private Screen5250 screen;
+
+    @BeforeEach
+    public void setUp() {
+        screen = new Screen5250();
+        screen.updateDirty();
+    }
+
+    private void write(int row, int col, String text) {
+        screen.goto_XY(screen.getPos(row, col));
+        for (char c : text.toCharArray()) {
+            screen.setChar(c);
+        }
+        screen.updateDirty();
+    }
+
+    /**
+     * One update, as a host record would make it, filling the screen with one letter.
+     */
+    private void fillScreen(char c) {
+        screen.beginUpdate();
+        try {
+            for (int pos = 0; pos < screen.getScreenLength(); pos++) {
+                screen.planes.setChar(pos, c);
+            }
+        } finally {
+            screen.endUpdate();
+        }
+    }
+
+    @Test
+    public void testSnapshotShowsScreenFieldsAndOia() {
+        write(2, 5, "Customer");
+        ScreenField field = screen.getScreenFields().setField(0x20, 2, 20, 6, 0x40, 0, 0, 0);
+        write(2, 20, "ABC");
+        screen.getOIA().setKeyBoardLocked(false);
+
+        ScreenSnapshot snapshot = screen.getSnapshot();
+
+        assertEquals(screen.getVersion(), snapshot.getVersion());
+        assertEquals(24, snapshot.getRows());
+        assertEquals(80, snapshot.getColumns());
+        assertEquals(new String(screen.getScreenAsChars()), snapshot.getText());
+        assertTrue(snapshot.getRowText(2).startsWith("     Customer"));
+        assertFalse(snapshot.isKeyBoardLocked());
+        assertEquals(1, snapshot.getFields().size());
+        ScreenSnapshot.Field copied = snapshot.getFields().get(0);
+        assertEquals(field.startPos(), copied.startPos());
+        assertEquals(6, copied.length());
+        assertEquals("ABC   ", snapshot.getFieldText(copied));
+        assertEquals(0, snapshot.getActiveAidKeys().length);
+    }
+
+    @Test
+    public void testSnapshotIsNotChangedByLaterWrites() {
+        write(0, 0, "BEFORE");
+        ScreenSnapshot snapshot = screen.getSnapshot();
+        char[] text = snapshot.getPlane(PLANE_TEXT);
+
+        write(0, 0, "AFTER!");
+
+        assertTrue(snapshot.getText().startsWith("BEFORE"));
+        assertEquals('B', text[0]);
+        assertTrue(screen.getSnapshot().getText().startsWith("AFTER!"));
+        assertTrue(screen.getSnapshot().getVersion() > snapshot.getVersion());
+    }
+
+    @Test
+    public void testUnchangedScreenReturnsSameSnapshot() {
+        write(1, 1, "SETTLED");
+
+        ScreenSnapshot first = screen.getSnapshot();
+
+        assertSame(first, screen.getSnapshot());
+        fillScreen('X');
+        assertNotSame(first, screen.getSnapshot());
+    }
+
+    @Test
+    public void testReadersNeverSeePartOfAnUpdate() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            char c = 'A';
+            while (running.get()) {
+                fillScreen(c);
+                c = c == 'Z' ? 'A' : (char) (c + 1);
+            }
+        });
+        writer.start();
+        try {
+            char[] buffer = new char[screen.getScreenLength() + 1];
+            for (int i = 0; i < 2000; i++) {
+                String text = screen.getSnapshot().getText();
+                assertEquals(text.length(), text.chars().filter(ch -> ch == text.charAt(0)).count(),
+                        "snapshot mixes two updates");
+
+                screen.GetScreen(buffer, buffer.length, PLANE_TEXT);
+                for (int pos = 1; pos < screen.getScreenLength(); pos++) {
+                    assertEquals(buffer[0], buffer[pos], "GetScreen mixes two updates");
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void testReadersDoNotWaitForTheScreenLock() throws Exception {
+        write(0, 0, "LOCKED");
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            screen.screenLock.lock();
+            try {
+                held.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                screen.screenLock.unlock();
+            }
+        });
+        holder.start();
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+        try {
+            AtomicReference<String> read = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                char[] buffer = new char[screen.getScreenLength() + 1];
+                screen.GetScreen(buffer, buffer.length, PLANE_TEXT);
+                read.set(screen.getSnapshot().getText());
+            });
+            reader.start();
+            reader.join(5000);
+
+            assertFalse(reader.isAlive(), "reader waited for the screen lock");
+            assertTrue(read.get().startsWith("LOCKED"));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    @Test
+    public void testReadDuringAnUpdateOnItsOwnThreadDoesNotWait() {
+        screen.beginUpdate();
+        try {
+            screen.planes.setChar(0, 'Q');
+
+            assertEquals('Q', screen.getSnapshot().getText().charAt(0));
+        } finally {
+            screen.endUpdate();
+        }
+    }
+}
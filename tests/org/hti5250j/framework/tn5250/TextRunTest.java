@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.framework.tn5250;
+
+import org.hti5250j.encoding.CharMappings;
+import org.hti5250j.encoding.ICodePage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hti5250j.HTI5250jConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Text runs of Write To Display records, decoded and put on the screen in one
+ * go, must leave the screen as the byte at a time path does.
+ */
+public class TextRunTest {
+
+    private static final int[] PLANES = {PLANE_TEXT, PLANE_ATTR, PLANE_COLOR, PLANE_EXTENDED, PLANE_IS_ATTR_PLACE};
+
+    private final ICodePage cp = CharMappings.getCodePage("37");
+
+    private static Screen5250 screenWithAttribute(int pos, int attr) {
+        Screen5250 screen = new Screen5250();
+        screen.goto_XY(pos);
+        screen.setAttr(attr);
+        return screen;
+    }
+
+    private static void assertSameScreen(Screen5250 expected, Screen5250 actual) {
+        int length = expected.getScreenLength();
+        for (int plane : PLANES) {
+            assertArrayEquals(expected.planes.getPlaneData(0, length, plane),
+                    actual.planes.getPlaneData(0, length, plane), "plane " + plane);
+        }
+        assertEquals(expected.getFingerprint(), actual.getFingerprint());
+        assertEquals(expected.getLastPos(), actual.getLastPos());
+    }
+
+    @Test
+    public void testSetCharsMatchesSetChar() {
+        String text = "Customer number . . . . . :   ";
+        Screen5250 perChar = screenWithAttribute(165, 0x24);
+        Screen5250 bulk = screenWithAttribute(165, 0x24);
+
+        for (char c : text.toCharArray()) {
+            perChar.setChar(c);
+        }
+        bulk.setChars(text.toCharArray(), 0, text.length());
+
+        assertSameScreen(perChar, bulk);
+    }
+
+    @Test
+    public void testSetCharsAcrossRowsAndScreenEnd() {
+        Screen5250 perChar = screenWithAttribute(1800, 0x22);
+        Screen5250 bulk = screenWithAttribute(1800, 0x22);
+        char[] text = new char[300];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (char) ('A' + i % 26);
+        }
+
+        for (char c : text) {
+            perChar.setChar(c);
+        }
+        bulk.setChars(text, 0, text.length);
+
+        assertSameScreen(perChar, bulk);
+        assertEquals(1801 + 300 - 1920, bulk.getLastPos());
+    }
+
+    @Test
+    public void testDecodeStopsAtOrdersAndAttributes() {
+        TextRunDecoder decoder = TextRunDecoder.forCodePage(cp);
+        byte[] record = new byte[8];
+        for (int i = 0; i < 3; i++) {
+            record[i] = (byte) cp.uni2ebcdic("ABC".charAt(i));
+        }
+        record[3] = 0x22; // attribute
+        record[4] = (byte) cp.uni2ebcdic('D');
+        record[5] = 0x11; // set buffer address
+
+        assertEquals(3, decoder.decode(record, 0, record.length));
+        assertEquals("ABC", new String(decoder.chars(), 0, 3));
+        assertEquals(1, decoder.decode(record, 4, record.length));
+        assertEquals('D', decoder.chars()[0]);
+        assertEquals(0, decoder.decode(record, 5, record.length));
+        assertFalse(decoder.isText((byte) 0x22));
+        assertFalse(decoder.isText((byte) 0x11));
+        assertFalse(decoder.isText((byte) 0x0E));
+        assertTrue(decoder.isText((byte) 0x40));
+    }
+
+    @Test
+    public void testDecodeStopsAtLimit() {
+        TextRunDecoder decoder = TextRunDecoder.forCodePage(cp);
+        byte[] record = new byte[600];
+        Arrays.fill(record, (byte) cp.uni2ebcdic('x'));
+
+        assertEquals(500, decoder.decode(record, 100, record.length));
+        assertEquals(20, decoder.decode(record, 0, 20));
+        assertEquals('x', decoder.chars()[19]);
+    }
+}
@@ -16,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -208,6 +209,54 @@ public class TnvtProtocolContractTest {
         assertFalse(vt.isConnected(), "tnvt should still not be connected");
     }
 
+    @Test
+    @DisplayName("sendAidKey sends one GDS record: header, cursor, AID, IAC EOR")
+    void sendAidKeySendsFramedRecord() throws Exception {
+        ByteArrayOutputStream capture = new ByteArrayOutputStream();
+        Field boutField = tnvt.class.getDeclaredField("bout");
+        boutField.setAccessible(true);
+        boutField.set(vt, new BufferedOutputStream(capture));
+        screen.setCursor(6, 53);
+
+        assertTrue(vt.sendAidKey(0xF1));
+        assertTrue(vt.sendAidKey(0xF3));
+
+        byte[] enter = {0x00, 0x0D, 0x12, (byte) 0xA0, 0x00, 0x00, 0x04, 0x00, 0x00, 0x03,
+                0x06, 0x35, (byte) 0xF1, (byte) 0xFF, (byte) 0xEF};
+        byte[] pf3 = enter.clone();
+        pf3[12] = (byte) 0xF3;
+        byte[] expected = new byte[enter.length * 2];
+        System.arraycopy(enter, 0, expected, 0, enter.length);
+        System.arraycopy(pf3, 0, expected, enter.length, pf3.length);
+        assertArrayEquals(expected, capture.toByteArray());
+    }
+
+    // ============================================================================
+    // Contract: negotiate answers every Telnet command in a chunk
+    // ============================================================================
+
+    @Test
+    @DisplayName("negotiate replies to each DO/WILL when the host sends several at once")
+    void negotiateAnswersEveryCommandInChunk() throws Exception {
+        ByteArrayOutputStream capture = new ByteArrayOutputStream();
+        Field boutField = tnvt.class.getDeclaredField("bout");
+        boutField.setAccessible(true);
+        boutField.set(vt, new BufferedOutputStream(capture));
+
+        byte[] chunk = {
+                (byte) 0xFF, (byte) 0xFD, 0x18,   // IAC DO TERMINAL-TYPE
+                (byte) 0xFF, (byte) 0xFD, 0x19,   // IAC DO END-OF-RECORD
+                (byte) 0xFF, (byte) 0xFB, 0x00};  // IAC WILL BINARY
+
+        assertTrue(vt.negotiate(chunk), "A chunk starting with IAC is negotiation");
+
+        assertArrayEquals(new byte[] {
+                (byte) 0xFF, (byte) 0xFB, 0x18,
+                (byte) 0xFF, (byte) 0xFB, 0x19,
+                (byte) 0xFF, (byte) 0xFD, 0x00}, capture.toByteArray(),
+                "Expected WILL TERMINAL-TYPE, WILL END-OF-RECORD, DO BINARY");
+    }
+
     // ============================================================================
     // Contract: Screen5250 save/restore preserves screen state
     // ============================================================================
@@ -267,4 +316,42 @@ public class TnvtProtocolContractTest {
         assertDoesNotThrow(() -> screen.isInField(lastPos),
                 "isInField at last position should not throw");
     }
+
+    // ============================================================================
+    // Contract: processDataStream applies a host record without a connection
+    // ============================================================================
+
+    @Test
+    @DisplayName("processDataStream paints text and fields from a Write To Display record")
+    void processDataStreamPaintsWriteToDisplay() {
+        ICodePage cp = vt.getCodePage();
+        ByteArrayOutputStream rec = new ByteArrayOutputStream();
+        // GDS header: length, record type 12A0, reserved, var header, flags, opcode 3 (Put/Get)
+        rec.writeBytes(new byte[]{0, 0, 0x12, (byte) 0xA0, 0, 0, 0x04, 0, 0, 0x03});
+        // ESC Clear Unit, ESC WTD with CC0/CC1
+        rec.writeBytes(new byte[]{0x04, 0x40, 0x04, 0x11, 0x00, 0x18});
+        // SBA 1,2, normal attribute, "HELLO"
+        rec.writeBytes(new byte[]{0x11, 0x01, 0x02, 0x20});
+        for (char c : "HELLO".toCharArray()) {
+            rec.write(cp.uni2ebcdic(c));
+        }
+        // SBA 3,10, SF input field of 8 underlined
+        rec.writeBytes(new byte[]{0x11, 0x03, 0x0A, 0x1D, 0x40, 0x00, 0x24, 0x00, 0x08});
+        byte[] record = rec.toByteArray();
+        record[1] = (byte) record.length;
+        byte[] framed = Arrays.copyOf(record, record.length + 2);
+        framed[record.length] = (byte) 0xFF;
+        framed[record.length + 1] = (byte) 0xEF;
+
+        vt.processDataStream(framed);
+
+        char[] chars = screen.getScreenAsChars();
+        assertEquals("HELLO", new String(chars, 2, 5),
+                "Text after SBA 1,2 and its attribute should start at column 3");
+        assertEquals(1, screen.getScreenFields().getSize(),
+                "SF order should add one input field");
+        assertEquals(2 * screen.getColumns() + 10,
+                screen.getScreenFields().getField(0).startPos(),
+                "Field data should start after its attribute at row 3 column 10");
+    }
 }
@@ -14,6 +14,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class KeyMnemonicResolverTest {
 
@@ -35,4 +37,19 @@ public class KeyMnemonicResolverTest {
         int value = resolver.findMnemonicValue(null);
         assertEquals(0, value);
     }
+
+    @Test
+    public void every_mnemonic_is_found_by_its_text() throws Exception {
+        for (KeyMnemonic mnemonic : KeyMnemonic.values()) {
+            assertSame(mnemonic, resolver.findMnemonic(mnemonic.mnemonic));
+            assertEquals(mnemonic.value, resolver.findMnemonicValue(mnemonic.mnemonic));
+        }
+    }
+
+    @Test
+    public void text_that_is_not_a_mnemonic_is_not_found() throws Exception {
+        assertNull(resolver.findMnemonic("[enter"));
+        assertNull(resolver.findMnemonic("[ENTER]"));
+        assertNull(resolver.findMnemonic(""));
+    }
 }
@@ -825,6 +825,85 @@ public class DefaultHeadlessSessionPoolTest {
         pool.returnSession(s);
     }
 
+    // ========================================================================
+    // Warm-up and background refill
+    // ========================================================================
+
+    @Test
+    void testWarmUpRunsBeforeSessionIsLent() throws Exception {
+        Set<HeadlessSession> warmed = ConcurrentHashMap.newKeySet();
+        pool.configure(baseConfig()
+                .maxSize(5)
+                .minIdle(2)
+                .warmUp(warmed::add)
+                .build());
+
+        assertEquals(2, warmed.size(), "Pre-created sessions should be warmed up");
+        HeadlessSession a = pool.borrowSession();
+        HeadlessSession b = pool.borrowSession();
+        HeadlessSession c = pool.borrowSession(); // created on demand
+        assertTrue(warmed.containsAll(List.of(a, b, c)));
+    }
+
+    @Test
+    void testBorrowRefillsIdleSessionsToMinIdle() throws Exception {
+        pool.configure(baseConfig()
+                .maxSize(3)
+                .minIdle(2)
+                .warmUp(session -> { })
+                .build());
+
+        pool.borrowSession();
+        pool.borrowSession();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getIdleCount() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.getIdleCount(), "Refill is limited by maxSize");
+        assertEquals(3, pool.getPoolSize());
+    }
+
+    @Test
+    void testSessionNotReadyOnReturnIsReplaced() throws Exception {
+        pool.configure(baseConfig()
+                .maxSize(2)
+                .warmUp(new SessionWarmUp() {
+                    @Override
+                    public void warmUp(HeadlessSession session) {
+                    }
+
+                    @Override
+                    public boolean isReady(HeadlessSession session) {
+                        return !session.getSessionName().endsWith("-1");
+                    }
+                })
+                .build());
+
+        HeadlessSession first = pool.borrowSession();
+        pool.returnSession(first);
+
+        assertFalse(first.isConnected());
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, pool.getEvictionCount());
+        assertNotSame(first, pool.borrowSession());
+    }
+
+    @Test
+    void testFailedWarmUpReleasesCapacity() throws Exception {
+        pool.configure(baseConfig()
+                .maxSize(1)
+                .warmUp(session -> {
+                    throw new IllegalStateException("sign-on rejected");
+                })
+                .build());
+
+        PoolExhaustedException e = assertThrows(PoolExhaustedException.class, () -> pool.borrowSession());
+        assertEquals("sign-on rejected", e.getCause().getMessage());
+        assertEquals(0, pool.getPoolSize());
+        assertEquals(1, pool.getWarmUpFailureCount());
+    }
+
     // ========================================================================
     // Builder null guard for sessionFactory
     // ========================================================================
@@ -0,0 +1,197 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.session;
+
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.simulator.HostSimulator;
+import org.hti5250j.simulator.TestHosts;
+import org.hti5250j.workflow.BatchExecutor;
+import org.hti5250j.workflow.BatchMetrics;
+import org.hti5250j.workflow.BatchScheduler;
+import org.hti5250j.workflow.SessionFactory;
+import org.hti5250j.workflow.StepDef;
+import org.hti5250j.workflow.WorkflowSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pools whose sessions sign on to the in-process host simulator before they are lent.
+ */
+public class SessionPoolWarmUpTest {
+
+    private HostSimulator host;
+    private DefaultHeadlessSessionPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        host = TestHosts.startAtSignOn();
+        pool = new DefaultHeadlessSessionPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+        host.close();
+    }
+
+    private SessionPoolConfig.Builder config(String menu) {
+        return SessionPoolConfig.builder()
+                .sessionFactory(new DefaultHeadlessSessionFactory())
+                .connectionProps(TestHosts.sessionProperties(host))
+                .warmUp(SignonReplay.builder()
+                        .user(TestHosts.USER)
+                        .password(TestHosts.PASSWORD)
+                        .menu(menu)
+                        .timeout(Duration.ofSeconds(5))
+                        .build());
+    }
+
+    private static void awaitValue(int expected, IntSupplier actual) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (actual.getAsInt() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, actual.getAsInt());
+    }
+
+    @Test
+    @Timeout(30)
+    public void testConfigureSignsOnMinIdleSessions() throws Exception {
+        pool.configure(config(TestHosts.MENU).maxSize(5).minIdle(3).build());
+
+        assertEquals(3, pool.getIdleCount());
+        assertEquals(3, host.getConnectionCount());
+        assertEquals(3, host.getAidCount(), "One sign-on per session");
+
+        HeadlessSession session = pool.borrowSession();
+        assertTrue(session.isConnected());
+        assertTrue(session.getScreenAsText().contains(TestHosts.MENU));
+        pool.returnSession(session);
+    }
+
+    @Test
+    @Timeout(30)
+    public void testBorrowedSessionsAreRefilledInBackground() throws Exception {
+        pool.configure(config(TestHosts.MENU).maxSize(5).minIdle(2).build());
+
+        HeadlessSession first = pool.borrowSession();
+        HeadlessSession second = pool.borrowSession();
+
+        awaitValue(2, pool::getIdleCount);
+        assertEquals(4, pool.getPoolSize());
+        assertEquals(4, host.getAidCount());
+        pool.returnSession(first);
+        pool.returnSession(second);
+        assertEquals(4, pool.getIdleCount(), "Sessions still on the menu are kept");
+    }
+
+    @Test
+    @Timeout(30)
+    public void testSessionReturnedOffTheMenuIsReplaced() throws Exception {
+        pool.configure(config(TestHosts.MENU).maxSize(2).minIdle(1).build());
+
+        HeadlessSession session = pool.borrowSession();
+        session.sendKeys("[pf3]");
+        session.waitForKeyboardLockCycle(5000);
+        assertTrue(session.getScreenAsText().contains("Sign On"));
+        pool.returnSession(session);
+
+        assertFalse(session.isConnected());
+        assertEquals(1, pool.getEvictionCount());
+        awaitValue(1, pool::getIdleCount);
+        HeadlessSession replacement = pool.borrowSession();
+        assertNotSame(session, replacement);
+        assertTrue(replacement.getScreenAsText().contains(TestHosts.MENU));
+        pool.returnSession(replacement);
+    }
+
+    @Test
+    @Timeout(30)
+    public void testWaitingBorrowerGetsCapacityFreedByDiscardedReturn() throws Exception {
+        pool.configure(config(TestHosts.MENU).maxSize(1).minIdle(0)
+                .acquisitionMode(SessionPoolConfig.AcquisitionMode.QUEUED)
+                .build());
+
+        HeadlessSession session = pool.borrowSession();
+        CompletableFuture<HeadlessSession> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrowSession();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(waiter.isDone(), "Pool is full while the first session is borrowed");
+
+        session.sendKeys("[pf3]");
+        session.waitForKeyboardLockCycle(5000);
+        pool.returnSession(session);
+
+        HeadlessSession replacement = waiter.get(10, TimeUnit.SECONDS);
+        assertNotSame(session, replacement);
+        assertTrue(replacement.getScreenAsText().contains(TestHosts.MENU));
+        pool.returnSession(replacement);
+    }
+
+    @Test
+    @Timeout(30)
+    public void testFailedWarmUpIsNotLent() throws Exception {
+        pool.configure(config("No Such Menu").maxSize(2).minIdle(2)
+                .acquisitionMode(SessionPoolConfig.AcquisitionMode.IMMEDIATE)
+                .build());
+
+        assertEquals(0, pool.getIdleCount());
+        assertTrue(pool.getWarmUpFailureCount() >= 2);
+        assertThrows(PoolExhaustedException.class, pool::borrowSession);
+    }
+
+    @Test
+    @Timeout(60)
+    public void testBatchExecutorBorrowsSignedOnSessions(@TempDir File artifacts) throws Exception {
+        WorkflowSchema workflow = TestHosts.workflow("PoolWarmUpBatch");
+        StepDef login = workflow.getSteps().get(0);
+
+        SessionPoolConfig poolConfig = SessionFactory.poolConfigFromLoginStep(login, TestHosts.MENU)
+                .connectionProps(TestHosts.sessionProperties(host))
+                .maxSize(2)
+                .minIdle(2)
+                .build();
+        pool.configure(poolConfig);
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            rows.put("row" + i, Map.of("n", String.valueOf(i)));
+        }
+
+        try (BatchScheduler scheduler = BatchScheduler.builder()
+                .pool(login.getHost(), pool)
+                .artifactDirectory(artifacts)
+                .build()) {
+            BatchMetrics metrics = BatchExecutor.executeAll(workflow, rows, "test", scheduler);
+
+            assertEquals(6, metrics.successCount(), metrics.failures().toString());
+            assertEquals(2, host.getAidCount(), "Rows should reuse the two signed-on sessions");
+            assertEquals(2, pool.getIdleCount());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.session;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.event.ScreenListener;
+import org.hti5250j.framework.tn5250.Screen5250;
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.simulator.HostScreen;
+import org.hti5250j.simulator.HostScript;
+import org.hti5250j.simulator.HostSimulator;
+import org.hti5250j.simulator.TestHosts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sessions driven from virtual threads must never park while pinned to
+ * their carrier. The test listens for the {@code jdk.VirtualThreadPinned}
+ * event, which the JDK records wherever {@code -Djdk.tracePinnedThreads}
+ * would print a trace, while workflows type, wait for the host and read the
+ * screen, and listeners that block are called back.
+ */
+public class VirtualThreadPinningTest {
+
+    private static final int SESSIONS = 8;
+    private static final int ROUNDS = 5;
+    private static final String THREAD_NAME = "pinning-check-";
+
+    @Test
+    @Timeout(120)
+    public void testThreadedSessionsDoNotPinCarrierThreads() throws Exception {
+        assertNoPinning(HTI5250jConstants.TRANSPORT_THREADED);
+    }
+
+    @Test
+    @Timeout(120)
+    public void testMultiplexedSessionsDoNotPinCarrierThreads() throws Exception {
+        assertNoPinning(HTI5250jConstants.TRANSPORT_MULTIPLEXED);
+    }
+
+    private void assertNoPinning(String transport) throws Exception {
+        HostScreen detail = HostScreen.builder("DETAIL")
+                .highlighted(1, 30, "Work with Orders")
+                .field(20, 7, 10)
+                .cursor(20, 7)
+                .build();
+        List<String> pinned = new CopyOnWriteArrayList<>();
+
+        try (HostSimulator host = HostSimulator.builder()
+                .script(HostScript.builder()
+                        .screen(TestHosts.menu())
+                        .screen(detail)
+                        .on("MAIN", HTI5250jConstants.AID_ENTER, "DETAIL")
+                        .on("DETAIL", HTI5250jConstants.AID_ENTER, "MAIN")
+                        .build())
+                .responseDelay(Duration.ofMillis(5))
+                .build()
+                .start();
+             RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                if (isSessionThread(event)) {
+                    pinned.add(describe(event));
+                }
+            });
+            recording.startAsync();
+
+            ExecutorService workflows = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(THREAD_NAME, 0).factory());
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < SESSIONS; i++) {
+                String name = THREAD_NAME + "session-" + i;
+                results.add(workflows.submit(() -> {
+                    runWorkflow(host, name, transport);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            workflows.shutdown();
+            recording.stop();
+        }
+
+        assertTrue(pinned.isEmpty(), "virtual threads parked while pinned:\n" + String.join("\n", pinned));
+    }
+
+    private static void runWorkflow(HostSimulator host, String name, String transport) throws Exception {
+        Properties props = TestHosts.sessionProperties(host);
+        props.setProperty(HTI5250jConstants.SESSION_TRANSPORT, transport);
+        HeadlessSession session = new DefaultHeadlessSessionFactory()
+                .createSession(name, "TN5250JDefaults.props", props);
+        CountDownLatch firstScreen = new CountDownLatch(1);
+        session.addSessionListener(event -> {
+            if (event.getState() == HTI5250jConstants.STATE_CONNECTED) {
+                firstScreen.countDown();
+            }
+        });
+        AtomicBoolean observing = new AtomicBoolean(true);
+        Thread observer = null;
+        try {
+            session.connect();
+            assertTrue(firstScreen.await(10, TimeUnit.SECONDS), name + " did not connect");
+            session.waitForKeyboardUnlock(10000);
+            Screen5250 screen = session.getScreen();
+
+            // listeners that block, as a logging or forwarding listener may
+            screen.addScreenChangeListener(event -> sleepQuietly());
+            screen.addScreenListener(new ScreenListener() {
+                @Override
+                public void onScreenChanged(int inUpdate, int startRow, int startCol, int endRow, int endCol) {
+                    sleepQuietly();
+                }
+
+                @Override
+                public void onScreenSizeChanged(int rows, int cols) {
+                }
+            });
+            observer = Thread.ofVirtual().name(name + "-observer").start(() -> {
+                char[] buffer = new char[screen.getScreenLength() + 1];
+                while (observing.get()) {
+                    screen.getSnapshot();
+                    screen.GetScreen(buffer, buffer.length, HTI5250jConstants.PLANE_TEXT);
+                    sleepQuietly();
+                }
+            });
+
+            for (int round = 0; round < ROUNDS; round++) {
+                session.sendKeys("1[enter]");
+                session.waitForKeyboardLockCycle(10000);
+                assertFalse(session.getScreenAsText().isBlank());
+            }
+        } finally {
+            observing.set(false);
+            if (observer != null) {
+                observer.join();
+            }
+            session.disconnect();
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Workflow, observer, data stream and tnvt threads all carry the session name.
+     */
+    private static boolean isSessionThread(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return thread != null && thread.getJavaName() != null && thread.getJavaName().contains(THREAD_NAME);
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder sb = new StringBuilder(event.getThread().getJavaName());
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                sb.append("\n    at ").append(frame.getMethod().getType().getName())
+                        .append('.').append(frame.getMethod().getName())
+                        .append(':').append(frame.getLineNumber());
+            }
+        }
+        return sb.toString();
+    }
+}
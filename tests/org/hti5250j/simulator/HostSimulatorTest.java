@@ -0,0 +1,214 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.simulator;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.interfaces.HeadlessSession;
+import org.hti5250j.session.DefaultHeadlessSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the host simulator with a real tnvt session over a loopback socket.
+ */
+public class HostSimulatorTest {
+
+    private final List<HostInput> received = new CopyOnWriteArrayList<>();
+    private HostSimulator host;
+    private HeadlessSession session;
+
+    @BeforeEach
+    public void setUp() {
+        received.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (session != null) {
+            session.disconnect();
+        }
+        if (host != null) {
+            host.close();
+        }
+    }
+
+    private HostScript script() {
+        HostScreen signOn = HostScreen.builder("SIGNON")
+                .highlighted(1, 36, "Sign On")
+                .text(6, 17, "User  . . . . . . . . . . . . . .")
+                .field(6, 53, 10)
+                .text(7, 17, "Password  . . . . . . . . . . . .")
+                .hiddenField(7, 53, 10)
+                .cursor(6, 53)
+                .build();
+        HostScreen menu = HostScreen.builder("MAIN")
+                .highlighted(1, 30, "IBM i Main Menu")
+                .text(20, 2, "===>")
+                .field(20, 7, 60)
+                .cursor(20, 7)
+                .build();
+        return HostScript.builder()
+                .screen(signOn)
+                .screen(menu)
+                .when("SIGNON", input -> received.add(input) && input.getAid() == HTI5250jConstants.AID_ENTER, "MAIN")
+                .on("MAIN", HTI5250jConstants.AID_PF3, "SIGNON")
+                .build();
+    }
+
+    private HeadlessSession connect(HostSimulator simulator) throws Exception {
+        Properties props = new Properties();
+        props.setProperty(HTI5250jConstants.SESSION_HOST, "127.0.0.1");
+        props.setProperty(HTI5250jConstants.SESSION_HOST_PORT, String.valueOf(simulator.getPort()));
+        props.setProperty(HTI5250jConstants.SESSION_TN_ENHANCED, "1");
+
+        HeadlessSession s = new DefaultHeadlessSessionFactory()
+                .createSession("simulator", "TN5250JDefaults.props", props);
+        CountDownLatch firstScreen = new CountDownLatch(1);
+        s.addSessionListener(event -> {
+            if (event.getState() == HTI5250jConstants.STATE_CONNECTED) {
+                firstScreen.countDown();
+            }
+        });
+        s.connect();
+        assertTrue(firstScreen.await(10, TimeUnit.SECONDS), "Session never received the first screen");
+        s.waitForKeyboardUnlock(5000);
+        return s;
+    }
+
+    @Test
+    @Timeout(30)
+    public void testNegotiatesAndPaintsInitialScreen() throws Exception {
+        host = HostSimulator.builder().script(script()).build().start();
+
+        session = connect(host);
+
+        assertTrue(session.getScreenAsText().contains("Sign On"));
+        assertEquals(1, host.getConnectionCount());
+        assertEquals(1, host.getScreenCount());
+        assertEquals(0, host.getAidCount());
+    }
+
+    @Test
+    @Timeout(30)
+    public void testAidKeyFollowsScriptThroughLockCycle() throws Exception {
+        host = HostSimulator.builder()
+                .script(script())
+                .responseDelay(Duration.ofMillis(100))
+                .unlockDelay(Duration.ofMillis(20))
+                .build()
+                .start();
+        session = connect(host);
+
+        long start = System.nanoTime();
+        session.sendKeys("QUSER[enter]");
+        session.waitForKeyboardLockCycle(5000);
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(session.getScreenAsText().contains("IBM i Main Menu"));
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(100),
+                "Screen arrived before the response delay: " + elapsed + "ns");
+        assertEquals(1, host.getAidCount());
+        assertEquals(2, host.getScreenCount());
+        assertEquals(1, received.size());
+        assertEquals(HTI5250jConstants.AID_ENTER, received.get(0).getAid());
+        assertEquals("QUSER", received.get(0).getField(0));
+    }
+
+    @Test
+    @Timeout(30)
+    public void testUnscriptedAidRedisplaysCurrentScreen() throws Exception {
+        host = HostSimulator.builder().script(script()).build().start();
+        session = connect(host);
+        session.sendKeys("QUSER[enter]");
+        session.waitForKeyboardLockCycle(5000);
+
+        session.sendKeys("[pf12]");
+        session.waitForKeyboardLockCycle(5000);
+        assertTrue(session.getScreenAsText().contains("IBM i Main Menu"));
+
+        session.sendKeys("[pf3]");
+        session.waitForKeyboardLockCycle(5000);
+        assertTrue(session.getScreenAsText().contains("Sign On"));
+        assertEquals(3, host.getAidCount());
+    }
+
+    @Test
+    @Timeout(30)
+    public void testServesManyConnectionsFromOneThread() throws Exception {
+        host = HostSimulator.builder().script(script()).build().start();
+        List<SocketChannel> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                clients.add(SocketChannel.open(new InetSocketAddress("127.0.0.1", host.getPort())));
+            }
+            for (SocketChannel client : clients) {
+                ByteBuffer doNewEnvironment = ByteBuffer.allocate(3);
+                while (doNewEnvironment.hasRemaining()) {
+                    assertTrue(client.read(doNewEnvironment) >= 0);
+                }
+                assertArrayEquals(new byte[] {(byte) 0xFF, (byte) 0xFD, 0x27}, doNewEnvironment.array());
+            }
+            assertEquals(200, host.getConnectionCount());
+        } finally {
+            for (SocketChannel client : clients) {
+                client.close();
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (host.getConnectionCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, host.getConnectionCount());
+    }
+
+    @Test
+    public void testScriptRejectsUnknownScreen() {
+        HostScreen only = HostScreen.builder("ONLY").text(1, 2, "x").build();
+
+        assertThrows(IllegalStateException.class, () -> HostScript.builder()
+                .screen(only)
+                .on("ONLY", HTI5250jConstants.AID_ENTER, "MISSING")
+                .build());
+    }
+
+    @Test
+    public void testScreenRejectsPositionOutsideGeometry() {
+        assertThrows(IllegalArgumentException.class, () -> HostScreen.builder("X").text(25, 2, "x"));
+        assertDoesNotThrow(() -> HostScreen.builder("X").wide().text(27, 2, "x"));
+    }
+
+    @Test
+    public void testRecordedScreenKeepsRecordBytes() throws IOException {
+        byte[] record = HostScreen.builder("X").text(1, 2, "Hello").build().getRecord();
+        byte[] framed = new byte[record.length + 2];
+        System.arraycopy(record, 0, framed, 0, record.length);
+        framed[record.length] = (byte) 0xFF;
+        framed[record.length + 1] = (byte) 0xEF;
+
+        assertArrayEquals(record, HostScreen.recorded("X", framed).getRecord());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.simulator;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.workflow.ActionType;
+import org.hti5250j.workflow.BatchScheduler;
+import org.hti5250j.workflow.StepDef;
+import org.hti5250j.workflow.WorkflowSchema;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The simulated IBM i that session and batch tests sign on to: a sign-on
+ * screen, the main menu, and the properties and scheduler that reach them.
+ */
+public final class TestHosts {
+
+    public static final String MENU = "IBM i Main Menu";
+    public static final String USER = "QUSER";
+    public static final String PASSWORD = "SECRET";
+
+    private TestHosts() {
+    }
+
+    /** The sign-on screen, with user and password fields. */
+    public static HostScreen signOn() {
+        return HostScreen.builder("SIGNON")
+                .highlighted(1, 36, "Sign On")
+                .text(6, 17, "User  . . . . . . . . . . . . . .")
+                .field(6, 53, 10)
+                .text(7, 17, "Password  . . . . . . . . . . . .")
+                .hiddenField(7, 53, 10)
+                .cursor(6, 53)
+                .build();
+    }
+
+    /** The main menu, with its command line. */
+    public static HostScreen menu() {
+        return HostScreen.builder("MAIN")
+                .highlighted(1, 30, MENU)
+                .field(20, 7, 60)
+                .cursor(20, 7)
+                .build();
+    }
+
+    /** Starts a host that shows the main menu as soon as a session connects. */
+    public static HostSimulator startAtMenu() {
+        return HostSimulator.builder()
+                .script(HostScript.builder().screen(menu()).build())
+                .build()
+                .start();
+    }
+
+    /**
+     * Starts a host that shows the sign-on screen, goes to the main menu on
+     * Enter with {@link #USER} and {@link #PASSWORD}, and signs off on F3.
+     */
+    public static HostSimulator startAtSignOn() {
+        return HostSimulator.builder()
+                .script(HostScript.builder()
+                        .screen(signOn())
+                        .screen(menu())
+                        .when("SIGNON", input -> input.getAid() == HTI5250jConstants.AID_ENTER
+                                && input.getField(0).equals(USER)
+                                && input.getField(1).equals(PASSWORD), "MAIN")
+                        .on("MAIN", HTI5250jConstants.AID_PF3, "SIGNON")
+                        .build())
+                .build()
+                .start();
+    }
+
+    /** Connection properties for a session to {@code host}. */
+    public static Properties sessionProperties(HostSimulator host) {
+        Properties props = new Properties();
+        props.setProperty(HTI5250jConstants.SESSION_HOST, "127.0.0.1");
+        props.setProperty(HTI5250jConstants.SESSION_HOST_PORT, String.valueOf(host.getPort()));
+        props.setProperty(HTI5250jConstants.SESSION_TN_ENHANCED, "1");
+        return props;
+    }
+
+    /**
+     * A scheduler for batches to {@code host} whose sessions sign on to the
+     * main menu, opened without a ramp, with artifacts under {@code artifactDirectory}.
+     */
+    public static BatchScheduler.Builder scheduler(HostSimulator host, int maxSessionsPerHost,
+            File artifactDirectory) {
+        return BatchScheduler.builder()
+                .maxSessionsPerHost(maxSessionsPerHost)
+                .rampInterval(Duration.ZERO)
+                .signonMenu(MENU)
+                .sessionProperties(sessionProperties(host))
+                .artifactDirectory(artifactDirectory);
+    }
+
+    /** The LOGIN step for the simulated host. */
+    public static StepDef login() {
+        StepDef login = new StepDef();
+        login.setAction(ActionType.LOGIN);
+        login.setHost("127.0.0.1");
+        login.setUser(USER);
+        login.setPassword(PASSWORD);
+        return login;
+    }
+
+    /** A workflow that signs on to the simulated host and runs {@code steps}. */
+    public static WorkflowSchema workflow(String name, StepDef... steps) {
+        List<StepDef> all = new ArrayList<>();
+        all.add(login());
+        all.addAll(List.of(steps));
+        WorkflowSchema workflow = new WorkflowSchema();
+        workflow.setName(name);
+        workflow.setSteps(all);
+        return workflow;
+    }
+}
@@ -65,4 +65,34 @@ class ArtifactCollectorTest {
             assertThat(line).contains("\"timestamp\":");
         }
     }
+
+    @Test
+    void testLedgerWriterCollectorWritesOnClose(@TempDir File tempDir) throws Exception {
+        try (LedgerWriter ledgers = LedgerWriter.builder().build()) {
+            try (ArtifactCollector collector = new ArtifactCollector(tempDir, ledgers)) {
+                collector.appendLedger("LOGIN", "Connected to host");
+                collector.appendLedger("SUBMIT", "Submitted with ENTER");
+            }
+        }
+
+        File ledger = new File(tempDir, "execution-ledger.jsonl");
+        try (Scanner scanner = new Scanner(ledger)) {
+            assertThat(scanner.nextLine()).contains("\"action\":\"LOGIN\"");
+            assertThat(scanner.nextLine()).contains("\"action\":\"SUBMIT\"");
+            assertThat(scanner.hasNextLine()).isFalse();
+        }
+    }
+
+    @Test
+    void testLedgerEscapesQuotesInStatus(@TempDir File tempDir) throws Exception {
+        ArtifactCollector collector = new ArtifactCollector(tempDir);
+
+        collector.appendLedger("ASSERT", "Expected \"Sign On\" \\ got\tnothing");
+
+        File ledger = new File(tempDir, "execution-ledger.jsonl");
+        try (Scanner scanner = new Scanner(ledger)) {
+            assertThat(scanner.nextLine())
+                .endsWith("\"status\":\"Expected \\\"Sign On\\\" \\\\ got\\tnothing\"}");
+        }
+    }
 }
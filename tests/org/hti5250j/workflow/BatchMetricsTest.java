@@ -166,6 +166,27 @@ public class BatchMetricsTest {
             .hasMessageContaining("Results cannot be empty");
     }
 
+    @Test
+    public void testMetricsCompareByValue() {
+        List<WorkflowResult> results = new ArrayList<>();
+        results.add(createSuccessResult(100, 10));
+        results.add(createSuccessResult(101, 20));
+
+        assertThat(BatchMetrics.from(results, 0L, 1000L)).isEqualTo(BatchMetrics.from(results, 0L, 1000L));
+        assertThat(BatchMetrics.from(results, 0L, 1000L).hashCode())
+            .isEqualTo(BatchMetrics.from(results, 0L, 1000L).hashCode());
+    }
+
+    @Test
+    public void testSevenArgumentConstructorHasEmptyHistogram() {
+        BatchMetrics metrics = new BatchMetrics(2, 2, 0, 10L, 20L, 4.0, List.of());
+
+        assertThat(metrics.p99LatencyMs()).isEqualTo(20L);
+        assertThat(metrics.latencies().getTotalCount()).isZero();
+        assertThat(metrics.p90LatencyMs()).isZero();
+        assertThat(metrics).isEqualTo(new BatchMetrics(2, 2, 0, 10L, 20L, 4.0, List.of()));
+    }
+
     /**
      * Helper to create successful workflow result.
      */
@@ -0,0 +1,111 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.simulator.HostSimulator;
+import org.hti5250j.simulator.TestHosts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch progress read while rows finish: counts, windowed throughput and
+ * per-step latencies.
+ */
+public class BatchProgressTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testThroughputOverSlidingWindows() {
+        AtomicLong clock = new AtomicLong(5 * SECOND);
+        BatchProgress progress = new BatchProgress(clock::get);
+
+        // 10 rows a second for a minute, then 2 a second for ten seconds
+        for (int second = 0; second < 70; second++) {
+            int rows = second < 60 ? 10 : 2;
+            for (int i = 0; i < rows; i++) {
+                progress.record(WorkflowResult.success("r", 20, "/tmp"));
+            }
+            clock.addAndGet(SECOND);
+        }
+
+        assertEquals(2.0, progress.getThroughput(Duration.ofSeconds(10)), 1e-9);
+        assertEquals((50 * 10 + 10 * 2) / 60.0, progress.getThroughput(Duration.ofMinutes(1)), 1e-9);
+        // the batch is only 70 seconds old
+        assertEquals(620 / 70.0, progress.getThroughput(Duration.ofMinutes(10)), 1e-9);
+        assertEquals(620 / 70.0, progress.getThroughput(), 1e-9);
+
+        clock.addAndGet(20 * SECOND);
+        assertEquals(0.0, progress.getThroughput(Duration.ofSeconds(10)), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> progress.getThroughput(Duration.ofMinutes(11)));
+    }
+
+    @Test
+    public void testCountsAndPercentilesWhileRunning() {
+        BatchProgress progress = new BatchProgress();
+        for (int i = 1; i <= 1000; i++) {
+            progress.record(WorkflowResult.success("r" + i, i, "/tmp"));
+        }
+        progress.record(WorkflowResult.failure("bad", 5, new IllegalStateException("x")));
+
+        assertEquals(1001, progress.getCompletedCount());
+        assertEquals(1, progress.getFailureCount());
+        assertEquals(List.of("bad"), progress.getFailures().stream().map(WorkflowResult::rowKey).toList());
+        LatencyHistogram latencies = progress.getLatencies();
+        assertEquals(1000, latencies.getTotalCount());
+        assertTrue(Math.abs(latencies.getValueAtPercentile(90) - 900) <= 900 / 64);
+        assertTrue(progress.summary().startsWith("1001 done (1 failed)"), progress.summary());
+
+        BatchMetrics metrics = progress.toMetrics(0, SECOND);
+        assertEquals(1001, metrics.totalWorkflows());
+        assertEquals(metrics.latencies().getValueAtPercentile(99.9), metrics.p999LatencyMs());
+        assertTrue(metrics.p50LatencyMs() <= metrics.p90LatencyMs());
+        assertTrue(metrics.p99LatencyMs() <= metrics.p999LatencyMs());
+    }
+
+    @Test
+    @Timeout(60)
+    public void testBatchRecordsEachStepType(@TempDir File artifacts) throws Exception {
+        StepDef wait = new StepDef();
+        wait.setAction(ActionType.WAIT);
+        wait.setTimeout(20);
+        WorkflowSchema workflow = TestHosts.workflow("ProgressBatch", wait);
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            rows.put("row" + i, Map.of("n", String.valueOf(i)));
+        }
+        BatchProgress progress = new BatchProgress();
+
+        try (HostSimulator host = TestHosts.startAtMenu();
+             BatchScheduler scheduler = TestHosts.scheduler(host, 2, artifacts).build()) {
+            BatchMetrics metrics = BatchExecutor.executeAll(workflow, RowSource.of(rows), "test", scheduler,
+                    result -> assertTrue(progress.getCompletedCount() >= 1), progress);
+
+            assertEquals(6, metrics.successCount(), metrics.failures().toString());
+            assertEquals(6, progress.getSuccessCount());
+            assertEquals(6, progress.getStepLatencies(ActionType.LOGIN).getTotalCount());
+            LatencyHistogram waits = progress.getStepLatencies(ActionType.WAIT);
+            assertEquals(6, waits.getTotalCount());
+            assertTrue(waits.getMin() >= 20, waits.toString());
+            assertEquals(0, progress.getStepLatencies(ActionType.FILL).getTotalCount());
+            assertTrue(metrics.p50LatencyMs() >= 20);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.interfaces.HeadlessSessionPool;
+import org.hti5250j.session.DefaultHeadlessSessionPool;
+import org.hti5250j.simulator.HostSimulator;
+import org.hti5250j.simulator.TestHosts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Row admission by {@link BatchScheduler}: per-host limits, the session
+ * ramp, lanes and the workflow timeout.
+ */
+public class BatchSchedulerTest {
+
+    // no idle sessions, so every row counts as opening one
+    private final HeadlessSessionPool emptyPool = new DefaultHeadlessSessionPool();
+
+    private static WorkflowResult take(BlockingQueue<WorkflowResult> results) throws InterruptedException {
+        WorkflowResult result = results.poll(10, TimeUnit.SECONDS);
+        assertNotNull(result, "no result within 10s");
+        return result;
+    }
+
+    private static Supplier<WorkflowResult> holding(String rowKey, CountDownLatch release) {
+        return () -> {
+            try {
+                release.await();
+                return WorkflowResult.success(rowKey, 0, "/" + rowKey);
+            } catch (InterruptedException e) {
+                return WorkflowResult.failure(rowKey, 0, e);
+            }
+        };
+    }
+
+    @Test
+    @Timeout(30)
+    public void testRunningRowsStayWithinEachHostLimit() throws Exception {
+        AtomicInteger runningA = new AtomicInteger();
+        AtomicInteger runningB = new AtomicInteger();
+        AtomicInteger peakA = new AtomicInteger();
+        AtomicInteger peakB = new AtomicInteger();
+        BlockingQueue<WorkflowResult> results = new LinkedBlockingQueue<>();
+
+        try (BatchScheduler scheduler = BatchScheduler.builder()
+                .maxSessionsPerHost(3)
+                .hostLimit("hostB", 2)
+                .rampInterval(Duration.ZERO)
+                .build()) {
+            for (int i = 0; i < 40; i++) {
+                boolean onA = i % 2 == 0;
+                String host = onA ? "hostA" : "hostB";
+                AtomicInteger running = onA ? runningA : runningB;
+                AtomicInteger peak = onA ? peakA : peakB;
+                String rowKey = "row" + i;
+                scheduler.submit(this, host, emptyPool, rowKey, BatchScheduler.Lane.NORMAL, () -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    return WorkflowResult.success(rowKey, 5, "/" + rowKey);
+                }, results::add);
+            }
+            for (int i = 0; i < 40; i++) {
+                assertTrue(take(results).success());
+            }
+
+            assertEquals(3, peakA.get());
+            assertEquals(2, peakB.get());
+            assertEquals(0, scheduler.getQueuedCount("hostA"));
+            assertEquals(0, scheduler.getQueuedCount("hostB"));
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    public void testHigherLanesStartFirst() throws Exception {
+        List<String> started = new CopyOnWriteArrayList<>();
+        BlockingQueue<WorkflowResult> results = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (BatchScheduler scheduler = BatchScheduler.builder()
+                .maxSessionsPerHost(1)
+                .rampInterval(Duration.ZERO)
+                .build()) {
+            scheduler.submit(this, "host", emptyPool, "first", BatchScheduler.Lane.LOW,
+                    holding("first", release), results::add);
+            String[] rows = {"low1", "normal1", "high1", "low2", "high2", "normal2"};
+            for (String rowKey : rows) {
+                BatchScheduler.Lane lane = BatchScheduler.Lane.valueOf(
+                        rowKey.substring(0, rowKey.length() - 1).toUpperCase());
+                scheduler.submit(this, "host", emptyPool, rowKey, lane, () -> {
+                    started.add(rowKey);
+                    return WorkflowResult.success(rowKey, 0, "/" + rowKey);
+                }, results::add);
+            }
+            assertEquals(6, scheduler.getQueuedCount("host"));
+
+            release.countDown();
+            for (int i = 0; i <= rows.length; i++) {
+                take(results);
+            }
+        }
+
+        assertEquals(List.of("high1", "high2", "normal1", "normal2", "low1", "low2"), started);
+    }
+
+    @Test
+    @Timeout(30)
+    public void testNewSessionsOpenAtTheRampRate() throws Exception {
+        List<Long> starts = new CopyOnWriteArrayList<>();
+        BlockingQueue<WorkflowResult> results = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (BatchScheduler scheduler = BatchScheduler.builder()
+                .maxSessionsPerHost(4)
+                .rampInterval(Duration.ofMillis(60))
+                .build()) {
+            for (int i = 0; i < 4; i++) {
+                String rowKey = "row" + i;
+                Supplier<WorkflowResult> hold = holding(rowKey, release);
+                scheduler.submit(this, "host", emptyPool, rowKey, BatchScheduler.Lane.NORMAL, () -> {
+                    starts.add(System.nanoTime());
+                    return hold.get();
+                }, results::add);
+            }
+            assertEquals(1, scheduler.getRunningCount("host"));
+            while (starts.size() < 4) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (int i = 0; i < 4; i++) {
+                take(results);
+            }
+        }
+
+        List<Long> sorted = new ArrayList<>(starts);
+        sorted.sort(null);
+        for (int i = 1; i < sorted.size(); i++) {
+            long gapMs = (sorted.get(i) - sorted.get(i - 1)) / 1_000_000;
+            assertTrue(gapMs >= 40, "sessions opened " + gapMs + "ms apart");
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    public void testRowOverTimeoutFailsAndFreesItsPlace() throws Exception {
+        BlockingQueue<WorkflowResult> results = new LinkedBlockingQueue<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        try (BatchScheduler scheduler = BatchScheduler.builder()
+                .maxSessionsPerHost(1)
+                .rampInterval(Duration.ZERO)
+                .workflowTimeout(Duration.ofMillis(100))
+                .build()) {
+            scheduler.submit(this, "host", emptyPool, "stuck", BatchScheduler.Lane.NORMAL, () -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return WorkflowResult.success("stuck", 0, "/stuck");
+            }, results::add);
+            scheduler.submit(this, "host", emptyPool, "next", BatchScheduler.Lane.NORMAL,
+                    () -> WorkflowResult.success("next", 0, "/next"), results::add);
+
+            WorkflowResult timedOut = take(results);
+            assertEquals("stuck", timedOut.rowKey());
+            assertFalse(timedOut.success());
+            assertInstanceOf(TimeoutException.class, timedOut.error());
+            assertTrue(timedOut.latencyMs() >= 100);
+
+            WorkflowResult next = take(results);
+            assertEquals("next", next.rowKey());
+            assertTrue(next.success());
+            assertTrue(interrupted.get());
+            assertNull(results.poll(200, TimeUnit.MILLISECONDS), "stuck row reported twice");
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    public void testCloseFailsRowsNotStarted() throws Exception {
+        BlockingQueue<WorkflowResult> results = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        BatchScheduler scheduler = BatchScheduler.builder()
+                .maxSessionsPerHost(1)
+                .rampInterval(Duration.ZERO)
+                .build();
+        scheduler.submit(this, "host", emptyPool, "running", BatchScheduler.Lane.NORMAL,
+                holding("running", release), results::add);
+        scheduler.submit(this, "host", emptyPool, "waiting", BatchScheduler.Lane.NORMAL,
+                holding("waiting", release), results::add);
+
+        scheduler.close();
+
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            WorkflowResult result = take(results);
+            assertFalse(result.success());
+            failed.add(result.rowKey());
+        }
+        assertTrue(failed.containsAll(List.of("running", "waiting")));
+        assertThrows(IllegalStateException.class, () -> scheduler.submit(this, "host", emptyPool, "late",
+                BatchScheduler.Lane.NORMAL, holding("late", release), results::add));
+    }
+
+    @Test
+    @Timeout(60)
+    public void testBatchReusesSignedOnSessionsWithinHostLimit(@TempDir File artifacts) throws Exception {
+        WorkflowSchema workflow = TestHosts.workflow("ScheduledBatch");
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            rows.put("row" + i, Map.of("n", String.valueOf(i)));
+        }
+
+        try (HostSimulator host = TestHosts.startAtSignOn();
+             BatchScheduler scheduler = TestHosts.scheduler(host, 2, artifacts)
+                     .rampInterval(Duration.ofMillis(20))
+                     .build()) {
+            BatchMetrics metrics = BatchExecutor.executeAll(workflow, rows, "test", scheduler);
+
+            assertEquals(8, metrics.successCount(), metrics.failures().toString());
+            // a second session opens only if the first is still busy when the ramp allows it,
+            // so one or two sign-ons are both correct; an exact count would be timing-dependent
+            long signOns = host.getAidCount();
+            assertTrue(signOns >= 1 && signOns <= 2,
+                    "Rows should reuse at most two signed-on sessions, signed on " + signOns);
+            // a row's place frees just after its result is in
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (scheduler.getRunningCount("127.0.0.1") > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, scheduler.getRunningCount("127.0.0.1"));
+        }
+    }
+}
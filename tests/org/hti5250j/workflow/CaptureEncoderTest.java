@@ -0,0 +1,136 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import org.hti5250j.HTI5250jConstants;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class CaptureEncoderTest {
+
+    private static final int ROWS = 3;
+    private static final int COLS = 10;
+
+    private static ScreenSnapshot snapshot(String... rows) {
+        ScreenSnapshot snapshot = mock(ScreenSnapshot.class);
+        when(snapshot.getRows()).thenReturn(ROWS);
+        when(snapshot.getColumns()).thenReturn(COLS);
+        when(snapshot.getScreenLength()).thenReturn(ROWS * COLS);
+        when(snapshot.getVersion()).thenReturn(7L);
+
+        char[] text = new char[ROWS * COLS];
+        Arrays.fill(text, ' ');
+        for (int row = 0; row < rows.length; row++) {
+            rows[row].getChars(0, rows[row].length(), text, row * COLS);
+        }
+        when(snapshot.getPlane(anyInt())).thenReturn(new char[ROWS * COLS]);
+        when(snapshot.getPlane(HTI5250jConstants.PLANE_TEXT)).thenReturn(text);
+        when(snapshot.getRowText(anyInt())).thenAnswer(call -> {
+            int row = call.getArgument(0);
+            return new String(text, row * COLS, COLS);
+        });
+        return snapshot;
+    }
+
+    @Test
+    void textPolicyWritesOnlyTheTextDump(@TempDir File tempDir) throws Exception {
+        CaptureEncoder.Capture capture;
+        try (CaptureEncoder encoder = CaptureEncoder.builder().policy(CaptureEncoder.Policy.TEXT).build()) {
+            capture = encoder.submit(snapshot("MAIN MENU", "1. Orders"), tempDir, "menu", null);
+        }
+
+        assertThat(capture.isDropped()).isFalse();
+        assertThat(capture.imageFile()).isNull();
+        assertThat(Files.readAllLines(capture.textFile().toPath()))
+            .containsExactly("MAIN MENU ", "1. Orders ", "          ");
+        assertThat(tempDir.list()).containsExactly("menu.txt");
+    }
+
+    @Test
+    void snapshotPolicyWritesPlanesThatReadBack(@TempDir File tempDir) throws Exception {
+        CaptureEncoder.Capture capture;
+        try (CaptureEncoder encoder = CaptureEncoder.builder().policy(CaptureEncoder.Policy.SNAPSHOT).build()) {
+            capture = encoder.submit(snapshot("SIGN ON", "", "User"), tempDir, "signon", null);
+            assertThat(capture.policy()).isEqualTo(CaptureEncoder.Policy.SNAPSHOT);
+            assertThat(capture.degraded()).isFalse();
+        }
+
+        assertThat(capture.imageFile()).hasName("signon.planes").exists();
+        PlaneCapture planes = PlaneCapture.read(capture.imageFile());
+        assertThat(planes.getVersion()).isEqualTo(7L);
+        assertThat(planes.getRows()).isEqualTo(ROWS);
+        assertThat(planes.getColumns()).isEqualTo(COLS);
+        assertThat(planes.getRowText(0)).isEqualTo("SIGN ON   ");
+        assertThat(planes.getRowText(2)).isEqualTo("User      ");
+    }
+
+    @Test
+    void readRejectsOtherFiles(@TempDir File tempDir) throws Exception {
+        File notPlanes = new File(tempDir, "other.planes");
+        Files.writeString(notPlanes.toPath(), "not a capture at all");
+
+        assertThatThrownBy(() -> PlaneCapture.read(notPlanes)).isInstanceOf(java.io.IOException.class);
+    }
+
+    @Test
+    void degradesThenDropsWhenTheEncoderFallsBehind(@TempDir File tempDir) throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ScreenSnapshot slow = snapshot("SLOW");
+        when(slow.getRowText(anyInt())).thenAnswer(call -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return " ".repeat(COLS);
+        });
+
+        try (CaptureEncoder encoder = CaptureEncoder.builder()
+                .policy(CaptureEncoder.Policy.PNG)
+                .threads(1)
+                .queueCapacity(2)
+                .build()) {
+            assertThat(encoder.submit(slow, tempDir, "a", null).policy()).isEqualTo(CaptureEncoder.Policy.PNG);
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            CaptureEncoder.Capture second = encoder.submit(snapshot("B"), tempDir, "b", null);
+            CaptureEncoder.Capture third = encoder.submit(snapshot("C"), tempDir, "c", null);
+            CaptureEncoder.Capture fourth = encoder.submit(snapshot("D"), tempDir, "d", null);
+            release.countDown();
+
+            assertThat(second.policy()).isEqualTo(CaptureEncoder.Policy.PNG);
+            assertThat(third.policy()).isEqualTo(CaptureEncoder.Policy.SNAPSHOT);
+            assertThat(third.degraded()).isTrue();
+            assertThat(third.imageFile()).hasName("c.planes");
+            assertThat(fourth.isDropped()).isTrue();
+
+            encoder.close();
+            assertThat(encoder.getDegradedCount()).isEqualTo(1);
+            assertThat(encoder.getDroppedCount()).isEqualTo(1);
+            assertThat(new File(tempDir, "c.planes")).exists();
+            assertThat(new File(tempDir, "d.txt")).doesNotExist();
+        }
+    }
+
+    @Test
+    void submitAfterCloseIsRefused(@TempDir File tempDir) {
+        CaptureEncoder encoder = CaptureEncoder.builder().build();
+        encoder.close();
+
+        assertThatThrownBy(() -> encoder.submit(snapshot("X"), tempDir, "x", null))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
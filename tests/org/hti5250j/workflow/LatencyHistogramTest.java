@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Percentiles from fixed buckets: exact for small values, within 1/64
+ * above, and the same after merging or encoding.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100; v++) {
+            histogram.record(v);
+        }
+
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(100, histogram.getTotalCount());
+    }
+
+    @Test
+    public void testLargeValuesWithinOneBucket() {
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported <= exact + exact / 64,
+                    "p" + percentile + ": " + reported + " for " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+        assertEquals(values[0], histogram.getMin());
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long v : new long[] {127, 128, 129, 255, 256, 1L << 40, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            assertTrue(LatencyHistogram.highestValueIn(bucket) >= v, "bucket of " + v);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.highestValueIn(bucket - 1) < v, "bucket below " + v);
+            }
+        }
+    }
+
+    @Test
+    public void testMergedRunsMatchOneRun() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        LatencyHistogram both = new LatencyHistogram();
+        for (long v = 0; v < 5000; v += 7) {
+            (v % 2 == 0 ? first : second).record(v);
+            both.record(v);
+        }
+
+        LatencyHistogram merged = first.copy().add(second);
+
+        assertEquals(both.getTotalCount(), merged.getTotalCount());
+        assertEquals(both.getMin(), merged.getMin());
+        assertEquals(both.getMax(), merged.getMax());
+        assertEquals(both.getMean(), merged.getMean(), 1e-9);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            assertEquals(both.getValueAtPercentile(percentile), merged.getValueAtPercentile(percentile));
+        }
+    }
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v : new long[] {3, 3, 250, 9000, 120_000}) {
+            histogram.record(v);
+        }
+
+        LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+
+        assertEquals(histogram.toString(), decoded.toString());
+        assertEquals(histogram.getMean(), decoded.getMean(), 1e-9);
+        assertEquals(3, decoded.getMin());
+        assertThrows(IllegalArgumentException.class, () -> LatencyHistogram.decode(new byte[] {1, 2, 3}));
+        byte[] truncated = Arrays.copyOf(histogram.encode(), 40);
+        assertThrows(IllegalArgumentException.class, () -> LatencyHistogram.decode(truncated));
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, LatencyHistogram.decode(histogram.encode()).getTotalCount());
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+
+    @Test
+    public void testEqualByCounts() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (long v : new long[] {5, 130, 9000}) {
+            a.record(v);
+            b.record(v);
+        }
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a, LatencyHistogram.decode(a.encode()));
+        b.record(5);
+        assertNotEquals(a, b);
+        assertEquals(new LatencyHistogram(), new LatencyHistogram());
+    }
+}
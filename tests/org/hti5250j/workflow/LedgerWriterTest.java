@@ -0,0 +1,225 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+package org.hti5250j.workflow;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class LedgerWriterTest {
+
+    private static byte[] line(String text) {
+        return (text + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void linesFromManyThreadsAreAllWrittenInOrderPerThread(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, "ledger.jsonl");
+        int threads = 8;
+        int perThread = 2_000;
+
+        try (LedgerWriter ledgers = LedgerWriter.builder().build()) {
+            LedgerWriter.Ledger ledger = ledgers.open(file);
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                producers.add(Thread.ofVirtual().start(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        try {
+                            ledger.append(line(id + ":" + i));
+                        } catch (Exception e) {
+                            throw new AssertionError(e);
+                        }
+                    }
+                }));
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            ledger.close();
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertThat(lines).hasSize(threads * perThread);
+        int[] next = new int[threads];
+        for (String written : lines) {
+            String[] parts = written.split(":");
+            int id = Integer.parseInt(parts[0]);
+            assertThat(Integer.parseInt(parts[1])).isEqualTo(next[id]);
+            next[id]++;
+        }
+    }
+
+    @Test
+    void flushWritesLinesAppendedBeforeIt(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, "ledger.jsonl");
+
+        try (LedgerWriter ledgers = LedgerWriter.builder()
+                .syncPolicy(LedgerWriter.SyncPolicy.GROUP_COMMIT)
+                .build()) {
+            LedgerWriter.Ledger ledger = ledgers.open(file);
+            ledger.append(line("first"));
+            ledger.append(line("second"));
+            ledgers.flush();
+
+            assertThat(Files.readAllLines(file.toPath())).containsExactly("first", "second");
+        }
+    }
+
+    @Test
+    void intervalSyncStillWritesOnFlush(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, "ledger.jsonl");
+
+        try (LedgerWriter ledgers = LedgerWriter.builder()
+                .syncPolicy(LedgerWriter.SyncPolicy.INTERVAL)
+                .syncInterval(java.time.Duration.ofHours(1))
+                .build()) {
+            ledgers.open(file).append(line("only"));
+            ledgers.flush();
+
+            assertThat(Files.readAllLines(file.toPath())).containsExactly("only");
+        }
+    }
+
+    @Test
+    void oneWriterServesSeveralFiles(@TempDir File tempDir) throws Exception {
+        File a = new File(tempDir, "a.jsonl");
+        File b = new File(tempDir, "b.jsonl");
+
+        try (LedgerWriter ledgers = LedgerWriter.builder().build();
+             LedgerWriter.Ledger ledgerA = ledgers.open(a);
+             LedgerWriter.Ledger ledgerB = ledgers.open(b)) {
+            ledgerA.append(line("a1"));
+            ledgerB.append(line("b1"));
+            ledgerA.append(line("a2"));
+        }
+
+        assertThat(Files.readAllLines(a.toPath())).containsExactly("a1", "a2");
+        assertThat(Files.readAllLines(b.toPath())).containsExactly("b1");
+    }
+
+    @Test
+    void appendsToAnExistingFile(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, "ledger.jsonl");
+        Files.writeString(file.toPath(), "earlier\n");
+
+        try (LedgerWriter ledgers = LedgerWriter.builder().build()) {
+            ledgers.open(file).append(line("later"));
+        }
+
+        assertThat(Files.readAllLines(file.toPath())).containsExactly("earlier", "later");
+    }
+
+    @Test
+    void rotatesFilesThatReachMaxSize(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, "execution-ledger.jsonl");
+
+        try (LedgerWriter ledgers = LedgerWriter.builder().maxFileBytes(20).build()) {
+            LedgerWriter.Ledger ledger = ledgers.open(file);
+            for (int i = 0; i < 10; i++) {
+                ledger.append(line("line-" + i));   // 7 bytes each
+            }
+        }
+
+        File first = new File(tempDir, "execution-ledger.1.jsonl");
+        assertThat(first).exists();
+        assertThat(Files.readAllLines(first.toPath())).containsExactly("line-0", "line-1");
+
+        List<String> all = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int generation = 1; generation <= 4; generation++) {
+            File rotated = new File(tempDir, "execution-ledger." + generation + ".jsonl");
+            assertThat(rotated.length()).isLessThanOrEqualTo(20);
+            all.addAll(Files.readAllLines(rotated.toPath()));
+            names.add(rotated.getName());
+        }
+        all.addAll(Files.readAllLines(file.toPath()));
+        assertThat(names).hasSize(4);
+        assertThat(all).hasSize(10).startsWith("line-0").endsWith("line-9");
+    }
+
+    @Test
+    void lineLongerThanMaxSizeGetsAFileOfItsOwn(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, "ledger.jsonl");
+        String longLine = "x".repeat(100);
+
+        try (LedgerWriter ledgers = LedgerWriter.builder().maxFileBytes(10).build()) {
+            LedgerWriter.Ledger ledger = ledgers.open(file);
+            ledger.append(line("short"));
+            ledger.append(line(longLine));
+        }
+
+        assertThat(Files.readAllLines(new File(tempDir, "ledger.1.jsonl").toPath())).containsExactly("short");
+        assertThat(Files.readAllLines(file.toPath())).containsExactly(longLine);
+    }
+
+    @Test
+    void appendAfterCloseIsRefused(@TempDir File tempDir) throws Exception {
+        LedgerWriter ledgers = LedgerWriter.builder().build();
+        LedgerWriter.Ledger ledger = ledgers.open(new File(tempDir, "ledger.jsonl"));
+        ledger.close();
+
+        assertThatThrownBy(() -> ledger.append(line("late"))).isInstanceOf(IllegalStateException.class);
+
+        ledgers.close();
+        assertThatThrownBy(() -> ledgers.open(new File(tempDir, "other.jsonl")))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void writeFailureIsReportedOnFlush(@TempDir File tempDir) throws Exception {
+        // a directory cannot be opened for writing
+        File notAFile = new File(tempDir, "ledger.jsonl");
+        assertThat(notAFile.mkdir()).isTrue();
+
+        try (LedgerWriter ledgers = LedgerWriter.builder().build()) {
+            ledgers.open(notAFile).append(line("lost"));
+
+            assertThatThrownBy(ledgers::flush).isInstanceOf(java.io.IOException.class);
+        } catch (java.io.IOException expectedOnClose) {
+            assertThat(expectedOnClose).hasMessageContaining("Ledger write failed");
+        }
+    }
+
+    @Test
+    void failedLedgerDoesNotStopAnotherFromRotating(@TempDir File tempDir) throws Exception {
+        // a directory cannot be opened for writing
+        File notAFile = new File(tempDir, "broken.jsonl");
+        assertThat(notAFile.mkdir()).isTrue();
+        File file = new File(tempDir, "healthy.jsonl");
+
+        LedgerWriter ledgers = LedgerWriter.builder().maxFileBytes(20).build();
+        LedgerWriter.Ledger broken = ledgers.open(notAFile);
+        broken.append(line("lost"));
+        assertThatThrownBy(ledgers::flush).isInstanceOf(java.io.IOException.class);
+        assertThatThrownBy(() -> broken.append(line("refused"))).isInstanceOf(java.io.IOException.class);
+
+        LedgerWriter.Ledger healthy = ledgers.open(file);
+        for (int i = 0; i < 10; i++) {
+            healthy.append(line("line-" + i));   // 7 bytes each
+        }
+        assertThatThrownBy(ledgers::close).hasMessageContaining("Ledger write failed");
+
+        List<String> all = new ArrayList<>();
+        for (int generation = 1; generation <= 4; generation++) {
+            File rotated = new File(tempDir, "healthy." + generation + ".jsonl");
+            assertThat(rotated.length()).isLessThanOrEqualTo(20);
+            all.addAll(Files.readAllLines(rotated.toPath()));
+        }
+        all.addAll(Files.readAllLines(file.toPath()));
+        assertThat(all).hasSize(10).startsWith("line-0").endsWith("line-9");
+    }
+}
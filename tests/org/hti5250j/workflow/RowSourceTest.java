@@ -0,0 +1,193 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.workflow;
+
+import org.hti5250j.simulator.HostSimulator;
+import org.hti5250j.simulator.TestHosts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Datasets read a row at a time, and batches that read them only as they
+ * have room.
+ */
+public class RowSourceTest {
+
+    private static File writeCsv(File dir, String... lines) throws Exception {
+        File csv = new File(dir, "data.csv");
+        try (FileWriter fw = new FileWriter(csv)) {
+            for (String line : lines) {
+                fw.write(line);
+                fw.write('\n');
+            }
+        }
+        return csv;
+    }
+
+    @Test
+    public void testCsvRowsShareTheHeader(@TempDir File tempDir) throws Exception {
+        File csv = writeCsv(tempDir, "account_id,amount,description", "123,100.00,Payment", "456,250.50,Refund");
+
+        List<DataRow> rows = new ArrayList<>();
+        try (RowSource source = new DatasetLoader().openCSV(csv)) {
+            while (source.hasNext()) {
+                rows.add(source.next());
+            }
+        }
+
+        assertEquals(2, rows.size());
+        assertSame(rows.get(0).header(), rows.get(1).header());
+        assertEquals("123", rows.get(0).key());
+        assertEquals("250.50", rows.get(1).get("amount"));
+        assertNull(rows.get(1).get("missing"));
+        assertEquals(List.of("account_id", "amount", "description"), new ArrayList<>(rows.get(0).keySet()));
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("account_id", "456");
+        expected.put("amount", "250.50");
+        expected.put("description", "Refund");
+        assertEquals(expected, rows.get(1));
+        assertEquals(expected.hashCode(), rows.get(1).hashCode());
+        assertThrows(UnsupportedOperationException.class, () -> rows.get(0).put("amount", "0"));
+    }
+
+    @Test
+    public void testLoadCsvKeepsLastRowPerKey(@TempDir File tempDir) throws Exception {
+        File csv = writeCsv(tempDir, "id,value", "a,1", "b,2", "a,3");
+
+        Map<String, Map<String, String>> loaded = new DatasetLoader().loadCSV(csv);
+
+        assertEquals(List.of("a", "b"), new ArrayList<>(loaded.keySet()));
+        assertEquals("3", loaded.get("a").get("value"));
+    }
+
+    @Test
+    public void testShortRecordFailsWhenReached(@TempDir File tempDir) throws Exception {
+        File csv = writeCsv(tempDir, "id,value", "a,1", "b");
+
+        try (RowSource source = new DatasetLoader().openCSV(csv)) {
+            assertEquals("a", source.next().key());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, source::next);
+            assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMapRowsWithSameColumnsShareAHeader() {
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        rows.put("r1", Map.of("n", "1"));
+        rows.put("r2", Map.of("n", "2"));
+        rows.put("r3", Map.of("m", "3"));
+
+        try (RowSource source = RowSource.of(rows)) {
+            DataRow first = source.next();
+            DataRow second = source.next();
+            DataRow third = source.next();
+
+            assertSame(first.header(), second.header());
+            assertNotSame(first.header(), third.header());
+            assertEquals("r2", second.key());
+            assertEquals("3", third.get("m"));
+            assertFalse(source.hasNext());
+        }
+    }
+
+    @Test
+    public void testBatchWithoutLoginStepReportsEveryRow() throws Exception {
+        WorkflowSchema workflow = new WorkflowSchema();
+        workflow.setName("NoLogin");
+        workflow.setSteps(new ArrayList<>());
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            rows.put("row" + i, Map.of("n", String.valueOf(i)));
+        }
+        List<String> reported = new ArrayList<>();
+
+        try (BatchScheduler scheduler = BatchScheduler.builder().build()) {
+            BatchMetrics metrics = BatchExecutor.executeAll(workflow, RowSource.of(rows), "test", scheduler,
+                    result -> reported.add(result.rowKey()));
+
+            assertEquals(5, metrics.failureCount());
+            assertEquals(new ArrayList<>(rows.keySet()), reported);
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    public void testBatchReadsRowsOnlyAsItHasRoom(@TempDir File artifacts) throws Exception {
+        WorkflowSchema workflow = TestHosts.workflow("StreamedBatch");
+        int rowCount = 40;
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger reported = new AtomicInteger();
+        AtomicInteger mostAhead = new AtomicInteger();
+        RowSource counting = new RowSource() {
+            private final DataRow.Header header = new DataRow.Header(List.of("n"));
+
+            @Override
+            public boolean hasNext() {
+                return read.get() < rowCount;
+            }
+
+            @Override
+            public DataRow next() {
+                int n = read.incrementAndGet();
+                mostAhead.accumulateAndGet(n - reported.get(), Math::max);
+                return new DataRow("row" + n, header, new String[] {String.valueOf(n)});
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (HostSimulator host = TestHosts.startAtMenu();
+             BatchScheduler scheduler = TestHosts.scheduler(host, 2, artifacts).build()) {
+            BatchMetrics metrics = BatchExecutor.executeAll(workflow, counting, "test", scheduler,
+                    result -> reported.incrementAndGet());
+
+            assertEquals(rowCount, metrics.successCount(), metrics.failures().toString());
+            assertEquals(rowCount, reported.get());
+            assertTrue(mostAhead.get() <= 4, "read " + mostAhead.get() + " rows ahead of their results");
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    public void testBatchSkipsRowsWithARepeatedKey(@TempDir File tempDir) throws Exception {
+        WorkflowSchema workflow = TestHosts.workflow("RepeatedKeys");
+        File csv = writeCsv(tempDir, "id,value", "a,1", "b,2", "a,3", "b,4", "c,5");
+        File artifacts = new File(tempDir, "artifacts");
+        List<String> reported = new ArrayList<>();
+
+        try (HostSimulator host = TestHosts.startAtMenu();
+             BatchScheduler scheduler = TestHosts.scheduler(host, 2, artifacts).build();
+             RowSource rows = new DatasetLoader().openCSV(csv)) {
+            BatchMetrics metrics = BatchExecutor.executeAll(workflow, rows, "test", scheduler,
+                    result -> reported.add(result.rowKey()));
+
+            assertEquals(3, metrics.successCount(), metrics.failures().toString());
+            assertEquals(List.of("a", "b", "c"), reported.stream().sorted().toList());
+            assertEquals(List.of("RepeatedKeys_a", "RepeatedKeys_b", "RepeatedKeys_c"),
+                    Arrays.stream(artifacts.list()).sorted().toList());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * SPDX-FileCopyrightText: 2026 Eric C. Mumford <ericmumford@outlook.com>
+ *
+ * SPDX-License-Identifier: GPL-2.0-or-later
+ */
+
+
+
+
+package org.hti5250j.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiled screen checks must agree with {@code String.contains} on the
+ * flattened screen text, and with the screen layout for positioned checks.
+ */
+public class ScreenMatcherTest {
+
+    private static final int COLS = 80;
+
+    private static String screen(String... rows) {
+        StringBuilder sb = new StringBuilder();
+        for (String row : rows) {
+            sb.append(String.format("%-" + COLS + "s", row));
+        }
+        while (sb.length() < 24 * COLS) {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testAllTextsMustBePresent() {
+        String text = screen("                              MAIN MENU", "", "  1. Work with orders", "",
+                " F3=Exit   F12=Cancel");
+
+        assertTrue(ScreenMatcher.containsAll(List.of("MAIN MENU", "F3=Exit")).matches(text, COLS));
+        assertTrue(ScreenMatcher.containsAll(List.of("orders", "F12=Cancel", "Work")).matches(text, COLS));
+        assertFalse(ScreenMatcher.containsAll(List.of("MAIN MENU", "F4=Prompt")).matches(text, COLS));
+    }
+
+    @Test
+    public void testOverlappingAndNestedTexts() {
+        String text = "xxabcabdxx";
+
+        assertTrue(ScreenMatcher.containsAll(List.of("abd", "cab", "b", "abcabd")).matches(text, 10));
+        assertFalse(ScreenMatcher.containsAll(List.of("abd", "abcabe")).matches(text, 10));
+        assertTrue(ScreenMatcher.containsAll(List.of("abd", "abd")).matches(text, 10));
+    }
+
+    @Test
+    public void testEmptyTextAndNoTextsAlwaysMatch() {
+        assertTrue(ScreenMatcher.containsAll(List.of("")).matches("anything", 8));
+        assertTrue(ScreenMatcher.builder().build().matches("", 80));
+    }
+
+    @Test
+    public void testTextMaySpanRowsLikeStringContains() {
+        String text = String.format("%80s", "END OF") + " ROW";
+
+        assertTrue(ScreenMatcher.containsAll(List.of("END OF ROW")).matches(text, COLS));
+    }
+
+    @Test
+    public void testCharactersOutsideLatin1() {
+        String text = "Bestellung € 12 日本";
+
+        assertTrue(ScreenMatcher.containsAll(List.of("€ 12", "日本")).matches(text, 20));
+        assertFalse(ScreenMatcher.containsAll(List.of("本日")).matches(text, 20));
+    }
+
+    @Test
+    public void testAgreesWithStringContains() {
+        Random random = new Random(5250);
+        for (int round = 0; round < 500; round++) {
+            char[] chars = new char[200];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = "ABC é一".charAt(random.nextInt(6));
+            }
+            String text = new String(chars);
+            List<String> texts = new ArrayList<>();
+            for (int t = random.nextInt(5); t >= 0; t--) {
+                int length = 1 + random.nextInt(4);
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    sb.append("ABC é一X".charAt(random.nextInt(7)));
+                }
+                texts.add(sb.toString());
+            }
+
+            boolean expected = texts.stream().allMatch(text::contains);
+            assertEquals(expected, ScreenMatcher.containsAll(texts).matches(text, 20), texts.toString());
+        }
+    }
+
+    @Test
+    public void testTextAtRowAndColumn() {
+        String text = screen(" ORD100                    Work with Orders", "", "", "",
+                "", "      User  . . . . . QUSER");
+
+        assertTrue(ScreenMatcher.builder().at(1, 2, "ORD100").build().matches(text, COLS));
+        assertTrue(ScreenMatcher.builder().at(6, 23, "QUSER").build().matches(text, COLS));
+        assertFalse(ScreenMatcher.builder().at(1, 1, "ORD100").build().matches(text, COLS));
+        assertFalse(ScreenMatcher.builder().at(24, 79, "XYZ").build().matches(text, COLS));
+    }
+
+    @Test
+    public void testPatternWithinRow() {
+        String text = screen("Work with Orders", "", "", "", "", "", "", "", "", "", "",
+                "", "", "", "", "", "", "", "", "", "", "", "", "  42 records selected");
+
+        ScreenMatcher matcher = ScreenMatcher.builder()
+                .contains("Work with Orders")
+                .matches(24, "\\d+ records")
+                .build();
+
+        assertTrue(matcher.matches(text, COLS));
+        assertFalse(ScreenMatcher.builder().matches(23, "\\d+ records").build().matches(text, COLS));
+        assertThrows(IllegalArgumentException.class, () -> ScreenMatcher.builder().at(0, 1, "X"));
+    }
+
+    @Test
+    public void testCacheCompilesEachCheckOnce() {
+        ScreenMatcherCache cache = new ScreenMatcherCache();
+
+        ScreenMatcher first = cache.containsAll(List.of("MAIN", "F3=Exit"));
+        ScreenMatcher second = cache.containsAll(new ArrayList<>(List.of("MAIN", "F3=Exit")));
+
+        assertSame(first, second);
+        assertNotSame(first, cache.containsAll(List.of("MAIN")));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCacheStopsGrowingAtItsLimit() {
+        ScreenMatcherCache cache = new ScreenMatcherCache();
+        for (int i = 0; i < ScreenMatcherCache.MAX_ENTRIES + 10; i++) {
+            assertTrue(cache.containsAll(List.of("ORDER " + i)).matches("ORDER " + i, 80));
+        }
+
+        assertEquals(ScreenMatcherCache.MAX_ENTRIES, cache.size());
+    }
+}
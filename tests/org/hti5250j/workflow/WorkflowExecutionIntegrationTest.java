@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.hti5250j.Session5250;
+import org.hti5250j.framework.tn5250.KeyProgram;
 import org.hti5250j.framework.tn5250.Screen5250;
 import org.hti5250j.framework.tn5250.ScreenOIA;
 import java.io.File;
@@ -105,9 +106,9 @@ class WorkflowExecutionIntegrationTest {
 
         // Verify all steps executed
         verify(mockSession).connect();
-        verify(mockScreen, atLeastOnce()).sendKeys(contains("[home]"));
+        verify(mockScreen, atLeastOnce()).sendKeys(KeyProgram.compile("[home]"));
         verify(mockScreen, atLeastOnce()).sendKeys("ACC-123");
-        verify(mockScreen, atLeastOnce()).sendKeys("[enter]");
+        verify(mockScreen, atLeastOnce()).sendKeys(KeyProgram.compile("[enter]"));
     }
 
     /**
@@ -155,7 +156,7 @@ class WorkflowExecutionIntegrationTest {
         runner.executeWorkflow(workflow, Map.of());
 
         // Verify navigation
-        verify(mockScreen).sendKeys("[pf1]");
+        verify(mockScreen).sendKeys(KeyProgram.compile("[pf1]"));
     }
 
     /**
@@ -400,7 +401,7 @@ class WorkflowExecutionIntegrationTest {
         runner.executeWorkflow(workflow, data);
 
         // Verify substitutions happened
-        verify(mockScreen).sendKeys("[home]");
+        verify(mockScreen).sendKeys(KeyProgram.compile("[home]"));
         verify(mockScreen).sendKeys("ABC-456");
     }
 }
@@ -4,10 +4,14 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 
 import org.hti5250j.event.SessionListener;
+import org.hti5250j.framework.tn5250.FieldFill;
+import org.hti5250j.framework.tn5250.KeyProgram;
 import org.hti5250j.framework.tn5250.Screen5250;
 import org.hti5250j.framework.tn5250.ScreenOIA;
+import org.hti5250j.framework.tn5250.ScreenSnapshot;
 import org.hti5250j.interfaces.SessionInterface;
 import java.io.File;
 import java.util.Map;
@@ -179,6 +183,39 @@ class WorkflowHandlerTest {
         assertThat(files).isNotNull().isNotEmpty();
     }
 
+    /**
+     * Test handleCapture() with a CaptureEncoder only queues a snapshot and
+     * records the files it will write.
+     */
+    @Test
+    void testHandleCaptureQueuesSnapshotToEncoder(@TempDir File tempDir) throws Exception {
+        Screen5250 mockScreen = mock(Screen5250.class);
+        ScreenSnapshot snapshot = mock(ScreenSnapshot.class);
+        when(mockScreen.getSnapshot()).thenReturn(snapshot);
+        when(snapshot.getRows()).thenReturn(1);
+        when(snapshot.getColumns()).thenReturn(12);
+        when(snapshot.getScreenLength()).thenReturn(12);
+        when(snapshot.getRowText(0)).thenReturn("Order Entry ");
+
+        SessionInterface mockSession = createMockSessionWithScreen(mockScreen);
+        StepDef step = new StepDef();
+        step.setAction(ActionType.CAPTURE);
+        step.setName("order_entry");
+
+        try (CaptureEncoder captures = CaptureEncoder.builder().policy(CaptureEncoder.Policy.TEXT).build()) {
+            ArtifactCollector collector = new ArtifactCollector(tempDir, null, captures);
+            WorkflowRunner runner = new WorkflowRunner(mockSession, new DatasetLoader(), collector);
+            runner.executeStep(step, Map.of());
+        }
+
+        verify(mockScreen, never()).getScreenAsChars();
+        File[] texts = tempDir.listFiles((dir, name) -> name.startsWith("order_entry") && name.endsWith(".txt"));
+        assertThat(texts).hasSize(1);
+        assertThat(java.nio.file.Files.readString(texts[0].toPath())).isEqualTo("Order Entry \n");
+        assertThat(java.nio.file.Files.readString(new File(tempDir, "execution-ledger.jsonl").toPath()))
+            .contains("\"status\":\"Text: " + texts[0].getName() + "\"");
+    }
+
     /**
      * Test handleSubmit() sends key and waits for lock cycle.
      */
@@ -204,7 +241,7 @@ class WorkflowHandlerTest {
         runner.executeStep(step, Map.of());
 
         // Verify
-        verify(mockScreen).sendKeys("[enter]");
+        verify(mockScreen).sendKeys(KeyProgram.compile("[enter]"));
     }
 
     /**
@@ -230,12 +267,40 @@ class WorkflowHandlerTest {
         runner.executeStep(step, Map.of());
 
         // Verify HOME key sent first
-        verify(mockScreen).sendKeys("[home]");
+        verify(mockScreen).sendKeys(KeyProgram.compile("[home]"));
         // Verify both field values sent
         verify(mockScreen).sendKeys("12345");
         verify(mockScreen).sendKeys("100.00");
         // Verify tab sent once per field (2 fields = 2 tabs)
-        verify(mockScreen, times(2)).sendKeys("[tab]");
+        verify(mockScreen, times(2)).sendKeys(KeyProgram.compile("[tab]"));
+    }
+
+    /**
+     * Test handleFill() writes fields directly when every key addresses a field.
+     */
+    @Test
+    void testHandleFillWritesAddressedFieldsDirectly(@TempDir File tempDir) throws Exception {
+        Screen5250 mockScreen = mock(Screen5250.class);
+        ScreenOIA mockOIA = mock(ScreenOIA.class);
+        when(mockScreen.getOIA()).thenReturn(mockOIA);
+        when(mockOIA.isKeyBoardLocked()).thenReturn(false);
+
+        SessionInterface mockSession = createMockSessionWithScreen(mockScreen);
+        DatasetLoader loader = new DatasetLoader();
+        ArtifactCollector collector = new ArtifactCollector(tempDir);
+
+        StepDef step = new StepDef();
+        step.setAction(ActionType.FILL);
+        step.setFields(Map.of("#0", "${data.acc}", "8,30", "100.00", "label:Reference", "R-1"));
+
+        WorkflowRunner runner = new WorkflowRunner(mockSession, loader, collector);
+        runner.executeStep(step, Map.of("acc", "ACC-123"));
+
+        ArgumentCaptor<FieldFill> fill = ArgumentCaptor.forClass(FieldFill.class);
+        verify(mockScreen).fillFields(fill.capture());
+        assertThat(fill.getValue().size()).isEqualTo(3);
+        verify(mockScreen, never()).sendKeys(anyString());
+        verify(mockScreen, never()).sendKeys(any(KeyProgram.class));
     }
 
     /**
@@ -262,11 +327,11 @@ class WorkflowHandlerTest {
         runner.executeStep(step, data);
 
         // Verify substituted values sent
-        verify(mockScreen).sendKeys("[home]");
+        verify(mockScreen).sendKeys(KeyProgram.compile("[home]"));
         verify(mockScreen).sendKeys("ACC-123");
         verify(mockScreen).sendKeys("500.00");
         // Verify tab sent once per field (2 fields = 2 tabs)
-        verify(mockScreen, times(2)).sendKeys("[tab]");
+        verify(mockScreen, times(2)).sendKeys(KeyProgram.compile("[tab]"));
     }
 
     /**
@@ -321,7 +386,7 @@ class WorkflowHandlerTest {
         runner.executeStep(step, Map.of());
 
         // Verify keys sent
-        verify(mockScreen).sendKeys("[pf3]");
+        verify(mockScreen).sendKeys(KeyProgram.compile("[pf3]"));
     }
 
     /**